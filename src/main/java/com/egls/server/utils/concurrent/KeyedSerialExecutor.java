@@ -0,0 +1,145 @@
+package com.egls.server.utils.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ *     在一个线程池之上,按照键对任务进行串行化.
+ *
+ *     键相同的任务按照提交的顺序依次执行,同一时刻最多只有一个在运行;键不同的任务可以在线程池中并行执行.
+ *     每个键对应一条执行通道,通道中没有任务时会被自动移除,不会因为键的数量而无限增长.
+ *     线程池拒绝执行时,只有触发启动通道的那个任务抛出异常,其它线程已经排入这个通道的任务保留,
+ *     立即重试一次,仍然被拒绝时由这个键的下一次提交启动.
+ *
+ *     本类是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 13:02]
+ */
+public final class KeyedSerialExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyedSerialExecutor.class);
+
+    private final class Lane implements Runnable {
+
+        private final Object key;
+
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+
+        /**
+         * 是否已经交给线程池
+         */
+        private boolean scheduled = false;
+
+        private Lane(final Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final Runnable runnable;
+                synchronized (lanes) {
+                    runnable = queue.poll();
+                    if (runnable == null) {
+                        lanes.remove(key);
+                        return;
+                    }
+                }
+                try {
+                    runnable.run();
+                } catch (Throwable throwable) {
+                    LOGGER.error("KeyedSerialExecutor task error, key : " + key, throwable);
+                }
+            }
+        }
+
+    }
+
+    private final Executor executor;
+
+    /**
+     * 正在运行或者等待运行的通道
+     */
+    private final Map<Object, Lane> lanes = new HashMap<>();
+
+    public KeyedSerialExecutor(final Executor executor) {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * 提交一个任务
+     *
+     * @param key      串行化的键,不能为null
+     * @param runnable 任务
+     */
+    public void execute(final Object key, final Runnable runnable) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(runnable);
+        Lane startLane = null;
+        synchronized (lanes) {
+            Lane lane = lanes.get(key);
+            if (lane == null) {
+                lane = new Lane(key);
+                lanes.put(key, lane);
+            }
+            lane.queue.add(runnable);
+            if (!lane.scheduled) {
+                lane.scheduled = true;
+                startLane = lane;
+            }
+        }
+        if (startLane != null) {
+            try {
+                executor.execute(startLane);
+            } catch (RuntimeException exception) {
+                final boolean retry;
+                synchronized (lanes) {
+                    //只移除本次提交的任务,其它线程在这期间排入的任务保留
+                    startLane.queue.removeLastOccurrence(runnable);
+                    retry = !startLane.queue.isEmpty();
+                    if (!retry) {
+                        startLane.scheduled = false;
+                        lanes.remove(key);
+                    }
+                }
+                if (retry) {
+                    retrySchedule(startLane);
+                }
+                throw exception;
+            }
+        }
+    }
+
+    private void retrySchedule(final Lane lane) {
+        try {
+            executor.execute(lane);
+        } catch (RuntimeException exception) {
+            final int pending;
+            synchronized (lanes) {
+                lane.scheduled = false;
+                pending = lane.queue.size();
+            }
+            LOGGER.error("KeyedSerialExecutor reschedule error, " + pending + " tasks wait for next execute, key : " + lane.key, exception);
+        }
+    }
+
+    /**
+     * 获取当前活跃的通道数量
+     *
+     * @return 通道数量
+     */
+    public int getActiveLaneCount() {
+        synchronized (lanes) {
+            return lanes.size();
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.egls.server.utils.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ *     一个无锁的多生产者单消费者(MPSC)队列,基于链表实现.
+ *
+ *     生产者通过一次getAndSet将节点挂到队尾,不需要加锁,也不会互相阻塞.
+ *     消费者只能有一个,{@link #poll()}和{@link #drain(Consumer)}不会分配任何对象.
+ *
+ *     生产者刚刚完成getAndSet,还没有链接到前一个节点的瞬间,消费者会认为队列到此为止,
+ *     这个元素会在下一次消费时被取出,不会丢失.
+ *
+ *     {@link #offer(Object)}是线程安全的,消费方法必须保证同一时刻只有一个线程调用.不能添加null元素.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 11:40]
+ */
+public final class MpscLinkedQueue<E> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT_UPDATER = AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+    private static final class Node<E> {
+
+        private E value;
+
+        volatile Node<E> next;
+
+        private Node(final E value) {
+            this.value = value;
+        }
+
+    }
+
+    private final AtomicReference<Node<E>> tail;
+
+    /**
+     * 只有消费者访问,head本身是已经被消费的节点
+     */
+    private Node<E> head;
+
+    private final LongAdder offeredCount = new LongAdder();
+
+    private volatile long polledCount = 0L;
+
+    public MpscLinkedQueue() {
+        final Node<E> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * 添加一个元素,任意线程都可以调用
+     *
+     * @param element 元素
+     */
+    @SuppressWarnings("unchecked")
+    public void offer(final E element) {
+        Objects.requireNonNull(element);
+        final Node<E> node = new Node<>(element);
+        final Node<E> prev = tail.getAndSet(node);
+        NEXT_UPDATER.lazySet(prev, node);
+        offeredCount.increment();
+    }
+
+    /**
+     * 取出一个元素,只能由消费者调用
+     *
+     * @return 队首的元素, 没有元素时返回null
+     */
+    public E poll() {
+        final Node<E> next = head.next;
+        if (next == null) {
+            return null;
+        }
+        final E value = next.value;
+        //next成为新的head,断开引用方便回收
+        next.value = null;
+        head.next = null;
+        head = next;
+        polledCount++;
+        return value;
+    }
+
+    /**
+     * 取出当前所有可见的元素,只能由消费者调用
+     *
+     * @param consumer 元素的处理方法
+     * @return 取出的数量
+     */
+    public int drain(final Consumer<? super E> consumer) {
+        return drain(consumer, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 取出最多limit个元素,只能由消费者调用
+     *
+     * @param consumer 元素的处理方法
+     * @param limit    最多取出的数量
+     * @return 取出的数量
+     */
+    public int drain(final Consumer<? super E> consumer, final int limit) {
+        int count = 0;
+        E element;
+        while (count < limit && (element = poll()) != null) {
+            count++;
+            consumer.accept(element);
+        }
+        return count;
+    }
+
+    /**
+     * 队列是否为空,只能由消费者调用
+     */
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+
+    /**
+     * 获取队列的大致长度,任意线程都可以调用.并发时结果是一个近似值.
+     *
+     * @return 队列长度
+     */
+    public long size() {
+        return Math.max(0L, offeredCount.sum() - polledCount);
+    }
+
+}
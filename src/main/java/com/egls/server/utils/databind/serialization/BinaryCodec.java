@@ -0,0 +1,50 @@
+package com.egls.server.utils.databind.serialization;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * <pre>
+ *     一种类型在{@link BinarySerializer}中的写入和读取方法.
+ *     写入时null由{@link BinarySerializer#add(Object)}统一处理,读取时由每种类型自己处理.
+ *     与{@link SerializationCodec}一起缓存在{@link SerializationCodecs}中.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 18:40]
+ */
+interface BinaryCodec<T> {
+
+    static <T> BinaryCodec<T> of(final BiConsumer<BinarySerializer, T> writer, final Function<BinarySerializer, T> reader) {
+        Objects.requireNonNull(writer);
+        Objects.requireNonNull(reader);
+        return new BinaryCodec<T>() {
+            @Override
+            public void write(final BinarySerializer serializer, final T object) {
+                writer.accept(serializer, object);
+            }
+
+            @Override
+            public T read(final BinarySerializer serializer) {
+                return reader.apply(serializer);
+            }
+        };
+    }
+
+    /**
+     * 写入
+     *
+     * @param serializer 序列化工具对象
+     * @param object     不为null的对象
+     */
+    void write(final BinarySerializer serializer, final T object);
+
+    /**
+     * 读取
+     *
+     * @param serializer 序列化工具对象
+     * @return 对象, 可以为null
+     */
+    T read(final BinarySerializer serializer);
+
+}
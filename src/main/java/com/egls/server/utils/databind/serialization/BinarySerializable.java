@@ -0,0 +1,25 @@
+package com.egls.server.utils.databind.serialization;
+
+/**
+ * 表示一个可以二进制序列化的对象,是{@link Serializable}的二进制版本.接口的实现方法,是顺序方式进行序列化数据的.
+ * Note: 实现此接口的类,必须拥有一个无参构造器.
+ *
+ * @author mayer - [Created on 2026-10-18 17:30]
+ */
+public interface BinarySerializable {
+
+    /**
+     * 序列化方法,通过{@link BinarySerializer}将数据按顺序写入
+     *
+     * @param serializer 二进制序列化对象
+     */
+    void serialize(final BinarySerializer serializer);
+
+    /**
+     * 反序列化方法,通过{@link BinarySerializer}将数据按顺序读出
+     *
+     * @param serializer 二进制序列化对象
+     */
+    void deserialize(final BinarySerializer serializer);
+
+}
@@ -0,0 +1,1148 @@
+package com.egls.server.utils.databind.serialization;
+
+import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import com.egls.server.utils.CollectionUtil;
+import com.egls.server.utils.exception.UnsupportedTypeException;
+import com.egls.server.utils.structure.ByteBuffer;
+
+/**
+ * <pre>
+ *     二进制的序列化工具对象,是{@link Serializer}的二进制版本,与{@link BinarySerializable}配合使用.
+ *     数据直接写入{@link ByteBuffer}或者{@link java.nio.ByteBuffer},不产生中间的字符串.
+ *
+ *     格式:
+ *         byte,boolean: 1个字节.
+ *         short,int,long: zigzag编码的变长整数,每个字节7位有效数据;char: 变长整数.
+ *         float,double: 4个,8个字节,大端.
+ *         String: 变长整数的(UTF-8字节长度 + 1),然后是UTF-8的字节,0表示null.
+ *         枚举: 使用名字,按照String写入,调整枚举的顺序不会影响已经序列化的数据.
+ *         基础类型数组: 变长整数的(长度 + 1),然后是定长的原始数据,boolean数组每个元素1位,0表示null.
+ *         对象数组,Collection: 变长整数的(长度 + 1),然后每个元素按照{@link #add(Object)}的规则写入,0表示null.
+ *         Map: 变长整数的(长度 + 1),然后依次是每一对key和value,0表示null.
+ *         通过{@link #add(Object)}写入的包装类型和序列化对象: 先写入1个字节表示是否为null.
+ *
+ *     支持的类型与{@link Serializer#validateSupported(Class)}相同,另外支持{@link BinarySerializable}.
+ *     通过{@link SerializationCodecs}注册的自定义类型,按照String写入编码后的字符串.
+ *     实现了{@link BinarySerializable}的对象总是使用二进制的方式嵌套写入,只实现了{@link Serializable}的对象写入它的序列化字符串.
+ *     读取时必须按照写入的顺序和类型读取,数据中不包含类型信息.
+ *
+ *     写入{@link java.nio.ByteBuffer}时不会自动增长,空间不足时抛出{@link java.nio.BufferOverflowException}.
+ *     数据不足时抛出{@link IllegalStateException}.
+ *
+ *     Note: 本类的实现不是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 17:35]
+ */
+@SuppressWarnings("unchecked")
+public final class BinarySerializer {
+
+    private static final byte NULL_FLAG = 0;
+
+    private static final byte NOT_NULL_FLAG = 1;
+
+    public static byte[] serialize(final BinarySerializable object) {
+        final ByteBuffer buffer = new ByteBuffer();
+        object.serialize(new BinarySerializer(buffer));
+        return buffer.toByteArray();
+    }
+
+    public static <T extends BinarySerializable> T deserialize(final byte[] bytes, final Class<T> clazz) {
+        return deserialize(new BinarySerializer(java.nio.ByteBuffer.wrap(bytes)), clazz);
+    }
+
+    public static <T extends BinarySerializable> T clone(final T object) {
+        return (T) deserialize(serialize(object), object.getClass());
+    }
+
+    private static <T extends BinarySerializable> T deserialize(final BinarySerializer serializer, final Class<T> clazz) {
+        T result;
+        try {
+            result = SerializationCodecs.newInstance(clazz);
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+        result.deserialize(serializer);
+        return result;
+    }
+
+    public static void ensureSupported(final Object object) {
+        //null对象是允许的
+        if (object != null) {
+            ensureSupported(object.getClass());
+        }
+    }
+
+    public static void ensureSupported(final Class<?> clazz) {
+        if (!validateSupported(clazz)) {
+            throw new UnsupportedTypeException(clazz);
+        }
+    }
+
+    public static boolean validateSupported(final Class<?> clazz) {
+        return SerializationCodecs.isBinarySupported(clazz);
+    }
+
+    /**
+     * 确定一种类型的写入和读取方法,由{@link SerializationCodecs}按照类型缓存.
+     * 判断的顺序与{@link SerializationCodecs}中一致,{@link BinarySerializable}在{@link Serializable}之前.
+     *
+     * @param clazz       支持的类型
+     * @param customCodec 注册的自定义类型的编码和解码方法,没有注册时为null
+     * @return 不支持时返回null
+     */
+    static BinaryCodec<?> newCodec(final Class<?> clazz, final SerializationCodec<Object> customCodec) {
+        if (Byte.class.isAssignableFrom(clazz)) {
+            return BinarySerializer.<Byte>flagged(BinarySerializer::writeByte, BinarySerializer::readByte);
+        } else if (Boolean.class.isAssignableFrom(clazz)) {
+            return BinarySerializer.<Boolean>flagged(BinarySerializer::writeBoolean, BinarySerializer::readBoolean);
+        } else if (Character.class.isAssignableFrom(clazz)) {
+            return BinarySerializer.<Character>flagged(BinarySerializer::writeChar, BinarySerializer::readChar);
+        } else if (Short.class.isAssignableFrom(clazz)) {
+            return BinarySerializer.<Short>flagged(BinarySerializer::writeShort, BinarySerializer::readShort);
+        } else if (Integer.class.isAssignableFrom(clazz)) {
+            return BinarySerializer.<Integer>flagged(BinarySerializer::writeInt, BinarySerializer::readInt);
+        } else if (Long.class.isAssignableFrom(clazz)) {
+            return BinarySerializer.<Long>flagged(BinarySerializer::writeLong, BinarySerializer::readLong);
+        } else if (Float.class.isAssignableFrom(clazz)) {
+            return BinarySerializer.<Float>flagged(BinarySerializer::writeFloat, BinarySerializer::readFloat);
+        } else if (Double.class.isAssignableFrom(clazz)) {
+            return BinarySerializer.<Double>flagged(BinarySerializer::writeDouble, BinarySerializer::readDouble);
+        } else if (Enum.class.isAssignableFrom(clazz)) {
+            final Class<? extends Enum> enumClass = (Class<? extends Enum>) clazz;
+            return BinaryCodec.<Enum>of((serializer, value) -> serializer.writeString(value.name()), serializer -> {
+                final String name = serializer.readString();
+                return name == null ? null : Enum.valueOf(enumClass, name);
+            });
+        } else if (String.class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<String>of(BinarySerializer::writeString, BinarySerializer::readString);
+        } else if (BinarySerializable.class.isAssignableFrom(clazz)) {
+            final Class<? extends BinarySerializable> binarySerializableClass = (Class<? extends BinarySerializable>) clazz;
+            return BinaryCodec.<BinarySerializable>of(BinarySerializer::writeBinarySerializable,
+                    serializer -> serializer.readBinarySerializable(binarySerializableClass));
+        } else if (Serializable.class.isAssignableFrom(clazz)) {
+            final Class<? extends Serializable> serializableClass = (Class<? extends Serializable>) clazz;
+            return BinaryCodec.<Serializable>of((serializer, value) -> serializer.writeString(value.serialize()), serializer -> {
+                final String serializedString = serializer.readString();
+                return serializedString == null ? null : Serializer.deserialize(serializedString, serializableClass);
+            });
+        } else if (byte[].class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<byte[]>of(BinarySerializer::writeBytePrimitiveArray, BinarySerializer::getBytePrimitiveArray);
+        } else if (boolean[].class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<boolean[]>of(BinarySerializer::writeBooleanPrimitiveArray, BinarySerializer::getBooleanPrimitiveArray);
+        } else if (char[].class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<char[]>of(BinarySerializer::writeCharPrimitiveArray, BinarySerializer::getCharPrimitiveArray);
+        } else if (short[].class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<short[]>of(BinarySerializer::writeShortPrimitiveArray, BinarySerializer::getShortPrimitiveArray);
+        } else if (int[].class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<int[]>of(BinarySerializer::writeIntPrimitiveArray, BinarySerializer::getIntPrimitiveArray);
+        } else if (long[].class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<long[]>of(BinarySerializer::writeLongPrimitiveArray, BinarySerializer::getLongPrimitiveArray);
+        } else if (float[].class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<float[]>of(BinarySerializer::writeFloatPrimitiveArray, BinarySerializer::getFloatPrimitiveArray);
+        } else if (double[].class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<double[]>of(BinarySerializer::writeDoublePrimitiveArray, BinarySerializer::getDoublePrimitiveArray);
+        } else if (Object[].class.isAssignableFrom(clazz)) {
+            //包装类型,枚举,String,序列化对象的数组,元素按照各自的类型写入
+            final Class<Object> elementClass = (Class<Object>) clazz.getComponentType();
+            return BinaryCodec.<Object[]>of(BinarySerializer::writeObjectArray,
+                    serializer -> serializer.readObjectArray(elementClass, length -> (Object[]) Array.newInstance(elementClass, length)));
+        } else if (Map.class.isAssignableFrom(clazz)) {
+            //Map和Collection只能通过getMap和getCollection读取
+            return BinaryCodec.<Map<?, ?>>of((serializer, map) -> {
+                serializer.writeVarInt(map.size() + 1);
+                map.forEach((key, value) -> {
+                    serializer.add(key);
+                    serializer.add(value);
+                });
+            }, serializer -> {
+                throw new UnsupportedTypeException(clazz);
+            });
+        } else if (Collection.class.isAssignableFrom(clazz)) {
+            return BinaryCodec.<Collection<?>>of((serializer, collection) -> {
+                serializer.writeVarInt(collection.size() + 1);
+                collection.forEach(serializer::add);
+            }, serializer -> {
+                throw new UnsupportedTypeException(clazz);
+            });
+        } else if (customCodec != null) {
+            //注册的自定义类型
+            return BinaryCodec.of((serializer, value) -> serializer.writeString(customCodec.encode(value)), serializer -> {
+                final String string = serializer.readString();
+                return string == null ? null : customCodec.decode(string);
+            });
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * 包装类型先写入1个字节表示不为null
+     */
+    private static <T> BinaryCodec<T> flagged(final BiConsumer<BinarySerializer, T> writer, final Function<BinarySerializer, T> reader) {
+        return BinaryCodec.of((serializer, value) -> {
+            serializer.buffer.writeByte(NOT_NULL_FLAG);
+            writer.accept(serializer, value);
+        }, serializer -> serializer.isNotNull() ? reader.apply(serializer) : null);
+    }
+
+    private static int zigZagEncode(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int zigZagDecode(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long zigZagEncode(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigZagDecode(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 屏蔽两种缓冲区的差异,所有定长的数据都是大端
+     */
+    private interface Buffer {
+
+        void writeByte(byte value);
+
+        void writeShort(short value);
+
+        void writeInt(int value);
+
+        void writeLong(long value);
+
+        void write(byte[] bytes, int offset, int length);
+
+        byte readByte();
+
+        short readShort();
+
+        int readInt();
+
+        long readLong();
+
+        byte[] read(int length);
+
+        boolean hasRemaining();
+
+        /**
+         * 剩余可以读取的字节数
+         */
+        int remaining();
+
+        default void writeShorts(final short[] array) {
+            for (short value : array) {
+                writeShort(value);
+            }
+        }
+
+        default void writeChars(final char[] array) {
+            for (char value : array) {
+                writeShort((short) value);
+            }
+        }
+
+        default void writeInts(final int[] array) {
+            for (int value : array) {
+                writeInt(value);
+            }
+        }
+
+        default void writeLongs(final long[] array) {
+            for (long value : array) {
+                writeLong(value);
+            }
+        }
+
+        default void readShorts(final short[] array) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] = readShort();
+            }
+        }
+
+        default void readChars(final char[] array) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (char) readShort();
+            }
+        }
+
+        default void readInts(final int[] array) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] = readInt();
+            }
+        }
+
+        default void readLongs(final long[] array) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] = readLong();
+            }
+        }
+
+    }
+
+    private static final class StructureBuffer implements Buffer {
+
+        private final ByteBuffer buffer;
+
+        private StructureBuffer(final ByteBuffer buffer) {
+            this.buffer = Objects.requireNonNull(buffer);
+        }
+
+        @Override
+        public void writeByte(final byte value) {
+            buffer.writeByte(value);
+        }
+
+        @Override
+        public void writeShort(final short value) {
+            buffer.writeShort(value);
+        }
+
+        @Override
+        public void writeInt(final int value) {
+            buffer.writeInt(value);
+        }
+
+        @Override
+        public void writeLong(final long value) {
+            buffer.writeLong(value);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            buffer.write(bytes, offset, length);
+        }
+
+        @Override
+        public byte readByte() {
+            return buffer.readByte();
+        }
+
+        @Override
+        public short readShort() {
+            return buffer.readShort();
+        }
+
+        @Override
+        public int readInt() {
+            return buffer.readInt();
+        }
+
+        @Override
+        public long readLong() {
+            return buffer.readLong();
+        }
+
+        @Override
+        public byte[] read(final int length) {
+            return buffer.read(length);
+        }
+
+        @Override
+        public boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+
+        @Override
+        public int remaining() {
+            return buffer.size();
+        }
+
+    }
+
+    /**
+     * 基础类型数组通过视图批量读写.
+     * 在调用者的缓冲区的大端序副本上读写,每次读写之后把position写回,不改变调用者的缓冲区的字节序
+     */
+    private static final class NioBuffer implements Buffer {
+
+        private final java.nio.ByteBuffer source;
+
+        private final java.nio.ByteBuffer buffer;
+
+        private NioBuffer(final java.nio.ByteBuffer source) {
+            this.source = Objects.requireNonNull(source);
+            this.buffer = source.duplicate().order(ByteOrder.BIG_ENDIAN);
+        }
+
+        /**
+         * length用long计算,数组长度乘以元素大小时不会溢出
+         */
+        private void checkData(final long length) {
+            if (buffer.remaining() < length) {
+                throw new IllegalStateException("data length is less than the required length!", new BufferUnderflowException());
+            }
+        }
+
+        private void advance(final int length) {
+            buffer.position(buffer.position() + length);
+            source.position(buffer.position());
+        }
+
+        private void sync() {
+            source.position(buffer.position());
+        }
+
+        @Override
+        public void writeByte(final byte value) {
+            buffer.put(value);
+            sync();
+        }
+
+        @Override
+        public void writeShort(final short value) {
+            buffer.putShort(value);
+            sync();
+        }
+
+        @Override
+        public void writeInt(final int value) {
+            buffer.putInt(value);
+            sync();
+        }
+
+        @Override
+        public void writeLong(final long value) {
+            buffer.putLong(value);
+            sync();
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            buffer.put(bytes, offset, length);
+            sync();
+        }
+
+        @Override
+        public byte readByte() {
+            checkData(1);
+            final byte value = buffer.get();
+            sync();
+            return value;
+        }
+
+        @Override
+        public short readShort() {
+            checkData(2);
+            final short value = buffer.getShort();
+            sync();
+            return value;
+        }
+
+        @Override
+        public int readInt() {
+            checkData(4);
+            final int value = buffer.getInt();
+            sync();
+            return value;
+        }
+
+        @Override
+        public long readLong() {
+            checkData(8);
+            final long value = buffer.getLong();
+            sync();
+            return value;
+        }
+
+        @Override
+        public byte[] read(final int length) {
+            checkData(length);
+            final byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            sync();
+            return bytes;
+        }
+
+        @Override
+        public boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+
+        @Override
+        public int remaining() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public void writeShorts(final short[] array) {
+            buffer.asShortBuffer().put(array);
+            advance(array.length * Short.BYTES);
+        }
+
+        @Override
+        public void writeChars(final char[] array) {
+            buffer.asCharBuffer().put(array);
+            advance(array.length * Character.BYTES);
+        }
+
+        @Override
+        public void writeInts(final int[] array) {
+            buffer.asIntBuffer().put(array);
+            advance(array.length * Integer.BYTES);
+        }
+
+        @Override
+        public void writeLongs(final long[] array) {
+            buffer.asLongBuffer().put(array);
+            advance(array.length * Long.BYTES);
+        }
+
+        @Override
+        public void readShorts(final short[] array) {
+            checkData((long) array.length * Short.BYTES);
+            buffer.asShortBuffer().get(array);
+            advance(array.length * Short.BYTES);
+        }
+
+        @Override
+        public void readChars(final char[] array) {
+            checkData((long) array.length * Character.BYTES);
+            buffer.asCharBuffer().get(array);
+            advance(array.length * Character.BYTES);
+        }
+
+        @Override
+        public void readInts(final int[] array) {
+            checkData((long) array.length * Integer.BYTES);
+            buffer.asIntBuffer().get(array);
+            advance(array.length * Integer.BYTES);
+        }
+
+        @Override
+        public void readLongs(final long[] array) {
+            checkData((long) array.length * Long.BYTES);
+            buffer.asLongBuffer().get(array);
+            advance(array.length * Long.BYTES);
+        }
+
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final Buffer buffer;
+
+    /**
+     * 编码字符串时复用的临时空间
+     */
+    private byte[] scratch = new byte[64];
+
+    /**
+     * 读写都在给定的缓冲区上进行
+     *
+     * @param buffer 缓冲区
+     */
+    public BinarySerializer(final ByteBuffer buffer) {
+        this.buffer = new StructureBuffer(buffer);
+    }
+
+    /**
+     * 读写都在给定的缓冲区上进行,从缓冲区当前的position开始
+     *
+     * @param buffer 缓冲区
+     */
+    public BinarySerializer(final java.nio.ByteBuffer buffer) {
+        this.buffer = new NioBuffer(buffer);
+    }
+
+    public final boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public final void writeByte(final byte value) {
+        buffer.writeByte(value);
+    }
+
+    public final void writeBoolean(final boolean value) {
+        buffer.writeByte(value ? NOT_NULL_FLAG : NULL_FLAG);
+    }
+
+    public final void writeChar(final char value) {
+        writeVarInt(value);
+    }
+
+    public final void writeShort(final short value) {
+        writeVarInt(zigZagEncode(value));
+    }
+
+    public final void writeInt(final int value) {
+        writeVarInt(zigZagEncode(value));
+    }
+
+    public final void writeLong(final long value) {
+        writeVarLong(zigZagEncode(value));
+    }
+
+    public final void writeFloat(final float value) {
+        buffer.writeInt(Float.floatToRawIntBits(value));
+    }
+
+    public final void writeDouble(final double value) {
+        buffer.writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * 写入一个无符号的变长整数
+     */
+    public final void writeVarInt(final int value) {
+        int temp = value;
+        while ((temp & ~0x7F) != 0) {
+            buffer.writeByte((byte) ((temp & 0x7F) | 0x80));
+            temp >>>= 7;
+        }
+        buffer.writeByte((byte) temp);
+    }
+
+    /**
+     * 写入一个无符号的变长整数
+     */
+    public final void writeVarLong(final long value) {
+        long temp = value;
+        while ((temp & ~0x7FL) != 0) {
+            buffer.writeByte((byte) ((temp & 0x7F) | 0x80));
+            temp >>>= 7;
+        }
+        buffer.writeByte((byte) temp);
+    }
+
+    public final void writeString(final String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        final int length = value.length();
+        if (scratch.length < length * 3) {
+            scratch = new byte[Math.max(length * 3, scratch.length * 2)];
+        }
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                scratch[index++] = (byte) c;
+            } else if (c < 0x800) {
+                scratch[index++] = (byte) (0xC0 | (c >> 6));
+                scratch[index++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                scratch[index++] = (byte) (0xF0 | (codePoint >> 18));
+                scratch[index++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                scratch[index++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                scratch[index++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                //与String.getBytes一致,不成对的代理字符写为'?'
+                scratch[index++] = (byte) '?';
+            } else {
+                scratch[index++] = (byte) (0xE0 | (c >> 12));
+                scratch[index++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                scratch[index++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeVarInt(index + 1);
+        buffer.write(scratch, 0, index);
+    }
+
+    public final void writeBinarySerializable(final BinarySerializable value) {
+        if (value == null) {
+            buffer.writeByte(NULL_FLAG);
+        } else {
+            buffer.writeByte(NOT_NULL_FLAG);
+            value.serialize(this);
+        }
+    }
+
+    private boolean writeLength(final Object array, final int length) {
+        if (array == null) {
+            writeVarInt(0);
+            return false;
+        }
+        writeVarInt(length + 1);
+        return true;
+    }
+
+    public final void writeBytePrimitiveArray(final byte[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            buffer.write(array, 0, array.length);
+        }
+    }
+
+    public final void writeBooleanPrimitiveArray(final boolean[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            for (int i = 0; i < array.length; i += Byte.SIZE) {
+                int bits = 0;
+                for (int j = 0; j < Byte.SIZE && i + j < array.length; j++) {
+                    if (array[i + j]) {
+                        bits |= 1 << j;
+                    }
+                }
+                buffer.writeByte((byte) bits);
+            }
+        }
+    }
+
+    public final void writeCharPrimitiveArray(final char[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            buffer.writeChars(array);
+        }
+    }
+
+    public final void writeShortPrimitiveArray(final short[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            buffer.writeShorts(array);
+        }
+    }
+
+    public final void writeIntPrimitiveArray(final int[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            buffer.writeInts(array);
+        }
+    }
+
+    public final void writeLongPrimitiveArray(final long[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            buffer.writeLongs(array);
+        }
+    }
+
+    public final void writeFloatPrimitiveArray(final float[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            for (float value : array) {
+                writeFloat(value);
+            }
+        }
+    }
+
+    public final void writeDoublePrimitiveArray(final double[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            for (double value : array) {
+                writeDouble(value);
+            }
+        }
+    }
+
+    private void writeObjectArray(final Object[] array) {
+        if (writeLength(array, array == null ? 0 : array.length)) {
+            for (Object element : array) {
+                add(element);
+            }
+        }
+    }
+
+    /**
+     * 写入一个支持的对象,可以为null
+     *
+     * @param object 对象
+     */
+    public final void add(final Object object) {
+        if (object == null) {
+            buffer.writeByte(NULL_FLAG);
+        } else {
+            SerializationCodecs.getBinaryCodec((Class<Object>) object.getClass()).write(this, object);
+        }
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public final byte readByte() {
+        return buffer.readByte();
+    }
+
+    public final boolean readBoolean() {
+        return buffer.readByte() != NULL_FLAG;
+    }
+
+    public final char readChar() {
+        return (char) readVarInt();
+    }
+
+    public final short readShort() {
+        return (short) zigZagDecode(readVarInt());
+    }
+
+    public final int readInt() {
+        return zigZagDecode(readVarInt());
+    }
+
+    public final long readLong() {
+        return zigZagDecode(readVarLong());
+    }
+
+    public final float readFloat() {
+        return Float.intBitsToFloat(buffer.readInt());
+    }
+
+    public final double readDouble() {
+        return Double.longBitsToDouble(buffer.readLong());
+    }
+
+    /**
+     * 读取一个无符号的变长整数
+     */
+    public final int readVarInt() {
+        int result = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = buffer.readByte();
+            if (shift == 28 && (b & 0xF0) != 0) {
+                //与ByteBuffer.readVarInt一致,第5个字节只能有低4位
+                throw new IllegalStateException("malformed var int!");
+            }
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * 读取一个无符号的变长整数
+     */
+    public final long readVarLong() {
+        long result = 0L;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = buffer.readByte();
+            if (shift == 63 && (b & 0xFE) != 0) {
+                //第10个字节只能有最低位
+                throw new IllegalStateException("malformed var long!");
+            }
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+    }
+
+    public final String readString() {
+        final int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        return new String(buffer.read(length), StandardCharsets.UTF_8);
+    }
+
+    public final <T extends BinarySerializable> T readBinarySerializable(final Class<T> clazz) {
+        if (buffer.readByte() == NULL_FLAG) {
+            return null;
+        }
+        return deserialize(this, clazz);
+    }
+
+    private boolean isNotNull() {
+        return buffer.readByte() != NULL_FLAG;
+    }
+
+    /**
+     * 读取数组或者集合的长度,-1表示null
+     */
+    private int readLength() {
+        return readVarInt() - 1;
+    }
+
+    /**
+     * 读取数组的长度,-1表示null.
+     * 长度来自数据本身,分配数组之前先检查剩余的数据是否足够,避免错误的数据分配过大的数组
+     *
+     * @param minBitsPerElement 每个元素至少占用的位数
+     */
+    private int readArrayLength(final int minBitsPerElement) {
+        final int length = readLength();
+        if (length > 0 && ((long) length * minBitsPerElement + Byte.SIZE - 1) / Byte.SIZE > buffer.remaining()) {
+            throw new IllegalStateException("array length is larger than the remaining data." + length);
+        }
+        return length;
+    }
+
+    private <T> T[] readObjectArray(final Class<T> elementClass, final IntFunction<T[]> arraySupplier) {
+        //每个元素至少有1个字节的null标记或者长度
+        final int length = readArrayLength(Byte.SIZE);
+        if (length < 0) {
+            return null;
+        }
+        final BinaryCodec<T> codec = SerializationCodecs.getBinaryCodec(elementClass);
+        final T[] array = arraySupplier.apply(length);
+        for (int i = 0; i < length; i++) {
+            array[i] = codec.read(this);
+        }
+        return array;
+    }
+
+    private <T> T get(final Class<T> clazz) {
+        return SerializationCodecs.getBinaryCodec(clazz).read(this);
+    }
+
+    /**
+     * 读取任意支持的类型,包括通过{@link SerializationCodecs}注册的自定义类型
+     */
+    public final <T> T getObject(final Class<T> clazz) {
+        return get(clazz);
+    }
+
+    public final Byte getByte() {
+        return get(Byte.class);
+    }
+
+    public final Boolean getBoolean() {
+        return get(Boolean.class);
+    }
+
+    public final Character getChar() {
+        return get(Character.class);
+    }
+
+    public final Short getShort() {
+        return get(Short.class);
+    }
+
+    public final Integer getInt() {
+        return get(Integer.class);
+    }
+
+    public final Long getLong() {
+        return get(Long.class);
+    }
+
+    public final Float getFloat() {
+        return get(Float.class);
+    }
+
+    public final Double getDouble() {
+        return get(Double.class);
+    }
+
+    public final <T extends Enum<T>> T getEnum(final Class<T> clazz) {
+        return get(clazz);
+    }
+
+    public final String getString() {
+        return readString();
+    }
+
+    public final <T extends Serializable> T getSerializableObject(final Class<T> clazz) {
+        return get(clazz);
+    }
+
+    public final <T extends BinarySerializable> T getBinarySerializableObject(final Class<T> clazz) {
+        return readBinarySerializable(clazz);
+    }
+
+    public final byte[] getBytePrimitiveArray() {
+        final int length = readArrayLength(Byte.SIZE);
+        return length < 0 ? null : buffer.read(length);
+    }
+
+    public final boolean[] getBooleanPrimitiveArray() {
+        final int length = readArrayLength(1);
+        if (length < 0) {
+            return null;
+        }
+        final boolean[] array = new boolean[length];
+        for (int i = 0; i < length; i += Byte.SIZE) {
+            final int bits = buffer.readByte();
+            for (int j = 0; j < Byte.SIZE && i + j < length; j++) {
+                array[i + j] = (bits & (1 << j)) != 0;
+            }
+        }
+        return array;
+    }
+
+    public final char[] getCharPrimitiveArray() {
+        final int length = readArrayLength(Character.SIZE);
+        if (length < 0) {
+            return null;
+        }
+        final char[] array = new char[length];
+        buffer.readChars(array);
+        return array;
+    }
+
+    public final short[] getShortPrimitiveArray() {
+        final int length = readArrayLength(Short.SIZE);
+        if (length < 0) {
+            return null;
+        }
+        final short[] array = new short[length];
+        buffer.readShorts(array);
+        return array;
+    }
+
+    public final int[] getIntPrimitiveArray() {
+        final int length = readArrayLength(Integer.SIZE);
+        if (length < 0) {
+            return null;
+        }
+        final int[] array = new int[length];
+        buffer.readInts(array);
+        return array;
+    }
+
+    public final long[] getLongPrimitiveArray() {
+        final int length = readArrayLength(Long.SIZE);
+        if (length < 0) {
+            return null;
+        }
+        final long[] array = new long[length];
+        buffer.readLongs(array);
+        return array;
+    }
+
+    public final float[] getFloatPrimitiveArray() {
+        final int length = readArrayLength(Float.SIZE);
+        if (length < 0) {
+            return null;
+        }
+        final float[] array = new float[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = readFloat();
+        }
+        return array;
+    }
+
+    public final double[] getDoublePrimitiveArray() {
+        final int length = readArrayLength(Double.SIZE);
+        if (length < 0) {
+            return null;
+        }
+        final double[] array = new double[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = readDouble();
+        }
+        return array;
+    }
+
+    public final Byte[] getByteObjectArray() {
+        return get(Byte[].class);
+    }
+
+    public final Boolean[] getBooleanObjectArray() {
+        return get(Boolean[].class);
+    }
+
+    public final Character[] getCharObjectArray() {
+        return get(Character[].class);
+    }
+
+    public final Short[] getShortObjectArray() {
+        return get(Short[].class);
+    }
+
+    public final Integer[] getIntObjectArray() {
+        return get(Integer[].class);
+    }
+
+    public final Long[] getLongObjectArray() {
+        return get(Long[].class);
+    }
+
+    public final Float[] getFloatObjectArray() {
+        return get(Float[].class);
+    }
+
+    public final Double[] getDoubleObjectArray() {
+        return get(Double[].class);
+    }
+
+    public final <T extends Enum<T>> T[] getEnumArray(final Class<T> enumClass) {
+        return readObjectArray(enumClass, length -> (T[]) Array.newInstance(enumClass, length));
+    }
+
+    public final String[] getStringArray() {
+        return get(String[].class);
+    }
+
+    public final <T extends Serializable> T[] getSerializeObjectArray(final Class<T> elementClass) {
+        return readObjectArray(elementClass, length -> (T[]) Array.newInstance(elementClass, length));
+    }
+
+    public final <T extends BinarySerializable> T[] getBinarySerializableObjectArray(final Class<T> elementClass) {
+        return readObjectArray(elementClass, length -> (T[]) Array.newInstance(elementClass, length));
+    }
+
+    public final <K, V> HashMap<K, V> getHashMap(final Class<K> keyClass, final Class<V> valueClass) {
+        return (HashMap<K, V>) getMap(keyClass, valueClass, (Supplier<Map<K, V>>) HashMap::new);
+    }
+
+    public final <K, V> LinkedHashMap<K, V> getLinkedHashMap(final Class<K> keyClass, final Class<V> valueClass) {
+        return (LinkedHashMap<K, V>) getMap(keyClass, valueClass, (Supplier<Map<K, V>>) LinkedHashMap::new);
+    }
+
+    public final <K, V> ConcurrentHashMap<K, V> getConcurrentHashMap(final Class<K> keyClass, final Class<V> valueClass) {
+        return (ConcurrentHashMap<K, V>) getMap(keyClass, valueClass, (Supplier<Map<K, V>>) ConcurrentHashMap::new);
+    }
+
+    public final <K, V, M extends Map<K, V>> M getMap(final Class<K> keyClass, final Class<V> valueClass, final Supplier<M> mapFactory) {
+        final int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+        final BinaryCodec<K> keyCodec = SerializationCodecs.getBinaryCodec(keyClass);
+        final BinaryCodec<V> valueCodec = SerializationCodecs.getBinaryCodec(valueClass);
+        final M map = mapFactory.get();
+        for (int i = 0; i < size; i++) {
+            map.put(keyCodec.read(this), valueCodec.read(this));
+        }
+        return map;
+    }
+
+    public final <E> ArrayList<E> getArrayList(final Class<E> elementClass) {
+        return (ArrayList<E>) getCollection(elementClass, (Supplier<Collection<E>>) ArrayList::new);
+    }
+
+    public final <E> LinkedList<E> getLinkedList(final Class<E> elementClass) {
+        return (LinkedList<E>) getCollection(elementClass, (Supplier<Collection<E>>) LinkedList::new);
+    }
+
+    public final <E> CopyOnWriteArrayList<E> getCopyOnWriteArrayList(final Class<E> elementClass) {
+        return (CopyOnWriteArrayList<E>) getCollection(elementClass, (Supplier<Collection<E>>) CopyOnWriteArrayList::new);
+    }
+
+    public final <E> HashSet<E> getHashSet(final Class<E> elementClass) {
+        return (HashSet<E>) getCollection(elementClass, (Supplier<Collection<E>>) HashSet::new);
+    }
+
+    public final <E> LinkedHashSet<E> getLinkedHashSet(final Class<E> elementClass) {
+        return (LinkedHashSet<E>) getCollection(elementClass, (Supplier<Collection<E>>) LinkedHashSet::new);
+    }
+
+    public final <E> Set<E> getConcurrentHashSet(final Class<E> elementClass) {
+        return (Set<E>) getCollection(elementClass, (Supplier<Collection<E>>) () -> Collections.newSetFromMap(CollectionUtil.newConcurrentHashMap()));
+    }
+
+    public final <E, C extends Collection<E>> C getCollection(final Class<E> elementClass, final Supplier<C> collectionFactory) {
+        final int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+        final BinaryCodec<E> codec = SerializationCodecs.getBinaryCodec(elementClass);
+        final C collection = collectionFactory.get();
+        for (int i = 0; i < size; i++) {
+            collection.add(codec.read(this));
+        }
+        return collection;
+    }
+
+}
@@ -22,4 +22,16 @@ public interface Serializable {
      */
     void deserialize(final String serializedString);
 
+    /**
+     * <pre>
+     * 反序列化方法,通过{@link SerializedReader}按顺序读出数据.嵌套的对象与外层共享同一个游标,不会再截取自己的字符串.
+     * 默认的实现截取出本对象的序列化字符串,然后调用{@link #deserialize(String)}.
+     * </pre>
+     *
+     * @param reader 读取本对象的游标
+     */
+    default void deserialize(final SerializedReader reader) {
+        deserialize(reader.toSerializedString());
+    }
+
 }
@@ -376,7 +376,7 @@ final class Serialization {
         }
     }
 
-    private static char unescapeChar(final char aChar) {
+    static char unescapeChar(final char aChar) {
         switch (aChar) {
             case 'b':
                 return '\b';
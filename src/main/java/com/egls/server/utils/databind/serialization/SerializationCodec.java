@@ -0,0 +1,50 @@
+package com.egls.server.utils.databind.serialization;
+
+import java.util.Objects;
+
+import com.egls.server.utils.function.Caster;
+
+/**
+ * <pre>
+ *     一种类型在{@link Serializer}中的编码和解码方法.
+ *     null由{@link Serializer}统一处理,编码和解码时不会遇到null.
+ *     通过{@link SerializationCodecs#register(Class, SerializationCodec)}为自定义的类型注册.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 19:20]
+ */
+public interface SerializationCodec<T> {
+
+    static <T> SerializationCodec<T> of(final Caster<T, String> encoder, final Caster<String, T> decoder) {
+        Objects.requireNonNull(encoder);
+        Objects.requireNonNull(decoder);
+        return new SerializationCodec<T>() {
+            @Override
+            public String encode(final T object) {
+                return encoder.cast(object);
+            }
+
+            @Override
+            public T decode(final String string) {
+                return decoder.cast(string);
+            }
+        };
+    }
+
+    /**
+     * 编码
+     *
+     * @param object 不为null的对象
+     * @return 编码后的字符串
+     */
+    String encode(final T object);
+
+    /**
+     * 解码
+     *
+     * @param string 编码后的字符串
+     * @return 对象
+     */
+    T decode(final String string);
+
+}
@@ -0,0 +1,361 @@
+package com.egls.server.utils.databind.serialization;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.egls.server.utils.StringUtil;
+import com.egls.server.utils.exception.UnsupportedTypeException;
+
+import org.apache.commons.lang3.CharUtils;
+
+/**
+ * <pre>
+ *     {@link Serializer}中每种类型的编码和解码方法.
+ *
+ *     每种类型第一次使用时确定它的编码和解码方法,之后缓存在{@link ClassValue}中,不再逐个判断类型.
+ *     {@link BinarySerializer}的写入和读取方法也缓存在同一个{@link ClassValue}中.
+ *     {@link Serializable}的无参构造器也会被缓存,公开的类和构造器使用{@link LambdaMetafactory}生成,其它的使用{@link MethodHandle}.
+ *     {@link LambdaMetafactory}生成的类由本类的类加载器解析,所以由子类加载器(例如热加载的脚本)加载的类也使用{@link MethodHandle}.
+ *
+ *     默认不支持的类型可以通过{@link #register(Class, SerializationCodec)}注册,注册的编码和解码只对这个类型本身生效.
+ *     自定义类型编码后的字符串按照String的方式转义,所以可以包含任意字符.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 19:25]
+ */
+@SuppressWarnings("unchecked")
+public final class SerializationCodecs {
+
+    private static final Map<Class<?>, SerializationCodec<?>> CUSTOM_CODECS = new ConcurrentHashMap<>();
+
+    /**
+     * 不支持的类型,编码和解码都抛出{@link UnsupportedTypeException}
+     */
+    private static final class UnsupportedCodec implements SerializationCodec<Object>, BinaryCodec<Object> {
+
+        private final Class<?> type;
+
+        private UnsupportedCodec(final Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public String encode(final Object object) {
+            throw new UnsupportedTypeException(type);
+        }
+
+        @Override
+        public Object decode(final String string) {
+            throw new UnsupportedTypeException(type);
+        }
+
+        @Override
+        public void write(final BinarySerializer serializer, final Object object) {
+            throw new UnsupportedTypeException(type);
+        }
+
+        @Override
+        public Object read(final BinarySerializer serializer) {
+            throw new UnsupportedTypeException(type);
+        }
+
+    }
+
+    /**
+     * 一种类型在{@link Serializer}和{@link BinarySerializer}中的编码和解码方法
+     */
+    private static final class Codecs {
+
+        private final SerializationCodec<?> codec;
+
+        private final BinaryCodec<?> binaryCodec;
+
+        private Codecs(final SerializationCodec<?> codec, final BinaryCodec<?> binaryCodec) {
+            this.codec = codec;
+            this.binaryCodec = binaryCodec;
+        }
+
+    }
+
+    private static final ClassValue<Codecs> CODECS = new ClassValue<Codecs>() {
+        @Override
+        protected Codecs computeValue(final Class<?> type) {
+            final SerializationCodec<Object> customCodec = (SerializationCodec<Object>) CUSTOM_CODECS.get(type);
+            SerializationCodec<?> codec = newDefaultCodec(type);
+            if (codec == null && customCodec != null) {
+                codec = SerializationCodec.of(object -> Serialization.escapeString(customCodec.encode(object)), customCodec::decode);
+            }
+            //BinarySerializer另外支持BinarySerializable和它的数组
+            final boolean binarySupported = codec != null
+                    || BinarySerializable.class.isAssignableFrom(type)
+                    || BinarySerializable[].class.isAssignableFrom(type);
+            final BinaryCodec<?> binaryCodec = binarySupported ? BinarySerializer.newCodec(type, customCodec) : null;
+            final UnsupportedCodec unsupportedCodec = new UnsupportedCodec(type);
+            return new Codecs(codec != null ? codec : unsupportedCodec, binaryCodec != null ? binaryCodec : unsupportedCodec);
+        }
+    };
+
+    private static final ClassValue<Supplier<?>> CONSTRUCTORS = new ClassValue<Supplier<?>>() {
+        @Override
+        protected Supplier<?> computeValue(final Class<?> type) {
+            return newConstructor(type);
+        }
+    };
+
+    /**
+     * 为默认不支持的类型注册编码和解码方法,重复注册时替换之前的
+     *
+     * @param clazz 类型
+     * @param codec 编码和解码方法
+     */
+    public static <T> void register(final Class<T> clazz, final SerializationCodec<T> codec) {
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(codec);
+        if (newDefaultCodec(clazz) != null) {
+            throw new IllegalArgumentException(String.format("%s is supported by default.", clazz.getName()));
+        }
+        CUSTOM_CODECS.put(clazz, codec);
+        CODECS.remove(clazz);
+    }
+
+    public static void unregister(final Class<?> clazz) {
+        if (CUSTOM_CODECS.remove(clazz) != null) {
+            CODECS.remove(clazz);
+        }
+    }
+
+    public static boolean isSupported(final Class<?> clazz) {
+        return !(CODECS.get(clazz).codec instanceof UnsupportedCodec);
+    }
+
+    /**
+     * 是否能通过{@link BinarySerializer}读写
+     */
+    static boolean isBinarySupported(final Class<?> clazz) {
+        return !(CODECS.get(clazz).binaryCodec instanceof UnsupportedCodec);
+    }
+
+    /**
+     * 获取类型的编码和解码方法,不支持的类型抛出{@link UnsupportedTypeException}
+     */
+    static <T> SerializationCodec<T> getCodec(final Class<T> clazz) {
+        final SerializationCodec<?> codec = CODECS.get(clazz).codec;
+        if (codec instanceof UnsupportedCodec) {
+            throw new UnsupportedTypeException(clazz);
+        }
+        return (SerializationCodec<T>) codec;
+    }
+
+    /**
+     * 获取类型在{@link BinarySerializer}中的写入和读取方法,不支持的类型在写入和读取时抛出{@link UnsupportedTypeException}
+     */
+    static <T> BinaryCodec<T> getBinaryCodec(final Class<T> clazz) {
+        return (BinaryCodec<T>) CODECS.get(clazz).binaryCodec;
+    }
+
+    /**
+     * 获取注册的自定义类型的编码和解码方法,编码的结果没有转义
+     *
+     * @return 没有注册时返回null
+     */
+    static <T> SerializationCodec<T> getCustomCodec(final Class<T> clazz) {
+        return (SerializationCodec<T>) CUSTOM_CODECS.get(clazz);
+    }
+
+    /**
+     * 通过缓存的无参构造器创建对象.与{@link com.egls.server.utils.reflect.ConstructorUtil#newObjectWithNoneParam(Class)}一致,
+     * 本类没有无参构造器时,使用父类的.
+     */
+    static <T> T newInstance(final Class<T> clazz) {
+        return (T) CONSTRUCTORS.get(clazz).get();
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 判断的顺序与{@link Serializer#validateSupported(Class)}一致
+     *
+     * @return 不支持时返回null
+     */
+    private static SerializationCodec<?> newDefaultCodec(final Class<?> clazz) {
+        if (Byte.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(String::valueOf, Byte::valueOf);
+        } else if (Boolean.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(String::valueOf, StringUtil::toBooleanObject);
+        } else if (Character.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(String::valueOf, CharUtils::toCharacterObject);
+        } else if (Short.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(String::valueOf, Short::valueOf);
+        } else if (Integer.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(String::valueOf, Integer::valueOf);
+        } else if (Long.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(String::valueOf, Long::valueOf);
+        } else if (Float.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(String::valueOf, Float::valueOf);
+        } else if (Double.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(String::valueOf, Double::valueOf);
+        } else if (Enum.class.isAssignableFrom(clazz)) {
+            final Class<? extends Enum> enumClass = (Class<? extends Enum>) clazz;
+            return SerializationCodec.of(Enum::name, string -> Enum.valueOf(enumClass, string));
+        } else if (String.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::escapeString, string -> string);
+        } else if (Serializable.class.isAssignableFrom(clazz)) {
+            final Class<? extends Serializable> serializableClass = (Class<? extends Serializable>) clazz;
+            return SerializationCodec.of(Serializable::serialize, string -> Serializer.deserialize(string, serializableClass));
+        } else if (byte[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::serializeBytePrimitiveArray, Serialization::deserializeBytePrimitiveArray);
+        } else if (boolean[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::serializeBooleanPrimitiveArray, Serialization::deserializeBooleanPrimitiveArray);
+        } else if (char[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::serializeCharPrimitiveArray, Serialization::deserializeCharPrimitiveArray);
+        } else if (short[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::serializeShortPrimitiveArray, Serialization::deserializeShortPrimitiveArray);
+        } else if (int[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::serializeIntPrimitiveArray, Serialization::deserializeIntPrimitiveArray);
+        } else if (long[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::serializeLongPrimitiveArray, Serialization::deserializeLongPrimitiveArray);
+        } else if (float[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::serializeFloatPrimitiveArray, Serialization::deserializeFloatPrimitiveArray);
+        } else if (double[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of(Serialization::serializeDoublePrimitiveArray, Serialization::deserializeDoublePrimitiveArray);
+        } else if (Byte[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Byte[] array) -> Serialization.serializeObjectArray(array, String::valueOf),
+                    string -> Serialization.deserializeObjectArray(string, Byte[]::new, Byte::valueOf));
+        } else if (Boolean[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Boolean[] array) -> Serialization.serializeObjectArray(array, String::valueOf),
+                    string -> Serialization.deserializeObjectArray(string, Boolean[]::new, StringUtil::toBooleanObject));
+        } else if (Character[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Character[] array) -> Serialization.serializeObjectArray(array, CharUtils::toString),
+                    string -> Serialization.deserializeObjectArray(string, Character[]::new, CharUtils::toChar));
+        } else if (Short[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Short[] array) -> Serialization.serializeObjectArray(array, String::valueOf),
+                    string -> Serialization.deserializeObjectArray(string, Short[]::new, Short::valueOf));
+        } else if (Integer[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Integer[] array) -> Serialization.serializeObjectArray(array, String::valueOf),
+                    string -> Serialization.deserializeObjectArray(string, Integer[]::new, Integer::valueOf));
+        } else if (Long[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Long[] array) -> Serialization.serializeObjectArray(array, String::valueOf),
+                    string -> Serialization.deserializeObjectArray(string, Long[]::new, Long::valueOf));
+        } else if (Float[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Float[] array) -> Serialization.serializeObjectArray(array, String::valueOf),
+                    string -> Serialization.deserializeObjectArray(string, Float[]::new, Float::valueOf));
+        } else if (Double[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Double[] array) -> Serialization.serializeObjectArray(array, String::valueOf),
+                    string -> Serialization.deserializeObjectArray(string, Double[]::new, Double::valueOf));
+        } else if (Enum[].class.isAssignableFrom(clazz)) {
+            final Class<? extends Enum> enumClass = (Class<? extends Enum>) clazz.getComponentType();
+            return SerializationCodec.of((Enum<?>[] array) -> Serialization.serializeObjectArray(array, Enum::name),
+                    string -> Serialization.deserializeObjectArray(string, length -> (Enum<?>[]) Array.newInstance(enumClass, length), s -> Enum.valueOf(enumClass, s)));
+        } else if (String[].class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((String[] array) -> Serialization.serializeObjectArray(array, Serialization::escapeString),
+                    string -> Serialization.deserializeEscapedObjectArray(string, String[]::new, s -> s));
+        } else if (Serializable[].class.isAssignableFrom(clazz)) {
+            final Class<? extends Serializable> elementClass = (Class<? extends Serializable>) clazz.getComponentType();
+            return SerializationCodec.of((Serializable[] array) -> Serialization.serializeObjectArray(array, Serializable::serialize),
+                    string -> Serialization.deserializeEscapedObjectArray(string, length -> (Serializable[]) Array.newInstance(elementClass, length), s -> Serializer.deserialize(s, elementClass)));
+        } else if (Map.class.isAssignableFrom(clazz)) {
+            //Map和Collection只能通过Serializer的getMap和getCollection读取
+            return SerializationCodec.of((Map<?, ?> map) -> {
+                final Serializer serializer = new Serializer();
+                map.forEach((key, value) -> {
+                    serializer.add(key);
+                    serializer.add(value);
+                });
+                return serializer.serialize();
+            }, string -> {
+                throw new UnsupportedTypeException(clazz);
+            });
+        } else if (Collection.class.isAssignableFrom(clazz)) {
+            return SerializationCodec.of((Collection<?> collection) -> {
+                final Serializer serializer = new Serializer();
+                collection.forEach(serializer::add);
+                return serializer.serialize();
+            }, string -> {
+                throw new UnsupportedTypeException(clazz);
+            });
+        } else {
+            return null;
+        }
+    }
+
+    private static Supplier<?> newConstructor(final Class<?> clazz) {
+        Class<?> clz = clazz;
+        while (clz != null && clz != Object.class) {
+            for (Constructor<?> constructor : clz.getDeclaredConstructors()) {
+                if (constructor.getParameterCount() == 0) {
+                    return newConstructor(constructor);
+                }
+            }
+            clz = clz.getSuperclass();
+        }
+        return () -> {
+            throw new IllegalStateException(String.format("can't found none param constructor. (%s)", clazz.getName()));
+        };
+    }
+
+    private static Supplier<?> newConstructor(final Constructor<?> constructor) {
+        final Class<?> declaringClass = constructor.getDeclaringClass();
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (Modifier.isPublic(declaringClass.getModifiers()) && Modifier.isPublic(constructor.getModifiers())
+                && isVisible(declaringClass.getClassLoader())) {
+            try {
+                final CallSite callSite = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                        lookup.unreflectConstructor(constructor), MethodType.methodType(declaringClass));
+                return (Supplier<?>) callSite.getTarget().invokeExact();
+            } catch (Throwable ignore) {
+                //例如外部类不是公开的,使用MethodHandle
+            }
+        }
+        final MethodHandle methodHandle;
+        try {
+            constructor.setAccessible(true);
+            methodHandle = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (Exception exception) {
+            return () -> {
+                throw new IllegalStateException(exception);
+            };
+        }
+        return () -> {
+            try {
+                return methodHandle.invokeExact();
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        };
+    }
+
+    /**
+     * classLoader是否是本类的类加载器或者它的祖先,这时本类的类加载器能够解析classLoader加载的类
+     */
+    private static boolean isVisible(final ClassLoader classLoader) {
+        if (classLoader == null) {
+            return true;
+        }
+        for (ClassLoader current = SerializationCodecs.class.getClassLoader(); current != null; current = current.getParent()) {
+            if (current == classLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SerializationCodecs() {
+    }
+
+}
@@ -0,0 +1,1000 @@
+package com.egls.server.utils.databind.serialization;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.egls.server.utils.CollectionUtil;
+import com.egls.server.utils.StringUtil;
+import com.egls.server.utils.exception.IllegalFormatException;
+import com.egls.server.utils.exception.UnsupportedTypeException;
+import com.egls.server.utils.reflect.TypeUtil;
+
+import static com.egls.server.utils.databind.serialization.Serialization.*;
+
+/**
+ * <pre>
+ *     {@link Serializer}的序列化字符串的流式读取工具,读取的格式与{@link Serializer}完全相同.
+ *
+ *     {@link Serializer#Serializer(String)}会复制输入的字符串,并且一次性把所有的值拆分成字符串,嵌套的对象还会再次截取和拆分.
+ *     本类直接在原始的{@link CharSequence}上移动游标,每次get的时候才解析下一个值:
+ *         整数,浮点数,布尔值以及它们的数组,直接从字符解析,不产生中间的字符串.
+ *         嵌套的对象(包括Map和Collection)与外层共享同一个游标,读取完毕后游标停在这个对象之后.
+ *         嵌套对象的类型如果实现了{@link Serializable#deserialize(SerializedReader)},就不会截取它的字符串.
+ *
+ *     读取的顺序和类型必须与写入时一致,没有读取的值在嵌套对象结束时会被跳过.
+ *
+ *     Note: 本类的实现不是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 18:20]
+ */
+@SuppressWarnings("unchecked")
+public final class SerializedReader {
+
+    public static <T extends Serializable> T deserialize(final CharSequence serializedString, final Class<T> clazz) {
+        return newObject(clazz, new SerializedReader(serializedString));
+    }
+
+    private static <T extends Serializable> T newObject(final Class<T> clazz, final SerializedReader reader) {
+        T result;
+        try {
+            result = SerializationCodecs.newInstance(clazz);
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+        result.deserialize(reader);
+        return result;
+    }
+
+    private static boolean isDelimiter(final char c) {
+        return c == SPLIT_CHAR || c == BRACKET_RIGHT_ARRAY_CHAR || c == BRACKET_RIGHT_SERIALIZED_OBJECT_CHAR;
+    }
+
+    /**
+     * 小于2^53的整数除以这些值时,结果是正确舍入的
+     */
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * 小于2^24的整数除以这些值时,结果是正确舍入的
+     */
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    /**
+     * 所有嵌套的读取对象共享的游标
+     */
+    private static final class Cursor {
+
+        private final CharSequence sequence;
+
+        private final int length;
+
+        private int index;
+
+        /**
+         * 最后一次读取的值的范围,[tokenStart, tokenEnd)
+         */
+        private int tokenStart;
+
+        private int tokenEnd;
+
+        /**
+         * 读取数组时复用的临时空间
+         */
+        private long[] longs = new long[16];
+
+        private double[] doubles = new double[16];
+
+        private final StringBuilder stringBuilder = new StringBuilder();
+
+        private Cursor(final CharSequence sequence) {
+            this.sequence = sequence;
+            this.length = sequence.length();
+        }
+
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final Cursor cursor;
+
+    /**
+     * 本对象的'{'的位置
+     */
+    private final int start;
+
+    /**
+     * 最外层对象的'}'的位置,嵌套的对象为-1,遇到'}'时结束
+     */
+    private final int end;
+
+    private boolean closed = false;
+
+    /**
+     * @param serializedString {@link Serializer#serialize()}得到的序列化字符串,不会被复制
+     */
+    public SerializedReader(final CharSequence serializedString) {
+        if (serializedString == null
+                || serializedString.length() < 2
+                || serializedString.charAt(0) != BRACKET_LEFT_SERIALIZED_OBJECT_CHAR
+                || serializedString.charAt(serializedString.length() - 1) != BRACKET_RIGHT_SERIALIZED_OBJECT_CHAR) {
+            throw new IllegalFormatException(String.format("not serialized string. %s", serializedString));
+        }
+        this.cursor = new Cursor(serializedString);
+        this.start = 0;
+        this.end = serializedString.length() - 1;
+        this.cursor.index = 1;
+    }
+
+    /**
+     * 嵌套的对象,游标必须在'{'上
+     */
+    private SerializedReader(final Cursor cursor) {
+        if (cursor.index >= cursor.length || cursor.sequence.charAt(cursor.index) != BRACKET_LEFT_SERIALIZED_OBJECT_CHAR) {
+            throw new IllegalFormatException(String.format("not serialized string. at %d", cursor.index));
+        }
+        this.cursor = cursor;
+        this.start = cursor.index;
+        this.end = -1;
+        this.cursor.index++;
+    }
+
+    /**
+     * 本对象中是否还有没有读取的值
+     */
+    public final boolean hasNext() {
+        if (end >= 0) {
+            return cursor.index < end;
+        }
+        return cursor.index < cursor.length && cursor.sequence.charAt(cursor.index) != BRACKET_RIGHT_SERIALIZED_OBJECT_CHAR;
+    }
+
+    /**
+     * <pre>
+     * 获取本对象完整的序列化字符串(包括两侧的括号),游标移动到本对象的末尾.
+     * 用于没有实现{@link Serializable#deserialize(SerializedReader)}的对象.
+     * </pre>
+     */
+    public final String toSerializedString() {
+        if (end >= 0) {
+            cursor.index = end;
+            return cursor.sequence.toString();
+        }
+        final int bracketEnd = bracketEnd(start);
+        cursor.index = bracketEnd - 1;
+        return substring(start, bracketEnd);
+    }
+
+    /**
+     * 跳过没有读取的值和'}'
+     */
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (hasNext()) {
+            skipValue();
+        }
+        if (end < 0) {
+            if (cursor.index >= cursor.length) {
+                throw new IllegalFormatException(String.format("unclosed serialized string. at %d", start));
+            }
+            cursor.index++;
+            skipSplit();
+        }
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private char charAt(final int index) {
+        return cursor.sequence.charAt(index);
+    }
+
+    private String substring(final int from, final int to) {
+        return cursor.sequence.subSequence(from, to).toString();
+    }
+
+    private String tokenString() {
+        return substring(cursor.tokenStart, cursor.tokenEnd);
+    }
+
+    private void ensureNext() {
+        if (!hasNext()) {
+            throw new IllegalStateException("no more value to read!");
+        }
+    }
+
+    private void skipSplit() {
+        if (cursor.index < cursor.length && charAt(cursor.index) == SPLIT_CHAR) {
+            cursor.index++;
+        }
+    }
+
+    /**
+     * 下一个值是NULL时,跳过它
+     */
+    private boolean nextNull() {
+        final int index = cursor.index;
+        if (index + NULL.length() <= cursor.length
+                && charAt(index) == 'N' && charAt(index + 1) == 'U' && charAt(index + 2) == 'L' && charAt(index + 3) == 'L'
+                && (index + NULL.length() == cursor.length || isDelimiter(charAt(index + NULL.length())))) {
+            cursor.index = index + NULL.length();
+            skipSplit();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 读取下一个不带括号的值,第一个字符总是属于这个值(例如字符',').
+     */
+    private void nextToken() {
+        final int from = cursor.index;
+        int to = from + 1;
+        while (to < cursor.length && !isDelimiter(charAt(to))) {
+            to++;
+        }
+        cursor.tokenStart = from;
+        cursor.tokenEnd = to;
+        cursor.index = to;
+        skipSplit();
+    }
+
+    /**
+     * 括号匹配,与{@link Serializer}一致只匹配同一种括号,转义字符之后的字符不参与匹配.
+     *
+     * @return 右括号之后的位置
+     */
+    private int bracketEnd(final int from) {
+        final char left = charAt(from);
+        final char right = left == BRACKET_LEFT_ARRAY_CHAR ? BRACKET_RIGHT_ARRAY_CHAR : BRACKET_RIGHT_SERIALIZED_OBJECT_CHAR;
+        int count = 0;
+        for (int i = from; i < cursor.length; i++) {
+            final char c = charAt(i);
+            if (c == ESCAPE_CHAR) {
+                i++;
+            } else if (c == left) {
+                count++;
+            } else if (c == right && --count == 0) {
+                return i + 1;
+            }
+        }
+        throw new IllegalFormatException(String.format("unclosed bracket. at %d", from));
+    }
+
+    /**
+     * 字符串的结束引号的位置
+     */
+    private int quoteEnd(final int from) {
+        for (int i = from + 1; i < cursor.length; i++) {
+            final char c = charAt(i);
+            if (c == ESCAPE_CHAR) {
+                i++;
+            } else if (c == BRACKET_STRING_CHAR) {
+                return i;
+            }
+        }
+        throw new IllegalFormatException(String.format("unclosed string. at %d", from));
+    }
+
+    private void skipValue() {
+        final int index = cursor.index;
+        final char c = charAt(index);
+        if (c == BRACKET_STRING_CHAR) {
+            cursor.index = quoteEnd(index) + 1;
+            skipSplit();
+        } else if (c == BRACKET_LEFT_ARRAY_CHAR || c == BRACKET_LEFT_SERIALIZED_OBJECT_CHAR) {
+            cursor.index = bracketEnd(index);
+            skipSplit();
+        } else {
+            nextToken();
+        }
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private String illegalToken() {
+        return String.format("illegal value [%s]. at %d", tokenString(), cursor.tokenStart);
+    }
+
+    /**
+     * 解析最后一次读取的值,格式不是简单的十进制整数时,交给JDK解析以得到相同的结果或者异常
+     */
+    private long parseLong() {
+        final int from = cursor.tokenStart;
+        final int to = cursor.tokenEnd;
+        int i = from;
+        final boolean negative = charAt(i) == '-';
+        if (negative || charAt(i) == '+') {
+            i++;
+        }
+        //18位十进制数不会溢出
+        if (i == to || to - i > 18) {
+            return Long.parseLong(tokenString());
+        }
+        long result = 0;
+        for (; i < to; i++) {
+            final int digit = charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(tokenString());
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    private long parseInt() {
+        final long value = parseLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return Integer.parseInt(tokenString());
+        }
+        return value;
+    }
+
+    private long parseShort() {
+        final long value = parseLong();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            return Short.parseShort(tokenString());
+        }
+        return value;
+    }
+
+    private long parseByte() {
+        final long value = parseLong();
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            return Byte.parseByte(tokenString());
+        }
+        return value;
+    }
+
+    private long parseChar() {
+        return charAt(cursor.tokenStart);
+    }
+
+    private long parseBoolean() {
+        final int from = cursor.tokenStart;
+        final int length = cursor.tokenEnd - from;
+        if (length == 4 && charAt(from) == 't' && charAt(from + 1) == 'r' && charAt(from + 2) == 'u' && charAt(from + 3) == 'e') {
+            return 1;
+        }
+        if (length == 5 && charAt(from) == 'f' && charAt(from + 1) == 'a' && charAt(from + 2) == 'l' && charAt(from + 3) == 's' && charAt(from + 4) == 'e') {
+            return 0;
+        }
+        return StringUtil.toBooleanObject(tokenString()) ? 1 : 0;
+    }
+
+    /**
+     * <pre>
+     * 只有整数和小数部分,并且有效数字可以被double精确表示时,一次除法得到正确舍入的结果.
+     * 其它的格式(指数,NaN,Infinity等)交给JDK解析.
+     * </pre>
+     */
+    private double parseDouble() {
+        final int from = cursor.tokenStart;
+        final int to = cursor.tokenEnd;
+        int i = from;
+        final boolean negative = charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            final char c = charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 15) {
+                    return Double.parseDouble(tokenString());
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Double.parseDouble(tokenString());
+            }
+        }
+        if (digits == 0) {
+            return Double.parseDouble(tokenString());
+        }
+        final double value = mantissa / DOUBLE_POWERS_OF_TEN[Math.max(fractionDigits, 0)];
+        return negative ? -value : value;
+    }
+
+    private double parseFloat() {
+        final int from = cursor.tokenStart;
+        final int to = cursor.tokenEnd;
+        int i = from;
+        final boolean negative = charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        int mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            final char c = charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 7) {
+                    return Float.parseFloat(tokenString());
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Float.parseFloat(tokenString());
+            }
+        }
+        if (digits == 0) {
+            return Float.parseFloat(tokenString());
+        }
+        final float value = mantissa / FLOAT_POWERS_OF_TEN[Math.max(fractionDigits, 0)];
+        return negative ? -value : value;
+    }
+
+    /**
+     * 读取字符串,带引号的值会被反转义,数组和嵌套对象返回它们原始的字符串,与{@link Serializer}一致
+     */
+    private String readString() {
+        final int index = cursor.index;
+        final char c = charAt(index);
+        if (c == BRACKET_LEFT_ARRAY_CHAR || c == BRACKET_LEFT_SERIALIZED_OBJECT_CHAR) {
+            cursor.index = bracketEnd(index);
+            skipSplit();
+            return substring(index, cursor.index);
+        }
+        if (c != BRACKET_STRING_CHAR) {
+            nextToken();
+            return tokenString();
+        }
+        final int quoteEnd = quoteEnd(index);
+        String result = null;
+        for (int i = index + 1; i < quoteEnd; i++) {
+            if (charAt(i) == ESCAPE_CHAR) {
+                final StringBuilder stringBuilder = cursor.stringBuilder;
+                stringBuilder.setLength(0);
+                stringBuilder.append(cursor.sequence, index + 1, i);
+                for (int j = i; j < quoteEnd; j++) {
+                    final char current = charAt(j);
+                    stringBuilder.append(current == ESCAPE_CHAR ? unescapeChar(charAt(++j)) : current);
+                }
+                result = stringBuilder.toString();
+                break;
+            }
+        }
+        if (result == null) {
+            result = substring(index + 1, quoteEnd);
+        }
+        cursor.index = quoteEnd + 1;
+        skipSplit();
+        return result;
+    }
+
+    private <T extends Serializable> T readSerializableObject(final Class<T> clazz) {
+        final SerializedReader reader = new SerializedReader(cursor);
+        final T result = newObject(clazz, reader);
+        reader.close();
+        return result;
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 进入数组
+     *
+     * @return 数组为NULL时返回false
+     */
+    private boolean beginArray() {
+        if (nextNull()) {
+            return false;
+        }
+        if (charAt(cursor.index) != BRACKET_LEFT_ARRAY_CHAR) {
+            throw new IllegalFormatException(String.format("not array string. at %d", cursor.index));
+        }
+        cursor.index++;
+        return true;
+    }
+
+    /**
+     * 与{@link Serializer}一致,忽略空的元素
+     */
+    private boolean hasNextElement() {
+        while (cursor.index < cursor.length && charAt(cursor.index) == SPLIT_CHAR) {
+            cursor.index++;
+        }
+        if (cursor.index >= cursor.length) {
+            throw new IllegalFormatException("unclosed array string.");
+        }
+        return charAt(cursor.index) != BRACKET_RIGHT_ARRAY_CHAR;
+    }
+
+    private void endArray() {
+        cursor.index++;
+        skipSplit();
+    }
+
+    /**
+     * 读取基础类型的数组到{@link Cursor#longs}
+     *
+     * @return 元素的数量, 数组为NULL时返回-1
+     */
+    private int readLongElements(final LongSupplier parser) {
+        if (!beginArray()) {
+            return -1;
+        }
+        int count = 0;
+        while (hasNextElement()) {
+            nextToken();
+            if (count == cursor.longs.length) {
+                cursor.longs = Arrays.copyOf(cursor.longs, count << 1);
+            }
+            cursor.longs[count++] = parser.getAsLong();
+        }
+        endArray();
+        return count;
+    }
+
+    /**
+     * 读取浮点数的数组到{@link Cursor#doubles}
+     *
+     * @return 元素的数量, 数组为NULL时返回-1
+     */
+    private int readDoubleElements(final DoubleSupplier parser) {
+        if (!beginArray()) {
+            return -1;
+        }
+        int count = 0;
+        while (hasNextElement()) {
+            nextToken();
+            if (count == cursor.doubles.length) {
+                cursor.doubles = Arrays.copyOf(cursor.doubles, count << 1);
+            }
+            cursor.doubles[count++] = parser.getAsDouble();
+        }
+        endArray();
+        return count;
+    }
+
+    private <T> T[] readObjectArray(final Class<T> elementClass) {
+        if (!beginArray()) {
+            return null;
+        }
+        final List<T> list = new ArrayList<>();
+        while (hasNextElement()) {
+            list.add(read(elementClass));
+        }
+        endArray();
+        return list.toArray((T[]) Array.newInstance(elementClass, list.size()));
+    }
+
+    private byte[] readBytePrimitiveArray() {
+        final int count = readLongElements(this::parseByte);
+        if (count < 0) {
+            return null;
+        }
+        final byte[] array = new byte[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = (byte) cursor.longs[i];
+        }
+        return array;
+    }
+
+    private boolean[] readBooleanPrimitiveArray() {
+        final int count = readLongElements(this::parseBoolean);
+        if (count < 0) {
+            return null;
+        }
+        final boolean[] array = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = cursor.longs[i] != 0;
+        }
+        return array;
+    }
+
+    private char[] readCharPrimitiveArray() {
+        final int count = readLongElements(this::parseChar);
+        if (count < 0) {
+            return null;
+        }
+        final char[] array = new char[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = (char) cursor.longs[i];
+        }
+        return array;
+    }
+
+    private short[] readShortPrimitiveArray() {
+        final int count = readLongElements(this::parseShort);
+        if (count < 0) {
+            return null;
+        }
+        final short[] array = new short[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = (short) cursor.longs[i];
+        }
+        return array;
+    }
+
+    private int[] readIntPrimitiveArray() {
+        final int count = readLongElements(this::parseInt);
+        if (count < 0) {
+            return null;
+        }
+        final int[] array = new int[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = (int) cursor.longs[i];
+        }
+        return array;
+    }
+
+    private long[] readLongPrimitiveArray() {
+        final int count = readLongElements(this::parseLong);
+        return count < 0 ? null : Arrays.copyOf(cursor.longs, count);
+    }
+
+    private float[] readFloatPrimitiveArray() {
+        final int count = readDoubleElements(this::parseFloat);
+        if (count < 0) {
+            return null;
+        }
+        final float[] array = new float[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = (float) cursor.doubles[i];
+        }
+        return array;
+    }
+
+    private double[] readDoublePrimitiveArray() {
+        final int count = readDoubleElements(this::parseDouble);
+        return count < 0 ? null : Arrays.copyOf(cursor.doubles, count);
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private <T> T get(final Class<T> clazz) {
+        ensureNext();
+        return read(clazz);
+    }
+
+    /**
+     * 在游标的位置读取一个值
+     */
+    private <T> T read(final Class<T> clazz) {
+        Serializer.ensureSupported(clazz);
+        if (nextNull()) {
+            //这里的条件是判断真的为null
+            return null;
+        } else if (TypeUtil.isByte(clazz)) {
+            nextToken();
+            return (T) Byte.valueOf((byte) parseByte());
+        } else if (TypeUtil.isBoolean(clazz)) {
+            nextToken();
+            return (T) Boolean.valueOf(parseBoolean() != 0);
+        } else if (TypeUtil.isCharacter(clazz)) {
+            nextToken();
+            return (T) Character.valueOf((char) parseChar());
+        } else if (TypeUtil.isShort(clazz)) {
+            nextToken();
+            return (T) Short.valueOf((short) parseShort());
+        } else if (TypeUtil.isInteger(clazz)) {
+            nextToken();
+            return (T) Integer.valueOf((int) parseInt());
+        } else if (TypeUtil.isLong(clazz)) {
+            nextToken();
+            return (T) Long.valueOf(parseLong());
+        } else if (TypeUtil.isFloat(clazz)) {
+            nextToken();
+            return (T) Float.valueOf((float) parseFloat());
+        } else if (TypeUtil.isDouble(clazz)) {
+            nextToken();
+            return (T) Double.valueOf(parseDouble());
+        } else if (Enum.class.isAssignableFrom(clazz)) {
+            nextToken();
+            return (T) Enum.valueOf((Class<? extends Enum>) clazz, tokenString());
+        } else if (String.class.isAssignableFrom(clazz)) {
+            return (T) readString();
+        } else if (Serializable.class.isAssignableFrom(clazz)) {
+            return (T) readSerializableObject((Class<? extends Serializable>) clazz);
+        } else if (byte[].class.isAssignableFrom(clazz)) {
+            return (T) readBytePrimitiveArray();
+        } else if (boolean[].class.isAssignableFrom(clazz)) {
+            return (T) readBooleanPrimitiveArray();
+        } else if (char[].class.isAssignableFrom(clazz)) {
+            return (T) readCharPrimitiveArray();
+        } else if (short[].class.isAssignableFrom(clazz)) {
+            return (T) readShortPrimitiveArray();
+        } else if (int[].class.isAssignableFrom(clazz)) {
+            return (T) readIntPrimitiveArray();
+        } else if (long[].class.isAssignableFrom(clazz)) {
+            return (T) readLongPrimitiveArray();
+        } else if (float[].class.isAssignableFrom(clazz)) {
+            return (T) readFloatPrimitiveArray();
+        } else if (double[].class.isAssignableFrom(clazz)) {
+            return (T) readDoublePrimitiveArray();
+        } else if (Object[].class.isAssignableFrom(clazz)) {
+            //包装类型,枚举,String,序列化对象的数组
+            return (T) readObjectArray(clazz.getComponentType());
+        } else if (SerializationCodecs.getCustomCodec(clazz) != null) {
+            //注册的自定义类型
+            return SerializationCodecs.getCustomCodec(clazz).decode(readString());
+        } else {
+            throw new UnsupportedTypeException(clazz);
+        }
+    }
+
+    public final byte getBytePrimitive() {
+        ensureNext();
+        nextToken();
+        return (byte) parseByte();
+    }
+
+    public final boolean getBooleanPrimitive() {
+        ensureNext();
+        nextToken();
+        return parseBoolean() != 0;
+    }
+
+    public final char getCharPrimitive() {
+        ensureNext();
+        nextToken();
+        return (char) parseChar();
+    }
+
+    public final short getShortPrimitive() {
+        ensureNext();
+        nextToken();
+        return (short) parseShort();
+    }
+
+    public final int getIntPrimitive() {
+        ensureNext();
+        nextToken();
+        return (int) parseInt();
+    }
+
+    public final long getLongPrimitive() {
+        ensureNext();
+        nextToken();
+        return parseLong();
+    }
+
+    public final float getFloatPrimitive() {
+        ensureNext();
+        nextToken();
+        return (float) parseFloat();
+    }
+
+    public final double getDoublePrimitive() {
+        ensureNext();
+        nextToken();
+        return parseDouble();
+    }
+
+    /**
+     * 读取任意支持的类型,包括通过{@link SerializationCodecs}注册的自定义类型
+     */
+    public final <T> T getObject(final Class<T> clazz) {
+        return get(clazz);
+    }
+
+    public final Byte getByte() {
+        return get(Byte.class);
+    }
+
+    public final Boolean getBoolean() {
+        return get(Boolean.class);
+    }
+
+    public final Character getChar() {
+        return get(Character.class);
+    }
+
+    public final Short getShort() {
+        return get(Short.class);
+    }
+
+    public final Integer getInt() {
+        return get(Integer.class);
+    }
+
+    public final Long getLong() {
+        return get(Long.class);
+    }
+
+    public final Float getFloat() {
+        return get(Float.class);
+    }
+
+    public final Double getDouble() {
+        return get(Double.class);
+    }
+
+    public final <T extends Enum<T>> T getEnum(final Class<T> clazz) {
+        return get(clazz);
+    }
+
+    public final String getString() {
+        return get(String.class);
+    }
+
+    public final <T extends Serializable> T getSerializableObject(final Class<T> clazz) {
+        return get(clazz);
+    }
+
+    public final byte[] getBytePrimitiveArray() {
+        ensureNext();
+        return readBytePrimitiveArray();
+    }
+
+    public final boolean[] getBooleanPrimitiveArray() {
+        ensureNext();
+        return readBooleanPrimitiveArray();
+    }
+
+    public final char[] getCharPrimitiveArray() {
+        ensureNext();
+        return readCharPrimitiveArray();
+    }
+
+    public final short[] getShortPrimitiveArray() {
+        ensureNext();
+        return readShortPrimitiveArray();
+    }
+
+    public final int[] getIntPrimitiveArray() {
+        ensureNext();
+        return readIntPrimitiveArray();
+    }
+
+    public final long[] getLongPrimitiveArray() {
+        ensureNext();
+        return readLongPrimitiveArray();
+    }
+
+    public final float[] getFloatPrimitiveArray() {
+        ensureNext();
+        return readFloatPrimitiveArray();
+    }
+
+    public final double[] getDoublePrimitiveArray() {
+        ensureNext();
+        return readDoublePrimitiveArray();
+    }
+
+    public final Byte[] getByteObjectArray() {
+        return get(Byte[].class);
+    }
+
+    public final Boolean[] getBooleanObjectArray() {
+        return get(Boolean[].class);
+    }
+
+    public final Character[] getCharObjectArray() {
+        return get(Character[].class);
+    }
+
+    public final Short[] getShortObjectArray() {
+        return get(Short[].class);
+    }
+
+    public final Integer[] getIntObjectArray() {
+        return get(Integer[].class);
+    }
+
+    public final Long[] getLongObjectArray() {
+        return get(Long[].class);
+    }
+
+    public final Float[] getFloatObjectArray() {
+        return get(Float[].class);
+    }
+
+    public final Double[] getDoubleObjectArray() {
+        return get(Double[].class);
+    }
+
+    public final <T extends Enum<T>> T[] getEnumArray(final Class<T> enumClass) {
+        ensureNext();
+        return readObjectArray(enumClass);
+    }
+
+    public final String[] getStringArray() {
+        return get(String[].class);
+    }
+
+    public final <T extends Serializable> T[] getSerializeObjectArray(final Class<T> elementClass) {
+        ensureNext();
+        return readObjectArray(elementClass);
+    }
+
+    public final <K, V> HashMap<K, V> getHashMap(final Class<K> keyClass, final Class<V> valueClass) {
+        return (HashMap<K, V>) getMap(keyClass, valueClass, (Supplier<Map<K, V>>) HashMap::new);
+    }
+
+    public final <K, V> LinkedHashMap<K, V> getLinkedHashMap(final Class<K> keyClass, final Class<V> valueClass) {
+        return (LinkedHashMap<K, V>) getMap(keyClass, valueClass, (Supplier<Map<K, V>>) LinkedHashMap::new);
+    }
+
+    public final <K, V> ConcurrentHashMap<K, V> getConcurrentHashMap(final Class<K> keyClass, final Class<V> valueClass) {
+        return (ConcurrentHashMap<K, V>) getMap(keyClass, valueClass, (Supplier<Map<K, V>>) ConcurrentHashMap::new);
+    }
+
+    public final <K, V, M extends Map<K, V>> M getMap(final Class<K> keyClass, final Class<V> valueClass, final Supplier<M> mapFactory) {
+        ensureNext();
+        if (nextNull()) {
+            return null;
+        }
+        final M map = mapFactory.get();
+        final SerializedReader reader = new SerializedReader(cursor);
+        while (reader.hasNext()) {
+            map.put(reader.read(keyClass), reader.read(valueClass));
+        }
+        reader.close();
+        return map;
+    }
+
+    public final <E> ArrayList<E> getArrayList(final Class<E> elementClass) {
+        return (ArrayList<E>) getCollection(elementClass, (Supplier<Collection<E>>) ArrayList::new);
+    }
+
+    public final <E> LinkedList<E> getLinkedList(final Class<E> elementClass) {
+        return (LinkedList<E>) getCollection(elementClass, (Supplier<Collection<E>>) LinkedList::new);
+    }
+
+    public final <E> CopyOnWriteArrayList<E> getCopyOnWriteArrayList(final Class<E> elementClass) {
+        return (CopyOnWriteArrayList<E>) getCollection(elementClass, (Supplier<Collection<E>>) CopyOnWriteArrayList::new);
+    }
+
+    public final <E> HashSet<E> getHashSet(final Class<E> elementClass) {
+        return (HashSet<E>) getCollection(elementClass, (Supplier<Collection<E>>) HashSet::new);
+    }
+
+    public final <E> LinkedHashSet<E> getLinkedHashSet(final Class<E> elementClass) {
+        return (LinkedHashSet<E>) getCollection(elementClass, (Supplier<Collection<E>>) LinkedHashSet::new);
+    }
+
+    public final <E> Set<E> getConcurrentHashSet(final Class<E> elementClass) {
+        return (Set<E>) getCollection(elementClass, (Supplier<Collection<E>>) () -> Collections.newSetFromMap(CollectionUtil.newConcurrentHashMap()));
+    }
+
+    public final <E, C extends Collection<E>> C getCollection(final Class<E> elementClass, final Supplier<C> collectionFactory) {
+        ensureNext();
+        if (nextNull()) {
+            return null;
+        }
+        final C collection = collectionFactory.get();
+        final SerializedReader reader = new SerializedReader(cursor);
+        while (reader.hasNext()) {
+            collection.add(reader.read(elementClass));
+        }
+        reader.close();
+        return collection;
+    }
+
+}
@@ -7,13 +7,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
 
 import com.egls.server.utils.CollectionUtil;
-import com.egls.server.utils.StringUtil;
 import com.egls.server.utils.exception.IllegalFormatException;
 import com.egls.server.utils.exception.UnsupportedTypeException;
-import com.egls.server.utils.reflect.ConstructorUtil;
-import com.egls.server.utils.reflect.TypeUtil;
 
-import org.apache.commons.lang3.CharUtils;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -23,6 +19,7 @@ import org.apache.commons.lang3.StringUtils;
  *         支持全部基础类型和基础类型数组.
  *         支持List,Map,Set(但反序列化仅支持ArrayList,LinkedList,HashMap,LinkedHashMap,HashSet)
  *         支持枚举类型,支持枚举数组类型,支持集合枚举
+ *         支持通过{@link SerializationCodecs#register(Class, SerializationCodec)}注册的自定义类型
  *
  *     Note: 本类的实现不是线程安全的.
  * </pre>
@@ -35,7 +32,7 @@ public final class Serializer implements Serializable {
     public static <T extends Serializable> T deserialize(final String serializedString, final Class<T> clazz) {
         T result;
         try {
-            result = ConstructorUtil.newObjectWithNoneParam(clazz);
+            result = SerializationCodecs.newInstance(clazz);
             result.deserialize(serializedString);
         } catch (Exception exception) {
             throw new RuntimeException(exception);
@@ -72,42 +69,16 @@ public final class Serializer implements Serializable {
         }
     }
 
+    /**
+     * <pre>
+     * 判断类型是否支持,支持的类型:
+     *     包装类型,枚举,String,{@link Serializable},以及它们的数组.
+     *     基础类型数组,Map,Collection.
+     *     通过{@link SerializationCodecs#register(Class, SerializationCodec)}注册的类型.
+     * </pre>
+     */
     public static boolean validateSupported(final Class<?> clazz) {
-        return Byte.class.isAssignableFrom(clazz)
-                || Boolean.class.isAssignableFrom(clazz)
-                || Character.class.isAssignableFrom(clazz)
-                || Short.class.isAssignableFrom(clazz)
-                || Integer.class.isAssignableFrom(clazz)
-                || Long.class.isAssignableFrom(clazz)
-                || Float.class.isAssignableFrom(clazz)
-                || Double.class.isAssignableFrom(clazz)
-                || Enum.class.isAssignableFrom(clazz)
-                || String.class.isAssignableFrom(clazz)
-                || Serializable.class.isAssignableFrom(clazz)
-
-                || byte[].class.isAssignableFrom(clazz)
-                || boolean[].class.isAssignableFrom(clazz)
-                || char[].class.isAssignableFrom(clazz)
-                || short[].class.isAssignableFrom(clazz)
-                || int[].class.isAssignableFrom(clazz)
-                || long[].class.isAssignableFrom(clazz)
-                || float[].class.isAssignableFrom(clazz)
-                || double[].class.isAssignableFrom(clazz)
-
-                || Byte[].class.isAssignableFrom(clazz)
-                || Boolean[].class.isAssignableFrom(clazz)
-                || Character[].class.isAssignableFrom(clazz)
-                || Short[].class.isAssignableFrom(clazz)
-                || Integer[].class.isAssignableFrom(clazz)
-                || Long[].class.isAssignableFrom(clazz)
-                || Float[].class.isAssignableFrom(clazz)
-                || Double[].class.isAssignableFrom(clazz)
-                || Enum[].class.isAssignableFrom(clazz)
-                || String[].class.isAssignableFrom(clazz)
-                || Serializable[].class.isAssignableFrom(clazz)
-
-                || Map.class.isAssignableFrom(clazz)
-                || Collection.class.isAssignableFrom(clazz);
+        return SerializationCodecs.isSupported(clazz);
     }
 
     //////////////////////////////////////////////////////////////////////////////////////////////////
@@ -144,155 +115,20 @@ public final class Serializer implements Serializable {
     }
 
     private <T> T get(final Class<T> clazz) {
-        ensureSupported(clazz);
+        final SerializationCodec<T> codec = SerializationCodecs.getCodec(clazz);
         final String operationString = nextOperationString();
         if (operationString == null) {
             //这里的条件是判断真的为null
             return null;
-        } else if (TypeUtil.isByte(clazz)) {
-            return (T) Byte.valueOf(operationString);
-        } else if (TypeUtil.isBoolean(clazz)) {
-            return (T) StringUtil.toBooleanObject(operationString);
-        } else if (TypeUtil.isCharacter(clazz)) {
-            return (T) CharUtils.toCharacterObject(operationString);
-        } else if (TypeUtil.isShort(clazz)) {
-            return (T) Short.valueOf(operationString);
-        } else if (TypeUtil.isInteger(clazz)) {
-            return (T) Integer.valueOf(operationString);
-        } else if (TypeUtil.isLong(clazz)) {
-            return (T) Long.valueOf(operationString);
-        } else if (TypeUtil.isFloat(clazz)) {
-            return (T) Float.valueOf(operationString);
-        } else if (TypeUtil.isDouble(clazz)) {
-            return (T) Double.valueOf(operationString);
-        } else if (Enum.class.isAssignableFrom(clazz)) {
-            return (T) Enum.valueOf((Class<? extends Enum>) clazz, operationString);
-        } else if (String.class.isAssignableFrom(clazz)) {
-            return (T) operationString;
-        } else if (Serializable.class.isAssignableFrom(clazz)) {
-            return (T) deserialize(operationString, (Class<? extends Serializable>) clazz);
-        } else if (byte[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeBytePrimitiveArray(operationString);
-        } else if (boolean[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeBooleanPrimitiveArray(operationString);
-        } else if (char[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeCharPrimitiveArray(operationString);
-        } else if (short[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeShortPrimitiveArray(operationString);
-        } else if (int[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeIntPrimitiveArray(operationString);
-        } else if (long[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeLongPrimitiveArray(operationString);
-        } else if (float[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeFloatPrimitiveArray(operationString);
-        } else if (double[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeDoublePrimitiveArray(operationString);
-        } else if (Byte[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeObjectArray(operationString, Byte[]::new, Byte::valueOf);
-        } else if (Boolean[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeObjectArray(operationString, Boolean[]::new, StringUtil::toBooleanObject);
-        } else if (Character[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeObjectArray(operationString, Character[]::new, CharUtils::toChar);
-        } else if (Short[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeObjectArray(operationString, Short[]::new, Short::valueOf);
-        } else if (Integer[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeObjectArray(operationString, Integer[]::new, Integer::valueOf);
-        } else if (Long[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeObjectArray(operationString, Long[]::new, Long::valueOf);
-        } else if (Float[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeObjectArray(operationString, Float[]::new, Float::valueOf);
-        } else if (Double[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeObjectArray(operationString, Double[]::new, Double::valueOf);
-        } else if (Enum[].class.isAssignableFrom(clazz)) {
-            final Class<? extends Enum> enumClass = (Class<? extends Enum>) clazz.getComponentType();
-            return (T) Serialization.deserializeObjectArray(operationString, length -> (Enum<?>[]) Array.newInstance(enumClass, length), s -> Enum.valueOf(enumClass, s));
-        } else if (String[].class.isAssignableFrom(clazz)) {
-            return (T) Serialization.deserializeEscapedObjectArray(operationString, String[]::new, s -> s);
-        } else if (Serializable[].class.isAssignableFrom(clazz)) {
-            final Class<? extends Serializable> elementClass = (Class<? extends Serializable>) clazz.getComponentType();
-            return (T) Serialization.deserializeEscapedObjectArray(operationString, length -> (Serializable[]) Array.newInstance(elementClass, length), s -> deserialize(s, elementClass));
-        } else {
-            throw new UnsupportedTypeException(clazz);
         }
+        return codec.decode(operationString);
     }
 
     public final void add(final Object object) {
-        ensureSupported(object);
         if (object == null) {
             list.add(Serialization.NULL);
-        } else if (object instanceof Byte) {
-            list.add(String.valueOf(object));
-        } else if (object instanceof Boolean) {
-            list.add(String.valueOf(object));
-        } else if (object instanceof Character) {
-            list.add(String.valueOf(object));
-        } else if (object instanceof Short) {
-            list.add(String.valueOf(object));
-        } else if (object instanceof Integer) {
-            list.add(String.valueOf(object));
-        } else if (object instanceof Long) {
-            list.add(String.valueOf(object));
-        } else if (object instanceof Float) {
-            list.add(String.valueOf(object));
-        } else if (object instanceof Double) {
-            list.add(String.valueOf(object));
-        } else if (object instanceof Enum) {
-            list.add(((Enum<?>) object).name());
-        } else if (object instanceof String) {
-            list.add(Serialization.escapeString((String) object));
-        } else if (object instanceof Serializable) {
-            list.add(((Serializable) object).serialize());
-        } else if (object instanceof byte[]) {
-            list.add(Serialization.serializeBytePrimitiveArray((byte[]) object));
-        } else if (object instanceof boolean[]) {
-            list.add(Serialization.serializeBooleanPrimitiveArray((boolean[]) object));
-        } else if (object instanceof char[]) {
-            list.add(Serialization.serializeCharPrimitiveArray((char[]) object));
-        } else if (object instanceof short[]) {
-            list.add(Serialization.serializeShortPrimitiveArray((short[]) object));
-        } else if (object instanceof int[]) {
-            list.add(Serialization.serializeIntPrimitiveArray((int[]) object));
-        } else if (object instanceof long[]) {
-            list.add(Serialization.serializeLongPrimitiveArray((long[]) object));
-        } else if (object instanceof float[]) {
-            list.add(Serialization.serializeFloatPrimitiveArray((float[]) object));
-        } else if (object instanceof double[]) {
-            list.add(Serialization.serializeDoublePrimitiveArray((double[]) object));
-        } else if (object instanceof Byte[]) {
-            list.add(Serialization.serializeObjectArray((Byte[]) object, String::valueOf));
-        } else if (object instanceof Boolean[]) {
-            list.add(Serialization.serializeObjectArray((Boolean[]) object, String::valueOf));
-        } else if (object instanceof Character[]) {
-            list.add(Serialization.serializeObjectArray((Character[]) object, CharUtils::toString));
-        } else if (object instanceof Short[]) {
-            list.add(Serialization.serializeObjectArray((Short[]) object, String::valueOf));
-        } else if (object instanceof Integer[]) {
-            list.add(Serialization.serializeObjectArray((Integer[]) object, String::valueOf));
-        } else if (object instanceof Long[]) {
-            list.add(Serialization.serializeObjectArray((Long[]) object, String::valueOf));
-        } else if (object instanceof Float[]) {
-            list.add(Serialization.serializeObjectArray((Float[]) object, String::valueOf));
-        } else if (object instanceof Double[]) {
-            list.add(Serialization.serializeObjectArray((Double[]) object, String::valueOf));
-        } else if (Enum[].class.isAssignableFrom(object.getClass())) {
-            list.add(Serialization.serializeObjectArray((Enum[]) object, Enum::name));
-        } else if (object instanceof String[]) {
-            list.add(Serialization.serializeObjectArray((String[]) object, Serialization::escapeString));
-        } else if (object instanceof Serializable[]) {
-            list.add(Serialization.serializeObjectArray((Serializable[]) object, Serializable::serialize));
-        } else if (object instanceof Map) {
-            final Serializer serializer = new Serializer();
-            ((Map<?, ?>) object).forEach((key, value) -> {
-                serializer.add(key);
-                serializer.add(value);
-            });
-            add(serializer);
-        } else if (object instanceof Collection) {
-            final Serializer serializer = new Serializer();
-            ((Collection<?>) object).forEach(serializer::add);
-            add(serializer);
         } else {
-            throw new UnsupportedTypeException(object.getClass());
+            list.add(SerializationCodecs.getCodec((Class<Object>) object.getClass()).encode(object));
         }
     }
 
@@ -334,6 +170,13 @@ public final class Serializer implements Serializable {
         return list.size() - position;
     }
 
+    /**
+     * 读取任意支持的类型,包括通过{@link SerializationCodecs}注册的自定义类型
+     */
+    public final <T> T getObject(final Class<T> clazz) {
+        return get(clazz);
+    }
+
     public final Byte getByte() {
         return get(Byte.class);
     }
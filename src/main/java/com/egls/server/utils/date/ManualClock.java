@@ -0,0 +1,78 @@
+package com.egls.server.utils.date;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     一个手动控制的{@link Clock},时间只会在调用{@link #advance(Duration)}或{@link #setMillis(long)}时改变.
+ *     主要用于测试,可以注入到依赖{@link Clock}的对象中,确定性的快进时间.
+ *
+ *     本类是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 14:10]
+ */
+public final class ManualClock extends Clock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AtomicLong millis;
+
+    private final ZoneId zone;
+
+    public ManualClock(final long millis) {
+        this(new AtomicLong(millis), ZoneId.systemDefault());
+    }
+
+    public ManualClock(final long millis, final ZoneId zone) {
+        this(new AtomicLong(millis), zone);
+    }
+
+    private ManualClock(final AtomicLong millis, final ZoneId zone) {
+        this.millis = millis;
+        this.zone = Objects.requireNonNull(zone);
+    }
+
+    /**
+     * 向后拨动时间
+     *
+     * @param duration 时长,负数表示向前拨动
+     */
+    public void advance(final Duration duration) {
+        millis.addAndGet(duration.toMillis());
+    }
+
+    public void setMillis(final long millis) {
+        this.millis.set(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 返回的新对象与本对象共享同一个时间
+     */
+    @Override
+    public Clock withZone(final ZoneId zone) {
+        return new ManualClock(millis, zone);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+
+}
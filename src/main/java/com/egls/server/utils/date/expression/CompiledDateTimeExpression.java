@@ -0,0 +1,638 @@
+package com.egls.server.utils.date.expression;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.chrono.IsoChronology;
+import java.util.Date;
+import java.util.Objects;
+
+import com.egls.server.utils.date.DateTimeUtil;
+
+/**
+ * <pre>
+ *     预编译的{@link DateTimeExpression},通过{@link DateTimeExpression#compile()}获得.
+ *
+ *     表达式的每一行,是把所有非*的列按照 年 月 日 时 分 秒 的顺序组成一个元组,再和这一行的最小值,最大值按照字典序比较,并且星期几要在范围内.
+ *     编译时把每一行的最小值和最大值按位打包成long,同时记录非*列的位掩码,星期几编译成一个位集合.
+ *     检测时只需要把时间拆解一次,打包后和每一行做两次整数比较,不会产生装箱和临时对象.
+ *
+ *     求下一个(上一个)满足或者不满足的时间点时,像cron的求值器一样,按照 年 月 日 时 分 秒 的顺序逐列跳跃,而不是逐个单位的搜索.
+ *     与{@link DateTimeExpression}不同的是,这里求出的时间点和{@link #check(LocalDateTime)}的结果严格一致,精确到秒.
+ *     如果在{@value #SEARCH_YEARS}年之内都找不到,返回null.
+ *
+ *     本类是不可变的,线程安全.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 15:20]
+ */
+public final class CompiledDateTimeExpression {
+
+    /**
+     * 列的序号,从大到小排列,与打包以后的位的高低一致
+     */
+    static final int YEAR = 0;
+    static final int MONTH = 1;
+    static final int DAY = 2;
+    static final int HOUR = 3;
+    static final int MINUTE = 4;
+    static final int SECOND = 5;
+    static final int FIELD_COUNT = 6;
+
+    private static final DateTimeExpressionPart[] PARTS = {
+            DateTimeExpressionPart.YEAR, DateTimeExpressionPart.MONTH, DateTimeExpressionPart.DAY_OF_MONTH,
+            DateTimeExpressionPart.HOUR, DateTimeExpressionPart.MINUTE, DateTimeExpressionPart.SECOND
+    };
+
+    private static final int[] SHIFTS = {26, 22, 17, 12, 6, 0};
+
+    private static final int[] WIDTHS = {20, 4, 5, 5, 6, 6};
+
+    /**
+     * 每列的取值范围,年和日是抽象的范围,实际的范围在搜索时决定
+     */
+    private static final int[] MIN_VALUES = {0, 1, 1, 0, 0, 0};
+    private static final int[] MAX_VALUES = {(1 << 20) - 1, 12, 31, 23, 59, 59};
+
+    private static final int ALL_DAY_OF_WEEK = 0b1111_1110;
+
+    /**
+     * 每个月的1号相对于星期几的偏移,用于不创建对象的计算星期几
+     */
+    private static final int[] DAY_OF_WEEK_OFFSETS = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
+
+    private static final boolean FORWARD = true;
+    private static final boolean BACKWARD = false;
+
+    /**
+     * 最多向前(后)搜索的年数,400年是公历的一个完整周期,星期几和日期的组合都会重复出现
+     */
+    static final int SEARCH_YEARS = 400;
+
+    static long pack(final int year, final int month, final int dayOfMonth, final int hour, final int minute, final int second) {
+        return ((long) year << SHIFTS[YEAR])
+                | ((long) month << SHIFTS[MONTH])
+                | ((long) dayOfMonth << SHIFTS[DAY])
+                | ((long) hour << SHIFTS[HOUR])
+                | ((long) minute << SHIFTS[MINUTE])
+                | ((long) second << SHIFTS[SECOND]);
+    }
+
+    static long pack(final LocalDateTime localDateTime) {
+        return pack(localDateTime.getYear(), localDateTime.getMonthValue(), localDateTime.getDayOfMonth(),
+                localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond());
+    }
+
+    static int lengthOfMonth(final int year, final int month) {
+        return Month.of(month).length(IsoChronology.INSTANCE.isLeapYear(year));
+    }
+
+    private static int[] decompose(final LocalDateTime localDateTime) {
+        return new int[]{
+                localDateTime.getYear(), localDateTime.getMonthValue(), localDateTime.getDayOfMonth(),
+                localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond()
+        };
+    }
+
+    private static LocalDateTime earlier(final LocalDateTime one, final LocalDateTime another) {
+        if (one == null) {
+            return another;
+        }
+        if (another == null) {
+            return one;
+        }
+        return one.isBefore(another) ? one : another;
+    }
+
+    private static LocalDateTime later(final LocalDateTime one, final LocalDateTime another) {
+        if (one == null) {
+            return another;
+        }
+        if (another == null) {
+            return one;
+        }
+        return one.isAfter(another) ? one : another;
+    }
+
+    /**
+     * 字典序比较时的一个边界,日的边界可能需要根据年月修正
+     */
+    private static final class Bound {
+
+        private final int[] values;
+
+        /**
+         * 日的边界是否取 min(日, 当月天数) + dayOffset
+         */
+        private final boolean clampDay;
+
+        private final int dayOffset;
+
+        private Bound(final int[] values, final boolean clampDay, final int dayOffset) {
+            this.values = values;
+            this.clampDay = clampDay;
+            this.dayOffset = dayOffset;
+        }
+
+        private int get(final int field, final int[] assigned) {
+            if (field == DAY && clampDay) {
+                return Math.min(values[DAY], lengthOfMonth(assigned[YEAR], assigned[MONTH])) + dayOffset;
+            }
+            return values[field];
+        }
+
+    }
+
+    /**
+     * 表达式的一行,相同的行可以在多个表达式之间共享检测的结果
+     */
+    static final class Row {
+
+        private final boolean[] specified = new boolean[FIELD_COUNT];
+
+        private final int[] minimums = new int[FIELD_COUNT];
+
+        private final int[] maximums = new int[FIELD_COUNT];
+
+        private final long mask;
+
+        private final long minimumKey;
+
+        private final long maximumKey;
+
+        /**
+         * 第n位表示星期n
+         */
+        private final int dayOfWeekBits;
+
+        /**
+         * 最小值(最大值)的日大于28时,在小月里会被修正为当月的最后一天
+         */
+        private final boolean clampMinimumDay;
+
+        private final boolean clampMaximumDay;
+
+        private final Bound lower;
+
+        private final Bound upper;
+
+        /**
+         * 最大值的下一个元组,可能为null
+         */
+        private final Bound afterUpper;
+
+        /**
+         * 最小值的上一个元组,可能为null
+         */
+        private final Bound beforeLower;
+
+        private Row(final DateTimeExpressionRange<Integer>[] ranges) {
+            long tempMask = 0L;
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                final DateTimeExpressionRange<Integer> range = ranges[PARTS[field].ordinal()];
+                if (range != null) {
+                    specified[field] = true;
+                    minimums[field] = range.getMinimum();
+                    maximums[field] = range.getMaximum();
+                    tempMask |= ((1L << WIDTHS[field]) - 1) << SHIFTS[field];
+                }
+            }
+            this.mask = tempMask;
+            this.minimumKey = pack(minimums[YEAR], minimums[MONTH], minimums[DAY], minimums[HOUR], minimums[MINUTE], minimums[SECOND]);
+            this.maximumKey = pack(maximums[YEAR], maximums[MONTH], maximums[DAY], maximums[HOUR], maximums[MINUTE], maximums[SECOND]);
+            final DateTimeExpressionRange<Integer> week = ranges[DateTimeExpressionPart.DAY_OF_WEEK.ordinal()];
+            if (week == null) {
+                this.dayOfWeekBits = ALL_DAY_OF_WEEK;
+            } else {
+                int bits = 0;
+                for (int dayOfWeek = week.getMinimum(); dayOfWeek <= week.getMaximum(); dayOfWeek++) {
+                    bits |= 1 << dayOfWeek;
+                }
+                this.dayOfWeekBits = bits;
+            }
+            this.clampMinimumDay = specified[DAY] && minimums[DAY] > 28;
+            this.clampMaximumDay = specified[DAY] && maximums[DAY] > 28;
+            this.lower = new Bound(minimums, specified[DAY], 0);
+            this.upper = new Bound(maximums, specified[DAY], 0);
+            this.afterUpper = successor();
+            this.beforeLower = predecessor();
+        }
+
+        private Bound successor() {
+            final int[] values = maximums.clone();
+            for (int field = SECOND; field >= YEAR; field--) {
+                if (!specified[field]) {
+                    continue;
+                }
+                if (field == DAY) {
+                    //最大值的日是修正以后的,下一个也要在修正以后再加一,超过当月天数时在搜索中自然的进位
+                    return new Bound(values, true, 1);
+                }
+                if (values[field] < MAX_VALUES[field]) {
+                    values[field]++;
+                    return new Bound(values, specified[DAY], 0);
+                }
+                values[field] = MIN_VALUES[field];
+            }
+            return null;
+        }
+
+        private Bound predecessor() {
+            final int[] values = minimums.clone();
+            for (int field = SECOND; field >= YEAR; field--) {
+                if (!specified[field]) {
+                    continue;
+                }
+                if (field == DAY) {
+                    //最小值的日是修正以后的,上一个也要在修正以后再减一,小于1时在搜索中自然的借位
+                    return new Bound(values, true, -1);
+                }
+                if (values[field] > MIN_VALUES[field]) {
+                    values[field]--;
+                    return new Bound(values, specified[DAY], 0);
+                }
+                values[field] = MAX_VALUES[field];
+            }
+            return null;
+        }
+
+        boolean check(final long key, final int dayOfWeek, final int lengthOfMonth) {
+            if ((dayOfWeekBits & (1 << dayOfWeek)) == 0) {
+                return false;
+            }
+            final long maskedKey = key & mask;
+            long tempMinimumKey = minimumKey;
+            if (clampMinimumDay && lengthOfMonth < minimums[DAY]) {
+                tempMinimumKey -= (long) (minimums[DAY] - lengthOfMonth) << SHIFTS[DAY];
+            }
+            long tempMaximumKey = maximumKey;
+            if (clampMaximumDay && lengthOfMonth < maximums[DAY]) {
+                tempMaximumKey -= (long) (maximums[DAY] - lengthOfMonth) << SHIFTS[DAY];
+            }
+            return maskedKey >= tempMinimumKey && maskedKey <= tempMaximumKey;
+        }
+
+        private boolean check(final LocalDateTime localDateTime) {
+            return check(pack(localDateTime), localDateTime.getDayOfWeek().getValue(), localDateTime.toLocalDate().lengthOfMonth());
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            //未指定的列在最小值和最大值中都是0,所以这四个值就决定了一行
+            final Row that = (Row) o;
+            return mask == that.mask
+                    && minimumKey == that.minimumKey
+                    && maximumKey == that.maximumKey
+                    && dayOfWeekBits == that.dayOfWeekBits;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mask, minimumKey, maximumKey, dayOfWeekBits);
+        }
+
+        /**
+         * 求给定时间之后(之前)的第一个满足这一行的时间点,包括给定的时间
+         */
+        private LocalDateTime nextValid(final LocalDateTime base, final boolean direction) {
+            return search(decompose(base), lower, upper, direction, dayOfWeekBits);
+        }
+
+        /**
+         * 给定的时间必须满足这一行.
+         * 求给定时间之后(之前)的第一个不满足这一行的时间点
+         */
+        private LocalDateTime nextInvalid(final LocalDateTime base, final boolean direction) {
+            LocalDateTime result = searchOutside(decompose(base), direction);
+            if (dayOfWeekBits != ALL_DAY_OF_WEEK) {
+                final LocalDate date = jumpDate(base.toLocalDate(), ~dayOfWeekBits, direction);
+                result = direction == FORWARD
+                        ? earlier(result, date.atStartOfDay())
+                        : later(result, date.atTime(23, 59, 59));
+            }
+            return result;
+        }
+
+        /**
+         * 搜索元组小于最小值或者大于最大值的第一个时间点
+         */
+        private LocalDateTime searchOutside(final int[] from, final boolean direction) {
+            LocalDateTime result = null;
+            if (afterUpper != null) {
+                result = search(from, afterUpper, null, direction, ALL_DAY_OF_WEEK);
+            }
+            if (beforeLower != null) {
+                final LocalDateTime dateTime = search(from, null, beforeLower, direction, ALL_DAY_OF_WEEK);
+                result = direction == FORWARD ? earlier(result, dateTime) : later(result, dateTime);
+            }
+            return result;
+        }
+
+        /**
+         * 求大于等于(或者小于等于)from的第一个时间点,使得非*的列组成的元组在[lowerBound, upperBound]之间
+         *
+         * @param lowerBound 下边界,null表示没有
+         * @param upperBound 上边界,null表示没有
+         * @param weekBits   星期几的位集合
+         */
+        private LocalDateTime search(final int[] from, final Bound lowerBound, final Bound upperBound, final boolean direction, final int weekBits) {
+            return new Search(from, lowerBound, upperBound, direction, weekBits).search();
+        }
+
+        /**
+         * 按照 年 月 日 时 分 秒 的顺序逐列确定取值.
+         * 每一列的状态是:是否仍然等于from,是否仍然等于下边界,是否仍然等于上边界,一旦不再相等,后面的列就不再受对应的约束.
+         */
+        private final class Search {
+
+            private final int[] from;
+
+            private final Bound lowerBound;
+
+            private final Bound upperBound;
+
+            private final boolean direction;
+
+            private final int weekBits;
+
+            private final int[] values = new int[FIELD_COUNT];
+
+            private Search(final int[] from, final Bound lowerBound, final Bound upperBound, final boolean direction, final int weekBits) {
+                this.from = from;
+                this.lowerBound = lowerBound;
+                this.upperBound = upperBound;
+                this.direction = direction;
+                this.weekBits = weekBits;
+            }
+
+            private LocalDateTime search() {
+                if (search(YEAR, true, lowerBound != null, upperBound != null)) {
+                    return LocalDateTime.of(values[YEAR], values[MONTH], values[DAY], values[HOUR], values[MINUTE], values[SECOND]);
+                }
+                return null;
+            }
+
+            private boolean search(final int field, final boolean tight, final boolean equalLower, final boolean equalUpper) {
+                if (field == FIELD_COUNT) {
+                    return true;
+                }
+                int min;
+                int max;
+                if (field == YEAR) {
+                    min = direction == FORWARD ? from[YEAR] : from[YEAR] - SEARCH_YEARS;
+                    max = direction == FORWARD ? from[YEAR] + SEARCH_YEARS : from[YEAR];
+                } else if (field == DAY) {
+                    min = MIN_VALUES[DAY];
+                    max = lengthOfMonth(values[YEAR], values[MONTH]);
+                } else {
+                    min = MIN_VALUES[field];
+                    max = MAX_VALUES[field];
+                }
+                if (tight) {
+                    if (direction == FORWARD) {
+                        min = Math.max(min, from[field]);
+                    } else {
+                        max = Math.min(max, from[field]);
+                    }
+                }
+                if (specified[field]) {
+                    if (equalLower) {
+                        min = Math.max(min, lowerBound.get(field, values));
+                    }
+                    if (equalUpper) {
+                        max = Math.min(max, upperBound.get(field, values));
+                    }
+                }
+                if (min > max) {
+                    return false;
+                }
+                if (field == YEAR || field == MONTH || (field == DAY && weekBits != ALL_DAY_OF_WEEK)) {
+                    //年和月会影响当月的天数,日会影响星期几,需要逐个尝试
+                    final int firstDayOfWeek = field == DAY ? dayOfWeek(values[YEAR], values[MONTH], 1) : 0;
+                    final int step = direction == FORWARD ? 1 : -1;
+                    for (int value = direction == FORWARD ? min : max; value >= min && value <= max; value += step) {
+                        if (field == DAY && (weekBits & (1 << ((firstDayOfWeek + value - 2) % 7 + 1))) == 0) {
+                            continue;
+                        }
+                        if (searchValue(field, tight, equalLower, equalUpper, value)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                //其他的列,只有边界上的取值会改变后续的状态,所以只需要尝试边界,边界的下一个,以及另一个边界
+                if (direction == FORWARD) {
+                    return searchValue(field, tight, equalLower, equalUpper, min)
+                            || (min + 1 < max && searchValue(field, tight, equalLower, equalUpper, min + 1))
+                            || (min < max && searchValue(field, tight, equalLower, equalUpper, max));
+                } else {
+                    return searchValue(field, tight, equalLower, equalUpper, max)
+                            || (max - 1 > min && searchValue(field, tight, equalLower, equalUpper, max - 1))
+                            || (min < max && searchValue(field, tight, equalLower, equalUpper, min));
+                }
+            }
+
+            private boolean searchValue(final int field, final boolean tight, final boolean equalLower, final boolean equalUpper, final int value) {
+                values[field] = value;
+                final boolean nextTight = tight && value == from[field];
+                boolean nextEqualLower = equalLower;
+                boolean nextEqualUpper = equalUpper;
+                if (specified[field]) {
+                    nextEqualLower = equalLower && value == lowerBound.get(field, values);
+                    nextEqualUpper = equalUpper && value == upperBound.get(field, values);
+                }
+                return search(field + 1, nextTight, nextEqualLower, nextEqualUpper);
+            }
+
+        }
+
+    }
+
+    /**
+     * 星期几,1-7
+     */
+    static int dayOfWeek(final int year, final int month, final int dayOfMonth) {
+        final int y = month < 3 ? year - 1 : year;
+        final int dayOfWeek = Math.floorMod(y + Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400) + DAY_OF_WEEK_OFFSETS[month - 1] + dayOfMonth, 7);
+        return dayOfWeek == 0 ? 7 : dayOfWeek;
+    }
+
+    /**
+     * 给定日期之后(之前)的第一个星期几在位集合中的日期,不包括给定的日期
+     */
+    private static LocalDate jumpDate(final LocalDate date, final int dayOfWeekBits, final boolean direction) {
+        final int step = direction == FORWARD ? 1 : -1;
+        int dayOfWeek = date.getDayOfWeek().getValue();
+        for (int days = 1; days <= 7; days++) {
+            dayOfWeek = Math.floorMod(dayOfWeek - 1 + step, 7) + 1;
+            if ((dayOfWeekBits & (1 << dayOfWeek)) != 0) {
+                return date.plusDays(step * days);
+            }
+        }
+        throw new IllegalArgumentException("dayOfWeekBits : " + dayOfWeekBits);
+    }
+
+    private final String expressionString;
+
+    private final Row[] rows;
+
+    CompiledDateTimeExpression(final String expressionString, final DateTimeExpressionRange<Integer>[][] ranges) {
+        this.expressionString = expressionString;
+        this.rows = new Row[ranges.length];
+        for (int i = 0; i < ranges.length; i++) {
+            rows[i] = new Row(ranges[i]);
+        }
+    }
+
+    public final String getExpressionString() {
+        return expressionString;
+    }
+
+    final Row[] getRows() {
+        return rows;
+    }
+
+    /**
+     * 检测当前.
+     */
+    public final boolean checkCurrent() {
+        return check(LocalDateTime.now());
+    }
+
+    public final boolean check(final Date date) {
+        return check(DateTimeUtil.toLocalDateTime(date));
+    }
+
+    public final boolean check(final long millis) {
+        return check(DateTimeUtil.toLocalDateTime(millis));
+    }
+
+    public final boolean check(final LocalDateTime localDateTime) {
+        return check(pack(localDateTime), localDateTime.getDayOfWeek().getValue(), localDateTime.toLocalDate().lengthOfMonth());
+    }
+
+    /**
+     * 使用已经拆解好的时间检测,批量检测时可以只拆解一次
+     *
+     * @param key           {@link #pack(LocalDateTime)}的结果
+     * @param dayOfWeek     星期几,1-7
+     * @param lengthOfMonth 当月的天数
+     */
+    final boolean check(final long key, final int dayOfWeek, final int lengthOfMonth) {
+        for (Row row : rows) {
+            if (row.check(key, dayOfWeek, lengthOfMonth)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @see DateTimeExpression#nextDateTime(LocalDateTime)
+     */
+    public final LocalDateTime nextDateTime(final LocalDateTime base) {
+        return check(base) ? nextInvalidDateTime(base) : nextValidDateTime(base);
+    }
+
+    /**
+     * 返回一个满足时间表达式的时间点.
+     * 如果给定的时间满足时间表达式的,则返回给定的时间点.
+     * 否则返回之后最近的一个满足时间表达式的时间点,有可能返回的是null.
+     */
+    public final LocalDateTime nextValidDateTime(final LocalDateTime base) {
+        if (check(base)) {
+            return base;
+        }
+        return nextValidDateTimeImpl(base.withNano(0), FORWARD);
+    }
+
+    /**
+     * 返回一个不满足时间表达式的时间点.
+     * 如果给定的时间不满足时间表达式,则返回给定的时间,否则返回之后最近的一个不满足时间表达式的时间点.
+     * 有可能返回的是null,例如* * * * * * *这样的表达式.
+     */
+    public final LocalDateTime nextInvalidDateTime(final LocalDateTime base) {
+        if (!check(base)) {
+            return base;
+        }
+        return nextInvalidDateTimeImpl(base.withNano(0), FORWARD);
+    }
+
+    /**
+     * 返回一个满足时间表达式的时间点.
+     * 如果给定的时间满足时间表达式的,则返回给定的时间点.
+     * 否则返回之前最近的一个满足时间表达式的秒的开始,有可能返回的是null.
+     */
+    public final LocalDateTime previousValidDateTime(final LocalDateTime base) {
+        if (check(base)) {
+            return base;
+        }
+        return nextValidDateTimeImpl(base.withNano(0), BACKWARD);
+    }
+
+    /**
+     * 返回一个不满足时间表达式的时间点.
+     * 如果给定的时间不满足时间表达式,则返回给定的时间,否则返回之前最近的一个不满足时间表达式的秒的开始.
+     * 有可能返回的是null,例如* * * * * * *这样的表达式.
+     */
+    public final LocalDateTime previousInvalidDateTime(final LocalDateTime base) {
+        if (!check(base)) {
+            return base;
+        }
+        return nextInvalidDateTimeImpl(base.withNano(0), BACKWARD);
+    }
+
+    /**
+     * 注意:
+     * 给定的时间是在不满足表达式的状态下.
+     * 每一行各自求出最近的满足的时间点,取最近的一个.
+     */
+    private LocalDateTime nextValidDateTimeImpl(final LocalDateTime base, final boolean direction) {
+        LocalDateTime result = null;
+        for (Row row : rows) {
+            final LocalDateTime dateTime = row.nextValid(base, direction);
+            result = direction == FORWARD ? earlier(result, dateTime) : later(result, dateTime);
+        }
+        return result;
+    }
+
+    /**
+     * 注意:
+     * 给定的时间是在满足表达式的状态下.
+     * 满足的每一行在各自的第一个不满足的时间点之前都是连续满足的,所以跳到其中最远的一个,直到没有任何一行满足.
+     */
+    private LocalDateTime nextInvalidDateTimeImpl(final LocalDateTime base, final boolean direction) {
+        LocalDateTime current = base;
+        while (true) {
+            LocalDateTime next = null;
+            boolean matched = false;
+            for (Row row : rows) {
+                if (!row.check(current)) {
+                    continue;
+                }
+                matched = true;
+                final LocalDateTime dateTime = row.nextInvalid(current, direction);
+                if (dateTime == null) {
+                    return null;
+                }
+                next = direction == FORWARD ? later(next, dateTime) : earlier(next, dateTime);
+            }
+            if (!matched) {
+                return current;
+            }
+            current = next;
+        }
+    }
+
+    @Override
+    public final String toString() {
+        return expressionString;
+    }
+
+}
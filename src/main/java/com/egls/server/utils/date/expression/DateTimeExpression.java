@@ -195,6 +195,7 @@ public final class DateTimeExpression {
 
     private final DateTimeExpressionRange<Integer>[][] rows;
     private final String expressionString;
+    private final CompiledDateTimeExpression compiled;
 
     @SuppressWarnings("unchecked")
     private DateTimeExpression(final String expressionString) {
@@ -255,6 +256,7 @@ public final class DateTimeExpression {
         }
         //最后检测有效性.
         checkValid();
+        compiled = new CompiledDateTimeExpression(expressionString, rows);
     }
 
     private void checkValid() {
@@ -353,6 +355,15 @@ public final class DateTimeExpression {
         return expressionString;
     }
 
+    /**
+     * 获取预编译的表达式,检测和求下一个时间点都更快.
+     *
+     * @see CompiledDateTimeExpression
+     */
+    public final CompiledDateTimeExpression compile() {
+        return compiled;
+    }
+
     /**
      * 检测当前.
      */
@@ -0,0 +1,240 @@
+package com.egls.server.utils.date.expression;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.egls.server.utils.date.DateTimeUtil;
+
+/**
+ * <pre>
+ *     批量检测一组{@link DateTimeExpression}.
+ *
+ *     每次检测只拆解一次时间,然后检测所有注册的表达式.
+ *     不同的表达式中完全相同的行(例如同一个活动时间被多个活动引用)只会检测一次,结果被所有引用它的表达式共享.
+ *     检测的结果是自上一次检测以来状态发生变化的表达式,新加入的表达式视为之前是不满足的.
+ *     {@link #getNextTransitionDateTime()}返回所有表达式中最近的一次状态变化的时间,调度器可以一直休眠到这个时间.
+ *
+ *     本类不是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 16:40]
+ */
+public final class DateTimeExpressionSet {
+
+    private static final class Entry {
+
+        private final DateTimeExpression expression;
+
+        /**
+         * 这个表达式的每一行在共享的行中的序号
+         */
+        private int[] rowIndexes;
+
+        private boolean valid = false;
+
+        /**
+         * 下一次状态变化的时间,以及计算它时使用的时间.nextTransitionBase为null表示需要重新计算
+         */
+        private LocalDateTime nextTransition;
+
+        private LocalDateTime nextTransitionBase;
+
+        private Entry(final DateTimeExpression expression) {
+            this.expression = expression;
+        }
+
+    }
+
+    private final Map<DateTimeExpression, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * 按照加入的顺序保存,检测结果的顺序与加入的顺序一致
+     */
+    private final List<Entry> entryList = new ArrayList<>();
+
+    /**
+     * 所有表达式中不重复的行
+     */
+    private CompiledDateTimeExpression.Row[] rows = new CompiledDateTimeExpression.Row[0];
+
+    private boolean[] rowResults = new boolean[0];
+
+    /**
+     * 表达式发生了增减,需要重新整理共享的行
+     */
+    private boolean dirty = false;
+
+    /**
+     * 最后一次检测的时间
+     */
+    private LocalDateTime evaluatedDateTime;
+
+    /**
+     * 加入一个表达式
+     *
+     * @return 如果已经存在, 返回false
+     */
+    public boolean add(final DateTimeExpression expression) {
+        Objects.requireNonNull(expression);
+        if (entries.containsKey(expression)) {
+            return false;
+        }
+        final Entry entry = new Entry(expression);
+        entries.put(expression, entry);
+        entryList.add(entry);
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * 移除一个表达式
+     *
+     * @return 如果不存在, 返回false
+     */
+    public boolean remove(final DateTimeExpression expression) {
+        final Entry entry = entries.remove(expression);
+        if (entry == null) {
+            return false;
+        }
+        entryList.remove(entry);
+        dirty = true;
+        return true;
+    }
+
+    public boolean contains(final DateTimeExpression expression) {
+        return entries.containsKey(expression);
+    }
+
+    public int size() {
+        return entryList.size();
+    }
+
+    /**
+     * 获取所有表达式中不重复的行的数量
+     */
+    public int getUniqueRowCount() {
+        rebuild();
+        return rows.length;
+    }
+
+    /**
+     * 获取表达式在最后一次检测时的状态,没有检测过或者不存在时返回false
+     */
+    public boolean isValid(final DateTimeExpression expression) {
+        final Entry entry = entries.get(expression);
+        return entry != null && entry.valid;
+    }
+
+    /**
+     * 获取最后一次检测的时间,没有检测过返回null
+     */
+    public LocalDateTime getEvaluatedDateTime() {
+        return evaluatedDateTime;
+    }
+
+    public List<DateTimeExpression> evaluateCurrent() {
+        return evaluate(LocalDateTime.now());
+    }
+
+    public List<DateTimeExpression> evaluate(final Date date) {
+        return evaluate(DateTimeUtil.toLocalDateTime(date));
+    }
+
+    public List<DateTimeExpression> evaluate(final long millis) {
+        return evaluate(DateTimeUtil.toLocalDateTime(millis));
+    }
+
+    /**
+     * 检测所有的表达式
+     *
+     * @return 状态发生变化的表达式, 按照加入的顺序排列
+     */
+    public List<DateTimeExpression> evaluate(final LocalDateTime localDateTime) {
+        rebuild();
+        final long key = CompiledDateTimeExpression.pack(localDateTime);
+        final int dayOfWeek = localDateTime.getDayOfWeek().getValue();
+        final int lengthOfMonth = localDateTime.toLocalDate().lengthOfMonth();
+        for (int i = 0; i < rows.length; i++) {
+            rowResults[i] = rows[i].check(key, dayOfWeek, lengthOfMonth);
+        }
+        final List<DateTimeExpression> changed = new ArrayList<>();
+        for (Entry entry : entryList) {
+            boolean valid = false;
+            for (int rowIndex : entry.rowIndexes) {
+                if (rowResults[rowIndex]) {
+                    valid = true;
+                    break;
+                }
+            }
+            if (valid != entry.valid) {
+                entry.valid = valid;
+                entry.nextTransitionBase = null;
+                changed.add(entry.expression);
+            }
+        }
+        evaluatedDateTime = localDateTime;
+        return changed;
+    }
+
+    /**
+     * <pre>
+     * 以最后一次检测的时间为基准,返回所有表达式中最近的一次状态变化的时间.
+     * 没有检测过,或者所有的表达式都不会再发生变化时返回null.
+     * 每个表达式的结果会被缓存,直到它的状态发生变化或者检测的时间越过了这个结果.
+     * </pre>
+     */
+    public LocalDateTime getNextTransitionDateTime() {
+        if (evaluatedDateTime == null) {
+            return null;
+        }
+        LocalDateTime result = null;
+        for (Entry entry : entryList) {
+            if (entry.nextTransitionBase == null
+                    || evaluatedDateTime.isBefore(entry.nextTransitionBase)
+                    || (entry.nextTransition != null && !evaluatedDateTime.isBefore(entry.nextTransition))) {
+                entry.nextTransition = entry.valid
+                        ? entry.expression.compile().nextInvalidDateTime(evaluatedDateTime)
+                        : entry.expression.compile().nextValidDateTime(evaluatedDateTime);
+                entry.nextTransitionBase = evaluatedDateTime;
+            }
+            if (entry.nextTransition != null && (result == null || entry.nextTransition.isBefore(result))) {
+                result = entry.nextTransition;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 重新整理所有表达式的行,相同的行只保留一个
+     */
+    private void rebuild() {
+        if (!dirty) {
+            return;
+        }
+        final Map<CompiledDateTimeExpression.Row, Integer> rowIndexes = new HashMap<>();
+        final List<CompiledDateTimeExpression.Row> rowList = new ArrayList<>();
+        for (Entry entry : entryList) {
+            final CompiledDateTimeExpression.Row[] entryRows = entry.expression.compile().getRows();
+            entry.rowIndexes = new int[entryRows.length];
+            for (int i = 0; i < entryRows.length; i++) {
+                Integer index = rowIndexes.get(entryRows[i]);
+                if (index == null) {
+                    index = rowList.size();
+                    rowIndexes.put(entryRows[i], index);
+                    rowList.add(entryRows[i]);
+                }
+                entry.rowIndexes[i] = index;
+            }
+        }
+        rows = rowList.toArray(new CompiledDateTimeExpression.Row[0]);
+        rowResults = new boolean[rows.length];
+        dirty = false;
+    }
+
+}
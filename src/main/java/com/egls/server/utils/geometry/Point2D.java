@@ -1,6 +1,9 @@
 package com.egls.server.utils.geometry;
 
 import com.egls.server.utils.databind.json.JsonObject;
+import com.egls.server.utils.databind.serialization.BinarySerializable;
+import com.egls.server.utils.databind.serialization.BinarySerializer;
+import com.egls.server.utils.databind.serialization.SerializedReader;
 import com.egls.server.utils.databind.serialization.Serializable;
 import com.egls.server.utils.databind.serialization.Serializer;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -32,7 +35,7 @@ import static com.egls.server.utils.geometry.GeometryUtil.POINT_PRECISION;
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME)
 @JsonTypeName("Point2D")
-public class Point2D implements Serializable, JsonObject {
+public class Point2D implements Serializable, BinarySerializable, JsonObject {
 
     @JsonProperty("x")
     protected double x;
@@ -139,4 +142,20 @@ public class Point2D implements Serializable, JsonObject {
         this.setXZ(serializer.getDouble(), serializer.getDouble());
     }
 
+    @Override
+    public void deserialize(final SerializedReader reader) {
+        this.setXZ(reader.getDoublePrimitive(), reader.getDoublePrimitive());
+    }
+
+    @Override
+    public void serialize(final BinarySerializer serializer) {
+        serializer.writeDouble(this.x);
+        serializer.writeDouble(this.z);
+    }
+
+    @Override
+    public void deserialize(final BinarySerializer serializer) {
+        this.setXZ(serializer.readDouble(), serializer.readDouble());
+    }
+
 }
@@ -1,5 +1,7 @@
 package com.egls.server.utils.geometry;
 
+import com.egls.server.utils.databind.serialization.BinarySerializer;
+import com.egls.server.utils.databind.serialization.SerializedReader;
 import com.egls.server.utils.databind.serialization.Serializer;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
@@ -136,4 +138,21 @@ public class Point3D extends Point2D {
         this.setXYZ(serializer.getDouble(), serializer.getDouble(), serializer.getDouble());
     }
 
+    @Override
+    public void deserialize(final SerializedReader reader) {
+        this.setXYZ(reader.getDoublePrimitive(), reader.getDoublePrimitive(), reader.getDoublePrimitive());
+    }
+
+    @Override
+    public void serialize(final BinarySerializer serializer) {
+        serializer.writeDouble(this.x);
+        serializer.writeDouble(this.y);
+        serializer.writeDouble(this.z);
+    }
+
+    @Override
+    public void deserialize(final BinarySerializer serializer) {
+        this.setXYZ(serializer.readDouble(), serializer.readDouble(), serializer.readDouble());
+    }
+
 }
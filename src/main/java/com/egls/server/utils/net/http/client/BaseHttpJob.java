@@ -52,9 +52,14 @@ public abstract class BaseHttpJob implements Runnable {
         long elapsedTimeMillis = System.currentTimeMillis() - millis;
         if (elapsedTimeMillis > 0) {
             HttpJobDispatcher.EXECUTE_JOB_ELAPSED_TIME_MILLIS.getAndAdd(elapsedTimeMillis);
-            HttpJobDispatcher.JOB_ELAPSED_TIME_RECORDER_MAP
-                    .computeIfAbsent(getClass().getName(), ElapsedTimeRecorder::new)
-                    .addElapsedTime(elapsedTimeMillis);
+            final String jobName = getClass().getName();
+            //ConcurrentHashMap#computeIfAbsent在键存在时也会锁住桶,先get
+            ElapsedTimeRecorder recorder = HttpJobDispatcher.JOB_ELAPSED_TIME_RECORDER_MAP.get(jobName);
+            if (recorder == null) {
+                recorder = HttpJobDispatcher.JOB_ELAPSED_TIME_RECORDER_MAP
+                        .computeIfAbsent(jobName, name -> new ElapsedTimeRecorder(name, true));
+            }
+            recorder.addElapsedTime(elapsedTimeMillis);
         }
         HttpJobDispatcher.EXECUTE_JOB_COUNT.getAndIncrement();
     }
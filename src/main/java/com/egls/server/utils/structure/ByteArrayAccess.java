@@ -0,0 +1,156 @@
+package com.egls.server.utils.structure;
+
+import java.nio.ByteOrder;
+
+import com.egls.server.utils.UnsafeUtil;
+
+import sun.misc.Unsafe;
+
+/**
+ * <pre>
+ *     在byte[]上按照大端或者小端读写多字节的数据.
+ *
+ *     在支持非对齐访问的平台上,使用{@link Unsafe}一次读写整个数据,否则退回到逐个字节移位的方式.
+ *     不做任何边界检查,调用者必须保证下标在数组的范围内.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 21:10]
+ */
+final class ByteArrayAccess {
+
+    private static final Unsafe UNSAFE;
+
+    private static final long BYTE_ARRAY_BASE_OFFSET;
+
+    private static final boolean NATIVE_BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    static {
+        Unsafe unsafe = null;
+        final String arch = System.getProperty("os.arch");
+        if ("amd64".equals(arch) || "x86_64".equals(arch) || "x86".equals(arch) || "i386".equals(arch) || "aarch64".equals(arch)) {
+            try {
+                unsafe = UnsafeUtil.getUnsafe();
+            } catch (Throwable ignore) {
+                //不可用时退回到移位的方式
+            }
+        }
+        UNSAFE = unsafe;
+        BYTE_ARRAY_BASE_OFFSET = unsafe == null ? 0 : unsafe.arrayBaseOffset(byte[].class);
+    }
+
+    private ByteArrayAccess() {
+    }
+
+    static boolean isUnsafeAccess() {
+        return UNSAFE != null;
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    static short getShort(final byte[] array, final int index) {
+        if (UNSAFE != null) {
+            final short value = UNSAFE.getShort(array, BYTE_ARRAY_BASE_OFFSET + index);
+            return NATIVE_BIG_ENDIAN ? value : Short.reverseBytes(value);
+        }
+        return (short) (((array[index] & 0xFF) << 8) | (array[index + 1] & 0xFF));
+    }
+
+    static int getInt(final byte[] array, final int index) {
+        if (UNSAFE != null) {
+            final int value = UNSAFE.getInt(array, BYTE_ARRAY_BASE_OFFSET + index);
+            return NATIVE_BIG_ENDIAN ? value : Integer.reverseBytes(value);
+        }
+        return ((array[index] & 0xFF) << 24)
+                | ((array[index + 1] & 0xFF) << 16)
+                | ((array[index + 2] & 0xFF) << 8)
+                | (array[index + 3] & 0xFF);
+    }
+
+    static long getLong(final byte[] array, final int index) {
+        if (UNSAFE != null) {
+            final long value = UNSAFE.getLong(array, BYTE_ARRAY_BASE_OFFSET + index);
+            return NATIVE_BIG_ENDIAN ? value : Long.reverseBytes(value);
+        }
+        return ((long) getInt(array, index) << 32) | (getInt(array, index + 4) & 0xFFFFFFFFL);
+    }
+
+    static void putShort(final byte[] array, final int index, final short value) {
+        if (UNSAFE != null) {
+            UNSAFE.putShort(array, BYTE_ARRAY_BASE_OFFSET + index, NATIVE_BIG_ENDIAN ? value : Short.reverseBytes(value));
+            return;
+        }
+        array[index] = (byte) (value >>> 8);
+        array[index + 1] = (byte) value;
+    }
+
+    static void putInt(final byte[] array, final int index, final int value) {
+        if (UNSAFE != null) {
+            UNSAFE.putInt(array, BYTE_ARRAY_BASE_OFFSET + index, NATIVE_BIG_ENDIAN ? value : Integer.reverseBytes(value));
+            return;
+        }
+        array[index] = (byte) (value >>> 24);
+        array[index + 1] = (byte) (value >>> 16);
+        array[index + 2] = (byte) (value >>> 8);
+        array[index + 3] = (byte) value;
+    }
+
+    static void putLong(final byte[] array, final int index, final long value) {
+        if (UNSAFE != null) {
+            UNSAFE.putLong(array, BYTE_ARRAY_BASE_OFFSET + index, NATIVE_BIG_ENDIAN ? value : Long.reverseBytes(value));
+            return;
+        }
+        putInt(array, index, (int) (value >>> 32));
+        putInt(array, index + 4, (int) value);
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    static short getShortLE(final byte[] array, final int index) {
+        if (UNSAFE != null) {
+            final short value = UNSAFE.getShort(array, BYTE_ARRAY_BASE_OFFSET + index);
+            return NATIVE_BIG_ENDIAN ? Short.reverseBytes(value) : value;
+        }
+        return Short.reverseBytes(getShort(array, index));
+    }
+
+    static int getIntLE(final byte[] array, final int index) {
+        if (UNSAFE != null) {
+            final int value = UNSAFE.getInt(array, BYTE_ARRAY_BASE_OFFSET + index);
+            return NATIVE_BIG_ENDIAN ? Integer.reverseBytes(value) : value;
+        }
+        return Integer.reverseBytes(getInt(array, index));
+    }
+
+    static long getLongLE(final byte[] array, final int index) {
+        if (UNSAFE != null) {
+            final long value = UNSAFE.getLong(array, BYTE_ARRAY_BASE_OFFSET + index);
+            return NATIVE_BIG_ENDIAN ? Long.reverseBytes(value) : value;
+        }
+        return Long.reverseBytes(getLong(array, index));
+    }
+
+    static void putShortLE(final byte[] array, final int index, final short value) {
+        if (UNSAFE != null) {
+            UNSAFE.putShort(array, BYTE_ARRAY_BASE_OFFSET + index, NATIVE_BIG_ENDIAN ? Short.reverseBytes(value) : value);
+            return;
+        }
+        putShort(array, index, Short.reverseBytes(value));
+    }
+
+    static void putIntLE(final byte[] array, final int index, final int value) {
+        if (UNSAFE != null) {
+            UNSAFE.putInt(array, BYTE_ARRAY_BASE_OFFSET + index, NATIVE_BIG_ENDIAN ? Integer.reverseBytes(value) : value);
+            return;
+        }
+        putInt(array, index, Integer.reverseBytes(value));
+    }
+
+    static void putLongLE(final byte[] array, final int index, final long value) {
+        if (UNSAFE != null) {
+            UNSAFE.putLong(array, BYTE_ARRAY_BASE_OFFSET + index, NATIVE_BIG_ENDIAN ? Long.reverseBytes(value) : value);
+            return;
+        }
+        putLong(array, index, Long.reverseBytes(value));
+    }
+
+}
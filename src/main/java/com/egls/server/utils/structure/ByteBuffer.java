@@ -1,5 +1,11 @@
 package com.egls.server.utils.structure;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 import com.egls.server.utils.array.ArraySearchUtil;
@@ -15,6 +21,8 @@ import com.egls.server.utils.math.MathUtil;
  *     当空闲时,也会自动缩短,但最短时不会短于给定的初始长度.
  *
  *     包含几个peek方法,方便在于窥视一下之后在进行读取操作.适用于分片缓冲.
+ *     定长的数据默认是大端,以LE结尾的方法是小端.另外支持变长整数,UTF-8字符串和带长度的字节数组.
+ *     可以直接在内部数组和NIO的通道之间读写数据,不需要中间的数组.
  *     当内部数据长度不符合要求读取长度时,会抛出异常{@link IllegalStateException}
  *
  *     本类不是线程安全的.
@@ -34,6 +42,11 @@ public final class ByteBuffer {
 
     private byte[] buf;
 
+    /**
+     * 包装buf的视图,用于与通道交换数据,buf被替换时重新创建
+     */
+    private java.nio.ByteBuffer view;
+
     private final int initialSize;
 
     /**
@@ -97,31 +110,48 @@ public final class ByteBuffer {
 
     public final short peekShort() {
         checkData(2);
-        int value = (buf[position] & 0xFF) << 8;
-        value |= (buf[position + 1] & 0xFF);
-        return (short) value;
+        return ByteArrayAccess.getShort(buf, position);
     }
 
     public final int peekInt() {
         checkData(4);
-        int value = (buf[position] & 0xFF) << 24;
-        value |= (buf[position + 1] & 0xFF) << 16;
-        value |= (buf[position + 2] & 0xFF) << 8;
-        value |= (buf[position + 3] & 0xFF);
-        return value;
+        return ByteArrayAccess.getInt(buf, position);
     }
 
     public final long peekLong() {
         checkData(8);
-        long value = (buf[position] & 0xFFL) << 56;
-        value |= (buf[position + 1] & 0xFFL) << 48;
-        value |= (buf[position + 2] & 0xFFL) << 40;
-        value |= (buf[position + 3] & 0xFFL) << 32;
-        value |= (buf[position + 4] & 0xFFL) << 24;
-        value |= (buf[position + 5] & 0xFFL) << 16;
-        value |= (buf[position + 6] & 0xFFL) << 8;
-        value |= (buf[position + 7] & 0xFFL);
-        return value;
+        return ByteArrayAccess.getLong(buf, position);
+    }
+
+    public final float peekFloat() {
+        return Float.intBitsToFloat(peekInt());
+    }
+
+    public final double peekDouble() {
+        return Double.longBitsToDouble(peekLong());
+    }
+
+    public final short peekShortLE() {
+        checkData(2);
+        return ByteArrayAccess.getShortLE(buf, position);
+    }
+
+    public final int peekIntLE() {
+        checkData(4);
+        return ByteArrayAccess.getIntLE(buf, position);
+    }
+
+    public final long peekLongLE() {
+        checkData(8);
+        return ByteArrayAccess.getLongLE(buf, position);
+    }
+
+    public final float peekFloatLE() {
+        return Float.intBitsToFloat(peekIntLE());
+    }
+
+    public final double peekDoubleLE() {
+        return Double.longBitsToDouble(peekLongLE());
     }
 
     public final byte readByte() {
@@ -148,6 +178,160 @@ public final class ByteBuffer {
         return l;
     }
 
+    public final float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public final double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public final short readShortLE() {
+        short s = peekShortLE();
+        position += 2;
+        return s;
+    }
+
+    public final int readIntLE() {
+        int i = peekIntLE();
+        position += 4;
+        return i;
+    }
+
+    public final long readLongLE() {
+        long l = peekLongLE();
+        position += 8;
+        return l;
+    }
+
+    public final float readFloatLE() {
+        return Float.intBitsToFloat(readIntLE());
+    }
+
+    public final double readDoubleLE() {
+        return Double.longBitsToDouble(readLongLE());
+    }
+
+    /**
+     * 读取无符号的变长整数,每个字节7位有效数据,低位在前
+     */
+    public final int readVarInt() {
+        int pos = position;
+        if (limit - pos >= 5) {
+            //数据足够时不需要逐个字节检查长度
+            int b = buf[pos++];
+            int value = b & 0x7F;
+            if (b < 0) {
+                b = buf[pos++];
+                value |= (b & 0x7F) << 7;
+                if (b < 0) {
+                    b = buf[pos++];
+                    value |= (b & 0x7F) << 14;
+                    if (b < 0) {
+                        b = buf[pos++];
+                        value |= (b & 0x7F) << 21;
+                        if (b < 0) {
+                            b = buf[pos++];
+                            if ((b & 0xF0) != 0) {
+                                throw new IllegalStateException("malformed var int!");
+                            }
+                            value |= b << 28;
+                        }
+                    }
+                }
+            }
+            position = pos;
+            return value;
+        }
+        return (int) readVarLongSlow(5);
+    }
+
+    /**
+     * 读取无符号的变长整数,每个字节7位有效数据,低位在前
+     */
+    public final long readVarLong() {
+        if (limit - position >= 10) {
+            int pos = position;
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = buf[pos++];
+                if (shift == 63 && (b & 0xFE) != 0) {
+                    throw new IllegalStateException("malformed var long!");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    position = pos;
+                    return value;
+                }
+            }
+            throw new IllegalStateException("malformed var long!");
+        }
+        return readVarLongSlow(10);
+    }
+
+    private long readVarLongSlow(final int maxBytes) {
+        int pos = position;
+        long value = 0;
+        for (int i = 0; i < maxBytes; i++) {
+            if (pos >= limit) {
+                throw new IllegalStateException("data length is less than the required length!");
+            }
+            final byte b = buf[pos++];
+            if (maxBytes == 5 && i == 4 && (b & 0xF0) != 0) {
+                //与readVarInt的快速路径一致,第5个字节只能有低4位
+                throw new IllegalStateException("malformed var int!");
+            }
+            if (i == 9 && (b & 0xFE) != 0) {
+                //第10个字节只能有最低位
+                throw new IllegalStateException("malformed var long!");
+            }
+            value |= (long) (b & 0x7F) << (i * 7);
+            if (b >= 0) {
+                position = pos;
+                return value;
+            }
+        }
+        throw new IllegalStateException("malformed var number!");
+    }
+
+    /**
+     * 读取zigzag编码的有符号变长整数
+     */
+    public final int readSignedVarInt() {
+        final int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 读取zigzag编码的有符号变长整数
+     */
+    public final long readSignedVarLong() {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 读取{@link #writeString(String)}写入的字符串
+     */
+    public final String readString() {
+        final int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        checkData(length);
+        final String result = new String(buf, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return result;
+    }
+
+    /**
+     * 读取{@link #writeByteArray(byte[])}写入的数组
+     */
+    public final byte[] readByteArray() {
+        final int length = readVarInt() - 1;
+        return length < 0 ? null : read(length);
+    }
+
     public final byte[] read(final int length) {
         checkData(length);
         byte[] result = new byte[length];
@@ -167,28 +351,155 @@ public final class ByteBuffer {
 
     public final void writeShort(final short val) {
         ensureCapacity(2);
-        buf[limit++] = (byte) (val >>> 8);
-        buf[limit++] = (byte) (val);
+        ByteArrayAccess.putShort(buf, limit, val);
+        limit += 2;
     }
 
     public final void writeInt(final int val) {
         ensureCapacity(4);
-        buf[limit++] = (byte) (val >>> 24);
-        buf[limit++] = (byte) (val >>> 16);
-        buf[limit++] = (byte) (val >>> 8);
-        buf[limit++] = (byte) (val);
+        ByteArrayAccess.putInt(buf, limit, val);
+        limit += 4;
     }
 
     public final void writeLong(final long val) {
         ensureCapacity(8);
-        buf[limit++] = (byte) (val >>> 56);
-        buf[limit++] = (byte) (val >>> 48);
-        buf[limit++] = (byte) (val >>> 40);
-        buf[limit++] = (byte) (val >>> 32);
-        buf[limit++] = (byte) (val >>> 24);
-        buf[limit++] = (byte) (val >>> 16);
-        buf[limit++] = (byte) (val >>> 8);
-        buf[limit++] = (byte) (val);
+        ByteArrayAccess.putLong(buf, limit, val);
+        limit += 8;
+    }
+
+    public final void writeFloat(final float val) {
+        writeInt(Float.floatToRawIntBits(val));
+    }
+
+    public final void writeDouble(final double val) {
+        writeLong(Double.doubleToRawLongBits(val));
+    }
+
+    public final void writeShortLE(final short val) {
+        ensureCapacity(2);
+        ByteArrayAccess.putShortLE(buf, limit, val);
+        limit += 2;
+    }
+
+    public final void writeIntLE(final int val) {
+        ensureCapacity(4);
+        ByteArrayAccess.putIntLE(buf, limit, val);
+        limit += 4;
+    }
+
+    public final void writeLongLE(final long val) {
+        ensureCapacity(8);
+        ByteArrayAccess.putLongLE(buf, limit, val);
+        limit += 8;
+    }
+
+    public final void writeFloatLE(final float val) {
+        writeIntLE(Float.floatToRawIntBits(val));
+    }
+
+    public final void writeDoubleLE(final double val) {
+        writeLongLE(Double.doubleToRawLongBits(val));
+    }
+
+    /**
+     * 写入无符号的变长整数,每个字节7位有效数据,低位在前.负数总是占用5个字节.
+     */
+    public final void writeVarInt(int val) {
+        ensureCapacity(5);
+        while ((val & ~0x7F) != 0) {
+            buf[limit++] = (byte) ((val & 0x7F) | 0x80);
+            val >>>= 7;
+        }
+        buf[limit++] = (byte) val;
+    }
+
+    /**
+     * 写入无符号的变长整数,每个字节7位有效数据,低位在前.负数总是占用10个字节.
+     */
+    public final void writeVarLong(long val) {
+        ensureCapacity(10);
+        while ((val & ~0x7FL) != 0) {
+            buf[limit++] = (byte) ((val & 0x7F) | 0x80);
+            val >>>= 7;
+        }
+        buf[limit++] = (byte) val;
+    }
+
+    /**
+     * 写入zigzag编码的有符号变长整数,绝对值小的负数也只占用很少的字节
+     */
+    public final void writeSignedVarInt(final int val) {
+        writeVarInt((val << 1) ^ (val >> 31));
+    }
+
+    /**
+     * 写入zigzag编码的有符号变长整数,绝对值小的负数也只占用很少的字节
+     */
+    public final void writeSignedVarLong(final long val) {
+        writeVarLong((val << 1) ^ (val >> 63));
+    }
+
+    /**
+     * 写入字符串: 变长整数的(UTF-8字节长度 + 1),然后是UTF-8的字节,0表示null.
+     * 不成对的代理字符与{@link String#getBytes(java.nio.charset.Charset)}一致,写为'?'.
+     */
+    public final void writeString(final String val) {
+        if (val == null) {
+            writeVarInt(0);
+            return;
+        }
+        final int length = val.length();
+        int utf8Length = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = val.charAt(i);
+            if (c < 0x80) {
+                utf8Length += 1;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(val.charAt(i + 1))) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length += 1;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        writeVarInt(utf8Length + 1);
+        ensureCapacity(utf8Length);
+        for (int i = 0; i < length; i++) {
+            final char c = val.charAt(i);
+            if (c < 0x80) {
+                buf[limit++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[limit++] = (byte) (0xC0 | (c >> 6));
+                buf[limit++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(val.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, val.charAt(++i));
+                buf[limit++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[limit++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[limit++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[limit++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[limit++] = (byte) '?';
+            } else {
+                buf[limit++] = (byte) (0xE0 | (c >> 12));
+                buf[limit++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[limit++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * 写入数组: 变长整数的(长度 + 1),然后是数组的内容,0表示null.
+     */
+    public final void writeByteArray(final byte[] b) {
+        if (b == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(b.length + 1);
+        write(b);
     }
 
     public final void write(final byte[] b) {
@@ -209,6 +520,122 @@ public final class ByteBuffer {
         limit += len;
     }
 
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 从通道中读取数据,最多读取到当前数组的剩余空间,剩余空间不足1kB时会先增长
+     *
+     * @return 读取的长度,通道到达末尾时返回-1
+     */
+    public final int readFrom(final ReadableByteChannel channel) throws IOException {
+        if (bufSize() - limit < UNIT) {
+            ensureCapacity(UNIT);
+        }
+        return readFrom(channel, bufSize() - limit);
+    }
+
+    /**
+     * 从通道中读取最多给定长度的数据
+     *
+     * @return 读取的长度,通道到达末尾时返回-1
+     */
+    public final int readFrom(final ReadableByteChannel channel, final int maxLength) throws IOException {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("max length must not be negative." + maxLength);
+        }
+        ensureCapacity(maxLength);
+        final int length = channel.read(view(limit, limit + maxLength));
+        if (length > 0) {
+            limit += length;
+        }
+        return length;
+    }
+
+    /**
+     * 从文件的给定位置读取数据,不改变文件通道的位置
+     *
+     * @return 读取的长度,文件长度不足时小于给定的长度
+     */
+    public final int readFrom(final FileChannel file, final long filePosition, final int length) throws IOException {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative." + length);
+        }
+        ensureCapacity(length);
+        final java.nio.ByteBuffer target = view(limit, limit + length);
+        int total = 0;
+        while (target.hasRemaining()) {
+            final int read = file.read(target, filePosition + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        limit += total;
+        return total;
+    }
+
+    /**
+     * 把数据写入通道,非阻塞的通道可能只写入一部分
+     *
+     * @return 写入的长度
+     */
+    public final int writeTo(final WritableByteChannel channel) throws IOException {
+        if (!hasRemaining()) {
+            return 0;
+        }
+        final int length = channel.write(view(position, limit));
+        position += length;
+        return length;
+    }
+
+    /**
+     * 把多个缓冲区的数据一次写入通道,比如把包头和包体放在一次系统调用中写出
+     *
+     * @return 写入的长度
+     */
+    public static long writeTo(final GatheringByteChannel channel, final ByteBuffer... buffers) throws IOException {
+        final java.nio.ByteBuffer[] views = new java.nio.ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            views[i] = buffers[i].view(buffers[i].position, buffers[i].limit);
+        }
+        long remaining = channel.write(views);
+        final long length = remaining;
+        for (ByteBuffer buffer : buffers) {
+            final int count = (int) Math.min(remaining, buffer.size());
+            buffer.position += count;
+            remaining -= count;
+        }
+        return length;
+    }
+
+    /**
+     * 使用{@link FileChannel#transferTo(long, long, WritableByteChannel)}把文件的一部分直接发送到通道,不经过堆内存.
+     * 目标是非阻塞的通道并且暂时无法写入时提前返回.
+     *
+     * @return 发送的长度
+     */
+    public static long transferTo(final FileChannel file, final long filePosition, final long count, final WritableByteChannel target) throws IOException {
+        long total = 0;
+        while (total < count) {
+            final long transferred = file.transferTo(filePosition + total, count - total, target);
+            if (transferred <= 0) {
+                break;
+            }
+            total += transferred;
+        }
+        return total;
+    }
+
+    private java.nio.ByteBuffer view(final int from, final int to) {
+        if (view == null || view.array() != buf) {
+            view = java.nio.ByteBuffer.wrap(buf);
+        }
+        view.limit(to).position(from);
+        return view;
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
     public int indexOf(byte[] key) {
         return ArraySearchUtil.indexOf(buf, position, limit, key);
     }
@@ -0,0 +1,55 @@
+package com.egls.server.utils.structure;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link LoadingCache}缺失或者需要刷新时加载数据
+ *
+ * @author mayer - [Created on 2026-10-18 23:50]
+ */
+@FunctionalInterface
+public interface CacheLoader<K, V> {
+
+    /**
+     * 加载一个键的值
+     *
+     * @param key 键
+     * @return 值, null表示不存在, 不会被缓存
+     */
+    V load(final K key) throws Exception;
+
+    /**
+     * <pre>
+     *     批量加载,比如合并为一次数据库查询.
+     *     默认实现是逐个调用{@link #load(Object)}.
+     *     返回结果中没有的键表示不存在.
+     * </pre>
+     *
+     * @param keys 缺失的键,不重复
+     * @return 键值对
+     */
+    default Map<K, V> loadAll(final Collection<? extends K> keys) throws Exception {
+        final Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            final V value = load(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 刷新一个已经缓存的值,默认实现是重新调用{@link #load(Object)}
+     *
+     * @param key      键
+     * @param oldValue 当前缓存的值
+     * @return 新的值, null表示已经不存在, 缓存会被移除
+     */
+    default V reload(final K key, final V oldValue) throws Exception {
+        return load(key);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.egls.server.utils.structure;
+
+/**
+ * {@link ConcurrentCachedMap}的淘汰策略
+ *
+ * @author mayer - [Created on 2026-10-18 22:50]
+ */
+public enum CachePolicy {
+
+    /**
+     * 淘汰最久没有访问的元素
+     */
+    LRU,
+
+    /**
+     * <pre>
+     *     W-TinyLFU: 新元素先进入占容量1%的窗口LRU,离开窗口后进入主区域的试用段.
+     *     试用段中再次被访问的元素晋升到保护段,保护段占主区域的80%.
+     *     需要淘汰时,用频率估算比较刚离开窗口的候选者和试用段中最久没有访问的元素,淘汰频率低的一方.
+     *     一次性扫描大量冷数据时,热点数据不会被冲掉.
+     * </pre>
+     */
+    TINY_LFU
+
+}
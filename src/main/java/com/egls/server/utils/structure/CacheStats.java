@@ -0,0 +1,113 @@
+package com.egls.server.utils.structure;
+
+/**
+ * <pre>
+ *     {@link CacheStatsRecorder}在某一时刻的快照,不可变.
+ *     计数是分别读取的,并发记录时各项之间不是严格一致的.
+ *     时间的单位是纳秒.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 01:20]
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long loadSuccessCount;
+
+    private final long loadFailureCount;
+
+    private final long totalLoadTime;
+
+    private final long maxLoadTime;
+
+    private final long[] removalCounts;
+
+    CacheStats(final long hitCount, final long missCount, final long loadSuccessCount, final long loadFailureCount,
+               final long totalLoadTime, final long maxLoadTime, final long[] removalCounts) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.maxLoadTime = maxLoadTime;
+        this.removalCounts = removalCounts;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return 命中率, 没有请求时为1
+     */
+    public double getHitRate() {
+        final long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    public long getAverageLoadTime() {
+        final long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0L : totalLoadTime / loadCount;
+    }
+
+    public long getMaxLoadTime() {
+        return maxLoadTime;
+    }
+
+    public long getRemovalCount(final RemovalCause cause) {
+        return removalCounts[cause.ordinal()];
+    }
+
+    /**
+     * @return 超过容量和过期被移除的数量之和
+     */
+    public long getEvictionCount() {
+        long evictionCount = 0L;
+        for (RemovalCause cause : RemovalCause.values()) {
+            if (cause.wasEvicted()) {
+                evictionCount += removalCounts[cause.ordinal()];
+            }
+        }
+        return evictionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", maxLoadTime=" + maxLoadTime +
+                ", sizeEvictionCount=" + getRemovalCount(RemovalCause.SIZE) +
+                ", expiredCount=" + getRemovalCount(RemovalCause.EXPIRED) +
+                ", explicitRemovalCount=" + getRemovalCount(RemovalCause.EXPLICIT) +
+                ", replacedCount=" + getRemovalCount(RemovalCause.REPLACED) +
+                '}';
+    }
+
+}
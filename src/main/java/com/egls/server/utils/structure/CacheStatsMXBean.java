@@ -0,0 +1,51 @@
+package com.egls.server.utils.structure;
+
+/**
+ * <pre>
+ *     缓存统计的JMX接口,由{@link CacheStatsRecorder#registerMBean()}注册.
+ *     时间的单位是纳秒.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 01:20]
+ */
+public interface CacheStatsMXBean {
+
+    String getName();
+
+    long getRequestCount();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getLoadSuccessCount();
+
+    long getLoadFailureCount();
+
+    long getTotalLoadTime();
+
+    long getAverageLoadTime();
+
+    long getMaxLoadTime();
+
+    /**
+     * @return 超过容量和过期被移除的数量之和
+     */
+    long getEvictionCount();
+
+    long getSizeEvictionCount();
+
+    long getExpiredCount();
+
+    long getExplicitRemovalCount();
+
+    long getReplacedCount();
+
+    /**
+     * 清零所有的计数
+     */
+    void reset();
+
+}
@@ -0,0 +1,289 @@
+package com.egls.server.utils.structure;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.egls.server.utils.StringUtil;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ *     缓存的统计记录,记录命中,缺失,加载的次数和耗时,以及按照原因分类的移除次数.
+ *     通过缓存的setStatsRecorder方法接入,比如{@link ConcurrentCachedMap#setStatsRecorder(CacheStatsRecorder)}.
+ *     多个缓存可以共用同一个记录对象,得到的是它们的总和.
+ *
+ *     计数使用{@link LongAdder},多个线程同时记录时互不竞争,读取时才求和,适合放在读操作的路径上.
+ *     {@link #toShowString(String, Collection)}输出与{@link ElapsedTimeRecorder}相同格式的文本,
+ *     {@link #registerMBean()}之后可以通过JMX查看.
+ *     时间的单位是纳秒.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 01:20]
+ */
+public final class CacheStatsRecorder implements CacheStatsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheStatsRecorder.class);
+
+    private static final String MBEAN_DOMAIN = "com.egls.server.utils";
+
+    private static final String[] COLUMNS = {"request", "hit", "hit%", "miss", "load", "fail", "avgLoad", "maxLoad", "size", "expired"};
+
+    public static String toShowString(final String title, final Collection<CacheStatsRecorder> statsRecorders) {
+        final List<CacheStatsRecorder> recorders = new ArrayList<>(statsRecorders);
+        final List<String[]> rows = new ArrayList<>(recorders.size() + 1);
+        final List<CacheStats> snapshots = new ArrayList<>(recorders.size());
+        for (CacheStatsRecorder recorder : recorders) {
+            snapshots.add(recorder.snapshot());
+        }
+        final List<Integer> order = new ArrayList<>(recorders.size());
+        for (int i = 0; i < recorders.size(); i++) {
+            order.add(i);
+        }
+        //请求多的在前面
+        order.sort(Comparator.comparingLong((Integer i) -> snapshots.get(i).getRequestCount()).reversed());
+
+        final String[] header = new String[COLUMNS.length + 1];
+        header[0] = "name";
+        System.arraycopy(COLUMNS, 0, header, 1, COLUMNS.length);
+        rows.add(header);
+        for (int i : order) {
+            final CacheStats stats = snapshots.get(i);
+            rows.add(new String[]{
+                    recorders.get(i).getName(),
+                    String.valueOf(stats.getRequestCount()),
+                    String.valueOf(stats.getHitCount()),
+                    String.format("%.2f", stats.getHitRate() * 100),
+                    String.valueOf(stats.getMissCount()),
+                    String.valueOf(stats.getLoadSuccessCount()),
+                    String.valueOf(stats.getLoadFailureCount()),
+                    String.valueOf(stats.getAverageLoadTime()),
+                    String.valueOf(stats.getMaxLoadTime()),
+                    String.valueOf(stats.getRemovalCount(RemovalCause.SIZE)),
+                    String.valueOf(stats.getRemovalCount(RemovalCause.EXPIRED))
+            });
+        }
+
+        final int[] widths = new int[header.length];
+        for (String[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                widths[i] = Math.max(widths[i], row[i].length());
+            }
+        }
+
+        int borderLength = title.length();
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (String[] row : rows) {
+            final String showString = toShowString(row, widths);
+            if (borderLength < showString.length()) {
+                borderLength = showString.length();
+            }
+            stringBuilder.append(showString).append(StringUtil.getLineSeparator());
+        }
+
+        final String borderHead = StringUtils.center(title, borderLength, '↓') + StringUtil.getLineSeparator();
+        final String borderTail = StringUtils.center(title, borderLength, '↑') + StringUtil.getLineSeparator();
+        return borderHead + stringBuilder.toString() + borderTail;
+    }
+
+    private static String toShowString(final String[] row, final int[] widths) {
+        final char padChar = ' ';
+        final char delimiter = '|';
+        final StringBuilder showString = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            showString.append(padChar).append(StringUtils.rightPad(row[i], widths[i], padChar)).append(padChar).append(delimiter);
+        }
+        return showString.toString();
+    }
+
+    private final String name;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder loadSuccessCount = new LongAdder();
+
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private final LongAccumulator maxLoadTime = new LongAccumulator(Math::max, 0L);
+
+    private final LongAdder[] removalCounts = new LongAdder[RemovalCause.values().length];
+
+    public CacheStatsRecorder(final String name) {
+        this.name = name;
+        for (int i = 0; i < removalCounts.length; i++) {
+            removalCounts[i] = new LongAdder();
+        }
+    }
+
+    public final void recordHits(final int count) {
+        hitCount.add(count);
+    }
+
+    public final void recordMisses(final int count) {
+        missCount.add(count);
+    }
+
+    /**
+     * @param loadTime 加载耗费的纳秒数
+     */
+    public final void recordLoadSuccess(final long loadTime) {
+        loadSuccessCount.increment();
+        totalLoadTime.add(loadTime);
+        maxLoadTime.accumulate(loadTime);
+    }
+
+    /**
+     * @param loadTime 加载耗费的纳秒数
+     */
+    public final void recordLoadFailure(final long loadTime) {
+        loadFailureCount.increment();
+        totalLoadTime.add(loadTime);
+        maxLoadTime.accumulate(loadTime);
+    }
+
+    public final void recordRemoval(final RemovalCause cause) {
+        removalCounts[cause.ordinal()].increment();
+    }
+
+    public final CacheStats snapshot() {
+        final long[] removals = new long[removalCounts.length];
+        for (int i = 0; i < removals.length; i++) {
+            removals[i] = removalCounts[i].sum();
+        }
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadFailureCount.sum(),
+                totalLoadTime.sum(), maxLoadTime.get(), removals);
+    }
+
+    @Override
+    public final String getName() {
+        return name;
+    }
+
+    @Override
+    public final long getRequestCount() {
+        return snapshot().getRequestCount();
+    }
+
+    @Override
+    public final long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public final long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public final double getHitRate() {
+        return snapshot().getHitRate();
+    }
+
+    @Override
+    public final long getLoadSuccessCount() {
+        return loadSuccessCount.sum();
+    }
+
+    @Override
+    public final long getLoadFailureCount() {
+        return loadFailureCount.sum();
+    }
+
+    @Override
+    public final long getTotalLoadTime() {
+        return totalLoadTime.sum();
+    }
+
+    @Override
+    public final long getAverageLoadTime() {
+        return snapshot().getAverageLoadTime();
+    }
+
+    @Override
+    public final long getMaxLoadTime() {
+        return maxLoadTime.get();
+    }
+
+    @Override
+    public final long getEvictionCount() {
+        return snapshot().getEvictionCount();
+    }
+
+    @Override
+    public final long getSizeEvictionCount() {
+        return removalCounts[RemovalCause.SIZE.ordinal()].sum();
+    }
+
+    @Override
+    public final long getExpiredCount() {
+        return removalCounts[RemovalCause.EXPIRED.ordinal()].sum();
+    }
+
+    @Override
+    public final long getExplicitRemovalCount() {
+        return removalCounts[RemovalCause.EXPLICIT.ordinal()].sum();
+    }
+
+    @Override
+    public final long getReplacedCount() {
+        return removalCounts[RemovalCause.REPLACED.ordinal()].sum();
+    }
+
+    @Override
+    public final void reset() {
+        hitCount.reset();
+        missCount.reset();
+        loadSuccessCount.reset();
+        loadFailureCount.reset();
+        totalLoadTime.reset();
+        maxLoadTime.reset();
+        for (LongAdder removalCount : removalCounts) {
+            removalCount.reset();
+        }
+    }
+
+    /**
+     * 注册到平台的MBeanServer,名字是{@code com.egls.server.utils:type=CacheStats,name=<name>}
+     *
+     * @return 是否注册成功, 同名的已经注册过时失败
+     */
+    public final boolean registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, getObjectName());
+            return true;
+        } catch (JMException exception) {
+            LOGGER.error("CacheStatsRecorder registerMBean error, name : " + name, exception);
+            return false;
+        }
+    }
+
+    public final void unregisterMBean() {
+        try {
+            final ObjectName objectName = getObjectName();
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            }
+        } catch (JMException exception) {
+            LOGGER.error("CacheStatsRecorder unregisterMBean error, name : " + name, exception);
+        }
+    }
+
+    final ObjectName getObjectName() throws JMException {
+        return new ObjectName(MBEAN_DOMAIN + ":type=CacheStats,name=" + ObjectName.quote(name));
+    }
+
+}
@@ -12,6 +12,8 @@ import org.slf4j.LoggerFactory;
  * <pre>
  *     线程安全的用法:
  *     Collections.synchronizedMap(new CachedLinkedHashMap<>(cacheSize));
+ *
+ *     设置{@link CacheStatsRecorder}之后,{@link #get(Object)}记录命中和缺失,淘汰记录为{@link RemovalCause#SIZE}.
  * </pre>
  *
  * @author mayer - [Created on 2018-08-21 12:30]
@@ -43,6 +45,8 @@ public final class CachedLinkedHashMap<K, V> extends LinkedHashMap<K, V> {
 
     private final BiConsumer<K, V> onRemoveEldestEntry;
 
+    private transient volatile CacheStatsRecorder statsRecorder;
+
     public CachedLinkedHashMap() {
         super(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, true);
         this.cacheSize = MAXIMUM_CAPACITY;
@@ -67,9 +71,37 @@ public final class CachedLinkedHashMap<K, V> extends LinkedHashMap<K, V> {
         this.onRemoveEldestEntry = onRemoveEldestEntry;
     }
 
+    public CacheStatsRecorder getStatsRecorder() {
+        return statsRecorder;
+    }
+
+    /**
+     * @param statsRecorder 为null时不统计
+     */
+    public void setStatsRecorder(final CacheStatsRecorder statsRecorder) {
+        this.statsRecorder = statsRecorder;
+    }
+
+    @Override
+    public V get(final Object key) {
+        final V value = super.get(key);
+        final CacheStatsRecorder recorder = statsRecorder;
+        if (recorder != null) {
+            if (value != null) {
+                recorder.recordHits(1);
+            } else {
+                recorder.recordMisses(1);
+            }
+        }
+        return value;
+    }
+
     @Override
     protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
         boolean remove = this.size() > this.cacheSize;
+        if (remove && this.statsRecorder != null) {
+            this.statsRecorder.recordRemoval(RemovalCause.SIZE);
+        }
         if (remove && this.onRemoveEldestEntry != null) {
             try {
                 onRemoveEldestEntry.accept(eldest.getKey(), eldest.getValue());
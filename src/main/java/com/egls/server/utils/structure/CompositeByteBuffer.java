@@ -0,0 +1,356 @@
+package com.egls.server.utils.structure;
+
+import java.io.IOException;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * <pre>
+ *     组合的字节缓冲类,把追加进来的byte[]直接链接起来,不做任何拷贝.
+ *
+ *     {@link #write(byte[])}只保存数组的引用,写入之后调用者不能再修改这部分数组内容.
+ *     读取时可以跨越多个数组,peek和read方法与{@link ByteBuffer}有相同的字节顺序.
+ *     {@link #slice(int, int)}和{@link #readSlice(int)}返回共享底层数组的只读视图,
+ *     {@link #nioBuffers()}返回全部有效数据的只读{@link java.nio.ByteBuffer},适用于聚集写.
+ *
+ *     当内部数据长度不符合要求读取长度时,会抛出异常{@link IllegalStateException}
+ *
+ *     本类不是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 20:40]
+ */
+public final class CompositeByteBuffer {
+
+    private static final class Component {
+
+        private final byte[] array;
+
+        private final int offset;
+
+        private final int length;
+
+        private Component(final byte[] array, final int offset, final int length) {
+            this.array = array;
+            this.offset = offset;
+            this.length = length;
+        }
+
+    }
+
+    private final ArrayDeque<Component> components = new ArrayDeque<>();
+
+    /**
+     * 第一个数组中已经读取的长度
+     */
+    private int headOffset = 0;
+
+    private int size = 0;
+
+    public CompositeByteBuffer() {
+    }
+
+    public CompositeByteBuffer(final byte[] initialData) {
+        write(initialData);
+    }
+
+    public final byte[] toByteArray() {
+        final byte[] result = new byte[size];
+        copyTo(0, result, 0, size);
+        return result;
+    }
+
+    public final void reset() {
+        components.clear();
+        headOffset = size = 0;
+    }
+
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * @return 链接的数组数量
+     */
+    public final int componentCount() {
+        return components.size();
+    }
+
+    public final boolean hasRemaining() {
+        return size > 0;
+    }
+
+    public final byte peekByte() {
+        checkData(1);
+        final Component component = components.peekFirst();
+        return component.array[component.offset + headOffset];
+    }
+
+    public final short peekShort() {
+        checkData(2);
+        return (short) peekBigEndian(2);
+    }
+
+    public final int peekInt() {
+        checkData(4);
+        return (int) peekBigEndian(4);
+    }
+
+    public final long peekLong() {
+        checkData(8);
+        return peekBigEndian(8);
+    }
+
+    public final byte readByte() {
+        byte b = peekByte();
+        skip(1);
+        return b;
+    }
+
+    public final short readShort() {
+        short s = peekShort();
+        skip(2);
+        return s;
+    }
+
+    public final int readInt() {
+        int i = peekInt();
+        skip(4);
+        return i;
+    }
+
+    public final long readLong() {
+        long l = peekLong();
+        skip(8);
+        return l;
+    }
+
+    public final byte[] read(final int length) {
+        checkData(length);
+        final byte[] result = new byte[length];
+        copyTo(0, result, 0, length);
+        skip(length);
+        return result;
+    }
+
+    /**
+     * 读取数据到给定的数组中
+     */
+    public final void read(final byte[] b, final int off, final int len) {
+        checkRange(b, off, len);
+        checkData(len);
+        copyTo(0, b, off, len);
+        skip(len);
+    }
+
+    public final byte[] readFully() {
+        return read(size);
+    }
+
+    /**
+     * 读取给定长度的数据,返回共享底层数组的视图,不做拷贝
+     */
+    public final CompositeByteBuffer readSlice(final int length) {
+        final CompositeByteBuffer slice = slice(0, length);
+        skip(length);
+        return slice;
+    }
+
+    /**
+     * 返回从当前读取位置之后的index处开始,给定长度的数据的视图,共享底层数组,不改变读取位置
+     */
+    public final CompositeByteBuffer slice(final int index, final int length) {
+        if (index < 0 || length < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        checkData(index + length);
+        final CompositeByteBuffer slice = new CompositeByteBuffer();
+        int skip = headOffset + index;
+        int remaining = length;
+        for (Iterator<Component> iterator = components.iterator(); iterator.hasNext() && remaining > 0; ) {
+            final Component component = iterator.next();
+            if (skip >= component.length) {
+                skip -= component.length;
+                continue;
+            }
+            final int count = Math.min(remaining, component.length - skip);
+            slice.link(component.array, component.offset + skip, count);
+            remaining -= count;
+            skip = 0;
+        }
+        return slice;
+    }
+
+    /**
+     * @return 全部有效数据的只读视图,每个链接的数组对应一个
+     */
+    public final java.nio.ByteBuffer[] nioBuffers() {
+        final java.nio.ByteBuffer[] buffers = new java.nio.ByteBuffer[components.size()];
+        int i = 0;
+        int skip = headOffset;
+        for (Component component : components) {
+            buffers[i++] = java.nio.ByteBuffer.wrap(component.array, component.offset + skip, component.length - skip).slice().asReadOnlyBuffer();
+            skip = 0;
+        }
+        return buffers;
+    }
+
+    /**
+     * 把全部有效数据通过一次聚集写写入通道,非阻塞的通道可能只写入一部分
+     *
+     * @return 写入的长度
+     */
+    public final long writeTo(final GatheringByteChannel channel) throws IOException {
+        if (!hasRemaining()) {
+            return 0;
+        }
+        final long length = channel.write(nioBuffers());
+        skip((int) length);
+        return length;
+    }
+
+    /**
+     * 跳过给定长度的数据
+     */
+    public final void skip(final int length) {
+        checkData(length);
+        int remaining = length;
+        while (remaining > 0) {
+            final Component component = components.peekFirst();
+            final int count = Math.min(remaining, component.length - headOffset);
+            headOffset += count;
+            remaining -= count;
+            if (headOffset == component.length) {
+                components.pollFirst();
+                headOffset = 0;
+            }
+        }
+        size -= length;
+    }
+
+    /**
+     * 链接一个数组,不做拷贝
+     */
+    public final void write(final byte[] b) {
+        write(b, 0, b.length);
+    }
+
+    /**
+     * 链接数组的一部分,不做拷贝
+     */
+    public final void write(final byte[] b, final int off, final int len) {
+        checkRange(b, off, len);
+        if (len == 0) {
+            return;
+        }
+        if (size + len < 0) {
+            throw new IllegalStateException("newLength too large! newLength : " + ((long) size + len));
+        }
+        link(b, off, len);
+    }
+
+    private void link(final byte[] b, final int off, final int len) {
+        components.addLast(new Component(b, off, len));
+        size += len;
+    }
+
+    /**
+     * @return 相对于当前读取位置的下标,没有找到时返回-1
+     */
+    public int indexOf(byte[] key) {
+        if (key == null || key.length == 0 || key.length > size) {
+            return -1;
+        }
+        final Component[] array = components.toArray(new Component[0]);
+        int index = 0;
+        for (int c = 0; c < array.length; c++) {
+            final Component component = array[c];
+            for (int pos = c == 0 ? headOffset : 0; pos < component.length; pos++, index++) {
+                if (index > size - key.length) {
+                    return -1;
+                }
+                if (matches(array, c, pos, key)) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(final Component[] array, int c, int pos, final byte[] key) {
+        for (byte b : key) {
+            while (pos == array[c].length) {
+                c++;
+                pos = 0;
+            }
+            if (array[c].array[array[c].offset + pos] != b) {
+                return false;
+            }
+            pos++;
+        }
+        return true;
+    }
+
+    private long peekBigEndian(final int length) {
+        long value = 0;
+        int remaining = length;
+        int skip = headOffset;
+        for (Iterator<Component> iterator = components.iterator(); remaining > 0; ) {
+            final Component component = iterator.next();
+            for (int i = component.offset + skip, end = component.offset + component.length; i < end && remaining > 0; i++, remaining--) {
+                value = (value << 8) | (component.array[i] & 0xFFL);
+            }
+            skip = 0;
+        }
+        return value;
+    }
+
+    /**
+     * 从当前读取位置之后的index处开始拷贝数据
+     */
+    private void copyTo(final int index, final byte[] dest, int destPos, final int length) {
+        int skip = headOffset + index;
+        int remaining = length;
+        for (Iterator<Component> iterator = components.iterator(); remaining > 0; ) {
+            final Component component = iterator.next();
+            if (skip >= component.length) {
+                skip -= component.length;
+                continue;
+            }
+            final int count = Math.min(remaining, component.length - skip);
+            System.arraycopy(component.array, component.offset + skip, dest, destPos, count);
+            destPos += count;
+            remaining -= count;
+            skip = 0;
+        }
+    }
+
+    private static void checkRange(final byte[] b, final int off, final int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if ((off < 0) || (off > b.length) || (len < 0) ||
+                ((off + len) > b.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void checkData(final int length) {
+        if (length < 0) {
+            throw new IndexOutOfBoundsException("length must not be negative." + length);
+        }
+        if (size < length) {
+            throw new IllegalStateException("data length is less than the required length!");
+        }
+    }
+
+    @Override
+    public final String toString() {
+        return getClass().getName()
+                + "["
+                + "components=" + components.size()
+                + ",headOffset=" + headOffset
+                + ",size=" + size
+                + "]";
+    }
+}
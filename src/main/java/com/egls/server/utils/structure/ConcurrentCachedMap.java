@@ -0,0 +1,959 @@
+package com.egls.server.utils.structure;
+
+import java.time.Clock;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntBiFunction;
+
+import com.egls.server.utils.function.Ticker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ *     线程安全的有界缓存,用来代替{@code Collections.synchronizedMap(new CachedLinkedHashMap<>(cacheSize))}.
+ *     容量和淘汰回调的含义与{@link CachedLinkedHashMap}相同.
+ *     淘汰策略在创建时选择,默认是{@link CachePolicy#LRU},{@link CachePolicy#TINY_LFU}可以抵抗一次性的扫描.
+ *
+ *     数据保存在{@link ConcurrentHashMap}中,读操作不加锁.
+ *     读操作对淘汰顺序的影响先记录在分段的环形缓冲区中,缓冲区满了或者有写操作时,由持有淘汰锁的线程批量调整顺序.
+ *     缓冲区竞争激烈时会丢弃一部分读记录,淘汰顺序是近似的.
+ *     写操作在淘汰锁内完成,移除回调在锁外调用.
+ *
+ *     可以给出权重函数,按照总权重而不是元素数量限制大小,比如基于{@link com.egls.server.utils.UnsafeUtil#sizeOf(Object)}估算字节数.
+ *     可以给出存活时间(写入之后)和空闲时间(最后一次访问之后),过期的元素对读操作不可见.
+ *     过期的元素由分层时间轮回收,不需要扫描全部元素,时间轮在写操作和{@link #tick()}时推进.
+ *     很少写入的缓存需要定期调用{@link #tick()},才能及时回收过期的元素.
+ *
+ *     {@link #size()}包含已经过期但是还没有回收的元素.
+ *     设置{@link CacheStatsRecorder}之后,{@link #get(Object)}记录命中和缺失,所有的移除按照原因记录.
+ *     不能使用null作为键或者值.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 22:00]
+ */
+public final class ConcurrentCachedMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>, Ticker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentCachedMap.class);
+
+    /**
+     * The maximum capacity, same as {@link CachedLinkedHashMap}.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * 时间轮每层的格子数
+     */
+    private static final int[] TIMER_BUCKETS = {64, 64, 32, 4, 1};
+
+    /**
+     * 时间轮每层一个格子代表 1 << TIMER_SHIFTS[level] 毫秒,依次约为1秒,1分钟,1小时,1.5天,6天
+     */
+    private static final int[] TIMER_SHIFTS = {10, 16, 22, 27, 29};
+
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private volatile V value;
+
+        private volatile long writeTime;
+
+        private volatile long accessTime;
+
+        /**
+         * 以下的属性只在淘汰锁内访问
+         */
+        private int weight;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        /**
+         * 所在的队列,被删除之后为null
+         */
+        private AccessOrderQueue<K, V> queue;
+
+        private Node<K, V> timerPrev;
+
+        private Node<K, V> timerNext;
+
+        private TimerBucket<K, V> timerBucket;
+
+        private Node(final K key, final V value, final int weight, final long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+
+    }
+
+    /**
+     * 按照访问顺序排列的双向链表,头部是最久没有访问的节点
+     */
+    private static final class AccessOrderQueue<K, V> {
+
+        private Node<K, V> head;
+
+        private Node<K, V> tail;
+
+        /**
+         * 队列中节点的总权重
+         */
+        private long weight;
+
+        private void linkLast(final Node<K, V> node) {
+            node.queue = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            weight += node.weight;
+        }
+
+        private void unlink(final Node<K, V> node) {
+            final Node<K, V> prev = node.prev;
+            final Node<K, V> next = node.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            node.prev = node.next = null;
+            node.queue = null;
+            weight -= node.weight;
+        }
+
+        private void moveToTail(final Node<K, V> node) {
+            if (node != tail) {
+                unlink(node);
+                linkLast(node);
+            }
+        }
+
+    }
+
+    /**
+     * 时间轮的一个格子,节点按照加入的顺序排列
+     */
+    private static final class TimerBucket<K, V> {
+
+        private Node<K, V> head;
+
+        private Node<K, V> tail;
+
+        private void add(final Node<K, V> node) {
+            node.timerBucket = this;
+            node.timerPrev = tail;
+            node.timerNext = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.timerNext = node;
+            }
+            tail = node;
+        }
+
+        private void remove(final Node<K, V> node) {
+            final Node<K, V> prev = node.timerPrev;
+            final Node<K, V> next = node.timerNext;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.timerNext = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.timerPrev = prev;
+            }
+            node.timerPrev = node.timerNext = null;
+            node.timerBucket = null;
+        }
+
+        /**
+         * 清空格子,返回原来的第一个节点,节点之间仍然通过timerNext相连
+         */
+        private Node<K, V> detach() {
+            final Node<K, V> first = head;
+            head = tail = null;
+            return first;
+        }
+
+    }
+
+    private static final class Removal<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        private final RemovalCause cause;
+
+        private Removal(final K key, final V value, final RemovalCause cause) {
+            this.key = key;
+            this.value = value;
+            this.cause = cause;
+        }
+
+    }
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    private final long maximumWeight;
+
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+
+    private final CachePolicy policy;
+
+    private final long expireAfterWriteMillis;
+
+    private final long expireAfterAccessMillis;
+
+    private final Clock clock;
+
+    private final RemovalListener<K, V> removalListener;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final StripedReadBuffer<Node<K, V>> readBuffer = new StripedReadBuffer<>();
+
+    /**
+     * LRU策略时包含全部节点,TinyLFU策略时是窗口
+     */
+    private final AccessOrderQueue<K, V> window = new AccessOrderQueue<>();
+
+    private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<>();
+
+    private final AccessOrderQueue<K, V> protection = new AccessOrderQueue<>();
+
+    private final long windowMaximum;
+
+    private final long protectionMaximum;
+
+    /**
+     * 只有TinyLFU策略时使用,只在淘汰锁内访问
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * 只有设置了过期时间时使用,只在淘汰锁内访问
+     */
+    private final TimerBucket<K, V>[][] timerWheel;
+
+    /**
+     * 以下的属性只在淘汰锁内访问
+     */
+    private long timerTime;
+
+    private long totalWeight;
+
+    private List<Removal<K, V>> pendingRemovals;
+
+    private Set<Entry<K, V>> entrySet;
+
+    private volatile CacheStatsRecorder statsRecorder;
+
+    public ConcurrentCachedMap() {
+        this(MAXIMUM_CAPACITY, CachePolicy.LRU, null);
+    }
+
+    public ConcurrentCachedMap(final BiConsumer<K, V> onRemoveEldestEntry) {
+        this(MAXIMUM_CAPACITY, onRemoveEldestEntry);
+    }
+
+    public ConcurrentCachedMap(final int cacheSize) {
+        this(cacheSize, CachePolicy.LRU, null);
+    }
+
+    public ConcurrentCachedMap(final int cacheSize, final BiConsumer<K, V> onRemoveEldestEntry) {
+        this(cacheSize, CachePolicy.LRU, onRemoveEldestEntry);
+    }
+
+    public ConcurrentCachedMap(final int cacheSize, final CachePolicy policy) {
+        this(cacheSize, policy, null);
+    }
+
+    /**
+     * @param onRemoveEldestEntry 只在超过容量被淘汰时调用
+     */
+    public ConcurrentCachedMap(final int cacheSize, final CachePolicy policy, final BiConsumer<K, V> onRemoveEldestEntry) {
+        this(cacheSize, null, policy, 0L, 0L, Clock.systemDefaultZone(), onRemoveEldestEntry == null ? null : (key, value, cause) -> {
+            if (cause == RemovalCause.SIZE) {
+                onRemoveEldestEntry.accept(key, value);
+            }
+        });
+    }
+
+    /**
+     * @param maximumWeight           最大的总权重,没有权重函数时是最大的元素数量
+     * @param weigher                 权重函数,返回值不能是负数,null表示每个元素的权重都是1
+     * @param policy                  淘汰策略
+     * @param expireAfterWriteMillis  写入之后的存活时间,小于等于0表示不过期
+     * @param expireAfterAccessMillis 最后一次访问之后的空闲时间,小于等于0表示不过期
+     * @param clock                   判断过期使用的时钟
+     * @param removalListener         移除回调,可以为null
+     */
+    public ConcurrentCachedMap(final long maximumWeight, final ToIntBiFunction<? super K, ? super V> weigher, final CachePolicy policy,
+                               final long expireAfterWriteMillis, final long expireAfterAccessMillis, final Clock clock,
+                               final RemovalListener<K, V> removalListener) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximum weight must not be negative." + maximumWeight);
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.policy = Objects.requireNonNull(policy);
+        this.expireAfterWriteMillis = Math.max(0L, expireAfterWriteMillis);
+        this.expireAfterAccessMillis = Math.max(0L, expireAfterAccessMillis);
+        this.clock = Objects.requireNonNull(clock);
+        this.removalListener = removalListener;
+        if (policy == CachePolicy.TINY_LFU) {
+            this.windowMaximum = Math.max(1L, maximumWeight / 100);
+            this.protectionMaximum = (long) ((maximumWeight - windowMaximum) * 0.8);
+            this.sketch = new FrequencySketch();
+        } else {
+            this.windowMaximum = Long.MAX_VALUE;
+            this.protectionMaximum = 0L;
+            this.sketch = null;
+        }
+        if (this.expireAfterWriteMillis > 0 || this.expireAfterAccessMillis > 0) {
+            this.timerWheel = newTimerWheel();
+            this.timerTime = clock.millis();
+        } else {
+            this.timerWheel = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> TimerBucket<K, V>[][] newTimerWheel() {
+        final TimerBucket<K, V>[][] wheel = new TimerBucket[TIMER_BUCKETS.length][];
+        for (int level = 0; level < wheel.length; level++) {
+            wheel[level] = new TimerBucket[TIMER_BUCKETS[level]];
+            for (int i = 0; i < wheel[level].length; i++) {
+                wheel[level][i] = new TimerBucket<>();
+            }
+        }
+        return wheel;
+    }
+
+    public final int getCacheSize() {
+        return (int) Math.min(maximumWeight, Integer.MAX_VALUE);
+    }
+
+    public final long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public final CachePolicy getPolicy() {
+        return policy;
+    }
+
+    public final CacheStatsRecorder getStatsRecorder() {
+        return statsRecorder;
+    }
+
+    /**
+     * @param statsRecorder 为null时不统计
+     */
+    public final void setStatsRecorder(final CacheStatsRecorder statsRecorder) {
+        this.statsRecorder = statsRecorder;
+    }
+
+    /**
+     * @return 当前的总权重,没有权重函数时是元素数量
+     */
+    public final long getTotalWeight() {
+        evictionLock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public final int size() {
+        return data.size();
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    @Override
+    public final boolean containsKey(final Object key) {
+        final Node<K, V> node = data.get(key);
+        return node != null && (timerWheel == null || !isExpired(node, clock.millis()));
+    }
+
+    @Override
+    public final V get(final Object key) {
+        final CacheStatsRecorder recorder = statsRecorder;
+        final Node<K, V> node = data.get(key);
+        if (node == null) {
+            if (recorder != null) {
+                recorder.recordMisses(1);
+            }
+            return null;
+        }
+        if (timerWheel != null) {
+            final long now = clock.millis();
+            if (isExpired(node, now)) {
+                if (recorder != null) {
+                    recorder.recordMisses(1);
+                }
+                tryCleanUp();
+                return null;
+            }
+            if (expireAfterAccessMillis > 0) {
+                node.accessTime = now;
+            }
+        }
+        if (recorder != null) {
+            recorder.recordHits(1);
+        }
+        if (readBuffer.offer(node)) {
+            tryCleanUp();
+        }
+        return node.value;
+    }
+
+    /**
+     * 不统计,不影响淘汰顺序和空闲时间的读取,用于缓存内部的检查
+     */
+    final V getQuietly(final Object key) {
+        final Node<K, V> node = data.get(key);
+        if (node == null || (timerWheel != null && isExpired(node, clock.millis()))) {
+            return null;
+        }
+        return node.value;
+    }
+
+    @Override
+    public final V put(final K key, final V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public final V putIfAbsent(final K key, final V value) {
+        return put(key, value, true);
+    }
+
+    private V put(final K key, final V value, final boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        final int weight = weigh(key, value);
+        V oldValue = null;
+        evictionLock.lock();
+        try {
+            final long now = maintenance();
+            final Node<K, V> node = getAliveNode(key, now);
+            if (node != null) {
+                oldValue = node.value;
+                if (onlyIfAbsent) {
+                    node.accessTime = now;
+                    onAccess(node);
+                } else {
+                    replaceValue(node, value, weight, now);
+                }
+            } else {
+                final Node<K, V> newNode = new Node<>(key, value, weight, now);
+                data.put(key, newNode);
+                totalWeight += weight;
+                onInsert(newNode);
+                evict();
+            }
+        } finally {
+            afterWrite();
+        }
+        return oldValue;
+    }
+
+    @Override
+    public final V remove(final Object key) {
+        V oldValue = null;
+        evictionLock.lock();
+        try {
+            final Node<K, V> node = getAliveNode(key, maintenance());
+            if (node != null) {
+                oldValue = node.value;
+                removeNode(node, RemovalCause.EXPLICIT);
+            }
+        } finally {
+            afterWrite();
+        }
+        return oldValue;
+    }
+
+    @Override
+    public final boolean remove(final Object key, final Object value) {
+        if (value == null) {
+            return false;
+        }
+        boolean removed = false;
+        evictionLock.lock();
+        try {
+            final Node<K, V> node = getAliveNode(key, maintenance());
+            if (node != null && value.equals(node.value)) {
+                removeNode(node, RemovalCause.EXPLICIT);
+                removed = true;
+            }
+        } finally {
+            afterWrite();
+        }
+        return removed;
+    }
+
+    @Override
+    public final boolean replace(final K key, final V oldValue, final V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        final int weight = weigh(key, newValue);
+        boolean replaced = false;
+        evictionLock.lock();
+        try {
+            final long now = maintenance();
+            final Node<K, V> node = getAliveNode(key, now);
+            if (node != null && oldValue.equals(node.value)) {
+                replaceValue(node, newValue, weight, now);
+                replaced = true;
+            }
+        } finally {
+            afterWrite();
+        }
+        return replaced;
+    }
+
+    @Override
+    public final V replace(final K key, final V value) {
+        Objects.requireNonNull(value);
+        final int weight = weigh(key, value);
+        V oldValue = null;
+        evictionLock.lock();
+        try {
+            final long now = maintenance();
+            final Node<K, V> node = getAliveNode(key, now);
+            if (node != null) {
+                oldValue = node.value;
+                replaceValue(node, value, weight, now);
+            }
+        } finally {
+            afterWrite();
+        }
+        return oldValue;
+    }
+
+    @Override
+    public final void clear() {
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            for (Node<K, V> node : data.values()) {
+                removeNode(node, RemovalCause.EXPLICIT);
+            }
+        } finally {
+            afterWrite();
+        }
+    }
+
+    /**
+     * 应用缓冲的读操作,推进时间轮回收过期的元素
+     */
+    public final void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            afterWrite();
+        }
+    }
+
+    /**
+     * 可以注册到周期任务中定期调用,等同于{@link #cleanUp()}
+     */
+    @Override
+    public final void tick() {
+        cleanUp();
+    }
+
+    /**
+     * <pre>
+     *     LRU策略时按照从最久没有访问到最近访问排列的键.
+     *     TinyLFU策略时依次是试用段,保护段和窗口中的键,每一部分按照从最久没有访问到最近访问排列.
+     *     调用时会先应用缓冲的读操作.
+     * </pre>
+     */
+    public final List<K> keysInAccessOrder() {
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            final List<K> keys = new ArrayList<>(data.size());
+            for (AccessOrderQueue<K, V> queue : Arrays.asList(probation, protection, window)) {
+                for (Node<K, V> node = queue.head; node != null; node = node.next) {
+                    keys.add(node.key);
+                }
+            }
+            return keys;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public final Set<Entry<K, V>> entrySet() {
+        final Set<Entry<K, V>> result = entrySet;
+        return result != null ? result : (entrySet = new EntrySet());
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            final Iterator<Node<K, V>> iterator = data.values().iterator();
+            final long now = timerWheel == null ? 0L : clock.millis();
+            return new Iterator<Entry<K, V>>() {
+                private Node<K, V> next = findNext();
+
+                private Node<K, V> current;
+
+                /**
+                 * 跳过已经过期的元素
+                 */
+                private Node<K, V> findNext() {
+                    while (iterator.hasNext()) {
+                        final Node<K, V> node = iterator.next();
+                        if (timerWheel == null || !isExpired(node, now)) {
+                            return node;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    current = next;
+                    next = findNext();
+                    return new SimpleImmutableEntry<>(current.key, current.value);
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    ConcurrentCachedMap.this.remove(current.key, current.value);
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return data.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentCachedMap.this.clear();
+        }
+
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private int weigh(final K key, final V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        final int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight must not be negative." + weight);
+        }
+        return weight;
+    }
+
+    private boolean isExpired(final Node<K, V> node, final long now) {
+        return (expireAfterWriteMillis > 0 && now - node.writeTime >= expireAfterWriteMillis)
+                || (expireAfterAccessMillis > 0 && now - node.accessTime >= expireAfterAccessMillis);
+    }
+
+    private void tryCleanUp() {
+        if (evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                afterWrite();
+            }
+        }
+    }
+
+    /**
+     * 在淘汰锁内调用,应用缓冲的读操作,推进时间轮
+     *
+     * @return 当前时间,没有设置过期时间时为0
+     */
+    private long maintenance() {
+        drainReadBuffer();
+        if (timerWheel == null) {
+            return 0L;
+        }
+        final long now = clock.millis();
+        advanceTimerWheel(now);
+        return now;
+    }
+
+    /**
+     * 释放淘汰锁,然后调用移除回调
+     */
+    private void afterWrite() {
+        final List<Removal<K, V>> removals = pendingRemovals;
+        pendingRemovals = null;
+        evictionLock.unlock();
+        if (removals == null) {
+            return;
+        }
+        for (Removal<K, V> removal : removals) {
+            try {
+                removalListener.onRemoval(removal.key, removal.value, removal.cause);
+            } catch (Exception exception) {
+                LOGGER.error("ConcurrentCachedMap removalListener error", exception);
+            }
+        }
+    }
+
+    private void addRemoval(final K key, final V value, final RemovalCause cause) {
+        final CacheStatsRecorder recorder = statsRecorder;
+        if (recorder != null) {
+            recorder.recordRemoval(cause);
+        }
+        if (removalListener == null) {
+            return;
+        }
+        if (pendingRemovals == null) {
+            pendingRemovals = new ArrayList<>();
+        }
+        pendingRemovals.add(new Removal<>(key, value, cause));
+    }
+
+    /**
+     * 获取没有过期的节点,已经过期的节点会被移除
+     */
+    private Node<K, V> getAliveNode(final Object key, final long now) {
+        final Node<K, V> node = data.get(key);
+        if (node != null && timerWheel != null && isExpired(node, now)) {
+            removeNode(node, RemovalCause.EXPIRED);
+            return null;
+        }
+        return node;
+    }
+
+    private void replaceValue(final Node<K, V> node, final V value, final int weight, final long now) {
+        final V oldValue = node.value;
+        node.value = value;
+        node.writeTime = now;
+        node.accessTime = now;
+        if (node.weight != weight) {
+            final AccessOrderQueue<K, V> queue = node.queue;
+            queue.unlink(node);
+            totalWeight += weight - node.weight;
+            node.weight = weight;
+            queue.linkLast(node);
+        }
+        addRemoval(node.key, oldValue, RemovalCause.REPLACED);
+        onAccess(node);
+        evict();
+    }
+
+    private void removeNode(final Node<K, V> node, final RemovalCause cause) {
+        if (node.queue == null) {
+            return;
+        }
+        data.remove(node.key, node);
+        node.queue.unlink(node);
+        totalWeight -= node.weight;
+        if (node.timerBucket != null) {
+            node.timerBucket.remove(node);
+        }
+        addRemoval(node.key, node.value, cause);
+    }
+
+    private void drainReadBuffer() {
+        readBuffer.drainTo(this::onAccess);
+    }
+
+    private void onInsert(final Node<K, V> node) {
+        window.linkLast(node);
+        if (timerWheel != null) {
+            schedule(node);
+        }
+        if (sketch != null) {
+            sketch.ensureCapacity(Math.min(maximumWeight, data.size()));
+            sketch.increment(node.key);
+            //离开窗口的节点进入试用段,成为准入的候选者
+            while (window.weight > windowMaximum && window.head != null) {
+                final Node<K, V> candidate = window.head;
+                window.unlink(candidate);
+                probation.linkLast(candidate);
+            }
+        }
+    }
+
+    private void onAccess(final Node<K, V> node) {
+        final AccessOrderQueue<K, V> queue = node.queue;
+        //已经被删除的节点不再调整顺序
+        if (queue == null) {
+            return;
+        }
+        if (timerWheel != null && expireAfterAccessMillis > 0) {
+            reschedule(node);
+        }
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        if (queue == probation) {
+            probation.unlink(node);
+            protection.linkLast(node);
+            while (protection.weight > protectionMaximum && protection.head != null) {
+                final Node<K, V> demoted = protection.head;
+                protection.unlink(demoted);
+                probation.linkLast(demoted);
+            }
+        } else {
+            queue.moveToTail(node);
+        }
+    }
+
+    private void evict() {
+        while (totalWeight > maximumWeight) {
+            final Node<K, V> victim = sketch == null ? window.head : selectVictim();
+            if (victim == null) {
+                break;
+            }
+            removeNode(victim, RemovalCause.SIZE);
+        }
+    }
+
+    /**
+     * 比较试用段尾部刚离开窗口的候选者和试用段头部最久没有访问的元素,选择频率低的一方淘汰
+     */
+    private Node<K, V> selectVictim() {
+        final Node<K, V> victim = probation.head;
+        final Node<K, V> candidate = probation.tail;
+        if (victim == null) {
+            return protection.head != null ? protection.head : window.head;
+        }
+        if (victim == candidate) {
+            return victim;
+        }
+        return sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private long expireTime(final Node<K, V> node) {
+        long expireTime = Long.MAX_VALUE;
+        if (expireAfterWriteMillis > 0) {
+            expireTime = node.writeTime + expireAfterWriteMillis;
+        }
+        if (expireAfterAccessMillis > 0) {
+            expireTime = Math.min(expireTime, node.accessTime + expireAfterAccessMillis);
+        }
+        return expireTime;
+    }
+
+    private void reschedule(final Node<K, V> node) {
+        if (node.timerBucket != null) {
+            node.timerBucket.remove(node);
+        }
+        schedule(node);
+    }
+
+    /**
+     * 根据剩余的时间选择所在的层,再根据到期时间选择格子
+     */
+    private void schedule(final Node<K, V> node) {
+        final long expireTime = Math.max(expireTime(node), timerTime);
+        final long delay = expireTime - timerTime;
+        for (int level = 0; level < TIMER_BUCKETS.length - 1; level++) {
+            if (delay < (1L << TIMER_SHIFTS[level + 1])) {
+                final long ticks = expireTime >>> TIMER_SHIFTS[level];
+                timerWheel[level][(int) (ticks & (TIMER_BUCKETS[level] - 1))].add(node);
+                return;
+            }
+        }
+        timerWheel[TIMER_BUCKETS.length - 1][0].add(node);
+    }
+
+    /**
+     * <pre>
+     *     推进时间轮,处理每一层从上次推进到现在经过的格子.
+     *     格子中已经过期的节点被移除,其余的节点(还没有到期,或者空闲时间被读操作延长了)重新放入合适的格子.
+     * </pre>
+     */
+    private void advanceTimerWheel(final long now) {
+        final long previous = timerTime;
+        if (now <= previous) {
+            return;
+        }
+        timerTime = now;
+        for (int level = 0; level < TIMER_BUCKETS.length; level++) {
+            final long previousTicks = previous >>> TIMER_SHIFTS[level];
+            final long currentTicks = now >>> TIMER_SHIFTS[level];
+            if (currentTicks <= previousTicks) {
+                break;
+            }
+            final TimerBucket<K, V>[] buckets = timerWheel[level];
+            final int mask = buckets.length - 1;
+            final int steps = (int) Math.min(currentTicks - previousTicks + 1, buckets.length);
+            final int start = (int) (previousTicks & mask);
+            for (int i = start; i < start + steps; i++) {
+                Node<K, V> node = buckets[i & mask].detach();
+                while (node != null) {
+                    final Node<K, V> next = node.timerNext;
+                    node.timerPrev = node.timerNext = null;
+                    node.timerBucket = null;
+                    if (isExpired(node, now)) {
+                        removeNode(node, RemovalCause.EXPIRED);
+                    } else {
+                        schedule(node);
+                    }
+                    node = next;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,664 @@
+package com.egls.server.utils.structure;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <pre>
+ *     线程安全的排行榜,按照分数排序,分数相同时先达到这个分数的排在前面.
+ *
+ *     {@link SortedList}不是线程安全的,分数变化时要在外部加锁,先移除再重新插入.
+ *     本类用一棵不可变的树堆(treap)保存排名,每个节点记录子树的大小:
+ *     修改时只复制从根到修改位置的路径上的节点,生成一棵新的树,再通过volatile发布.
+ *     修改分数,查询排名,按排名取元素的时间复杂度都是(log n),按排名范围取m个元素是(log n + m).
+ *
+ *     从键到元素的映射也是一棵按照键的hashCode排序的不可变树堆,和排名的树放在同一个快照中一起发布,
+ *     读操作只读取一次快照,从键查到的元素一定在同一个快照的排名树中,不需要重试.
+ *
+ *     修改操作之间用一个锁串行执行.读操作不加锁,总是在某一个已经发布的快照上进行,不会被修改操作阻塞.
+ *     {@link #range(int, int)}和迭代器看到的是同一时刻的快照,迭代期间的修改不会抛出{@link java.util.ConcurrentModificationException}.
+ *
+ *     键不能为null.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 05:00]
+ */
+public final class ConcurrentRankList<K> implements Iterable<ConcurrentRankList.Entry<K>> {
+
+    /**
+     * 排行榜中的一项,不可变
+     */
+    public static final class Entry<K> {
+
+        private final K key;
+
+        private final long score;
+
+        /**
+         * 达到这个分数的顺序,分数相同时小的排在前面
+         */
+        private final long sequence;
+
+        private Entry(final K key, final long score, final long sequence) {
+            this.key = key;
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + score;
+        }
+
+    }
+
+    private static final class Node<K> {
+
+        private final Entry<K> entry;
+
+        private final int priority;
+
+        private final Node<K> left;
+
+        private final Node<K> right;
+
+        private final int size;
+
+        private Node(final Entry<K> entry, final int priority, final Node<K> left, final Node<K> right) {
+            this.entry = entry;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+
+        private Node<K> withLeft(final Node<K> newLeft) {
+            return new Node<>(entry, priority, newLeft, right);
+        }
+
+        private Node<K> withRight(final Node<K> newRight) {
+            return new Node<>(entry, priority, left, newRight);
+        }
+
+    }
+
+    /**
+     * 从键到元素的映射,按照键的hashCode排序
+     */
+    private static final class KeyNode<K> {
+
+        private final int hash;
+
+        /**
+         * hashCode相同的元素,键各不相同
+         */
+        private final Entry<K>[] bucket;
+
+        private final int priority;
+
+        private final KeyNode<K> left;
+
+        private final KeyNode<K> right;
+
+        private KeyNode(final int hash, final Entry<K>[] bucket, final int priority, final KeyNode<K> left, final KeyNode<K> right) {
+            this.hash = hash;
+            this.bucket = bucket;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+        }
+
+        private KeyNode<K> withLeft(final KeyNode<K> newLeft) {
+            return new KeyNode<>(hash, bucket, priority, newLeft, right);
+        }
+
+        private KeyNode<K> withRight(final KeyNode<K> newRight) {
+            return new KeyNode<>(hash, bucket, priority, left, newRight);
+        }
+
+        private KeyNode<K> withBucket(final Entry<K>[] newBucket) {
+            return new KeyNode<>(hash, newBucket, priority, left, right);
+        }
+
+    }
+
+    /**
+     * 排名的树和键的映射,一起发布
+     */
+    private static final class Snapshot<K> {
+
+        private final Node<K> root;
+
+        private final KeyNode<K> keys;
+
+        private Snapshot(final Node<K> root, final KeyNode<K> keys) {
+            this.root = root;
+            this.keys = keys;
+        }
+
+    }
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 是否从大到小排序
+     */
+    private final boolean descending;
+
+    private volatile Snapshot<K> snapshot = new Snapshot<>(null, null);
+
+    /**
+     * 只在writeLock中修改
+     */
+    private long sequence = 0;
+
+    /**
+     * @param descending 是否分数高的排在前面
+     */
+    public ConcurrentRankList(final boolean descending) {
+        this.descending = descending;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int size() {
+        return sizeOf(snapshot.root);
+    }
+
+    public boolean isEmpty() {
+        return snapshot.root == null;
+    }
+
+    public boolean contains(final K key) {
+        return find(snapshot.keys, key) != null;
+    }
+
+    public OptionalLong getScore(final K key) {
+        final Entry<K> entry = find(snapshot.keys, key);
+        return entry == null ? OptionalLong.empty() : OptionalLong.of(entry.score);
+    }
+
+    /**
+     * 设置分数.分数没有变化时保持原来的排名
+     *
+     * @return 分数是否有变化
+     */
+    public boolean put(final K key, final long score) {
+        Objects.requireNonNull(key);
+        writeLock.lock();
+        try {
+            final Snapshot<K> current = snapshot;
+            final Entry<K> old = find(current.keys, key);
+            if (old != null && old.score == score) {
+                return false;
+            }
+            replace(current, old, new Entry<>(key, score, ++sequence));
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 在原来的分数上增加delta,原来没有时从0开始
+     *
+     * @return 新的分数
+     */
+    public long add(final K key, final long delta) {
+        Objects.requireNonNull(key);
+        writeLock.lock();
+        try {
+            final Snapshot<K> current = snapshot;
+            final Entry<K> old = find(current.keys, key);
+            final long score = old == null ? delta : old.score + delta;
+            if (old == null || delta != 0) {
+                replace(current, old, new Entry<>(key, score, ++sequence));
+            }
+            return score;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean remove(final K key) {
+        writeLock.lock();
+        try {
+            final Snapshot<K> current = snapshot;
+            final Entry<K> old = find(current.keys, key);
+            if (old == null) {
+                return false;
+            }
+            poll(current, old);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void clear() {
+        writeLock.lock();
+        try {
+            snapshot = new Snapshot<>(null, null);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 正序取排行.计数从0开始, 小于0是没有排名
+     */
+    public int rankOf(final K key) {
+        final Snapshot<K> current = snapshot;
+        final Entry<K> entry = find(current.keys, key);
+        return entry == null ? -1 : rankOf(current.root, entry);
+    }
+
+    /**
+     * 倒序取排行.计数从0开始, 小于0是没有排名
+     */
+    public int lastRankOf(final K key) {
+        final Snapshot<K> current = snapshot;
+        final Entry<K> entry = find(current.keys, key);
+        return entry == null ? -1 : sizeOf(current.root) - 1 - rankOf(current.root, entry);
+    }
+
+    /**
+     * 比score排名靠前(不包括相等)的元素数量
+     */
+    public int countBefore(final long score) {
+        Node<K> node = snapshot.root;
+        int count = 0;
+        while (node != null) {
+            if (compareScore(node.entry.score, score) < 0) {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    public Entry<K> get(final int rank) {
+        final Node<K> root = snapshot.root;
+        if (rank < 0 || rank >= sizeOf(root)) {
+            throw new IndexOutOfBoundsException("Index: " + rank + ", Size: " + sizeOf(root));
+        }
+        return select(root, rank);
+    }
+
+    /**
+     * 取同一时刻的快照中排名在[fromRank, toRank)之间的元素,超出范围的部分忽略
+     */
+    public List<Entry<K>> range(final int fromRank, final int toRank) {
+        final Node<K> root = snapshot.root;
+        final int from = Math.max(0, fromRank);
+        final int to = Math.min(sizeOf(root), toRank);
+        final List<Entry<K>> result = new ArrayList<>(Math.max(0, to - from));
+        if (from < to) {
+            collect(root, from, to, 0, result);
+        }
+        return result;
+    }
+
+    public Entry<K> peekFirst() {
+        final Node<K> root = snapshot.root;
+        return root == null ? null : select(root, 0);
+    }
+
+    public Entry<K> peekLast() {
+        final Node<K> root = snapshot.root;
+        return root == null ? null : select(root, root.size - 1);
+    }
+
+    public Entry<K> pollFirst() {
+        writeLock.lock();
+        try {
+            final Snapshot<K> current = snapshot;
+            return current.root == null ? null : poll(current, select(current.root, 0));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Entry<K> pollLast() {
+        writeLock.lock();
+        try {
+            final Snapshot<K> current = snapshot;
+            return current.root == null ? null : poll(current, select(current.root, current.root.size - 1));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName()
+                + "["
+                + "descending=" + descending
+                + ",size=" + size()
+                + "]";
+    }
+
+    /**
+     * 按照排名迭代调用时的快照.{@link Iterator#remove()}只在这个键的分数没有变化时移除
+     */
+    @Override
+    public Iterator<Entry<K>> iterator() {
+        return new Itr(snapshot.root);
+    }
+
+    private final class Itr implements Iterator<Entry<K>> {
+
+        private final ArrayDeque<Node<K>> stack = new ArrayDeque<>();
+
+        private Entry<K> lastRet;
+
+        Itr(final Node<K> root) {
+            pushLeft(root);
+        }
+
+        private void pushLeft(final Node<K> node) {
+            for (Node<K> current = node; current != null; current = current.left) {
+                stack.push(current);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Entry<K> next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            final Node<K> node = stack.pop();
+            pushLeft(node.right);
+            return lastRet = node.entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == null) {
+                throw new IllegalStateException();
+            }
+            writeLock.lock();
+            try {
+                final Snapshot<K> current = snapshot;
+                if (find(current.keys, lastRet.key) == lastRet) {
+                    poll(current, lastRet);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            lastRet = null;
+        }
+
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static int sizeOf(final Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * 在writeLock中调用.排名的树和键的映射都修改完后一起发布
+     */
+    private void replace(final Snapshot<K> current, final Entry<K> old, final Entry<K> entry) {
+        Node<K> newRoot = current.root;
+        if (old != null) {
+            newRoot = delete(newRoot, old);
+        }
+        newRoot = insert(newRoot, entry, ThreadLocalRandom.current().nextInt());
+        snapshot = new Snapshot<>(newRoot, putKey(current.keys, entry, entry.key.hashCode()));
+    }
+
+    /**
+     * 在writeLock中调用
+     */
+    private Entry<K> poll(final Snapshot<K> current, final Entry<K> entry) {
+        snapshot = new Snapshot<>(delete(current.root, entry), removeKey(current.keys, entry.key, entry.key.hashCode()));
+        return entry;
+    }
+
+    private int compareScore(final long score1, final long score2) {
+        return descending ? Long.compare(score2, score1) : Long.compare(score1, score2);
+    }
+
+    private int compare(final Entry<K> entry1, final Entry<K> entry2) {
+        final int result = compareScore(entry1.score, entry2.score);
+        return result != 0 ? result : Long.compare(entry1.sequence, entry2.sequence);
+    }
+
+    private int rankOf(final Node<K> snapshot, final Entry<K> entry) {
+        Node<K> node = snapshot;
+        int rank = 0;
+        while (node != null) {
+            final int cmp = compare(entry, node.entry);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + sizeOf(node.left);
+            }
+        }
+        return -1;
+    }
+
+    private Entry<K> select(final Node<K> snapshot, final int rank) {
+        Node<K> node = snapshot;
+        int remaining = rank;
+        while (true) {
+            final int leftSize = sizeOf(node.left);
+            if (remaining < leftSize) {
+                node = node.left;
+            } else if (remaining > leftSize) {
+                remaining -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.entry;
+            }
+        }
+    }
+
+    /**
+     * @param offset node子树中第一个元素的排名
+     */
+    private void collect(final Node<K> node, final int from, final int to, final int offset, final List<Entry<K>> result) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        final int rank = offset + sizeOf(node.left);
+        collect(node.left, from, to, offset, result);
+        if (rank >= from && rank < to) {
+            result.add(node.entry);
+        }
+        collect(node.right, from, to, rank + 1, result);
+    }
+
+    private Node<K> insert(final Node<K> node, final Entry<K> entry, final int priority) {
+        if (node == null) {
+            return new Node<>(entry, priority, null, null);
+        }
+        if (priority > node.priority) {
+            final Node<K>[] parts = split(node, entry);
+            return new Node<>(entry, priority, parts[0], parts[1]);
+        }
+        if (compare(entry, node.entry) < 0) {
+            return node.withLeft(insert(node.left, entry, priority));
+        }
+        return node.withRight(insert(node.right, entry, priority));
+    }
+
+    private Node<K> delete(final Node<K> node, final Entry<K> entry) {
+        if (node == null) {
+            return null;
+        }
+        final int cmp = compare(entry, node.entry);
+        if (cmp < 0) {
+            return node.withLeft(delete(node.left, entry));
+        }
+        if (cmp > 0) {
+            return node.withRight(delete(node.right, entry));
+        }
+        return merge(node.left, node.right);
+    }
+
+    /**
+     * 分成小于entry和大于entry的两棵树
+     */
+    @SuppressWarnings("unchecked")
+    private Node<K>[] split(final Node<K> node, final Entry<K> entry) {
+        final Node<K>[] parts = new Node[2];
+        split(node, entry, parts);
+        return parts;
+    }
+
+    private void split(final Node<K> node, final Entry<K> entry, final Node<K>[] parts) {
+        if (node == null) {
+            parts[0] = parts[1] = null;
+            return;
+        }
+        if (compare(node.entry, entry) < 0) {
+            split(node.right, entry, parts);
+            parts[0] = node.withRight(parts[0]);
+        } else {
+            split(node.left, entry, parts);
+            parts[1] = node.withLeft(parts[1]);
+        }
+    }
+
+    /**
+     * left中的元素都小于right中的元素
+     */
+    private Node<K> merge(final Node<K> left, final Node<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withRight(merge(left.right, right));
+        }
+        return right.withLeft(merge(left, right.left));
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static <K> Entry<K> find(final KeyNode<K> keys, final Object key) {
+        final int hash = key.hashCode();
+        KeyNode<K> node = keys;
+        while (node != null) {
+            if (hash < node.hash) {
+                node = node.left;
+            } else if (hash > node.hash) {
+                node = node.right;
+            } else {
+                for (Entry<K> entry : node.bucket) {
+                    if (entry.key.equals(key)) {
+                        return entry;
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 替换或者添加entry.新节点插入到叶子上,再旋转到满足堆的性质的位置
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> KeyNode<K> putKey(final KeyNode<K> node, final Entry<K> entry, final int hash) {
+        if (node == null) {
+            return new KeyNode<>(hash, new Entry[]{entry}, ThreadLocalRandom.current().nextInt(), null, null);
+        }
+        if (hash < node.hash) {
+            final KeyNode<K> child = putKey(node.left, entry, hash);
+            if (child.priority > node.priority) {
+                return child.withRight(node.withLeft(child.right));
+            }
+            return node.withLeft(child);
+        }
+        if (hash > node.hash) {
+            final KeyNode<K> child = putKey(node.right, entry, hash);
+            if (child.priority > node.priority) {
+                return child.withLeft(node.withRight(child.left));
+            }
+            return node.withRight(child);
+        }
+        final Entry<K>[] bucket = node.bucket;
+        for (int i = 0; i < bucket.length; i++) {
+            if (bucket[i].key.equals(entry.key)) {
+                final Entry<K>[] newBucket = bucket.clone();
+                newBucket[i] = entry;
+                return node.withBucket(newBucket);
+            }
+        }
+        final Entry<K>[] newBucket = Arrays.copyOf(bucket, bucket.length + 1);
+        newBucket[bucket.length] = entry;
+        return node.withBucket(newBucket);
+    }
+
+    /**
+     * 调用时key一定存在
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> KeyNode<K> removeKey(final KeyNode<K> node, final K key, final int hash) {
+        if (hash < node.hash) {
+            return node.withLeft(removeKey(node.left, key, hash));
+        }
+        if (hash > node.hash) {
+            return node.withRight(removeKey(node.right, key, hash));
+        }
+        if (node.bucket.length == 1) {
+            return mergeKeys(node.left, node.right);
+        }
+        final Entry<K>[] newBucket = new Entry[node.bucket.length - 1];
+        int index = 0;
+        for (Entry<K> entry : node.bucket) {
+            if (!entry.key.equals(key)) {
+                newBucket[index++] = entry;
+            }
+        }
+        return node.withBucket(newBucket);
+    }
+
+    private static <K> KeyNode<K> mergeKeys(final KeyNode<K> left, final KeyNode<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withRight(mergeKeys(left.right, right));
+        }
+        return right.withLeft(mergeKeys(left, right.left));
+    }
+
+}
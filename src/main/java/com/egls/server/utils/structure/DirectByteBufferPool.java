@@ -0,0 +1,402 @@
+package com.egls.server.utils.structure;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ *     {@link PooledByteBuffer}使用的堆外内存池.
+ *
+ *     内存块按照大小分级,从1kB开始每级翻倍,直到给定的最大池化大小.
+ *     每级的内存块从一整块直接内存(slab)中切分出来,不足时再申请新的slab,申请过的slab不会再归还给操作系统.
+ *     超过最大池化大小的内存块不进入池中,单独申请,释放之后交给GC回收.
+ *
+ *     释放的内存块优先放入当前线程的缓存,线程缓存满了之后放入全局的空闲队列.
+ *     申请时先从当前线程的缓存中获取,然后是全局的空闲队列,最后才申请新的slab.
+ *     线程结束后,它缓存中的内存块在下一次申请新的slab或者查询空闲内存时被放回全局的空闲队列.
+ *
+ *     开启泄漏检测后,会记录每一个{@link PooledByteBuffer}的创建位置.
+ *     没有调用{@link PooledByteBuffer#release()}就被GC回收的缓冲区会被记录为泄漏,并打印它的创建位置,它持有的内存块会被收回.
+ *     泄漏检测有额外的开销,只适合在调试时开启.
+ *
+ *     本类是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 19:40]
+ */
+public final class DirectByteBufferPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectByteBufferPool.class);
+
+    /**
+     * 最小的内存块1kB
+     */
+    static final int UNIT = 0x400;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 每次申请的slab的最小大小256kB
+     */
+    private static final int SLAB_SIZE = 0x40000;
+
+    private static final int DEFAULT_MAX_CHUNK_SIZE = 0x100000;
+
+    private static final int DEFAULT_THREAD_CACHE_SIZE = 16;
+
+    /**
+     * 默认的内存池,最大池化1MB的内存块,每个线程每级缓存16个内存块
+     */
+    public static final DirectByteBufferPool DEFAULT = new DirectByteBufferPool();
+
+    private static final class SizeClass {
+
+        private final int chunkSize;
+
+        private final ConcurrentLinkedQueue<java.nio.ByteBuffer> freeChunks = new ConcurrentLinkedQueue<>();
+
+        private SizeClass(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+    }
+
+    /**
+     * 一个线程的缓存,线程结束之后由其它线程收回
+     */
+    private static final class ThreadCache {
+
+        private final WeakReference<Thread> owner;
+
+        private final ArrayDeque<java.nio.ByteBuffer>[] chunks;
+
+        @SuppressWarnings("unchecked")
+        private ThreadCache(final Thread owner, final int sizeClassCount, final int threadCacheSize) {
+            this.owner = new WeakReference<>(owner);
+            this.chunks = new ArrayDeque[sizeClassCount];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new ArrayDeque<>(threadCacheSize);
+            }
+        }
+
+        /**
+         * 线程结束之后(isAlive返回false),它对缓存的修改对当前线程可见
+         */
+        private boolean isOwnerDead() {
+            final Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+    }
+
+    static final class LeakTracker extends WeakReference<PooledByteBuffer> {
+
+        private final Throwable allocation;
+
+        /**
+         * 缓冲区当前持有的内存块,缓冲区替换内存块时同步更新
+         */
+        java.nio.ByteBuffer chunk;
+
+        private LeakTracker(final PooledByteBuffer buffer, final ReferenceQueue<PooledByteBuffer> queue, final java.nio.ByteBuffer chunk) {
+            super(buffer, queue);
+            this.allocation = new Throwable("PooledByteBuffer created at");
+            this.chunk = chunk;
+        }
+
+    }
+
+    private final int maxChunkSize;
+
+    private final int threadCacheSize;
+
+    private final SizeClass[] sizeClasses;
+
+    private final ThreadLocal<ThreadCache> threadCaches;
+
+    /**
+     * 所有线程的缓存,用来收回已经结束的线程的缓存
+     */
+    private final Set<ThreadCache> threadCacheRegistry = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 申请过的slab的总大小
+     */
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    /**
+     * 正在使用中的池化内存块的总大小
+     */
+    private final AtomicLong usedPooledBytes = new AtomicLong();
+
+    /**
+     * 正在使用中的非池化内存块的总大小
+     */
+    private final AtomicLong usedUnpooledBytes = new AtomicLong();
+
+    private final AtomicLong leakCount = new AtomicLong();
+
+    private volatile boolean leakDetection = false;
+
+    private final Set<LeakTracker> trackers = ConcurrentHashMap.newKeySet();
+
+    private final ReferenceQueue<PooledByteBuffer> referenceQueue = new ReferenceQueue<>();
+
+    public DirectByteBufferPool() {
+        this(DEFAULT_MAX_CHUNK_SIZE, DEFAULT_THREAD_CACHE_SIZE);
+    }
+
+    /**
+     * @param maxChunkSize    最大池化的内存块大小,会被调整为不小于1kB的2的幂
+     * @param threadCacheSize 每个线程每级最多缓存的内存块数量,0表示不使用线程缓存
+     */
+    public DirectByteBufferPool(final int maxChunkSize, final int threadCacheSize) {
+        if (maxChunkSize <= 0 || maxChunkSize > (1 << 30)) {
+            throw new IllegalArgumentException("max chunk size out of range." + maxChunkSize);
+        }
+        if (threadCacheSize < 0) {
+            throw new IllegalArgumentException("thread cache size must not be negative." + threadCacheSize);
+        }
+        this.maxChunkSize = Math.max(UNIT, roundUpToPowerOfTwo(maxChunkSize));
+        this.threadCacheSize = threadCacheSize;
+        this.sizeClasses = new SizeClass[sizeClassIndex(this.maxChunkSize) + 1];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new SizeClass(UNIT << i);
+        }
+        this.threadCaches = ThreadLocal.withInitial(() -> {
+            final ThreadCache threadCache = new ThreadCache(Thread.currentThread(), sizeClasses.length, threadCacheSize);
+            threadCacheRegistry.add(threadCache);
+            return threadCache;
+        });
+    }
+
+    private static int roundUpToPowerOfTwo(final int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private static int sizeClassIndex(final int chunkSize) {
+        return Integer.numberOfTrailingZeros(chunkSize / UNIT);
+    }
+
+    /**
+     * @return 能够容纳给定长度的内存块的大小
+     */
+    final int chunkSize(final int size) {
+        if (size > MAX_ARRAY_SIZE) {
+            throw new IllegalStateException("size too large! size : " + size);
+        }
+        if (size <= UNIT) {
+            return UNIT;
+        }
+        if (size <= maxChunkSize) {
+            return roundUpToPowerOfTwo(size);
+        }
+        final long formatSize = (size + UNIT - 1L) / UNIT * UNIT;
+        return formatSize > MAX_ARRAY_SIZE ? size : (int) formatSize;
+    }
+
+    /**
+     * 申请一个能够容纳给定长度的内存块,内存块的position为0,limit为它的容量
+     */
+    final java.nio.ByteBuffer allocate(final int size) {
+        if (leakDetection) {
+            detectLeaks();
+        }
+        final int chunkSize = chunkSize(size);
+        if (chunkSize > maxChunkSize) {
+            usedUnpooledBytes.addAndGet(chunkSize);
+            return java.nio.ByteBuffer.allocateDirect(chunkSize);
+        }
+        final int index = sizeClassIndex(chunkSize);
+        usedPooledBytes.addAndGet(chunkSize);
+        if (threadCacheSize > 0) {
+            final java.nio.ByteBuffer chunk = threadCaches.get().chunks[index].pollLast();
+            if (chunk != null) {
+                return chunk;
+            }
+        }
+        final SizeClass sizeClass = sizeClasses[index];
+        final java.nio.ByteBuffer chunk = sizeClass.freeChunks.poll();
+        return chunk != null ? chunk : allocateSlab(sizeClass);
+    }
+
+    private java.nio.ByteBuffer allocateSlab(final SizeClass sizeClass) {
+        if (reclaimThreadCaches() > 0) {
+            final java.nio.ByteBuffer chunk = sizeClass.freeChunks.poll();
+            if (chunk != null) {
+                return chunk;
+            }
+        }
+        final int chunkSize = sizeClass.chunkSize;
+        final int slabSize = Math.max(SLAB_SIZE, chunkSize);
+        final java.nio.ByteBuffer slab = java.nio.ByteBuffer.allocateDirect(slabSize);
+        pooledBytes.addAndGet(slabSize);
+        for (int offset = chunkSize; offset < slabSize; offset += chunkSize) {
+            slab.limit(offset + chunkSize).position(offset);
+            sizeClass.freeChunks.offer(slab.slice());
+        }
+        slab.limit(chunkSize).position(0);
+        return slab.slice();
+    }
+
+    /**
+     * 释放一个由{@link #allocate(int)}申请的内存块
+     */
+    final void free(final java.nio.ByteBuffer chunk) {
+        final int chunkSize = chunk.capacity();
+        if (chunkSize > maxChunkSize) {
+            usedUnpooledBytes.addAndGet(-chunkSize);
+            return;
+        }
+        chunk.clear();
+        final int index = sizeClassIndex(chunkSize);
+        usedPooledBytes.addAndGet(-chunkSize);
+        if (threadCacheSize > 0) {
+            final ArrayDeque<java.nio.ByteBuffer> cache = threadCaches.get().chunks[index];
+            if (cache.size() < threadCacheSize) {
+                cache.offerLast(chunk);
+                return;
+            }
+        }
+        sizeClasses[index].freeChunks.offer(chunk);
+    }
+
+    /**
+     * 把已经结束的线程缓存的内存块放回全局的空闲队列
+     *
+     * @return 收回的内存块数量
+     */
+    private int reclaimThreadCaches() {
+        if (threadCacheSize <= 0) {
+            return 0;
+        }
+        int count = 0;
+        for (ThreadCache threadCache : threadCacheRegistry) {
+            //只有成功移除的线程收回,不会重复收回
+            if (threadCache.isOwnerDead() && threadCacheRegistry.remove(threadCache)) {
+                for (int i = 0; i < threadCache.chunks.length; i++) {
+                    final ArrayDeque<java.nio.ByteBuffer> cache = threadCache.chunks[i];
+                    java.nio.ByteBuffer chunk;
+                    while ((chunk = cache.pollFirst()) != null) {
+                        sizeClasses[i].freeChunks.offer(chunk);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    final LeakTracker track(final PooledByteBuffer buffer, final java.nio.ByteBuffer chunk) {
+        if (!leakDetection) {
+            return null;
+        }
+        final LeakTracker tracker = new LeakTracker(buffer, referenceQueue, chunk);
+        trackers.add(tracker);
+        return tracker;
+    }
+
+    final void untrack(final LeakTracker tracker) {
+        trackers.remove(tracker);
+        tracker.clear();
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public final boolean isLeakDetection() {
+        return leakDetection;
+    }
+
+    /**
+     * 开启或者关闭泄漏检测,只对开启之后创建的缓冲区生效
+     */
+    public final void setLeakDetection(final boolean leakDetection) {
+        this.leakDetection = leakDetection;
+    }
+
+    /**
+     * 检查已经被GC回收但是没有释放的缓冲区,收回它们持有的内存块.
+     * 开启泄漏检测时,每次申请内存块都会调用.
+     *
+     * @return 本次发现的泄漏数量
+     */
+    public final int detectLeaks() {
+        int count = 0;
+        LeakTracker tracker;
+        while ((tracker = (LeakTracker) referenceQueue.poll()) != null) {
+            if (trackers.remove(tracker)) {
+                count++;
+                leakCount.incrementAndGet();
+                LOGGER.error("PooledByteBuffer was garbage collected without being released, chunk size : " + tracker.chunk.capacity(), tracker.allocation);
+                free(tracker.chunk);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return 发现的泄漏总数
+     */
+    public final long getLeakCount() {
+        return leakCount.get();
+    }
+
+    /**
+     * @return 最大池化的内存块大小
+     */
+    public final int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    /**
+     * @return 池中申请过的直接内存总大小,不包括非池化的内存块
+     */
+    public final long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * @return 正在被缓冲区使用的直接内存总大小,包括非池化的内存块
+     */
+    public final long getUsedBytes() {
+        return usedPooledBytes.get() + usedUnpooledBytes.get();
+    }
+
+    /**
+     * @return 池中空闲的直接内存总大小,包括所有线程缓存中的内存块.已经结束的线程的缓存先被收回
+     */
+    public final long getFreeBytes() {
+        reclaimThreadCaches();
+        return pooledBytes.get() - usedPooledBytes.get();
+    }
+
+    /**
+     * @return 池的占用率,正在使用的池化内存占申请过的池化内存的比例
+     */
+    public final double getOccupancy() {
+        final long pooled = pooledBytes.get();
+        return pooled == 0 ? 0 : (double) usedPooledBytes.get() / pooled;
+    }
+
+    @Override
+    public final String toString() {
+        return getClass().getName()
+                + "["
+                + "maxChunkSize=" + maxChunkSize
+                + ",threadCacheSize=" + threadCacheSize
+                + ",pooledBytes=" + getPooledBytes()
+                + ",usedBytes=" + getUsedBytes()
+                + ",freeBytes=" + getFreeBytes()
+                + ",leakCount=" + getLeakCount()
+                + "]";
+    }
+
+}
@@ -2,17 +2,22 @@ package com.egls.server.utils.structure;
 
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.egls.server.utils.StringUtil;
 import com.egls.server.utils.math.MathUtil;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * 运行时间记录对象.
  * 提供最大,最小,总运行时间,平均运行时间,运行次数.
  * 时间的单位在这里没有定义,使用者应该明白自己的单位.
+ * <p>
+ * 默认模式用AtomicLong记录,每次记录都要对同一组变量做原子操作.
+ * 很多线程同时记录同一个对象时,使用条带(striped)模式:用{@link LongAdder}和{@link LongAccumulator}分散到多个单元中累加,
+ * 平均时间在读取时才计算,最大最小时间只在变化时才写入.条带模式下读取到的各项数值之间不是同一时刻的快照.
  *
  * @author mayer - [Created on 2018-08-21 17:00]
  */
@@ -26,11 +31,11 @@ public final class ElapsedTimeRecorder implements Comparable<ElapsedTimeRecorder
             maxNameLength = MathUtil.max(maxNameLength, elapsedRecorder.getName().length());
             maxNumber = MathUtil.max(
                     maxNumber,
-                    elapsedRecorder.totalElapsedCount.get(),
-                    elapsedRecorder.totalElapsedTime.get(),
-                    elapsedRecorder.minElapsedTime.get(),
-                    elapsedRecorder.maxElapsedTime.get(),
-                    elapsedRecorder.avgElapsedTime.get()
+                    elapsedRecorder.totalElapsedCount(),
+                    elapsedRecorder.totalElapsedTime(),
+                    elapsedRecorder.minElapsedTime(),
+                    elapsedRecorder.maxElapsedTime(),
+                    elapsedRecorder.avgElapsedTime()
             );
         }
 
@@ -65,41 +70,84 @@ public final class ElapsedTimeRecorder implements Comparable<ElapsedTimeRecorder
 
     private final AtomicLong totalElapsedCount = new AtomicLong();
 
+    /**
+     * 以下只在条带模式下使用,否则为null
+     */
+    private final LongAccumulator stripedMinElapsedTime;
+
+    private final LongAccumulator stripedMaxElapsedTime;
+
+    private final LongAdder stripedTotalElapsedTime;
+
+    private final LongAdder stripedTotalElapsedCount;
+
     public ElapsedTimeRecorder(final String name) {
+        this(name, false);
+    }
+
+    /**
+     * @param striped 是否使用条带模式,适合很多线程同时记录
+     */
+    public ElapsedTimeRecorder(final String name, final boolean striped) {
         this.name = name;
+        if (striped) {
+            stripedMinElapsedTime = new LongAccumulator(Math::min, Long.MAX_VALUE);
+            stripedMaxElapsedTime = new LongAccumulator(Math::max, Long.MIN_VALUE);
+            stripedTotalElapsedTime = new LongAdder();
+            stripedTotalElapsedCount = new LongAdder();
+        } else {
+            stripedMinElapsedTime = null;
+            stripedMaxElapsedTime = null;
+            stripedTotalElapsedTime = null;
+            stripedTotalElapsedCount = null;
+        }
     }
 
     @Override
     public int compareTo(final ElapsedTimeRecorder o) {
         //大的在前面
-        return Long.compare(o.avgElapsedTime.get(), avgElapsedTime.get());
+        return Long.compare(o.avgElapsedTime(), avgElapsedTime());
     }
 
     public String getName() {
         return name;
     }
 
+    public boolean isStriped() {
+        return stripedTotalElapsedCount != null;
+    }
+
+    /**
+     * 条带模式下返回的是当前值的快照,修改它不影响本对象.以下相同
+     */
     public AtomicLong getMinElapsedTime() {
-        return minElapsedTime;
+        return isStriped() ? new AtomicLong(minElapsedTime()) : minElapsedTime;
     }
 
     public AtomicLong getMaxElapsedTime() {
-        return maxElapsedTime;
+        return isStriped() ? new AtomicLong(maxElapsedTime()) : maxElapsedTime;
     }
 
     public AtomicLong getAvgElapsedTime() {
-        return avgElapsedTime;
+        return isStriped() ? new AtomicLong(avgElapsedTime()) : avgElapsedTime;
     }
 
     public AtomicLong getTotalElapsedTime() {
-        return totalElapsedTime;
+        return isStriped() ? new AtomicLong(totalElapsedTime()) : totalElapsedTime;
     }
 
     public AtomicLong getTotalElapsedCount() {
-        return totalElapsedCount;
+        return isStriped() ? new AtomicLong(totalElapsedCount()) : totalElapsedCount;
     }
 
     public void reset() {
+        if (isStriped()) {
+            stripedMinElapsedTime.reset();
+            stripedMaxElapsedTime.reset();
+            stripedTotalElapsedTime.reset();
+            stripedTotalElapsedCount.reset();
+            return;
+        }
         minElapsedTime.getAndSet(Long.MAX_VALUE);
         maxElapsedTime.getAndSet(Long.MIN_VALUE);
         avgElapsedTime.getAndSet(0);
@@ -109,8 +157,16 @@ public final class ElapsedTimeRecorder implements Comparable<ElapsedTimeRecorder
 
     public void addElapsedTime(final long increment) {
         if (increment > 0) {
-            minElapsedTime.accumulateAndGet(increment, (oldValue, newValue) -> NumberUtils.min(oldValue, newValue));
-            maxElapsedTime.accumulateAndGet(increment, (oldValue, newValue) -> NumberUtils.max(oldValue, newValue));
+            if (isStriped()) {
+                //LongAccumulator只在结果变化时才写入
+                stripedMinElapsedTime.accumulate(increment);
+                stripedMaxElapsedTime.accumulate(increment);
+                stripedTotalElapsedTime.add(increment);
+                stripedTotalElapsedCount.increment();
+                return;
+            }
+            updateMin(minElapsedTime, increment);
+            updateMax(maxElapsedTime, increment);
             final long time = totalElapsedTime.addAndGet(increment);
             final long count = totalElapsedCount.incrementAndGet();
             avgElapsedTime.getAndSet(time / count);
@@ -122,12 +178,58 @@ public final class ElapsedTimeRecorder implements Comparable<ElapsedTimeRecorder
         final char delimiter = '|';
         String showString = "";
         showString = showString + padChar + StringUtils.rightPad(name, stringLength, padChar) + padChar + delimiter;
-        showString = showString + padChar + StringUtils.rightPad(String.valueOf(totalElapsedCount.get()), numberLength, padChar) + padChar + delimiter;
-        showString = showString + padChar + StringUtils.rightPad(String.valueOf(totalElapsedTime.get()), numberLength, padChar) + padChar + delimiter;
-        showString = showString + padChar + StringUtils.rightPad(String.valueOf(minElapsedTime.get()), numberLength, padChar) + padChar + delimiter;
-        showString = showString + padChar + StringUtils.rightPad(String.valueOf(maxElapsedTime.get()), numberLength, padChar) + padChar + delimiter;
-        showString = showString + padChar + StringUtils.rightPad(String.valueOf(avgElapsedTime.get()), numberLength, padChar) + padChar + delimiter;
+        showString = showString + padChar + StringUtils.rightPad(String.valueOf(totalElapsedCount()), numberLength, padChar) + padChar + delimiter;
+        showString = showString + padChar + StringUtils.rightPad(String.valueOf(totalElapsedTime()), numberLength, padChar) + padChar + delimiter;
+        showString = showString + padChar + StringUtils.rightPad(String.valueOf(minElapsedTime()), numberLength, padChar) + padChar + delimiter;
+        showString = showString + padChar + StringUtils.rightPad(String.valueOf(maxElapsedTime()), numberLength, padChar) + padChar + delimiter;
+        showString = showString + padChar + StringUtils.rightPad(String.valueOf(avgElapsedTime()), numberLength, padChar) + padChar + delimiter;
         return showString;
     }
 
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 只在value更小时才做CAS
+     */
+    private static void updateMin(final AtomicLong atomicLong, final long value) {
+        long current = atomicLong.get();
+        while (value < current && !atomicLong.compareAndSet(current, value)) {
+            current = atomicLong.get();
+        }
+    }
+
+    /**
+     * 只在value更大时才做CAS
+     */
+    private static void updateMax(final AtomicLong atomicLong, final long value) {
+        long current = atomicLong.get();
+        while (value > current && !atomicLong.compareAndSet(current, value)) {
+            current = atomicLong.get();
+        }
+    }
+
+    private long minElapsedTime() {
+        return isStriped() ? stripedMinElapsedTime.get() : minElapsedTime.get();
+    }
+
+    private long maxElapsedTime() {
+        return isStriped() ? stripedMaxElapsedTime.get() : maxElapsedTime.get();
+    }
+
+    private long totalElapsedTime() {
+        return isStriped() ? stripedTotalElapsedTime.sum() : totalElapsedTime.get();
+    }
+
+    private long totalElapsedCount() {
+        return isStriped() ? stripedTotalElapsedCount.sum() : totalElapsedCount.get();
+    }
+
+    private long avgElapsedTime() {
+        if (!isStriped()) {
+            return avgElapsedTime.get();
+        }
+        final long count = totalElapsedCount();
+        return count > 0 ? totalElapsedTime() / count : 0;
+    }
+
 }
@@ -0,0 +1,112 @@
+package com.egls.server.utils.structure;
+
+/**
+ * <pre>
+ *     估算元素访问频率的count-min sketch,用于TinyLFU的准入判断.
+ *
+ *     每个元素对应4个4位的计数器,最大计数15,取4个计数器中的最小值作为频率.
+ *     增加的次数达到样本大小(最大元素数量的10倍)时,所有计数器减半,使频率随时间衰减.
+ *     表的大小随着元素数量增长,增长时丢弃已有的计数.
+ *
+ *     本类不是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 22:45]
+ */
+final class FrequencySketch {
+
+    private static final long[] SEED = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private static final int MIN_TABLE_SIZE = 16;
+
+    private static final int MAX_TABLE_SIZE = 1 << 24;
+
+    private long[] table;
+
+    private int tableMask;
+
+    private int sampleSize;
+
+    private int size;
+
+    FrequencySketch() {
+        ensureCapacity(MIN_TABLE_SIZE);
+    }
+
+    /**
+     * 保证表的大小足够估算给定数量的元素
+     */
+    final void ensureCapacity(final long maximumSize) {
+        final int capacity = (int) Math.min(Math.max(maximumSize, MIN_TABLE_SIZE), MAX_TABLE_SIZE);
+        if (table != null && table.length >= capacity) {
+            return;
+        }
+        table = new long[Integer.highestOneBit(capacity - 1) << 1];
+        tableMask = table.length - 1;
+        sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+        size = 0;
+    }
+
+    final int frequency(final Object element) {
+        final int hash = spread(element.hashCode());
+        final int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    final void increment(final Object element) {
+        final int hash = spread(element.hashCode());
+        final int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(final int index, final int counter) {
+        final int offset = counter << 2;
+        final long mask = 0xFL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(final int hash, final int i) {
+        long result = (hash + SEED[i]) * SEED[i];
+        result += result >>> 32;
+        return ((int) result) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45D9F3B;
+        x = ((x >>> 16) ^ x) * 0x45D9F3B;
+        return (x >>> 16) ^ x;
+    }
+
+}
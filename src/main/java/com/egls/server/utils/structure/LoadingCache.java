@@ -0,0 +1,406 @@
+package com.egls.server.utils.structure;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.ToIntBiFunction;
+
+import com.egls.server.utils.function.Ticker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ *     自动加载的缓存,代替手写的"读取,没有就加载,再放入"的代码.
+ *     数据保存在{@link ConcurrentCachedMap}中,容量,权重,过期和淘汰策略的含义与之相同.
+ *
+ *     同一个键同时缺失时,只有一个线程调用{@link CacheLoader},其他线程等待同一个{@link CompletableFuture},避免同时击穿到数据库或者远程服务.
+ *     设置了刷新时间时,写入超过刷新时间的值在被读取时触发异步的{@link CacheLoader#reload(Object, Object)},刷新完成之前继续返回旧的值.
+ *     {@link #getAll(Collection)}把缺失的键合并为一次{@link CacheLoader#loadAll(Collection)}调用.
+ *
+ *     设置{@link CacheStatsRecorder}之后,记录读取的命中和缺失,加载和刷新的耗时,以及所有的移除.
+ *     加载结果为null时不缓存.
+ *     加载失败时同步方法抛出{@link CompletionException},cause是加载器抛出的异常,失败的结果不缓存.
+ *     本类是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 23:50]
+ */
+public final class LoadingCache<K, V> implements Ticker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadingCache.class);
+
+    /**
+     * 缓存的值和写入的时间
+     */
+    private static final class CacheValue<V> {
+
+        private final V value;
+
+        private final long writeTime;
+
+        private CacheValue(final V value, final long writeTime) {
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+
+    }
+
+    private final ConcurrentCachedMap<K, CacheValue<V>> map;
+
+    private final CacheLoader<K, V> loader;
+
+    private final Executor executor;
+
+    private final long refreshAfterWriteMillis;
+
+    private final Clock clock;
+
+    /**
+     * 正在加载的键
+     */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 正在刷新的键
+     */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> refreshing = new ConcurrentHashMap<>();
+
+    private volatile CacheStatsRecorder statsRecorder;
+
+    public LoadingCache(final int cacheSize, final CacheLoader<K, V> loader) {
+        this(cacheSize, 0L, null, loader);
+    }
+
+    /**
+     * @param refreshAfterWriteMillis 写入之后多久刷新,小于等于0表示不刷新
+     * @param executor                异步加载和刷新的线程池,null表示{@link ForkJoinPool#commonPool()}
+     */
+    public LoadingCache(final int cacheSize, final long refreshAfterWriteMillis, final Executor executor, final CacheLoader<K, V> loader) {
+        this(cacheSize, null, CachePolicy.LRU, 0L, 0L, refreshAfterWriteMillis, Clock.systemDefaultZone(), executor, loader, null);
+    }
+
+    /**
+     * @param maximumWeight           最大的总权重,没有权重函数时是最大的元素数量
+     * @param weigher                 权重函数,null表示每个元素的权重都是1
+     * @param policy                  淘汰策略
+     * @param expireAfterWriteMillis  写入之后的存活时间,小于等于0表示不过期
+     * @param expireAfterAccessMillis 最后一次访问之后的空闲时间,小于等于0表示不过期
+     * @param refreshAfterWriteMillis 写入之后多久刷新,小于等于0表示不刷新.通常小于存活时间,过期的值不会被刷新,而是重新加载
+     * @param clock                   判断过期和刷新使用的时钟
+     * @param executor                异步加载和刷新的线程池,null表示{@link ForkJoinPool#commonPool()}
+     * @param loader                  加载器
+     * @param removalListener         移除回调,可以为null
+     */
+    public LoadingCache(final long maximumWeight, final ToIntBiFunction<? super K, ? super V> weigher, final CachePolicy policy,
+                        final long expireAfterWriteMillis, final long expireAfterAccessMillis, final long refreshAfterWriteMillis,
+                        final Clock clock, final Executor executor, final CacheLoader<K, V> loader,
+                        final RemovalListener<K, V> removalListener) {
+        this.loader = Objects.requireNonNull(loader);
+        this.executor = executor == null ? ForkJoinPool.commonPool() : executor;
+        this.refreshAfterWriteMillis = Math.max(0L, refreshAfterWriteMillis);
+        this.clock = Objects.requireNonNull(clock);
+        this.map = new ConcurrentCachedMap<>(maximumWeight,
+                weigher == null ? null : (key, cacheValue) -> weigher.applyAsInt(key, cacheValue.value),
+                policy, expireAfterWriteMillis, expireAfterAccessMillis, clock,
+                removalListener == null ? null : (key, cacheValue, cause) -> removalListener.onRemoval(key, cacheValue.value, cause));
+    }
+
+    public final CacheStatsRecorder getStatsRecorder() {
+        return statsRecorder;
+    }
+
+    /**
+     * @param statsRecorder 为null时不统计
+     */
+    public final void setStatsRecorder(final CacheStatsRecorder statsRecorder) {
+        this.statsRecorder = statsRecorder;
+        map.setStatsRecorder(statsRecorder);
+    }
+
+    /**
+     * 获取值,缺失时在当前线程加载,同一个键正在被其他线程加载时等待其结果
+     *
+     * @return 值, 不存在时为null
+     */
+    public final V get(final K key) {
+        final CacheValue<V> cacheValue = getCacheValue(key);
+        if (cacheValue != null) {
+            return cacheValue.value;
+        }
+        return load(key, false).join();
+    }
+
+    /**
+     * 获取值,缺失时在线程池中加载
+     */
+    public final CompletableFuture<V> getAsync(final K key) {
+        final CacheValue<V> cacheValue = getCacheValue(key);
+        if (cacheValue != null) {
+            return CompletableFuture.completedFuture(cacheValue.value);
+        }
+        return load(key, true);
+    }
+
+    /**
+     * 获取一批值,缺失的键在当前线程中合并为一次{@link CacheLoader#loadAll(Collection)},正在被其他线程加载的键等待其结果
+     *
+     * @return 按照给出的键的顺序排列, 不包含不存在的键
+     */
+    public final Map<K, V> getAll(final Collection<? extends K> keys) {
+        final Map<K, V> present = new HashMap<>();
+        final Map<K, CompletableFuture<V>> futures = new HashMap<>();
+        final Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (present.containsKey(key) || futures.containsKey(key)) {
+                continue;
+            }
+            final CacheValue<V> cacheValue = getCacheValue(key);
+            if (cacheValue != null) {
+                present.put(key, cacheValue.value);
+                continue;
+            }
+            final CompletableFuture<V> created = new CompletableFuture<>();
+            final CompletableFuture<V> existing = loading.putIfAbsent(key, created);
+            if (existing != null) {
+                futures.put(key, existing);
+            } else {
+                futures.put(key, created);
+                owned.put(key, created);
+            }
+        }
+        if (!owned.isEmpty()) {
+            loadAll(owned);
+        }
+        final Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = present.get(key);
+            if (value == null) {
+                final CompletableFuture<V> future = futures.get(key);
+                value = future == null ? null : future.join();
+            }
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 只读取已经缓存的值,不会加载
+     */
+    public final V getIfPresent(final K key) {
+        final CacheValue<V> cacheValue = getCacheValue(key);
+        return cacheValue == null ? null : cacheValue.value;
+    }
+
+    public final void put(final K key, final V value) {
+        map.put(key, new CacheValue<>(value, clock.millis()));
+    }
+
+    public final void invalidate(final K key) {
+        map.remove(key);
+    }
+
+    public final void invalidateAll() {
+        map.clear();
+    }
+
+    /**
+     * 在线程池中刷新一个键,刷新完成之前读取到的是旧的值.键不存在时等同于{@link #getAsync(Object)}
+     */
+    public final CompletableFuture<V> refresh(final K key) {
+        final CacheValue<V> cacheValue = map.getQuietly(key);
+        if (cacheValue == null) {
+            return load(key, true);
+        }
+        return refresh(key, cacheValue);
+    }
+
+    public final int size() {
+        return map.size();
+    }
+
+    /**
+     * @see ConcurrentCachedMap#cleanUp()
+     */
+    public final void cleanUp() {
+        map.cleanUp();
+    }
+
+    @Override
+    public final void tick() {
+        map.tick();
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 读取缓存,需要刷新时发起刷新
+     */
+    private CacheValue<V> getCacheValue(final K key) {
+        final CacheValue<V> cacheValue = map.get(key);
+        if (cacheValue != null && refreshAfterWriteMillis > 0 && clock.millis() - cacheValue.writeTime >= refreshAfterWriteMillis) {
+            refresh(key, cacheValue);
+        }
+        return cacheValue;
+    }
+
+    /**
+     * 加载一个键,同一个键同时只有一次加载
+     *
+     * @param async 是否在线程池中加载,否则在当前线程加载
+     */
+    private CompletableFuture<V> load(final K key, final boolean async) {
+        Objects.requireNonNull(key);
+        final CompletableFuture<V> created = new CompletableFuture<>();
+        final CompletableFuture<V> existing = loading.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        final Runnable task = () -> {
+            try {
+                CacheValue<V> cacheValue = map.getQuietly(key);
+                if (cacheValue == null) {
+                    //可能是刚刚被其他线程加载完成
+                    final long startTime = System.nanoTime();
+                    final V value;
+                    try {
+                        value = loader.load(key);
+                    } catch (Exception exception) {
+                        recordLoad(startTime, false);
+                        throw exception;
+                    }
+                    recordLoad(startTime, true);
+                    cacheValue = value == null ? null : putIfAbsent(key, value);
+                }
+                finish(key, created, cacheValue == null ? null : cacheValue.value, null);
+            } catch (Throwable throwable) {
+                finish(key, created, null, throwable);
+            }
+        };
+        if (async) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException exception) {
+                finish(key, created, null, exception);
+            }
+        } else {
+            task.run();
+        }
+        return created;
+    }
+
+    private void loadAll(final Map<K, CompletableFuture<V>> owned) {
+        //可能是刚刚被其他线程加载完成
+        owned.entrySet().removeIf(entry -> {
+            final CacheValue<V> cacheValue = map.getQuietly(entry.getKey());
+            if (cacheValue != null) {
+                finish(entry.getKey(), entry.getValue(), cacheValue.value, null);
+                return true;
+            }
+            return false;
+        });
+        if (owned.isEmpty()) {
+            return;
+        }
+        final Map<K, V> loaded;
+        final long startTime = System.nanoTime();
+        try {
+            loaded = loader.loadAll(new ArrayList<>(owned.keySet()));
+            recordLoad(startTime, true);
+        } catch (Throwable throwable) {
+            recordLoad(startTime, false);
+            owned.forEach((key, future) -> finish(key, future, null, throwable));
+            return;
+        }
+        owned.forEach((key, future) -> {
+            final V value = loaded == null ? null : loaded.get(key);
+            final CacheValue<V> cacheValue = value == null ? null : putIfAbsent(key, value);
+            finish(key, future, cacheValue == null ? null : cacheValue.value, null);
+        });
+    }
+
+    /**
+     * 一次{@link CacheLoader}调用的耗时,批量加载也只记录一次
+     */
+    private void recordLoad(final long startTime, final boolean success) {
+        final CacheStatsRecorder recorder = statsRecorder;
+        if (recorder == null) {
+            return;
+        }
+        final long loadTime = System.nanoTime() - startTime;
+        if (success) {
+            recorder.recordLoadSuccess(loadTime);
+        } else {
+            recorder.recordLoadFailure(loadTime);
+        }
+    }
+
+    /**
+     * 加载期间调用者可能已经{@link #put(Object, Object)}了新的值,以调用者的为准
+     */
+    private CacheValue<V> putIfAbsent(final K key, final V value) {
+        final CacheValue<V> cacheValue = new CacheValue<>(value, clock.millis());
+        final CacheValue<V> existing = map.putIfAbsent(key, cacheValue);
+        return existing == null ? cacheValue : existing;
+    }
+
+    /**
+     * 先写入缓存再移除加载记录,其他线程不会在两者之间看到缺失而重复加载
+     */
+    private void finish(final K key, final CompletableFuture<V> future, final V value, final Throwable throwable) {
+        loading.remove(key, future);
+        if (throwable == null) {
+            future.complete(value);
+        } else {
+            future.completeExceptionally(throwable);
+        }
+    }
+
+    private CompletableFuture<V> refresh(final K key, final CacheValue<V> oldValue) {
+        final CompletableFuture<V> created = new CompletableFuture<>();
+        final CompletableFuture<V> existing = refreshing.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                final long startTime = System.nanoTime();
+                try {
+                    final V value = loader.reload(key, oldValue.value);
+                    recordLoad(startTime, true);
+                    //刷新期间值被替换或者移除了,丢弃刷新的结果
+                    if (value == null) {
+                        map.remove(key, oldValue);
+                    } else {
+                        map.replace(key, oldValue, new CacheValue<>(value, clock.millis()));
+                    }
+                    created.complete(value);
+                } catch (Throwable throwable) {
+                    recordLoad(startTime, false);
+                    LOGGER.error("LoadingCache reload error, key : " + key, throwable);
+                    created.completeExceptionally(throwable);
+                } finally {
+                    refreshing.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            refreshing.remove(key, created);
+            created.completeExceptionally(exception);
+        }
+        return created;
+    }
+
+}
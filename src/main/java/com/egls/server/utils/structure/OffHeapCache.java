@@ -0,0 +1,566 @@
+package com.egls.server.utils.structure;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ *     值保存在堆外内存中的缓存,用来存放较大的二进制数据,比如{@link com.egls.server.utils.databind.serialization.Serializer}序列化的玩家快照,压缩过的json.
+ *     堆上只保留键和值所在位置的索引,值本身不占用堆内存,不会增加老年代的大小和GC的停顿时间.
+ *
+ *     内存按照64字节的块管理,每个值占用一个slab中连续的若干块,值的最大长度是一个slab的大小.
+ *     直接内存的总大小达到上限后,按照淘汰策略选出的值会溢出到内存映射文件中;没有设置溢出文件,或者溢出文件也满了,值会被丢弃.
+ *     溢出到文件中的值被访问时直接从映射文件中读取,不会再回到直接内存中.
+ *     申请过的slab不会再归还,直到{@link #close()}之后交给GC回收.
+ *
+ *     读取时拷贝为byte[],或者通过{@link #read(Object, Function)}在锁内直接访问值的只读视图,避免拷贝.
+ *     设置{@link CacheStatsRecorder}之后,记录读取的命中和缺失,以及所有的移除,溢出到文件不算移除.
+ *     本类是线程安全的,所有操作都在同一把锁内完成.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 00:30]
+ */
+public final class OffHeapCache<K> implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapCache.class);
+
+    /**
+     * 内存块的大小
+     */
+    static final int BLOCK_SIZE = 64;
+
+    /**
+     * slab的最大大小4MB
+     */
+    private static final int MAX_SLAB_SIZE = 0x400000;
+
+    /**
+     * 淘汰策略
+     */
+    public enum Policy {
+
+        /**
+         * 淘汰最久没有访问的值
+         */
+        LRU,
+
+        /**
+         * 按照写入的顺序循环检查,访问过的值获得一次机会,访问时只设置标记,不调整顺序
+         */
+        CLOCK
+
+    }
+
+    private static final class Entry<K> {
+
+        private final K key;
+
+        private final int length;
+
+        private Tier<K> tier;
+
+        private int slab;
+
+        private int block;
+
+        private boolean referenced;
+
+        private Entry<K> prev;
+
+        private Entry<K> next;
+
+        private Entry(final K key, final int length) {
+            this.key = key;
+            this.length = length;
+        }
+
+        private int blocks() {
+            return (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        }
+
+    }
+
+    /**
+     * 一层存储,直接内存或者内存映射文件
+     */
+    private static final class Tier<K> {
+
+        private final java.nio.ByteBuffer[] slabs;
+
+        private final BitSet[] usedBlocks;
+
+        /**
+         * 除了最后一个以外每个slab的大小,最后一个slab只使用剩余的容量
+         */
+        private final int slabSize;
+
+        private final int lastSlabSize;
+
+        /**
+         * 为null时是直接内存
+         */
+        private final FileChannel channel;
+
+        /**
+         * 按照淘汰顺序排列,头部最先被淘汰
+         */
+        private Entry<K> head;
+
+        private Entry<K> tail;
+
+        private int slabCount;
+
+        private long usedBytes;
+
+        private Tier(final long capacity, final FileChannel channel) {
+            //向下对齐,不超过给出的容量,但至少有一个块
+            final long alignedCapacity = Math.max(BLOCK_SIZE, capacity / BLOCK_SIZE * BLOCK_SIZE);
+            this.slabSize = (int) Math.min(MAX_SLAB_SIZE, alignedCapacity);
+            final int count = (int) ((alignedCapacity + slabSize - 1) / slabSize);
+            this.lastSlabSize = (int) (alignedCapacity - (long) (count - 1) * slabSize);
+            this.slabs = new java.nio.ByteBuffer[count];
+            this.usedBlocks = new BitSet[count];
+            this.channel = channel;
+        }
+
+        /**
+         * 在已有的slab中寻找连续的空闲块,找不到时申请新的slab
+         */
+        private boolean allocate(final Entry<K> entry) throws IOException {
+            final int blocks = entry.blocks();
+            for (int i = 0; i < slabs.length; i++) {
+                final int size = slabSize(i);
+                if (i == slabCount) {
+                    slabs[i] = channel == null
+                            ? java.nio.ByteBuffer.allocateDirect(size)
+                            : channel.map(FileChannel.MapMode.READ_WRITE, (long) i * slabSize, size);
+                    usedBlocks[i] = new BitSet(size / BLOCK_SIZE);
+                    slabCount++;
+                }
+                final int block = findFreeBlocks(usedBlocks[i], size / BLOCK_SIZE, blocks);
+                if (block >= 0) {
+                    usedBlocks[i].set(block, block + blocks);
+                    usedBytes += (long) blocks * BLOCK_SIZE;
+                    entry.tier = this;
+                    entry.slab = i;
+                    entry.block = block;
+                    linkLast(entry);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int slabSize(final int slab) {
+            return slab == slabs.length - 1 ? lastSlabSize : slabSize;
+        }
+
+        private int findFreeBlocks(final BitSet used, final int blocksPerSlab, final int blocks) {
+            int from = 0;
+            while (true) {
+                final int start = used.nextClearBit(from);
+                if (start + blocks > blocksPerSlab) {
+                    return -1;
+                }
+                final int end = used.nextSetBit(start);
+                if (end < 0 || end - start >= blocks) {
+                    return start;
+                }
+                from = end;
+            }
+        }
+
+        private void free(final Entry<K> entry) {
+            final int blocks = entry.blocks();
+            usedBlocks[entry.slab].clear(entry.block, entry.block + blocks);
+            usedBytes -= (long) blocks * BLOCK_SIZE;
+            unlink(entry);
+            entry.tier = null;
+        }
+
+        /**
+         * 值所在的内存,position和limit是值的范围
+         */
+        private java.nio.ByteBuffer view(final Entry<K> entry) {
+            final java.nio.ByteBuffer view = slabs[entry.slab].duplicate();
+            final int offset = entry.block * BLOCK_SIZE;
+            view.limit(offset + entry.length).position(offset);
+            return view;
+        }
+
+        private void onAccess(final Entry<K> entry, final Policy policy) {
+            if (policy == Policy.CLOCK) {
+                entry.referenced = true;
+            } else if (entry != tail) {
+                unlink(entry);
+                linkLast(entry);
+            }
+        }
+
+        private Entry<K> selectVictim(final Policy policy) {
+            if (policy == Policy.CLOCK) {
+                //访问过的值清除标记,移到队尾,相当于时钟指针越过它
+                while (head != null && head.referenced) {
+                    final Entry<K> entry = head;
+                    entry.referenced = false;
+                    unlink(entry);
+                    linkLast(entry);
+                }
+            }
+            return head;
+        }
+
+        private void linkLast(final Entry<K> entry) {
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        private void unlink(final Entry<K> entry) {
+            final Entry<K> prev = entry.prev;
+            final Entry<K> next = entry.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            entry.prev = entry.next = null;
+        }
+
+        private void clear() {
+            for (int i = 0; i < slabCount; i++) {
+                usedBlocks[i].clear();
+            }
+            head = tail = null;
+            usedBytes = 0L;
+        }
+
+    }
+
+    private final Map<K, Entry<K>> index = new HashMap<>();
+
+    private final Policy policy;
+
+    private final Tier<K> memory;
+
+    private final Tier<K> overflow;
+
+    private final Path overflowFile;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long evictionCount;
+
+    private volatile CacheStatsRecorder statsRecorder;
+
+    private boolean closed;
+
+    /**
+     * @param memoryBytes 直接内存的最大字节数
+     * @param policy      淘汰策略
+     */
+    public OffHeapCache(final long memoryBytes, final Policy policy) {
+        this(memoryBytes, null, null, 0L, policy);
+    }
+
+    /**
+     * @param memoryBytes   直接内存的最大字节数
+     * @param overflowFile  溢出文件,已经存在时会被覆盖,{@link #close()}时被删除
+     * @param overflowBytes 溢出文件的最大字节数
+     * @param policy        淘汰策略
+     */
+    public OffHeapCache(final long memoryBytes, final Path overflowFile, final long overflowBytes, final Policy policy) throws IOException {
+        this(memoryBytes, Objects.requireNonNull(overflowFile), FileChannel.open(overflowFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE), overflowBytes, policy);
+    }
+
+    private OffHeapCache(final long memoryBytes, final Path overflowFile, final FileChannel overflowChannel, final long overflowBytes,
+                         final Policy policy) {
+        if (memoryBytes <= 0) {
+            throw new IllegalArgumentException("memory bytes must be positive." + memoryBytes);
+        }
+        if (overflowChannel != null && overflowBytes <= 0) {
+            throw new IllegalArgumentException("overflow bytes must be positive." + overflowBytes);
+        }
+        this.policy = Objects.requireNonNull(policy);
+        this.memory = new Tier<>(memoryBytes, null);
+        this.overflowFile = overflowFile;
+        this.overflow = overflowChannel == null ? null : new Tier<>(overflowBytes, overflowChannel);
+    }
+
+    /**
+     * @return 值的最大长度
+     */
+    public final int getMaxValueLength() {
+        return memory.slabSize;
+    }
+
+    public final Policy getPolicy() {
+        return policy;
+    }
+
+    public final CacheStatsRecorder getStatsRecorder() {
+        return statsRecorder;
+    }
+
+    /**
+     * @param statsRecorder 为null时不统计
+     */
+    public final void setStatsRecorder(final CacheStatsRecorder statsRecorder) {
+        this.statsRecorder = statsRecorder;
+    }
+
+    public final void put(final K key, final byte[] value) {
+        put(key, java.nio.ByteBuffer.wrap(value));
+    }
+
+    public final void put(final K key, final byte[] value, final int offset, final int length) {
+        put(key, java.nio.ByteBuffer.wrap(value, offset, length));
+    }
+
+    /**
+     * 放入value中剩余的数据,不改变value的position
+     *
+     * @throws IllegalArgumentException 超过了值的最大长度
+     */
+    public final void put(final K key, final java.nio.ByteBuffer value) {
+        Objects.requireNonNull(key);
+        final int length = value.remaining();
+        if (length > getMaxValueLength()) {
+            throw new IllegalArgumentException("value length " + length + " exceeds " + getMaxValueLength());
+        }
+        lock.lock();
+        try {
+            ensureOpen();
+            final Entry<K> oldEntry = index.remove(key);
+            if (oldEntry != null) {
+                oldEntry.tier.free(oldEntry);
+                recordRemoval(RemovalCause.REPLACED);
+            }
+            final Entry<K> entry = new Entry<>(key, length);
+            while (!memory.allocate(entry)) {
+                spill(memory.selectVictim(policy));
+            }
+            memory.view(entry).put(value.duplicate());
+            index.put(key, entry);
+        } catch (IOException exception) {
+            //只有映射溢出文件时会发生
+            throw new UncheckedIOException(exception);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 值的拷贝, 不存在时为null
+     */
+    public final byte[] get(final K key) {
+        return read(key, view -> {
+            final byte[] bytes = new byte[view.remaining()];
+            view.get(bytes);
+            return bytes;
+        });
+    }
+
+    /**
+     * <pre>
+     *     在锁内访问值的只读视图,视图只在reader执行期间有效,不能保存到reader之外.
+     *     reader中不能再访问本缓存.
+     * </pre>
+     *
+     * @return reader的结果, 不存在时为null
+     */
+    public final <R> R read(final K key, final Function<java.nio.ByteBuffer, R> reader) {
+        lock.lock();
+        try {
+            final Entry<K> entry = index.get(key);
+            final CacheStatsRecorder recorder = statsRecorder;
+            if (recorder != null) {
+                if (entry != null) {
+                    recorder.recordHits(1);
+                } else {
+                    recorder.recordMisses(1);
+                }
+            }
+            if (entry == null) {
+                return null;
+            }
+            entry.tier.onAccess(entry, policy);
+            return reader.apply(entry.tier.view(entry).slice().asReadOnlyBuffer());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final boolean containsKey(final K key) {
+        lock.lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final boolean remove(final K key) {
+        lock.lock();
+        try {
+            final Entry<K> entry = index.remove(key);
+            if (entry == null) {
+                return false;
+            }
+            entry.tier.free(entry);
+            recordRemoval(RemovalCause.EXPLICIT);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final void clear() {
+        lock.lock();
+        try {
+            for (int i = index.size(); i > 0; i--) {
+                recordRemoval(RemovalCause.EXPLICIT);
+            }
+            index.clear();
+            memory.clear();
+            if (overflow != null) {
+                overflow.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 直接内存中被值占用的字节数, 按块对齐
+     */
+    public final long getMemoryUsedBytes() {
+        lock.lock();
+        try {
+            return memory.usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 溢出文件中被值占用的字节数, 按块对齐
+     */
+    public final long getOverflowUsedBytes() {
+        lock.lock();
+        try {
+            return overflow == null ? 0L : overflow.usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 因为空间不足被丢弃的值的数量, 不包括溢出到文件的
+     */
+    public final long getEvictionCount() {
+        lock.lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清空缓存,关闭并删除溢出文件
+     */
+    @Override
+    public final void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            clear();
+            if (overflow != null) {
+                try {
+                    overflow.channel.close();
+                    Files.deleteIfExists(overflowFile);
+                } catch (IOException exception) {
+                    LOGGER.error("OffHeapCache close overflow file error", exception);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("OffHeapCache is closed");
+        }
+    }
+
+    /**
+     * 把直接内存中的值移到溢出文件中,没有溢出文件或者放不下时丢弃
+     */
+    private void spill(final Entry<K> entry) throws IOException {
+        final java.nio.ByteBuffer source = memory.view(entry);
+        memory.free(entry);
+        if (overflow != null && entry.length <= overflow.slabSize) {
+            while (!overflow.allocate(entry)) {
+                final Entry<K> victim = overflow.selectVictim(policy);
+                overflow.free(victim);
+                index.remove(victim.key);
+                evictionCount++;
+                recordRemoval(RemovalCause.SIZE);
+            }
+            overflow.view(entry).put(source);
+            return;
+        }
+        index.remove(entry.key);
+        evictionCount++;
+        recordRemoval(RemovalCause.SIZE);
+    }
+
+    private void recordRemoval(final RemovalCause cause) {
+        final CacheStatsRecorder recorder = statsRecorder;
+        if (recorder != null) {
+            recorder.recordRemoval(cause);
+        }
+    }
+
+}
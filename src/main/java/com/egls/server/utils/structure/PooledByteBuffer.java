@@ -0,0 +1,375 @@
+package com.egls.server.utils.structure;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * <pre>
+ *     {@link ByteBuffer}的池化版本,内部使用从{@link DirectByteBufferPool}中申请的堆外内存块.
+ *     与{@link ByteBuffer}有相同的peek,read,write方法,写入的字节顺序也相同.
+ *
+ *     增长,收缩和{@link #reset()}时只会在池中替换内存块,不会产生新的byte[].
+ *     需要避免拷贝时,可以使用{@link #read(byte[], int, int)}读取到已有的数组中.
+ *     与通道交换数据时直接使用堆外内存,JDK不需要再拷贝到临时的直接缓冲区.
+ *
+ *     使用完毕后必须调用{@link #release()}把内存块归还给池,释放之后不能再使用.
+ *     没有释放的缓冲区可以通过{@link DirectByteBufferPool#setLeakDetection(boolean)}检测出来.
+ *
+ *     当内部数据长度不符合要求读取长度时,会抛出异常{@link IllegalStateException}
+ *
+ *     本类不是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 19:55]
+ */
+public final class PooledByteBuffer {
+
+    private final DirectByteBufferPool pool;
+
+    private final int initialSize;
+
+    private final DirectByteBufferPool.LeakTracker tracker;
+
+    private java.nio.ByteBuffer chunk;
+
+    /**
+     * inclusive
+     */
+    private int position = 0;
+
+    /**
+     * exclusive
+     */
+    private int limit = 0;
+
+    public PooledByteBuffer() {
+        this(DirectByteBufferPool.DEFAULT, DirectByteBufferPool.UNIT);
+    }
+
+    public PooledByteBuffer(final int initialSize) {
+        this(DirectByteBufferPool.DEFAULT, initialSize);
+    }
+
+    public PooledByteBuffer(final byte[] initialData) {
+        this(DirectByteBufferPool.DEFAULT, initialData);
+    }
+
+    public PooledByteBuffer(final DirectByteBufferPool pool, final int initialSize) {
+        if (initialSize <= 0) {
+            throw new IllegalArgumentException("initial size must be positive." + initialSize);
+        }
+        this.pool = Objects.requireNonNull(pool);
+        this.initialSize = pool.chunkSize(initialSize);
+        this.chunk = pool.allocate(this.initialSize);
+        this.tracker = pool.track(this, chunk);
+    }
+
+    public PooledByteBuffer(final DirectByteBufferPool pool, final byte[] initialData) {
+        this(pool, Math.max(1, initialData.length));
+        write(initialData);
+    }
+
+    public final byte[] toByteArray() {
+        checkReleased();
+        final byte[] result = new byte[size()];
+        chunk.position(position);
+        chunk.get(result);
+        chunk.clear();
+        return result;
+    }
+
+    public final void reset() {
+        checkReleased();
+        if (bufSize() > initialSize) {
+            replaceChunk(initialSize);
+        }
+        position = limit = 0;
+    }
+
+    /**
+     * 把内存块归还给池,之后不能再使用本缓冲区
+     */
+    public final void release() {
+        checkReleased();
+        pool.free(chunk);
+        if (tracker != null) {
+            pool.untrack(tracker);
+        }
+        chunk = null;
+        position = limit = 0;
+    }
+
+    public final boolean isReleased() {
+        return chunk == null;
+    }
+
+    public final int size() {
+        return limit - position;
+    }
+
+    public final int bufSize() {
+        return chunk == null ? 0 : chunk.capacity();
+    }
+
+    public final boolean hasRemaining() {
+        return size() > 0;
+    }
+
+    public final byte peekByte() {
+        checkData(1);
+        return chunk.get(position);
+    }
+
+    public final short peekShort() {
+        checkData(2);
+        return chunk.getShort(position);
+    }
+
+    public final int peekInt() {
+        checkData(4);
+        return chunk.getInt(position);
+    }
+
+    public final long peekLong() {
+        checkData(8);
+        return chunk.getLong(position);
+    }
+
+    public final byte readByte() {
+        byte b = peekByte();
+        position += 1;
+        return b;
+    }
+
+    public final short readShort() {
+        short s = peekShort();
+        position += 2;
+        return s;
+    }
+
+    public final int readInt() {
+        int i = peekInt();
+        position += 4;
+        return i;
+    }
+
+    public final long readLong() {
+        long l = peekLong();
+        position += 8;
+        return l;
+    }
+
+    public final byte[] read(final int length) {
+        checkData(length);
+        byte[] result = new byte[length];
+        read(result, 0, length);
+        return result;
+    }
+
+    /**
+     * 读取数据到给定的数组中
+     */
+    public final void read(final byte[] b, final int off, final int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if ((off < 0) || (off > b.length) || (len < 0) ||
+                ((off + len) > b.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        checkData(len);
+        chunk.position(position);
+        chunk.get(b, off, len);
+        chunk.clear();
+        position += len;
+    }
+
+    public final byte[] readFully() {
+        return read(size());
+    }
+
+    public final void writeByte(final byte val) {
+        ensureCapacity(1);
+        chunk.put(limit, val);
+        limit += 1;
+    }
+
+    public final void writeShort(final short val) {
+        ensureCapacity(2);
+        chunk.putShort(limit, val);
+        limit += 2;
+    }
+
+    public final void writeInt(final int val) {
+        ensureCapacity(4);
+        chunk.putInt(limit, val);
+        limit += 4;
+    }
+
+    public final void writeLong(final long val) {
+        ensureCapacity(8);
+        chunk.putLong(limit, val);
+        limit += 8;
+    }
+
+    public final void write(final byte[] b) {
+        write(b, 0, b.length);
+    }
+
+    public final void write(final byte[] b, final int off, final int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if ((off < 0) || (off > b.length) || (len < 0) ||
+                ((off + len) > b.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return;
+        }
+        ensureCapacity(len);
+        chunk.position(limit);
+        chunk.put(b, off, len);
+        chunk.clear();
+        limit += len;
+    }
+
+    /**
+     * 从通道中读取数据,最多读取到当前内存块的剩余空间,剩余空间不足1kB时会先增长
+     *
+     * @return 读取的长度,通道到达末尾时返回-1
+     */
+    public final int readFrom(final ReadableByteChannel channel) throws IOException {
+        checkReleased();
+        if (bufSize() - limit < DirectByteBufferPool.UNIT) {
+            ensureCapacity(DirectByteBufferPool.UNIT);
+        }
+        return readFrom(channel, bufSize() - limit);
+    }
+
+    /**
+     * 从通道中读取最多给定长度的数据
+     *
+     * @return 读取的长度,通道到达末尾时返回-1
+     */
+    public final int readFrom(final ReadableByteChannel channel, final int maxLength) throws IOException {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("max length must not be negative." + maxLength);
+        }
+        ensureCapacity(maxLength);
+        chunk.limit(limit + maxLength).position(limit);
+        try {
+            final int length = channel.read(chunk);
+            if (length > 0) {
+                limit += length;
+            }
+            return length;
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    /**
+     * 把数据写入通道,非阻塞的通道可能只写入一部分
+     *
+     * @return 写入的长度
+     */
+    public final int writeTo(final WritableByteChannel channel) throws IOException {
+        checkReleased();
+        if (!hasRemaining()) {
+            return 0;
+        }
+        chunk.limit(limit).position(position);
+        try {
+            final int length = channel.write(chunk);
+            position += length;
+            return length;
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    /**
+     * @return 相对于当前读取位置的下标,没有找到时返回-1
+     */
+    public int indexOf(byte[] key) {
+        if (key == null || key.length == 0 || chunk == null) {
+            return -1;
+        }
+        final int stop = limit - key.length;
+        for (int srcPos = position; srcPos <= stop; srcPos++) {
+            int keyPos = 0;
+            while (keyPos < key.length && chunk.get(srcPos + keyPos) == key[keyPos]) {
+                keyPos++;
+            }
+            if (keyPos == key.length) {
+                return srcPos - position;
+            }
+        }
+        return -1;
+    }
+
+    private void checkReleased() {
+        if (chunk == null) {
+            throw new IllegalStateException("buffer has been released!");
+        }
+    }
+
+    private void checkData(final int length) {
+        checkReleased();
+        if (size() < length) {
+            throw new IllegalStateException("data length is less than the required length!");
+        }
+    }
+
+    private void ensureCapacity(final int incremental) {
+        checkReleased();
+        if (limit + incremental > bufSize()) {
+            final int needLength = size() + incremental;
+            if (needLength < 0) {
+                throw new IllegalStateException("newLength too large! newLength : " + ((long) size() + incremental));
+            }
+            final int chunkSize = pool.chunkSize(Math.max(initialSize, needLength));
+            if (chunkSize == bufSize()) {
+                compact();
+            } else {
+                replaceChunk(chunkSize);
+            }
+        }
+    }
+
+    private void compact() {
+        if (position != 0) {
+            chunk.limit(limit).position(position);
+            chunk.compact();
+            chunk.clear();
+            limit -= position;
+            position = 0;
+        }
+    }
+
+    private void replaceChunk(final int chunkSize) {
+        final java.nio.ByteBuffer temp = pool.allocate(chunkSize);
+        chunk.limit(limit).position(position);
+        temp.put(chunk);
+        temp.clear();
+        pool.free(chunk);
+        chunk = temp;
+        if (tracker != null) {
+            tracker.chunk = temp;
+        }
+        limit -= position;
+        position = 0;
+    }
+
+    @Override
+    public final String toString() {
+        return getClass().getName()
+                + "["
+                + "initialSize=" + initialSize
+                + ",position=" + position
+                + ",limit=" + limit
+                + ",size=" + size()
+                + ",released=" + isReleased()
+                + "]";
+    }
+}
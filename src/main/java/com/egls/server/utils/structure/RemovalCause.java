@@ -0,0 +1,37 @@
+package com.egls.server.utils.structure;
+
+/**
+ * 缓存中的元素被移除的原因
+ *
+ * @author mayer - [Created on 2026-10-18 23:20]
+ */
+public enum RemovalCause {
+
+    /**
+     * 被调用者主动删除,比如remove或者clear
+     */
+    EXPLICIT,
+
+    /**
+     * 值被替换,回调中的是旧的值
+     */
+    REPLACED,
+
+    /**
+     * 超过了容量或者总权重,被淘汰
+     */
+    SIZE,
+
+    /**
+     * 超过了存活时间或者空闲时间
+     */
+    EXPIRED;
+
+    /**
+     * @return 是否是缓存自动移除的,而不是调用者的操作
+     */
+    public boolean wasEvicted() {
+        return this == SIZE || this == EXPIRED;
+    }
+
+}
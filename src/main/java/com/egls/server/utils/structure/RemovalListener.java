@@ -0,0 +1,20 @@
+package com.egls.server.utils.structure;
+
+/**
+ * 缓存元素被移除时的回调
+ *
+ * @author mayer - [Created on 2026-10-18 23:20]
+ */
+@FunctionalInterface
+public interface RemovalListener<K, V> {
+
+    /**
+     * 元素被移除之后调用,调用时不持有缓存的锁
+     *
+     * @param key   键
+     * @param value 被移除或者被替换的值
+     * @param cause 原因
+     */
+    void onRemoval(final K key, final V value, final RemovalCause cause);
+
+}
@@ -0,0 +1,308 @@
+package com.egls.server.utils.structure;
+
+import java.util.Objects;
+
+/**
+ * <pre>
+ *     环形的字节缓冲类,适用于不断追加网络数据,再按帧读取的场景.
+ *
+ *     与{@link ByteBuffer}不同,读取之后空出来的空间会被环绕着继续写入,数据不会被搬回到头部.
+ *     只有当写入的内容超过容量时才会增长,容量始终是2的幂,增长时只拷贝一次有效的数据.
+ *     调用{@link #reset()}时会恢复到初始的容量.
+ *
+ *     与{@link ByteBuffer}有相同的peek,read,write方法,写入的字节顺序也相同.
+ *     当内部数据长度不符合要求读取长度时,会抛出异常{@link IllegalStateException}
+ *
+ *     本类不是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 20:25]
+ */
+public final class RingByteBuffer {
+
+    /**
+     * 最小容量1kB
+     */
+    private static final int UNIT = 0x400;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private byte[] buf;
+
+    private int mask;
+
+    private final int initialSize;
+
+    /**
+     * 第一个有效字节在buf中的下标
+     */
+    private int head = 0;
+
+    private int size = 0;
+
+    public RingByteBuffer() {
+        this(UNIT);
+    }
+
+    public RingByteBuffer(final int initialSize) {
+        if (initialSize <= 0) {
+            throw new IllegalArgumentException("initial size must be positive." + initialSize);
+        }
+        this.initialSize = formatSize(initialSize);
+        this.buf = new byte[this.initialSize];
+        this.mask = this.initialSize - 1;
+    }
+
+    public RingByteBuffer(final byte[] initialData) {
+        this(Math.max(1, Objects.requireNonNull(initialData).length));
+        write(initialData);
+    }
+
+    private static int formatSize(final int size) {
+        if (size > MAX_CAPACITY) {
+            throw new IllegalStateException("newLength too large! newLength : " + size);
+        }
+        return size <= UNIT ? UNIT : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    public final byte[] toByteArray() {
+        final byte[] result = new byte[size];
+        copyTo(0, result, 0, size);
+        return result;
+    }
+
+    public final void reset() {
+        if (buf.length != initialSize) {
+            buf = new byte[initialSize];
+            mask = initialSize - 1;
+        }
+        head = size = 0;
+    }
+
+    public final int size() {
+        return size;
+    }
+
+    public final int bufSize() {
+        return buf.length;
+    }
+
+    public final boolean hasRemaining() {
+        return size > 0;
+    }
+
+    public final byte peekByte() {
+        checkData(1);
+        return buf[head];
+    }
+
+    public final short peekShort() {
+        checkData(2);
+        return (short) peekBigEndian(2);
+    }
+
+    public final int peekInt() {
+        checkData(4);
+        return (int) peekBigEndian(4);
+    }
+
+    public final long peekLong() {
+        checkData(8);
+        return peekBigEndian(8);
+    }
+
+    public final byte readByte() {
+        byte b = peekByte();
+        skip(1);
+        return b;
+    }
+
+    public final short readShort() {
+        short s = peekShort();
+        skip(2);
+        return s;
+    }
+
+    public final int readInt() {
+        int i = peekInt();
+        skip(4);
+        return i;
+    }
+
+    public final long readLong() {
+        long l = peekLong();
+        skip(8);
+        return l;
+    }
+
+    public final byte[] read(final int length) {
+        checkData(length);
+        final byte[] result = new byte[length];
+        copyTo(0, result, 0, length);
+        skip(length);
+        return result;
+    }
+
+    /**
+     * 读取数据到给定的数组中
+     */
+    public final void read(final byte[] b, final int off, final int len) {
+        checkRange(b, off, len);
+        checkData(len);
+        copyTo(0, b, off, len);
+        skip(len);
+    }
+
+    public final byte[] readFully() {
+        return read(size);
+    }
+
+    /**
+     * 跳过给定长度的数据
+     */
+    public final void skip(final int length) {
+        checkData(length);
+        head = (head + length) & mask;
+        size -= length;
+        if (size == 0) {
+            head = 0;
+        }
+    }
+
+    public final void writeByte(final byte val) {
+        ensureCapacity(1);
+        buf[(head + size) & mask] = val;
+        size += 1;
+    }
+
+    public final void writeShort(final short val) {
+        writeBigEndian(val, 2);
+    }
+
+    public final void writeInt(final int val) {
+        writeBigEndian(val, 4);
+    }
+
+    public final void writeLong(final long val) {
+        writeBigEndian(val, 8);
+    }
+
+    public final void write(final byte[] b) {
+        write(b, 0, b.length);
+    }
+
+    public final void write(final byte[] b, final int off, final int len) {
+        checkRange(b, off, len);
+        if (len == 0) {
+            return;
+        }
+        ensureCapacity(len);
+        final int tail = (head + size) & mask;
+        final int first = Math.min(len, buf.length - tail);
+        System.arraycopy(b, off, buf, tail, first);
+        System.arraycopy(b, off + first, buf, 0, len - first);
+        size += len;
+    }
+
+    /**
+     * @return 相对于当前读取位置的下标,没有找到时返回-1
+     */
+    public int indexOf(byte[] key) {
+        if (key == null || key.length == 0) {
+            return -1;
+        }
+        final int stop = size - key.length;
+        for (int index = 0; index <= stop; index++) {
+            int keyPos = 0;
+            while (keyPos < key.length && buf[(head + index + keyPos) & mask] == key[keyPos]) {
+                keyPos++;
+            }
+            if (keyPos == key.length) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private long peekBigEndian(final int length) {
+        long value = 0;
+        if (head + length <= buf.length) {
+            for (int i = head, end = head + length; i < end; i++) {
+                value = (value << 8) | (buf[i] & 0xFFL);
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                value = (value << 8) | (buf[(head + i) & mask] & 0xFFL);
+            }
+        }
+        return value;
+    }
+
+    private void writeBigEndian(final long val, final int length) {
+        ensureCapacity(length);
+        final int tail = (head + size) & mask;
+        if (tail + length <= buf.length) {
+            for (int i = tail + length - 1, v = 0; i >= tail; i--, v += 8) {
+                buf[i] = (byte) (val >>> v);
+            }
+        } else {
+            for (int i = length - 1, v = 0; i >= 0; i--, v += 8) {
+                buf[(tail + i) & mask] = (byte) (val >>> v);
+            }
+        }
+        size += length;
+    }
+
+    /**
+     * 从当前读取位置之后的index处开始拷贝数据
+     */
+    private void copyTo(final int index, final byte[] dest, final int destPos, final int length) {
+        final int from = (head + index) & mask;
+        final int first = Math.min(length, buf.length - from);
+        System.arraycopy(buf, from, dest, destPos, first);
+        System.arraycopy(buf, 0, dest, destPos + first, length - first);
+    }
+
+    private static void checkRange(final byte[] b, final int off, final int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if ((off < 0) || (off > b.length) || (len < 0) ||
+                ((off + len) > b.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void checkData(final int length) {
+        if (length < 0) {
+            throw new IndexOutOfBoundsException("length must not be negative." + length);
+        }
+        if (size < length) {
+            throw new IllegalStateException("data length is less than the required length!");
+        }
+    }
+
+    private void ensureCapacity(final int incremental) {
+        final long needLength = (long) size + incremental;
+        if (needLength > buf.length) {
+            if (needLength > MAX_CAPACITY) {
+                throw new IllegalStateException("newLength too large! newLength : " + needLength);
+            }
+            final byte[] temp = new byte[formatSize((int) needLength)];
+            copyTo(0, temp, 0, size);
+            buf = temp;
+            mask = temp.length - 1;
+            head = 0;
+        }
+    }
+
+    @Override
+    public final String toString() {
+        return getClass().getName()
+                + "["
+                + "initialSize=" + initialSize
+                + ",head=" + head
+                + ",size=" + size
+                + ",bufSize=" + bufSize()
+                + "]";
+    }
+}
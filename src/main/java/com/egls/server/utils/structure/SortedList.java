@@ -250,14 +250,86 @@ public final class SortedList<E> implements Iterable<E> {
         sort();
     }
 
+    /**
+     * 批量添加.新元素先排序(已经有序时不排序),再与已有的元素一次归并,时间复杂度(n + m * log m)
+     */
     public void addAll(final E[] elementArray) {
-        ensureCapacity(elementArray.length);
-        Arrays.stream(elementArray).forEach(this::add);
+        merge(elementArray.clone());
     }
 
+    /**
+     * 批量添加.新元素先排序(已经有序时不排序),再与已有的元素一次归并,时间复杂度(n + m * log m)
+     */
     public void addAll(final Collection<E> collection) {
-        ensureCapacity(collection.size());
-        collection.forEach(this::add);
+        merge(collection.toArray());
+    }
+
+    /**
+     * 批量移除所有与给出的元素相等(equals)的元素,一次遍历完成,时间复杂度(n + m)
+     *
+     * @return 是否有元素被移除
+     */
+    public boolean removeAll(final E[] elementArray) {
+        return removeAll(Arrays.asList(elementArray));
+    }
+
+    /**
+     * 批量移除所有与给出的元素相等(equals)的元素,一次遍历完成,时间复杂度(n + m)
+     *
+     * @return 是否有元素被移除
+     */
+    public boolean removeAll(final Collection<E> collection) {
+        if (collection.isEmpty() || isEmpty()) {
+            return false;
+        }
+        final Set<Object> removing = new HashSet<>(collection);
+        int writeIndex = position;
+        for (int i = position; i < limit; i++) {
+            final Object element = elements[i];
+            if (!removing.contains(element)) {
+                elements[writeIndex++] = element;
+            }
+        }
+        if (writeIndex == limit) {
+            return false;
+        }
+        modCount.incrementAndGet();
+        Arrays.fill(elements, writeIndex, limit, null);
+        limit = writeIndex;
+        return true;
+    }
+
+    /**
+     * 把新元素排序后,从尾部开始与已有的元素归并,相等时已有的元素在前
+     */
+    private void merge(final Object[] batch) {
+        final int count = batch.length;
+        if (count == 0) {
+            return;
+        }
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            Objects.requireNonNull(batch[i]);
+            if (sorted && i > 0 && comparator.compare((E) batch[i - 1], (E) batch[i]) > 0) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            Arrays.sort(batch, (Comparator) comparator);
+        }
+        modCount.incrementAndGet();
+        ensureCapacity(count);
+        int i = limit - 1;
+        int j = count - 1;
+        int k = limit + count - 1;
+        while (j >= 0) {
+            if (i >= position && comparator.compare((E) elements[i], (E) batch[j]) > 0) {
+                elements[k--] = elements[i--];
+            } else {
+                elements[k--] = batch[j--];
+            }
+        }
+        limit += count;
     }
 
     /**
@@ -0,0 +1,439 @@
+package com.egls.server.utils.structure;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * <pre>
+ *     元素为long的{@link SortedList},在任何时候都保持有序.
+ *
+ *     元素直接保存在long[]中,插入和查找都没有装箱,每个元素只占用8个字节,而{@link SortedList}中的Long每个至少要16个字节再加上引用.
+ *     元素就是排序的依据,所以{@link #indexOf(long)}等查找方法也是二分查找,时间复杂度(log n).
+ *     因为元素是基本类型,按照值移除的方法是{@link #remove(long)},按照索引移除的方法是{@link #removeAt(int)}.
+ *     列表为空时,peek和poll方法抛出{@link NoSuchElementException}.
+ *
+ *     不是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 03:35]
+ */
+public final class SortedLongList {
+
+    /**
+     * 容量对齐单位,一个合适的值.
+     */
+    private static final int UNIT = 64;
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private long modCount = 0;
+
+    private long[] elements;
+
+    /**
+     * 是否从大到小排序
+     */
+    private final boolean descending;
+
+    private final int initialSize;
+
+    /**
+     * inclusive
+     */
+    private int position = 0;
+
+    /**
+     * exclusive
+     */
+    private int limit = 0;
+
+    public SortedLongList() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    public SortedLongList(final boolean descending) {
+        this(DEFAULT_CAPACITY, descending);
+    }
+
+    public SortedLongList(final long[] elements) {
+        this(Math.max(1, elements.length), false);
+        this.addAll(elements);
+    }
+
+    public SortedLongList(final int initialSize, final boolean descending) {
+        if (initialSize <= 0) {
+            throw new IllegalArgumentException("initial size must be positive." + initialSize);
+        }
+        this.initialSize = initialSize;
+        this.descending = descending;
+        this.elements = new long[this.initialSize];
+    }
+
+    private void ensureIndexValid(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    private void ensureNotEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int size() {
+        return limit - position;
+    }
+
+    public int listSize() {
+        return elements.length;
+    }
+
+    public final boolean hasRemaining() {
+        return size() > 0;
+    }
+
+    public boolean isEmpty() {
+        return size() <= 0;
+    }
+
+    public void clear() {
+        modCount++;
+        elements = new long[this.initialSize];
+        position = limit = 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOfRange(elements, position, limit);
+    }
+
+    /**
+     * 正序取排行.计数从0开始, 小于0是没有排名
+     */
+    public int rankOf(final long element) {
+        return indexOf(element);
+    }
+
+    /**
+     * 倒序取排行.计数从0开始, 小于0是没有排名
+     */
+    public int lastRankOf(final long element) {
+        int lastIndex = lastIndexOf(element);
+        return lastIndex >= 0 ? size() - 1 - lastIndex : lastIndex;
+    }
+
+    public int indexOf(final long element) {
+        final int index = lowerBound(element);
+        return index < limit && compare(elements[index], element) == 0 ? index - position : -1;
+    }
+
+    public int lastIndexOf(final long element) {
+        final int index = upperBound(element) - 1;
+        return index >= position && compare(elements[index], element) == 0 ? index - position : -1;
+    }
+
+    public boolean contains(final long element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     * 排在element之前(不包括相等)的元素数量
+     */
+    public int countBefore(final long element) {
+        return lowerBound(element) - position;
+    }
+
+    public long peekFirst() {
+        ensureNotEmpty();
+        return elements[position];
+    }
+
+    public long peekLast() {
+        ensureNotEmpty();
+        return elements[limit - 1];
+    }
+
+    public long pollFirst() {
+        ensureNotEmpty();
+        return removeAt(0);
+    }
+
+    public long pollLast() {
+        ensureNotEmpty();
+        return removeAt(size() - 1);
+    }
+
+    public long get(final int index) {
+        ensureIndexValid(index);
+
+        return elements[position + index];
+    }
+
+    /**
+     * 插入到相等的元素之后.离头部近并且头部有空间时移动头部的元素,否则移动尾部的元素
+     */
+    public void add(final long element) {
+        modCount++;
+        int hit = upperBound(element);
+        if (position > 0 && hit - position < limit - hit) {
+            System.arraycopy(elements, position, elements, position - 1, hit - position);
+            position--;
+            elements[hit - 1] = element;
+            return;
+        }
+        final int offset = hit - position;
+        ensureCapacity(1);
+        hit = position + offset;
+        System.arraycopy(elements, hit, elements, hit + 1, limit - hit);
+        elements[hit] = element;
+        limit++;
+    }
+
+    /**
+     * 批量添加.新元素先排序,再与已有的元素一次归并,时间复杂度(n + m * log m)
+     */
+    public void addAll(final long[] elementArray) {
+        final int count = elementArray.length;
+        if (count == 0) {
+            return;
+        }
+        final long[] batch = elementArray.clone();
+        Arrays.sort(batch);
+        if (descending) {
+            for (int i = 0, j = count - 1; i < j; i++, j--) {
+                final long temp = batch[i];
+                batch[i] = batch[j];
+                batch[j] = temp;
+            }
+        }
+        modCount++;
+        ensureCapacity(count);
+        int i = limit - 1;
+        int j = count - 1;
+        int k = limit + count - 1;
+        while (j >= 0) {
+            if (i >= position && compare(elements[i], batch[j]) > 0) {
+                elements[k--] = elements[i--];
+            } else {
+                elements[k--] = batch[j--];
+            }
+        }
+        limit += count;
+    }
+
+    /**
+     * 批量移除所有与给出的元素相等的元素,一次遍历完成,时间复杂度(n + m * log m)
+     *
+     * @return 是否有元素被移除
+     */
+    public boolean removeAll(final long[] elementArray) {
+        if (elementArray.length == 0 || isEmpty()) {
+            return false;
+        }
+        final long[] removing = elementArray.clone();
+        Arrays.sort(removing);
+        int writeIndex = position;
+        for (int i = position; i < limit; i++) {
+            final long element = elements[i];
+            if (Arrays.binarySearch(removing, element) < 0) {
+                elements[writeIndex++] = element;
+            }
+        }
+        if (writeIndex == limit) {
+            return false;
+        }
+        modCount++;
+        limit = writeIndex;
+        return true;
+    }
+
+    /**
+     * @param index 元素索引
+     * @return 被移除的元素
+     */
+    public long removeAt(final int index) {
+        ensureIndexValid(index);
+
+        modCount++;
+        final long result = elements[position + index];
+        if (index < (size() >>> 1)) {
+            //离左边近,左边的元素少,移动左边
+            System.arraycopy(elements, position, elements, position + 1, index);
+            position++;
+        } else {
+            //离右边近,右边的元素少,移动右边
+            System.arraycopy(elements, position + index + 1, elements, position + index, size() - index - 1);
+            limit--;
+        }
+        return result;
+    }
+
+    /**
+     * 移除第一个与element相等的元素
+     */
+    public boolean remove(final long element) {
+        final int index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    public void forEach(final LongConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        final long expectedModCount = modCount;
+        for (int i = position; i < limit && expectedModCount == modCount; i++) {
+            consumer.accept(elements[i]);
+        }
+        if (expectedModCount != modCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    public PrimitiveIterator.OfLong iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public final String toString() {
+        return getClass().getName()
+                + "["
+                + "initialSize=" + initialSize
+                + ",descending=" + descending
+                + ",position=" + position
+                + ",limit=" + limit
+                + ",size=" + size()
+                + "]";
+    }
+
+    private int compare(final long element1, final long element2) {
+        return descending ? Long.compare(element2, element1) : Long.compare(element1, element2);
+    }
+
+    /**
+     * 第一个不小于element的位置
+     */
+    private int lowerBound(final long element) {
+        int low = position;
+        int high = limit;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(elements[mid], element) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 第一个大于element的位置
+     */
+    private int upperBound(final long element) {
+        int low = position;
+        int high = limit;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(elements[mid], element) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(final int incremental) {
+        if (limit + incremental > listSize()) {
+            if (listSize() - size() >= incremental) {
+                recycle(incremental);
+            } else {
+                //至少扩大一半,避免元素很多时逐个UNIT扩容的反复拷贝
+                int needLength = Math.max(incremental - (listSize() - limit), listSize() >>> 1);
+                int formatNeedLength = UNIT + ((needLength / UNIT) * UNIT);
+                int newLength = listSize() + formatNeedLength;
+                if (newLength > MAX_ARRAY_SIZE) {
+                    throw new IllegalStateException("newLength too large! newLength : " + newLength);
+                }
+
+                long[] temp = new long[newLength];
+                System.arraycopy(elements, position, temp, 0, size());
+                elements = temp;
+                limit -= position;
+                position = 0;
+            }
+        }
+    }
+
+    private void recycle(final int incremental) {
+        if (position == 0) {
+            return;
+        }
+        if (listSize() > initialSize && (size() + incremental) <= initialSize) {
+            long[] temp = new long[this.initialSize];
+            System.arraycopy(elements, position, temp, 0, size());
+            elements = temp;
+        } else {
+            System.arraycopy(elements, position, elements, 0, size());
+        }
+        limit -= position;
+        position = 0;
+    }
+
+    private final class Itr implements PrimitiveIterator.OfLong {
+
+        int cursor = position;
+
+        int lastRet = -1;
+
+        long expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < limit;
+        }
+
+        @Override
+        public long nextLong() {
+            checkForModification();
+            if (cursor >= limit) {
+                throw new NoSuchElementException();
+            }
+            lastRet = cursor;
+            return elements[cursor++];
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            final int index = lastRet - position;
+            SortedLongList.this.removeAt(index);
+            cursor = position + index;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        final void checkForModification() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,440 @@
+package com.egls.server.utils.structure;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * <pre>
+ *     按照long类型的键排序的{@link SortedList},每个键带有一个对象的值,在任何时候都保持有序.
+ *
+ *     适合时间戳,分数这类排序依据本身是long的场景,键保存在long[]中,值保存在对应位置的Object[]中.
+ *     插入和二分查找只比较long[],不装箱,也不需要通过值的引用去取排序依据.
+ *     键相等的元素,后添加的排在后面.{@link #indexOf(long, Object)}等查找方法先二分查找键,再在键相等的范围内用equals匹配值.
+ *
+ *     不是线程安全的.不能添加null值.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 04:00]
+ */
+@SuppressWarnings("unchecked")
+public final class SortedLongObjectList<V> implements Iterable<V> {
+
+    /**
+     * 容量对齐单位,一个合适的值.
+     */
+    private static final int UNIT = 64;
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private long modCount = 0;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    /**
+     * 是否按照键从大到小排序
+     */
+    private final boolean descending;
+
+    private final int initialSize;
+
+    /**
+     * inclusive
+     */
+    private int position = 0;
+
+    /**
+     * exclusive
+     */
+    private int limit = 0;
+
+    public SortedLongObjectList() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    public SortedLongObjectList(final boolean descending) {
+        this(DEFAULT_CAPACITY, descending);
+    }
+
+    public SortedLongObjectList(final int initialSize, final boolean descending) {
+        if (initialSize <= 0) {
+            throw new IllegalArgumentException("initial size must be positive." + initialSize);
+        }
+        this.initialSize = initialSize;
+        this.descending = descending;
+        this.keys = new long[this.initialSize];
+        this.values = new Object[this.initialSize];
+    }
+
+    private void ensureIndexValid(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int size() {
+        return limit - position;
+    }
+
+    public int listSize() {
+        return keys.length;
+    }
+
+    public final boolean hasRemaining() {
+        return size() > 0;
+    }
+
+    public boolean isEmpty() {
+        return size() <= 0;
+    }
+
+    public void clear() {
+        modCount++;
+        keys = new long[this.initialSize];
+        values = new Object[this.initialSize];
+        position = limit = 0;
+    }
+
+    public long[] toKeyArray() {
+        return Arrays.copyOfRange(keys, position, limit);
+    }
+
+    public Object[] toArray() {
+        return Arrays.copyOfRange(values, position, limit);
+    }
+
+    /**
+     * 正序取排行.计数从0开始, 小于0是没有排名
+     */
+    public int rankOf(final long key, final V value) {
+        return indexOf(key, value);
+    }
+
+    /**
+     * 倒序取排行.计数从0开始, 小于0是没有排名
+     */
+    public int lastRankOf(final long key, final V value) {
+        int lastIndex = lastIndexOf(key, value);
+        return lastIndex >= 0 ? size() - 1 - lastIndex : lastIndex;
+    }
+
+    public int indexOf(final long key, final V value) {
+        for (int i = lowerBound(key); i < limit && keys[i] == key; i++) {
+            if (values[i].equals(value)) {
+                return i - position;
+            }
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(final long key, final V value) {
+        for (int i = upperBound(key) - 1; i >= position && keys[i] == key; i--) {
+            if (values[i].equals(value)) {
+                return i - position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 第一个键等于key的元素的索引, 小于0是没有
+     */
+    public int indexOfKey(final long key) {
+        final int index = lowerBound(key);
+        return index < limit && keys[index] == key ? index - position : -1;
+    }
+
+    public boolean containsKey(final long key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    public boolean contains(final long key, final V value) {
+        return indexOf(key, value) >= 0;
+    }
+
+    /**
+     * 排在key之前(不包括相等)的元素数量
+     */
+    public int countBefore(final long key) {
+        return lowerBound(key) - position;
+    }
+
+    public long getKey(final int index) {
+        ensureIndexValid(index);
+
+        return keys[position + index];
+    }
+
+    public V get(final int index) {
+        ensureIndexValid(index);
+
+        return (V) values[position + index];
+    }
+
+    /**
+     * 列表为空时抛出{@link NoSuchElementException}
+     */
+    public long peekFirstKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return keys[position];
+    }
+
+    /**
+     * 列表为空时抛出{@link NoSuchElementException}
+     */
+    public long peekLastKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return keys[limit - 1];
+    }
+
+    public V peekFirst() {
+        return isEmpty() ? null : (V) values[position];
+    }
+
+    public V peekLast() {
+        return isEmpty() ? null : (V) values[limit - 1];
+    }
+
+    public V pollFirst() {
+        return isEmpty() ? null : remove(0);
+    }
+
+    public V pollLast() {
+        int size = size();
+        return size > 0 ? remove(size - 1) : null;
+    }
+
+    /**
+     * 插入到键相等的元素之后.离头部近并且头部有空间时移动头部的元素,否则移动尾部的元素
+     */
+    public void add(final long key, final V value) {
+        Objects.requireNonNull(value);
+        modCount++;
+        int hit = upperBound(key);
+        if (position > 0 && hit - position < limit - hit) {
+            System.arraycopy(keys, position, keys, position - 1, hit - position);
+            System.arraycopy(values, position, values, position - 1, hit - position);
+            position--;
+            keys[hit - 1] = key;
+            values[hit - 1] = value;
+            return;
+        }
+        final int offset = hit - position;
+        ensureCapacity(1);
+        hit = position + offset;
+        System.arraycopy(keys, hit, keys, hit + 1, limit - hit);
+        System.arraycopy(values, hit, values, hit + 1, limit - hit);
+        keys[hit] = key;
+        values[hit] = value;
+        limit++;
+    }
+
+    /**
+     * @param index 元素索引
+     * @return 被移除的值
+     */
+    public V remove(final int index) {
+        ensureIndexValid(index);
+
+        modCount++;
+        final V result = (V) values[position + index];
+        if (index < (size() >>> 1)) {
+            //离左边近,左边的元素少,移动左边
+            System.arraycopy(keys, position, keys, position + 1, index);
+            System.arraycopy(values, position, values, position + 1, index);
+            values[position] = null;
+            position++;
+        } else {
+            //离右边近,右边的元素少,移动右边
+            System.arraycopy(keys, position + index + 1, keys, position + index, size() - index - 1);
+            System.arraycopy(values, position + index + 1, values, position + index, size() - index - 1);
+            limit--;
+            values[limit] = null;
+        }
+        return result;
+    }
+
+    public boolean remove(final long key, final V value) {
+        final int index = indexOf(key, value);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public final String toString() {
+        return getClass().getName()
+                + "["
+                + "initialSize=" + initialSize
+                + ",descending=" + descending
+                + ",position=" + position
+                + ",limit=" + limit
+                + ",size=" + size()
+                + "]";
+    }
+
+    @Override
+    public EntryIterator iterator() {
+        return new EntryIterator();
+    }
+
+    private int compare(final long key1, final long key2) {
+        return descending ? Long.compare(key2, key1) : Long.compare(key1, key2);
+    }
+
+    /**
+     * 第一个键不小于key的位置
+     */
+    private int lowerBound(final long key) {
+        int low = position;
+        int high = limit;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(keys[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 第一个键大于key的位置
+     */
+    private int upperBound(final long key) {
+        int low = position;
+        int high = limit;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(keys[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(final int incremental) {
+        if (limit + incremental > listSize()) {
+            if (listSize() - size() >= incremental) {
+                recycle(incremental);
+            } else {
+                //至少扩大一半,避免元素很多时逐个UNIT扩容的反复拷贝
+                int needLength = Math.max(incremental - (listSize() - limit), listSize() >>> 1);
+                int formatNeedLength = UNIT + ((needLength / UNIT) * UNIT);
+                int newLength = listSize() + formatNeedLength;
+                if (newLength > MAX_ARRAY_SIZE) {
+                    throw new IllegalStateException("newLength too large! newLength : " + newLength);
+                }
+                resize(newLength);
+            }
+        }
+    }
+
+    private void recycle(final int incremental) {
+        if (position == 0) {
+            return;
+        }
+        if (listSize() > initialSize && (size() + incremental) <= initialSize) {
+            resize(initialSize);
+        } else {
+            System.arraycopy(keys, position, keys, 0, size());
+            System.arraycopy(values, position, values, 0, size());
+            //清除多余的引用.
+            Arrays.fill(values, size(), limit, null);
+            limit -= position;
+            position = 0;
+        }
+    }
+
+    private void resize(final int newLength) {
+        final long[] tempKeys = new long[newLength];
+        final Object[] tempValues = new Object[newLength];
+        System.arraycopy(keys, position, tempKeys, 0, size());
+        System.arraycopy(values, position, tempValues, 0, size());
+        keys = tempKeys;
+        values = tempValues;
+        limit -= position;
+        position = 0;
+    }
+
+    /**
+     * 值的迭代器,同时可以取到当前值的键
+     */
+    public final class EntryIterator implements Iterator<V> {
+
+        int cursor = position;
+
+        int lastRet = -1;
+
+        long expectedModCount = modCount;
+
+        private EntryIterator() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < limit;
+        }
+
+        @Override
+        public V next() {
+            checkForModification();
+            if (cursor >= limit) {
+                throw new NoSuchElementException();
+            }
+            lastRet = cursor;
+            return (V) values[cursor++];
+        }
+
+        /**
+         * 最近一次{@link #next()}返回的值的键
+         */
+        public long key() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            return keys[lastRet];
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            final int index = lastRet - position;
+            SortedLongObjectList.this.remove(index);
+            cursor = position + index;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        final void checkForModification() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.egls.server.utils.structure;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ *     缓存用来记录读操作的分段环形缓冲区,多生产者单消费者.
+ *
+ *     每个线程按照线程id落到一个分段上,分段之间互不竞争.
+ *     添加失败(分段已满,或者与其他线程竞争失败)时直接丢弃,读操作只是用来调整淘汰顺序,丢失一部分不影响正确性.
+ *     {@link #drainTo(Consumer)}必须在同一时刻只有一个线程调用,通常是持有淘汰锁的线程.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 21:45]
+ */
+final class StripedReadBuffer<E> {
+
+    private static final int BUFFER_SIZE = 16;
+
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    private static final int MAX_STRIPES = 64;
+
+    private static final class Stripe {
+
+        private final AtomicReferenceArray<Object> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+
+        private final AtomicLong writeCounter = new AtomicLong();
+
+        /**
+         * 只有消费者写入
+         */
+        private volatile long readCounter = 0L;
+
+    }
+
+    private final Stripe[] stripes;
+
+    private final int stripeMask;
+
+    StripedReadBuffer() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int count = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, processors - 1)) << 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * @return 分段已满,需要尽快消费
+     */
+    final boolean offer(final E element) {
+        final long id = Thread.currentThread().getId();
+        final Stripe stripe = stripes[(int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask];
+        final long head = stripe.readCounter;
+        final long tail = stripe.writeCounter.get();
+        final long size = tail - head;
+        if (size >= BUFFER_SIZE) {
+            return true;
+        }
+        if (stripe.writeCounter.compareAndSet(tail, tail + 1)) {
+            stripe.buffer.lazySet((int) (tail & BUFFER_MASK), element);
+            return size + 1 >= BUFFER_SIZE;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    final void drainTo(final Consumer<E> consumer) {
+        for (Stripe stripe : stripes) {
+            long head = stripe.readCounter;
+            final long tail = stripe.writeCounter.get();
+            for (; head < tail; head++) {
+                final int index = (int) (head & BUFFER_MASK);
+                final Object element = stripe.buffer.get(index);
+                if (element == null) {
+                    //生产者还没有写入,下次再消费
+                    break;
+                }
+                stripe.buffer.lazySet(index, null);
+                consumer.accept((E) element);
+            }
+            stripe.readCounter = head;
+        }
+    }
+
+}
@@ -0,0 +1,652 @@
+package com.egls.server.utils.structure;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     一个在任何时候都保持有序的列表,与{@link SortedList}的接口相同,适合元素很多的场景.
+ *
+ *     {@link SortedList}是一个连续的数组,在中间插入或者删除时要移动一半的元素,元素达到几十万时很慢.
+ *     本类把元素分散在多个有序的块中,每块最多{@code blockSize}个元素,块满了之后一分为二.
+ *     插入和删除只移动一个块中的元素,再用树状数组(Fenwick tree)维护每块的元素数量,按照索引访问也只需要(log n).
+ *     插入,删除和按索引访问的时间复杂度都是(log n + blockSize).
+ *
+ *     元素很少(一千左右以内)时{@link SortedList}的插入和删除与本类相当,按索引访问更快,见测试中的SortedListBenchmark.
+ *
+ *     与{@link SortedList}不同,{@link #indexOf(Object)}等查找方法使用比较器二分查找,然后在比较结果相等的范围内用equals匹配,
+ *     所以要求equals相等的元素比较结果也相等.
+ *     比较结果相等的元素,后添加的排在后面.
+ *
+ *     不是线程安全的.不能添加null元素.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 02:20]
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class TieredSortedList<E> implements Iterable<E> {
+
+    private enum ComparableComparator implements Comparator {
+        /**
+         *
+         */
+        INSTANCE;
+
+        @Override
+        public int compare(final Object obj1, final Object obj2) {
+            return ((Comparable) obj1).compareTo(obj2);
+        }
+    }
+
+    private static final int DEFAULT_BLOCK_SIZE = 512;
+
+    private static final int MIN_BLOCK_SIZE = 4;
+
+    private final AtomicLong modCount = new AtomicLong(0);
+
+    private final Comparator<E> comparator;
+
+    private final int blockSize;
+
+    private Object[][] blocks = new Object[4][];
+
+    private int[] blockSizes = new int[4];
+
+    private int blockCount = 0;
+
+    /**
+     * 块大小的树状数组,下标从1开始.块的数量变化之后标记为失效,下次使用时重建
+     */
+    private int[] tree = new int[5];
+
+    private boolean treeValid = true;
+
+    private int size = 0;
+
+    public TieredSortedList() {
+        this(DEFAULT_BLOCK_SIZE, null);
+    }
+
+    public TieredSortedList(final Comparator<E> comp) {
+        this(DEFAULT_BLOCK_SIZE, comp);
+    }
+
+    public TieredSortedList(final E[] elements) {
+        this(DEFAULT_BLOCK_SIZE, null);
+        this.addAll(elements);
+    }
+
+    public TieredSortedList(final Collection<E> elements) {
+        this(DEFAULT_BLOCK_SIZE, null);
+        this.addAll(elements);
+    }
+
+    public TieredSortedList(final E[] elements, final Comparator<E> comp) {
+        this(DEFAULT_BLOCK_SIZE, comp);
+        this.addAll(elements);
+    }
+
+    public TieredSortedList(final Collection<E> elements, final Comparator<E> comp) {
+        this(DEFAULT_BLOCK_SIZE, comp);
+        this.addAll(elements);
+    }
+
+    /**
+     * @param blockSize 每块的最大元素数量,越大按索引访问越快,插入和删除越慢
+     */
+    public TieredSortedList(final int blockSize, final Comparator<E> comp) {
+        if (blockSize < MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException("block size must not be less than " + MIN_BLOCK_SIZE + "." + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.comparator = comp == null ? ComparableComparator.INSTANCE : comp;
+    }
+
+    private void ensureIndexValid(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public final boolean hasRemaining() {
+        return size > 0;
+    }
+
+    public boolean isEmpty() {
+        return size <= 0;
+    }
+
+    public void clear() {
+        modCount.incrementAndGet();
+        blocks = new Object[4][];
+        blockSizes = new int[4];
+        blockCount = 0;
+        size = 0;
+        treeValid = false;
+    }
+
+    public Object[] toArray() {
+        final Object[] array = new Object[size];
+        int index = 0;
+        for (int i = 0; i < blockCount; i++) {
+            System.arraycopy(blocks[i], 0, array, index, blockSizes[i]);
+            index += blockSizes[i];
+        }
+        return array;
+    }
+
+    public <T> T[] toArray(final T[] array) {
+        final T[] result = array.length >= size ? array : (T[]) java.lang.reflect.Array.newInstance(array.getClass().getComponentType(), size);
+        int index = 0;
+        for (int i = 0; i < blockCount; i++) {
+            System.arraycopy(blocks[i], 0, result, index, blockSizes[i]);
+            index += blockSizes[i];
+        }
+        Arrays.fill(result, size, result.length, null);
+        return result;
+    }
+
+    /**
+     * 正序取排行.计数从0开始, 小于0是没有排名
+     */
+    public int rankOf(final E element) {
+        return indexOf(element);
+    }
+
+    /**
+     * 倒序取排行.计数从0开始, 小于0是没有排名
+     */
+    public int lastRankOf(final E element) {
+        int lastIndex = lastIndexOf(element);
+        return lastIndex >= 0 ? size - 1 - lastIndex : lastIndex;
+    }
+
+    public int indexOf(final E element) {
+        int blockIndex = lowerBlock(element);
+        if (blockIndex < 0) {
+            return -1;
+        }
+        int offset = lowerOffset(blockIndex, element);
+        int index = prefixSize(blockIndex) + offset;
+        while (blockIndex < blockCount) {
+            final Object[] block = blocks[blockIndex];
+            for (; offset < blockSizes[blockIndex]; offset++, index++) {
+                if (comparator.compare((E) block[offset], element) != 0) {
+                    return -1;
+                }
+                if (block[offset].equals(element)) {
+                    return index;
+                }
+            }
+            blockIndex++;
+            offset = 0;
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(final E element) {
+        int blockIndex = upperBlock(element);
+        if (blockIndex >= blockCount) {
+            blockIndex = blockCount - 1;
+        }
+        if (blockIndex < 0) {
+            return -1;
+        }
+        int offset = upperOffset(blockIndex, element) - 1;
+        int index = prefixSize(blockIndex) + offset;
+        while (blockIndex >= 0) {
+            final Object[] block = blocks[blockIndex];
+            for (; offset >= 0; offset--, index--) {
+                if (comparator.compare((E) block[offset], element) != 0) {
+                    return -1;
+                }
+                if (block[offset].equals(element)) {
+                    return index;
+                }
+            }
+            blockIndex--;
+            if (blockIndex >= 0) {
+                offset = blockSizes[blockIndex] - 1;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(final E element) {
+        return indexOf(element) >= 0;
+    }
+
+    public E peekFirst() {
+        return isEmpty() ? null : (E) blocks[0][0];
+    }
+
+    public E peekLast() {
+        return isEmpty() ? null : (E) blocks[blockCount - 1][blockSizes[blockCount - 1] - 1];
+    }
+
+    public E pollFirst() {
+        return isEmpty() ? null : remove(0);
+    }
+
+    public E pollLast() {
+        return isEmpty() ? null : remove(size - 1);
+    }
+
+    public E get(final int index) {
+        ensureIndexValid(index);
+        final long location = locate(index);
+        return (E) blocks[(int) (location >>> 32)][(int) location];
+    }
+
+    public void add(final E element) {
+        Objects.requireNonNull(element);
+        modCount.incrementAndGet();
+        if (blockCount == 0) {
+            final Object[] block = new Object[blockSize];
+            block[0] = element;
+            insertBlock(0, block, 1);
+            size++;
+            return;
+        }
+        int blockIndex = upperBlock(element);
+        if (blockIndex >= blockCount) {
+            blockIndex = blockCount - 1;
+        }
+        int offset = upperOffset(blockIndex, element);
+        if (blockSizes[blockIndex] == blockSize) {
+            //块满了,后一半移到新的块中
+            final int half = blockSize >>> 1;
+            final Object[] newBlock = new Object[blockSize];
+            System.arraycopy(blocks[blockIndex], half, newBlock, 0, blockSize - half);
+            Arrays.fill(blocks[blockIndex], half, blockSize, null);
+            blockSizes[blockIndex] = half;
+            insertBlock(blockIndex + 1, newBlock, blockSize - half);
+            if (offset > half) {
+                blockIndex++;
+                offset -= half;
+            }
+        }
+        final Object[] block = blocks[blockIndex];
+        System.arraycopy(block, offset, block, offset + 1, blockSizes[blockIndex] - offset);
+        block[offset] = element;
+        blockSizes[blockIndex]++;
+        size++;
+        updateTree(blockIndex, 1);
+    }
+
+    /**
+     * 批量添加.新元素较少时逐个插入,较多时与已有的元素一次归并后重新分块
+     */
+    public void addAll(final E[] elementArray) {
+        addBatch(elementArray.clone());
+    }
+
+    /**
+     * 批量添加.新元素较少时逐个插入,较多时与已有的元素一次归并后重新分块
+     */
+    public void addAll(final Collection<E> collection) {
+        addBatch(collection.toArray());
+    }
+
+    /**
+     * 批量移除所有与给出的元素相等(equals)的元素,一次遍历完成
+     *
+     * @return 是否有元素被移除
+     */
+    public boolean removeAll(final E[] elementArray) {
+        return removeAll(Arrays.asList(elementArray));
+    }
+
+    /**
+     * 批量移除所有与给出的元素相等(equals)的元素,一次遍历完成
+     *
+     * @return 是否有元素被移除
+     */
+    public boolean removeAll(final Collection<E> collection) {
+        if (collection.isEmpty() || isEmpty()) {
+            return false;
+        }
+        final Set<Object> removing = new HashSet<>(collection);
+        final Object[] remaining = new Object[size];
+        int count = 0;
+        for (int i = 0; i < blockCount; i++) {
+            final Object[] block = blocks[i];
+            for (int j = 0; j < blockSizes[i]; j++) {
+                if (!removing.contains(block[j])) {
+                    remaining[count++] = block[j];
+                }
+            }
+        }
+        if (count == size) {
+            return false;
+        }
+        modCount.incrementAndGet();
+        rebuild(remaining, count);
+        return true;
+    }
+
+    public E remove(final int index) {
+        ensureIndexValid(index);
+        modCount.incrementAndGet();
+        final long location = locate(index);
+        final int blockIndex = (int) (location >>> 32);
+        final int offset = (int) location;
+        final Object[] block = blocks[blockIndex];
+        final E result = (E) block[offset];
+        final int blockElements = --blockSizes[blockIndex];
+        System.arraycopy(block, offset + 1, block, offset, blockElements - offset);
+        block[blockElements] = null;
+        size--;
+        if (blockElements == 0) {
+            removeBlock(blockIndex);
+        } else {
+            updateTree(blockIndex, -1);
+        }
+        return result;
+    }
+
+    public boolean remove(final E element) {
+        final int index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public final String toString() {
+        return getClass().getName()
+                + "["
+                + "blockSize=" + blockSize
+                + ",blockCount=" + blockCount
+                + ",size=" + size
+                + "]";
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private final class Itr implements Iterator<E> {
+
+        /**
+         * 下一个元素的位置
+         */
+        int cursor = 0;
+
+        int blockIndex = 0;
+
+        int offset = 0;
+
+        int lastRet = -1;
+
+        long expectedModCount = modCount.get();
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public E next() {
+            checkForModification();
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            while (offset >= blockSizes[blockIndex]) {
+                blockIndex++;
+                offset = 0;
+            }
+            lastRet = cursor++;
+            return (E) blocks[blockIndex][offset++];
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            TieredSortedList.this.remove(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount.get();
+            if (cursor < size) {
+                final long location = locate(cursor);
+                blockIndex = (int) (location >>> 32);
+                offset = (int) location;
+            }
+        }
+
+        final void checkForModification() {
+            if (expectedModCount != modCount.get()) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addBatch(final Object[] batch) {
+        final int count = batch.length;
+        if (count == 0) {
+            return;
+        }
+        for (Object element : batch) {
+            Objects.requireNonNull(element);
+        }
+        //逐个插入的代价是 count * (log n + blockSize), 归并的代价是 n + count * log count
+        if ((long) count * blockSize < size) {
+            for (Object element : batch) {
+                add((E) element);
+            }
+            return;
+        }
+        Arrays.sort(batch, (Comparator) comparator);
+        modCount.incrementAndGet();
+        final Object[] merged = new Object[size + count];
+        int k = 0;
+        int j = 0;
+        for (int b = 0; b < blockCount; b++) {
+            final Object[] block = blocks[b];
+            for (int i = 0; i < blockSizes[b]; i++) {
+                while (j < count && comparator.compare((E) batch[j], (E) block[i]) < 0) {
+                    merged[k++] = batch[j++];
+                }
+                merged[k++] = block[i];
+            }
+        }
+        while (j < count) {
+            merged[k++] = batch[j++];
+        }
+        rebuild(merged, k);
+    }
+
+    /**
+     * 用有序的数组重新分块,每块填满一半,给后续的插入留出空间
+     */
+    private void rebuild(final Object[] sorted, final int length) {
+        final int fill = Math.max(1, blockSize >>> 1);
+        final int count = (length + fill - 1) / fill;
+        blocks = new Object[Math.max(4, count)][];
+        blockSizes = new int[blocks.length];
+        for (int i = 0; i < count; i++) {
+            final int from = i * fill;
+            final int elements = Math.min(fill, length - from);
+            blocks[i] = new Object[blockSize];
+            System.arraycopy(sorted, from, blocks[i], 0, elements);
+            blockSizes[i] = elements;
+        }
+        blockCount = count;
+        size = length;
+        treeValid = false;
+    }
+
+    private void insertBlock(final int blockIndex, final Object[] block, final int elements) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount << 1);
+            blockSizes = Arrays.copyOf(blockSizes, blockCount << 1);
+        }
+        System.arraycopy(blocks, blockIndex, blocks, blockIndex + 1, blockCount - blockIndex);
+        System.arraycopy(blockSizes, blockIndex, blockSizes, blockIndex + 1, blockCount - blockIndex);
+        blocks[blockIndex] = block;
+        blockSizes[blockIndex] = elements;
+        blockCount++;
+        treeValid = false;
+    }
+
+    private void removeBlock(final int blockIndex) {
+        System.arraycopy(blocks, blockIndex + 1, blocks, blockIndex, blockCount - blockIndex - 1);
+        System.arraycopy(blockSizes, blockIndex + 1, blockSizes, blockIndex, blockCount - blockIndex - 1);
+        blockCount--;
+        blocks[blockCount] = null;
+        blockSizes[blockCount] = 0;
+        treeValid = false;
+    }
+
+    /**
+     * 第一个最后一个元素不小于element的块,都小于时返回-1
+     */
+    private int lowerBlock(final E element) {
+        int low = 0;
+        int high = blockCount - 1;
+        int result = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (comparator.compare((E) blocks[mid][blockSizes[mid] - 1], element) >= 0) {
+                result = mid;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 第一个最后一个元素大于element的块,都不大于时返回blockCount
+     */
+    private int upperBlock(final E element) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (comparator.compare((E) blocks[mid][blockSizes[mid] - 1], element) > 0) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 块中第一个不小于element的位置
+     */
+    private int lowerOffset(final int blockIndex, final E element) {
+        final Object[] block = blocks[blockIndex];
+        int low = 0;
+        int high = blockSizes[blockIndex];
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (comparator.compare((E) block[mid], element) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 块中第一个大于element的位置
+     */
+    private int upperOffset(final int blockIndex, final E element) {
+        final Object[] block = blocks[blockIndex];
+        int low = 0;
+        int high = blockSizes[blockIndex];
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (comparator.compare((E) block[mid], element) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void ensureTree() {
+        if (treeValid) {
+            return;
+        }
+        if (tree.length < blockCount + 1 || tree.length > (blockCount + 1) * 4) {
+            tree = new int[blocks.length + 1];
+        } else {
+            Arrays.fill(tree, 0);
+        }
+        //线性时间建树
+        for (int i = 1; i <= blockCount; i++) {
+            tree[i] += blockSizes[i - 1];
+            final int parent = i + (i & -i);
+            if (parent <= blockCount) {
+                tree[parent] += tree[i];
+            }
+        }
+        treeValid = true;
+    }
+
+    private void updateTree(final int blockIndex, final int delta) {
+        if (!treeValid) {
+            return;
+        }
+        for (int i = blockIndex + 1; i <= blockCount; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * 前blockIndex块的元素数量之和
+     */
+    private int prefixSize(final int blockIndex) {
+        ensureTree();
+        int sum = 0;
+        for (int i = blockIndex; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return 高32位是块的下标, 低32位是块中的位置
+     */
+    private long locate(final int index) {
+        ensureTree();
+        int blockIndex = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(Math.max(1, blockCount)); step > 0; step >>>= 1) {
+            final int next = blockIndex + step;
+            if (next <= blockCount && tree[next] <= remaining) {
+                blockIndex = next;
+                remaining -= tree[next];
+            }
+        }
+        return ((long) blockIndex << 32) | remaining;
+    }
+
+}
@@ -39,6 +39,17 @@ public interface PeriodicTask {
         return false;
     }
 
+    /**
+     * 获取任务的亲和键,只在{@link PeriodicTaskManager}的并行模式下生效.
+     * 亲和键相同的任务会被串行执行,适用于共享状态的任务.
+     * 默认返回null,表示任务只与自己串行.
+     *
+     * @return 亲和键
+     */
+    default Object getAffinityKey() {
+        return null;
+    }
+
     /**
      * 获取任务的名称,具有一定的标识作用.
      *
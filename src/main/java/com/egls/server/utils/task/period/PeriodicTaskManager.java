@@ -1,12 +1,18 @@
 package com.egls.server.utils.task.period;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.temporal.WeekFields;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
+import com.egls.server.utils.concurrent.KeyedSerialExecutor;
+import com.egls.server.utils.concurrent.MpscLinkedQueue;
 import com.egls.server.utils.date.DateTimeUnit;
 import com.egls.server.utils.function.Ticker;
-import com.google.common.collect.Lists;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +21,15 @@ import org.slf4j.LoggerFactory;
  * 实现{@link PeriodicTask}的运行和生命周期管理.
  * 方法 {@link #tick()} 的调用间隔必须是毫秒级.
  * <p>
+ * 任务按照{@link PeriodicTask#getDateTimeUnit()}分桶管理,时间单位只在添加任务时读取一次.
+ * 每次心跳只处理时间单位发生变化的桶,同一个桶内的任务按照添加的顺序执行.
+ * <p>
+ * 默认在调用{@link #tick()}的线程中串行执行任务.
+ * 如果构造时指定了线程池,则进入并行模式:到期的任务被分发到线程池中执行,
+ * {@link PeriodicTask#getAffinityKey()}相同的任务依然串行执行.
+ * 并行模式下{@link #tick()}可以等待本次所有任务执行完毕,也可以不等待直接返回.
+ * 不等待时,如果一个任务上一次的执行还没有结束,本次会被跳过.
+ * <p>
  * 本类是线程安全的.
  *
  * @author mayer - [Created on 2018-08-20 20:22]
@@ -27,23 +42,92 @@ public final class PeriodicTaskManager implements Ticker {
 
         private final PeriodicTask periodicTask;
 
+        /**
+         * 添加任务时读取的时间单位,即任务所在的桶
+         */
+        private final DateTimeUnit dateTimeUnit;
+
+        /**
+         * 并行模式下使用,任务已经被分发但还没有执行完毕
+         */
+        private volatile boolean running = false;
+
+        /**
+         * 并行模式下使用,任务执行完毕之后需要被移除
+         */
+        private volatile boolean removable = false;
+
+        /**
+         * 并行模式下使用,已经从taskSet中移除,等待从桶中移除.只在doLock域中使用.
+         */
+        private boolean removed = false;
+
         private TaskAndCounter(final PeriodicTask periodicTask) {
             this.periodicTask = periodicTask;
+            this.dateTimeUnit = periodicTask.getDateTimeUnit();
         }
     }
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PeriodicTaskManager.class);
 
+    private static final DateTimeUnit[] DATE_TIME_UNITS = DateTimeUnit.values();
+
     private final Object doLock = new Object();
 
-    private final Object putLock = new Object();
+    /**
+     * 用于任务去重,与原先的逐个比较一样基于{@link Object#equals(Object)}
+     */
+    private final Set<PeriodicTask> taskSet = new HashSet<>();
+
+    /**
+     * 按照时间单位分桶,每次心跳只处理时间单位发生了变化的桶
+     */
+    private final EnumMap<DateTimeUnit, ArrayList<TaskAndCounter>> taskBuckets = new EnumMap<>(DateTimeUnit.class);
 
-    private final List<TaskAndCounter> tasks = new ArrayList<>();
+    private final MpscLinkedQueue<PeriodicTask> pendingTasks = new MpscLinkedQueue<>();
 
-    private final List<PeriodicTask> pendingTasks = new ArrayList<>();
+    private final Consumer<PeriodicTask> pendingTaskConsumer = periodicTask -> {
+        if (taskSet.add(periodicTask)) {
+            final TaskAndCounter taskAndCounter = new TaskAndCounter(periodicTask);
+            taskBuckets.get(taskAndCounter.dateTimeUnit).add(taskAndCounter);
+        }
+    };
 
-    private volatile long currentSecond, currentMinute, currentHour, currentDay, currentWeek, currentMonth, currentYear;
-    private volatile long lastSecond, lastMinute, lastHour, lastDay, lastWeek, lastMonth, lastYear;
+    /**
+     * 并行模式下,执行完毕并且需要移除的任务.由执行任务的线程放入,在下一次{@link #tick()}开始时移除,
+     * 与串行模式一样,任务移除之后马上可以被重新添加,而不需要等到它的时间单位下一次变化.
+     */
+    private final MpscLinkedQueue<TaskAndCounter> completedTasks = new MpscLinkedQueue<>();
+
+    /**
+     * 有任务需要移除的桶.只在doLock域中使用.
+     */
+    private final boolean[] dirtyUnits = new boolean[DATE_TIME_UNITS.length];
+
+    private final Consumer<TaskAndCounter> completedTaskConsumer = taskAndCounter -> {
+        taskSet.remove(taskAndCounter.periodicTask);
+        taskAndCounter.removed = true;
+        dirtyUnits[taskAndCounter.dateTimeUnit.ordinal()] = true;
+    };
+
+    private volatile int lastDrainedTaskCount = 0;
+
+    /**
+     * 时间来源,可以注入用于测试时快进时间
+     */
+    private final Clock clock;
+
+    /**
+     * 每种时间单位当前所处区间的起点(inclusive)和下一个区间的起点(exclusive),单位毫秒.
+     * 只有当前时间离开了区间,才会重新计算日期.
+     */
+    private final long[] unitStartMillis = new long[DATE_TIME_UNITS.length];
+    private final long[] unitEndMillis = new long[DATE_TIME_UNITS.length];
+
+    /**
+     * 本次tick中,每种时间单位是否发生了变化.只在doLock域中使用.
+     */
+    private final boolean[] pastUnits = new boolean[DATE_TIME_UNITS.length];
 
     /**
      * 是否丢弃出现错误的任务, true 丢弃, false 不丢弃
@@ -52,71 +136,118 @@ public final class PeriodicTaskManager implements Ticker {
 
     private final long warningElapsedMilliseconds;
 
+    /**
+     * 并行模式下使用的执行器,串行模式下为null
+     */
+    private final KeyedSerialExecutor keyedSerialExecutor;
+
+    /**
+     * 并行模式下,tick是否等待本次分发的任务全部执行完毕
+     */
+    private final boolean waitForCompletion;
+
+    /**
+     * 并行模式下,本次tick到期的任务.只在doLock域中使用.
+     */
+    private final ArrayList<TaskAndCounter> dueTasks = new ArrayList<>();
+
     public PeriodicTaskManager(final boolean discardErrorTask, final long warningElapsedMilliseconds) {
+        this(discardErrorTask, warningElapsedMilliseconds, null, true, Clock.systemDefaultZone());
+    }
+
+    public PeriodicTaskManager(final boolean discardErrorTask, final long warningElapsedMilliseconds, final Clock clock) {
+        this(discardErrorTask, warningElapsedMilliseconds, null, true, clock);
+    }
+
+    public PeriodicTaskManager(final boolean discardErrorTask, final long warningElapsedMilliseconds, final Executor executor, final boolean waitForCompletion) {
+        this(discardErrorTask, warningElapsedMilliseconds, executor, waitForCompletion, Clock.systemDefaultZone());
+    }
+
+    /**
+     * 以并行模式构造
+     *
+     * @param discardErrorTask           是否丢弃出现错误的任务
+     * @param warningElapsedMilliseconds 任务执行时间超过此值会打印警告
+     * @param executor                   执行任务的线程池,例如{@link com.egls.server.utils.concurrent.CommonThreadPoolExecutor}或者{@link java.util.concurrent.ForkJoinPool}.为null时是串行模式
+     * @param waitForCompletion          true tick等待本次任务全部执行完毕, false 分发之后直接返回
+     * @param clock                      时间来源
+     */
+    public PeriodicTaskManager(final boolean discardErrorTask, final long warningElapsedMilliseconds, final Executor executor, final boolean waitForCompletion, final Clock clock) {
         this.discardErrorTask = discardErrorTask;
         this.warningElapsedMilliseconds = warningElapsedMilliseconds;
-        this.catchCurrentInstant();
-        this.pastCurrentInstant();
+        this.keyedSerialExecutor = executor == null ? null : new KeyedSerialExecutor(executor);
+        this.waitForCompletion = waitForCompletion;
+        this.clock = Objects.requireNonNull(clock);
+        for (DateTimeUnit dateTimeUnit : DATE_TIME_UNITS) {
+            this.taskBuckets.put(dateTimeUnit, new ArrayList<>());
+        }
+        final long now = clock.millis();
+        final LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), clock.getZone());
+        for (DateTimeUnit dateTimeUnit : DATE_TIME_UNITS) {
+            resetUnitRange(dateTimeUnit, localDateTime);
+        }
+    }
+
+    private void resetUnitRange(final DateTimeUnit dateTimeUnit, final LocalDateTime localDateTime) {
+        final ZoneId zoneId = clock.getZone();
+        final int ordinal = dateTimeUnit.ordinal();
+        unitStartMillis[ordinal] = dateTimeUnit.adjust(localDateTime, true, 0).atZone(zoneId).toInstant().toEpochMilli();
+        unitEndMillis[ordinal] = dateTimeUnit.adjust(localDateTime, true, 1).atZone(zoneId).toInstant().toEpochMilli();
     }
 
-    private void catchCurrentInstant() {
-        LocalDateTime now = LocalDateTime.now();
-        currentSecond = now.getSecond();
-        currentMinute = now.getMinute();
-        currentHour = now.getHour();
-        currentDay = now.getDayOfMonth();
-        currentWeek = now.get(WeekFields.ISO.weekOfWeekBasedYear());
-        currentMonth = now.getMonthValue();
-        currentYear = now.getYear();
+    /**
+     * 检查每种时间单位是否发生了变化.
+     * 秒是最小的单位,任何单位发生变化时秒一定发生了变化,所以还在当前这一秒之内时,不需要做任何日期计算.
+     *
+     * @return true 至少有一个时间单位发生了变化
+     */
+    private boolean catchCurrentInstant() {
+        final long now = clock.millis();
+        final int secondOrdinal = DateTimeUnit.SECOND.ordinal();
+        if (now >= unitStartMillis[secondOrdinal] && now < unitEndMillis[secondOrdinal]) {
+            return false;
+        }
+        //时间回拨时同样认为发生了变化,与按照日期字段比较的行为一致
+        final LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), clock.getZone());
+        for (DateTimeUnit dateTimeUnit : DATE_TIME_UNITS) {
+            final int ordinal = dateTimeUnit.ordinal();
+            final boolean past = now < unitStartMillis[ordinal] || now >= unitEndMillis[ordinal];
+            pastUnits[ordinal] = past;
+            if (past) {
+                resetUnitRange(dateTimeUnit, localDateTime);
+            }
+        }
+        return true;
     }
 
     private void pastCurrentInstant() {
-        lastSecond = currentSecond;
-        lastMinute = currentMinute;
-        lastHour = currentHour;
-        lastDay = currentDay;
-        lastWeek = currentWeek;
-        lastMonth = currentMonth;
-        lastYear = currentYear;
+        Arrays.fill(pastUnits, false);
     }
 
     private boolean isPast(final DateTimeUnit dateTimeUnit) {
-        switch (dateTimeUnit) {
-            case SECOND:
-                //这里要注意, 如果卡住1分钟, 1分3秒和2分3秒,秒是同一个,但是实际上不是同一秒.依次类推
-                return currentSecond != lastSecond || currentMinute != lastMinute || currentHour != lastHour || currentDay != lastDay || currentWeek != lastWeek;
-            case MINUTE:
-                return currentMinute != lastMinute || currentHour != lastHour || currentDay != lastDay || currentWeek != lastWeek;
-            case HOUR:
-                return currentHour != lastHour || currentDay != lastDay || currentWeek != lastWeek;
-            case DAY:
-                return currentDay != lastDay || currentWeek != lastWeek;
-            case WEEK:
-                //周要特别注意,周是可能出现不在同一个月,或者不在同一年的.所以最长就处理到周就可以了.
-                //如果出现卡了一周,那只能说明使用者太笨了.
-                return currentWeek != lastWeek;
-            case MONTH:
-                return currentMonth != lastMonth;
-            case YEAR:
-                return currentYear != lastYear;
-            default:
-                return false;
+        return pastUnits[dateTimeUnit.ordinal()];
+    }
+
+    /**
+     * 计数是否达到了运行间隔
+     */
+    private static boolean isDue(final TaskAndCounter taskAndCounter) {
+        if (++taskAndCounter.count >= taskAndCounter.periodicTask.getInterval()) {
+            taskAndCounter.count = 0;
+            return true;
         }
+        return false;
     }
 
     private boolean execute(final TaskAndCounter taskAndCounter) {
-        boolean remove = false;
+        return isDue(taskAndCounter) && run(taskAndCounter.periodicTask);
+    }
 
+    private boolean run(final PeriodicTask periodicTask) {
         final long milliseconds = System.currentTimeMillis();
 
-        final PeriodicTask periodicTask = taskAndCounter.periodicTask;
-        if (isPast(periodicTask.getDateTimeUnit())) {
-            if (++taskAndCounter.count >= periodicTask.getInterval()) {
-                taskAndCounter.count = 0;
-                periodicTask.doPeriodicTask();
-                remove = periodicTask.isDestroyable();
-            }
-        }
+        periodicTask.doPeriodicTask();
+        final boolean remove = periodicTask.isDestroyable();
 
         final long cost = System.currentTimeMillis() - milliseconds;
         if (cost >= warningElapsedMilliseconds) {
@@ -126,54 +257,167 @@ public final class PeriodicTaskManager implements Ticker {
         return remove;
     }
 
-    @Override
-    public final void tick() {
-        synchronized (doLock) {
+    /**
+     * 执行一个桶中的全部任务,并原地压缩掉需要移除的任务,避免逐个删除带来的数组移动.
+     */
+    private void executeBucket(final ArrayList<TaskAndCounter> bucket) {
+        final int size = bucket.size();
+        int retain = 0;
+        int processed = 0;
+        try {
+            while (processed < size) {
+                boolean remove = false;
+                final TaskAndCounter taskAndCounter = bucket.get(processed);
+                try {
+                    remove = execute(taskAndCounter);
+                } catch (Exception exception) {
+                    remove = discardErrorTask;
+                    LOGGER.error("PeriodicTaskWorker execute error", exception);
+                } finally {
+                    processed++;
+                    if (remove) {
+                        taskSet.remove(taskAndCounter.periodicTask);
+                    } else {
+                        bucket.set(retain++, taskAndCounter);
+                    }
+                }
+            }
+        } finally {
+            //出现Error中断时,保留还没有执行的任务
+            while (processed < size) {
+                bucket.set(retain++, bucket.get(processed++));
+            }
+            if (retain < size) {
+                bucket.subList(retain, size).clear();
+            }
+        }
+    }
 
-            catchCurrentInstant();
+    /**
+     * 并行模式下,收集本次到期的任务.
+     * 需要移除的任务已经放入了completedTasks,由{@link #removeCompletedTasks()}统一移除,这里只是不再分发.
+     */
+    private void collectBucket(final ArrayList<TaskAndCounter> bucket) {
+        for (TaskAndCounter taskAndCounter : bucket) {
+            if (taskAndCounter.removable) {
+                continue;
+            }
+            if (isDue(taskAndCounter)) {
+                if (taskAndCounter.running) {
+                    LOGGER.warn(String.format("PeriodicTask %s is still running, skip this period", taskAndCounter.periodicTask.getPeriodicTaskName()));
+                } else {
+                    dueTasks.add(taskAndCounter);
+                }
+            }
+        }
+    }
+
+    /**
+     * 并行模式下,移除执行完毕并且需要移除的任务.在doLock域中调用.
+     */
+    private void removeCompletedTasks() {
+        if (completedTasks.drain(completedTaskConsumer) == 0) {
+            return;
+        }
+        for (DateTimeUnit dateTimeUnit : DATE_TIME_UNITS) {
+            if (dirtyUnits[dateTimeUnit.ordinal()]) {
+                dirtyUnits[dateTimeUnit.ordinal()] = false;
+                taskBuckets.get(dateTimeUnit).removeIf(taskAndCounter -> taskAndCounter.removed);
+            }
+        }
+    }
+
+    /**
+     * 并行模式下,将到期的任务分发到线程池中.
+     */
+    private void dispatchDueTasks() {
+        final CountDownLatch latch = waitForCompletion ? new CountDownLatch(dueTasks.size()) : null;
+        for (TaskAndCounter taskAndCounter : dueTasks) {
+            final PeriodicTask periodicTask = taskAndCounter.periodicTask;
+            final Object affinityKey = periodicTask.getAffinityKey();
+            taskAndCounter.running = true;
             try {
-                final Iterator<TaskAndCounter> iterator = tasks.iterator();
-                while (iterator.hasNext()) {
+                keyedSerialExecutor.execute(affinityKey == null ? periodicTask : affinityKey, () -> {
                     boolean remove = false;
-                    final TaskAndCounter taskAndCounter = iterator.next();
                     try {
-                        remove = execute(taskAndCounter);
+                        remove = run(periodicTask);
                     } catch (Exception exception) {
                         remove = discardErrorTask;
                         LOGGER.error("PeriodicTaskWorker execute error", exception);
                     } finally {
                         if (remove) {
-                            iterator.remove();
+                            taskAndCounter.removable = true;
+                            completedTasks.offer(taskAndCounter);
+                        }
+                        taskAndCounter.running = false;
+                        if (latch != null) {
+                            latch.countDown();
                         }
                     }
+                });
+            } catch (RuntimeException exception) {
+                //线程池拒绝了任务,本周期跳过
+                taskAndCounter.running = false;
+                if (latch != null) {
+                    latch.countDown();
                 }
-            } finally {
-                pastCurrentInstant();
+                LOGGER.error("PeriodicTaskWorker dispatch error", exception);
             }
-
         }
+        dueTasks.clear();
 
-        //脱离doLock域
-        addPendingTask();
-    }
-
-    private void addPendingTask() {
-        List<PeriodicTask> list = Collections.emptyList();
-        synchronized (putLock) {
-            if (!pendingTasks.isEmpty()) {
-                list = Lists.newArrayList(pendingTasks);
-                pendingTasks.clear();
+        if (latch != null) {
+            try {
+                latch.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
             }
         }
+    }
 
+    @Override
+    public final void tick() {
         synchronized (doLock) {
-            if (!list.isEmpty()) {
-                for (PeriodicTask periodicTask : list) {
-                    if (tasks.stream().noneMatch(taskAndCounter -> Objects.equals(taskAndCounter.periodicTask, periodicTask))) {
-                        tasks.add(new TaskAndCounter(periodicTask));
+
+            removeCompletedTasks();
+
+            //同一秒之内,没有任何任务需要处理
+            if (catchCurrentInstant()) {
+                try {
+                    for (DateTimeUnit dateTimeUnit : DATE_TIME_UNITS) {
+                        if (isPast(dateTimeUnit)) {
+                            final ArrayList<TaskAndCounter> bucket = taskBuckets.get(dateTimeUnit);
+                            if (bucket.isEmpty()) {
+                                continue;
+                            }
+                            if (keyedSerialExecutor == null) {
+                                executeBucket(bucket);
+                            } else {
+                                collectBucket(bucket);
+                            }
+                        }
+                    }
+                    if (!dueTasks.isEmpty()) {
+                        dispatchDueTasks();
                     }
+                } finally {
+                    dueTasks.clear();
+                    pastCurrentInstant();
                 }
             }
+
+        }
+
+        //脱离doLock域
+        addPendingTask();
+    }
+
+    private void addPendingTask() {
+        //队列只允许一个消费者,所以在doLock域中消费
+        synchronized (doLock) {
+            //先移除执行完毕的任务,同一个任务对象可以在移除之后重新添加
+            removeCompletedTasks();
+            lastDrainedTaskCount = pendingTasks.drain(pendingTaskConsumer);
         }
     }
 
@@ -184,9 +428,25 @@ public final class PeriodicTaskManager implements Ticker {
         if (periodicTask.getDateTimeUnit() == null) {
             throw new IllegalArgumentException("getDateTimeUnit() can't return null");
         }
-        synchronized (putLock) {
-            pendingTasks.add(periodicTask);
-        }
+        pendingTasks.offer(periodicTask);
+    }
+
+    /**
+     * 获取等待被{@link #tick()}接收的任务数量,是一个近似值.
+     *
+     * @return 队列深度
+     */
+    public final long getPendingTaskCount() {
+        return pendingTasks.size();
+    }
+
+    /**
+     * 获取最近一次{@link #tick()}接收的任务数量.
+     *
+     * @return 任务数量
+     */
+    public final int getLastDrainedTaskCount() {
+        return lastDrainedTaskCount;
     }
 
 }
@@ -0,0 +1,48 @@
+package com.egls.server.utils.task.schedule;
+
+/**
+ * 调度任务的句柄,由{@link TimingWheelScheduledTaskManager#schedule(long, ScheduledTask)}返回.
+ * 持有者可以通过句柄查询任务状态,或者在任务执行之前取消任务.
+ * <p>
+ * 本接口的实现是线程安全的.
+ *
+ * @author mayer - [Created on 2026-10-18 10:12]
+ */
+public interface ScheduledTaskHandle {
+
+    /**
+     * 获取被调度的任务
+     *
+     * @return 任务
+     */
+    ScheduledTask getScheduledTask();
+
+    /**
+     * 获取任务预计执行的时间点
+     *
+     * @return 毫秒时间戳
+     */
+    long getExecuteTime();
+
+    /**
+     * 取消任务.只有尚未执行的任务才可以被取消.
+     *
+     * @return true 取消成功, false 任务已经执行或者已经被取消
+     */
+    boolean cancel();
+
+    /**
+     * 任务是否已经被取消
+     *
+     * @return true 已取消
+     */
+    boolean isCancelled();
+
+    /**
+     * 任务是否已经执行(无论执行是否出现异常)
+     *
+     * @return true 已执行
+     */
+    boolean isExpired();
+
+}
@@ -1,13 +1,11 @@
 package com.egls.server.utils.task.schedule;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
+import java.util.function.Consumer;
 
+import com.egls.server.utils.concurrent.MpscLinkedQueue;
 import com.egls.server.utils.function.Ticker;
 import com.egls.server.utils.structure.SortedList;
-import com.google.common.collect.Lists;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +14,8 @@ import org.slf4j.LoggerFactory;
  * 实现{@link ScheduledTask}的运行和生命周期管理.
  * 方法 {@link #tick()} 的调用间隔必须是毫秒级.
  * <p>
+ * 任务数量很大时,插入的开销较高,可以使用{@link TimingWheelScheduledTaskManager}.
+ * <p>
  * 本类是线程安全的.
  *
  * @author mayer - [Created on 2018-09-29 14:58]
@@ -57,11 +57,16 @@ public class ScheduledTaskManager implements Ticker {
 
     private final Object doLock = new Object();
 
-    private final Object putLock = new Object();
-
     private final SortedList<ScheduledTaskWrapper> tasks = new SortedList<>();
 
-    private final List<ScheduledTaskWrapper> pendingTasks = new ArrayList<>();
+    private final MpscLinkedQueue<ScheduledTaskWrapper> pendingTasks = new MpscLinkedQueue<>();
+
+    /**
+     * 因为任务只运行1次,所以不像周期任务一样进行去重了.
+     */
+    private final Consumer<ScheduledTaskWrapper> pendingTaskConsumer = tasks::add;
+
+    private volatile int lastDrainedTaskCount = 0;
 
     private final long warningElapsedMilliseconds;
 
@@ -100,32 +105,36 @@ public class ScheduledTaskManager implements Ticker {
     }
 
     private void addPendingTask() {
-        List<ScheduledTaskWrapper> list = Collections.emptyList();
-        synchronized (putLock) {
-            if (!pendingTasks.isEmpty()) {
-                list = Lists.newArrayList(pendingTasks);
-                pendingTasks.clear();
-            }
-        }
-
+        //队列只允许一个消费者,所以在doLock域中消费
         synchronized (doLock) {
-            if (!list.isEmpty()) {
-                for (ScheduledTaskWrapper scheduledTaskWrapper : list) {
-                    //因为任务只运行1次,所以不像周期任务一样进行去重了.
-                    tasks.add(scheduledTaskWrapper);
-                }
-            }
+            lastDrainedTaskCount = pendingTasks.drain(pendingTaskConsumer);
         }
     }
 
     public void schedule(final long delayMills, final ScheduledTask scheduledTask) {
-        synchronized (putLock) {
-            pendingTasks.add(new ScheduledTaskWrapper(delayMills, scheduledTask));
-        }
+        pendingTasks.offer(new ScheduledTaskWrapper(delayMills, scheduledTask));
     }
 
     public void schedule(final ScheduledTask scheduledTask) {
         schedule(0L, scheduledTask);
     }
 
+    /**
+     * 获取等待被{@link #tick()}接收的任务数量,是一个近似值.
+     *
+     * @return 队列深度
+     */
+    public long getPendingTaskCount() {
+        return pendingTasks.size();
+    }
+
+    /**
+     * 获取最近一次{@link #tick()}接收的任务数量.
+     *
+     * @return 任务数量
+     */
+    public int getLastDrainedTaskCount() {
+        return lastDrainedTaskCount;
+    }
+
 }
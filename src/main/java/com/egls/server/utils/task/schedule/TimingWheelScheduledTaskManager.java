@@ -0,0 +1,383 @@
+package com.egls.server.utils.task.schedule;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+import com.egls.server.utils.concurrent.MpscLinkedQueue;
+import com.egls.server.utils.function.Ticker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ *     基于分层时间轮(Hierarchical Timing Wheel)实现{@link ScheduledTask}的运行和生命周期管理.
+ *     与{@link ScheduledTaskManager}的区别是,本类调度和取消任务的时间复杂度都是O(1),适用于大量延时任务的场景.
+ *
+ *     时间轮由多层组成,第0层每个格子代表一个tick,第n层每个格子代表第n-1层转一整圈的时间.
+ *     任务根据剩余的tick数放入合适的层,当低层转完一圈时,高层当前格子中的任务会被降级到低层.
+ *     超出最高层范围的任务会被放入最高层,每转一圈重新计算一次.
+ *
+ *     tick的精度和每层的格子数都可以配置,格子数会被调整为2的幂.
+ *     方法 {@link #tick()} 的调用间隔必须是毫秒级.
+ *
+ *     本类是线程安全的.
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 10:20]
+ */
+public class TimingWheelScheduledTaskManager implements Ticker {
+
+    private static final int STATE_INIT = 0;
+
+    private static final int STATE_CANCELLED = 1;
+
+    private static final int STATE_EXPIRED = 2;
+
+    private static final AtomicIntegerFieldUpdater<TimingWheelTask> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(TimingWheelTask.class, "state");
+
+    /**
+     * 对调度任务进行一下包装,同时作为时间轮格子中双向链表的节点
+     */
+    private final class TimingWheelTask implements ScheduledTaskHandle {
+
+        private final long executeTime;
+
+        private final ScheduledTask scheduledTask;
+
+        volatile int state = STATE_INIT;
+
+        private long deadlineTick;
+
+        private TimingWheelBucket bucket;
+
+        private TimingWheelTask prev;
+
+        private TimingWheelTask next;
+
+        private TimingWheelTask(final long delayMills, final ScheduledTask scheduledTask) {
+            this.executeTime = System.currentTimeMillis() + delayMills;
+            this.scheduledTask = scheduledTask;
+            //向上取整,保证任务不会提前执行
+            final long elapsed = Math.max(0L, executeTime - startTime);
+            this.deadlineTick = (elapsed + tickMilliseconds - 1) / tickMilliseconds;
+        }
+
+        @Override
+        public ScheduledTask getScheduledTask() {
+            return scheduledTask;
+        }
+
+        @Override
+        public long getExecuteTime() {
+            return executeTime;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (STATE_UPDATER.compareAndSet(this, STATE_INIT, STATE_CANCELLED)) {
+                cancelledTasks.offer(this);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == STATE_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == STATE_EXPIRED;
+        }
+
+    }
+
+    /**
+     * 时间轮的一个格子,内部是任务组成的双向链表.只能在doLock域中使用.
+     */
+    private static final class TimingWheelBucket {
+
+        private TimingWheelTask head;
+
+        private TimingWheelTask tail;
+
+        private void add(final TimingWheelTask task) {
+            task.bucket = this;
+            if (head == null) {
+                head = tail = task;
+            } else {
+                tail.next = task;
+                task.prev = tail;
+                tail = task;
+            }
+        }
+
+        private void remove(final TimingWheelTask task) {
+            final TimingWheelTask prev = task.prev;
+            final TimingWheelTask next = task.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+
+        /**
+         * 清空格子,返回原链表的头节点
+         */
+        private TimingWheelTask clear() {
+            final TimingWheelTask first = head;
+            head = tail = null;
+            return first;
+        }
+
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheelScheduledTaskManager.class);
+
+    private static final long DEFAULT_TICK_MILLISECONDS = 1L;
+
+    /**
+     * 默认4层,1毫秒精度时第0层256毫秒,总共可以覆盖约18.6小时.
+     */
+    private static final int[] DEFAULT_WHEEL_SIZES = new int[]{256, 64, 64, 64};
+
+    private final Object doLock = new Object();
+
+    private final MpscLinkedQueue<TimingWheelTask> pendingTasks = new MpscLinkedQueue<>();
+
+    private final MpscLinkedQueue<TimingWheelTask> cancelledTasks = new MpscLinkedQueue<>();
+
+    private final Consumer<TimingWheelTask> pendingTaskConsumer = this::addPendingTask;
+
+    private final Consumer<TimingWheelTask> cancelledTaskConsumer = this::removeCancelledTask;
+
+    private volatile int lastDrainedTaskCount = 0;
+
+    private final long warningElapsedMilliseconds;
+
+    private final long tickMilliseconds;
+
+    private final long startTime;
+
+    private final TimingWheelBucket[][] wheels;
+
+    /**
+     * 每层格子索引的掩码
+     */
+    private final int[] masks;
+
+    /**
+     * 每层一个格子代表的tick数是 1 << shifts[level]
+     */
+    private final int[] shifts;
+
+    /**
+     * 已经处理过的tick,只能在doLock域中修改
+     */
+    private long currentTick = 0L;
+
+    private volatile int taskCount = 0;
+
+    public TimingWheelScheduledTaskManager(final long warningElapsedMilliseconds) {
+        this(warningElapsedMilliseconds, DEFAULT_TICK_MILLISECONDS, DEFAULT_WHEEL_SIZES);
+    }
+
+    /**
+     * @param warningElapsedMilliseconds 任务执行时间超过此值会打印警告
+     * @param tickMilliseconds           时间轮的精度,每个tick代表的毫秒数
+     * @param wheelSizes                 从低到高每层的格子数,会被调整为2的幂
+     */
+    public TimingWheelScheduledTaskManager(final long warningElapsedMilliseconds, final long tickMilliseconds, final int... wheelSizes) {
+        if (tickMilliseconds <= 0) {
+            throw new IllegalArgumentException("tickMilliseconds must be positive." + tickMilliseconds);
+        }
+        if (wheelSizes == null || wheelSizes.length == 0) {
+            throw new IllegalArgumentException("wheelSizes can't be empty");
+        }
+        this.warningElapsedMilliseconds = warningElapsedMilliseconds;
+        this.tickMilliseconds = tickMilliseconds;
+        this.startTime = System.currentTimeMillis();
+        this.wheels = new TimingWheelBucket[wheelSizes.length][];
+        this.masks = new int[wheelSizes.length];
+        this.shifts = new int[wheelSizes.length + 1];
+        for (int level = 0; level < wheelSizes.length; level++) {
+            final int wheelSize = normalizeWheelSize(wheelSizes[level]);
+            masks[level] = wheelSize - 1;
+            shifts[level + 1] = shifts[level] + Integer.numberOfTrailingZeros(wheelSize);
+            if (shifts[level + 1] >= Long.SIZE - 1) {
+                throw new IllegalArgumentException("wheelSizes too large!");
+            }
+            wheels[level] = new TimingWheelBucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                wheels[level][i] = new TimingWheelBucket();
+            }
+        }
+    }
+
+    private static int normalizeWheelSize(final int wheelSize) {
+        if (wheelSize <= 1 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheel size must be in range (1, 2^30]." + wheelSize);
+        }
+        return Integer.bitCount(wheelSize) == 1 ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+    }
+
+    @Override
+    public void tick() {
+        synchronized (doLock) {
+            transferTasks();
+
+            final long targetTick = (System.currentTimeMillis() - startTime) / tickMilliseconds;
+            if (taskCount == 0 && currentTick < targetTick) {
+                //没有任务的时候,直接跳过空转
+                currentTick = targetTick;
+            }
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                final TimingWheelBucket bucket = wheels[0][(int) (currentTick & masks[0])];
+                expire(bucket.clear());
+            }
+        }
+    }
+
+    /**
+     * 高层的格子到期时,将其中的任务降级到低层.从高到低进行,保证降级的任务可以逐层落到正确的位置.
+     */
+    private void cascade() {
+        for (int level = wheels.length - 1; level > 0; level--) {
+            if ((currentTick & ((1L << shifts[level]) - 1)) != 0) {
+                continue;
+            }
+            final int index = (int) ((currentTick >>> shifts[level]) & masks[level]);
+            TimingWheelTask task = wheels[level][index].clear();
+            while (task != null) {
+                final TimingWheelTask next = task.next;
+                task.prev = null;
+                task.next = null;
+                task.bucket = null;
+                place(task);
+                task = next;
+            }
+        }
+    }
+
+    private void expire(TimingWheelTask task) {
+        while (task != null) {
+            final TimingWheelTask next = task.next;
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+            taskCount--;
+            if (STATE_UPDATER.compareAndSet(task, STATE_INIT, STATE_EXPIRED)) {
+                execute(task);
+            }
+            task = next;
+        }
+    }
+
+    private void execute(final TimingWheelTask task) {
+        try {
+            final long milliseconds = System.currentTimeMillis();
+            task.scheduledTask.execute();
+            final long cost = System.currentTimeMillis() - milliseconds;
+            if (cost >= warningElapsedMilliseconds) {
+                LOGGER.warn(String.format("ScheduledTask %s elapsed %d millis", task.scheduledTask.getScheduledTaskName(), cost));
+            }
+        } catch (Exception e) {
+            LOGGER.error("Exception in ScheduledTask " + task.scheduledTask.getScheduledTaskName(), e);
+        }
+    }
+
+    /**
+     * 根据剩余的tick数,选择合适的层和格子放入任务
+     */
+    private void place(final TimingWheelTask task) {
+        final long delta = task.deadlineTick - currentTick;
+        int level = 0;
+        while (level < wheels.length - 1 && delta >= (1L << shifts[level + 1])) {
+            level++;
+        }
+        final int index = (int) ((task.deadlineTick >>> shifts[level]) & masks[level]);
+        wheels[level][index].add(task);
+    }
+
+    private void transferTasks() {
+        lastDrainedTaskCount = pendingTasks.drain(pendingTaskConsumer);
+        cancelledTasks.drain(cancelledTaskConsumer);
+    }
+
+    private void addPendingTask(final TimingWheelTask task) {
+        if (task.state != STATE_INIT) {
+            return;
+        }
+        //已经处理过的tick不会再被处理,过期的任务放到下一个tick
+        task.deadlineTick = Math.max(task.deadlineTick, currentTick + 1);
+        place(task);
+        taskCount++;
+    }
+
+    private void removeCancelledTask(final TimingWheelTask task) {
+        if (task.bucket != null) {
+            task.bucket.remove(task);
+            taskCount--;
+        }
+    }
+
+    /**
+     * 调度一个任务
+     *
+     * @param delayMills    延迟的毫秒数
+     * @param scheduledTask 任务
+     * @return 任务的句柄, 可以用来取消任务
+     */
+    public ScheduledTaskHandle schedule(final long delayMills, final ScheduledTask scheduledTask) {
+        Objects.requireNonNull(scheduledTask);
+        final TimingWheelTask task = new TimingWheelTask(delayMills, scheduledTask);
+        pendingTasks.offer(task);
+        return task;
+    }
+
+    public ScheduledTaskHandle schedule(final ScheduledTask scheduledTask) {
+        return schedule(0L, scheduledTask);
+    }
+
+    /**
+     * 获取时间轮中的任务数量,不包括还没有被{@link #tick()}接收的任务.
+     *
+     * @return 任务数量
+     */
+    public int size() {
+        return taskCount;
+    }
+
+    /**
+     * 获取等待被{@link #tick()}接收的任务数量,是一个近似值.
+     *
+     * @return 队列深度
+     */
+    public long getPendingTaskCount() {
+        return pendingTasks.size();
+    }
+
+    /**
+     * 获取最近一次{@link #tick()}接收的任务数量.
+     *
+     * @return 任务数量
+     */
+    public int getLastDrainedTaskCount() {
+        return lastDrainedTaskCount;
+    }
+
+}
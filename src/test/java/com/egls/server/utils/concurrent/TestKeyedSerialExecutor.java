@@ -0,0 +1,116 @@
+package com.egls.server.utils.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-19 07:00]
+ */
+public class TestKeyedSerialExecutor {
+
+    /**
+     * 前rejections次execute被拒绝,第一次拒绝之前等待entered和release,之后在调用线程中直接执行
+     */
+    private static final class RejectingExecutor implements Executor {
+
+        final AtomicInteger rejections;
+
+        final CountDownLatch entered = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        RejectingExecutor(final int rejections) {
+            this.rejections = new AtomicInteger(rejections);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if (rejections.getAndDecrement() > 0) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new RejectedExecutionException();
+            }
+            command.run();
+        }
+
+    }
+
+    @Test
+    public void test0() {
+        final List<Integer> results = new CopyOnWriteArrayList<>();
+        final KeyedSerialExecutor executor = new KeyedSerialExecutor(Runnable::run);
+        for (int i = 0; i < 10; i++) {
+            final int value = i;
+            executor.execute(i % 2, () -> results.add(value));
+        }
+        Assert.assertEquals(10, results.size());
+        Assert.assertEquals(0, executor.getActiveLaneCount());
+    }
+
+    @Test
+    public void testRejectRetry() throws InterruptedException {
+        //第一个提交者被拒绝,第二个提交者在这期间排入的任务由重试执行
+        final RejectingExecutor rejectingExecutor = new RejectingExecutor(1);
+        final KeyedSerialExecutor executor = new KeyedSerialExecutor(rejectingExecutor);
+        final List<String> results = new CopyOnWriteArrayList<>();
+        final AtomicInteger rejected = new AtomicInteger();
+        final Thread first = new Thread(() -> {
+            try {
+                executor.execute("key", () -> results.add("first"));
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+            }
+        });
+        first.start();
+        Assert.assertTrue(rejectingExecutor.entered.await(5, TimeUnit.SECONDS));
+        executor.execute("key", () -> results.add("second"));
+        rejectingExecutor.release.countDown();
+        first.join();
+
+        Assert.assertEquals(1, rejected.get());
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals("second", results.get(0));
+        Assert.assertEquals(0, executor.getActiveLaneCount());
+    }
+
+    @Test
+    public void testRejectPending() throws InterruptedException {
+        //重试也被拒绝时,排入的任务保留到这个键的下一次提交
+        final RejectingExecutor rejectingExecutor = new RejectingExecutor(2);
+        final KeyedSerialExecutor executor = new KeyedSerialExecutor(rejectingExecutor);
+        final List<String> results = new CopyOnWriteArrayList<>();
+        final Thread first = new Thread(() -> {
+            try {
+                executor.execute("key", () -> results.add("first"));
+                Assert.fail();
+            } catch (RejectedExecutionException ignore) {
+            }
+        });
+        first.start();
+        Assert.assertTrue(rejectingExecutor.entered.await(5, TimeUnit.SECONDS));
+        executor.execute("key", () -> results.add("second"));
+        rejectingExecutor.release.countDown();
+        first.join();
+
+        Assert.assertTrue(results.isEmpty());
+        Assert.assertEquals(1, executor.getActiveLaneCount());
+        executor.execute("key", () -> results.add("third"));
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals("second", results.get(0));
+        Assert.assertEquals("third", results.get(1));
+        Assert.assertEquals(0, executor.getActiveLaneCount());
+    }
+
+}
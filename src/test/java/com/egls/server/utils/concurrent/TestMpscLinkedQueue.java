@@ -0,0 +1,74 @@
+package com.egls.server.utils.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-18 12:10]
+ */
+public class TestMpscLinkedQueue {
+
+    @Test
+    public void test0() {
+        final MpscLinkedQueue<Integer> queue = new MpscLinkedQueue<>();
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertNull(queue.poll());
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+        Assert.assertEquals(10, queue.size());
+        Assert.assertEquals(Integer.valueOf(0), queue.poll());
+
+        final List<Integer> list = new ArrayList<>();
+        Assert.assertEquals(3, queue.drain(list::add, 3));
+        Assert.assertEquals(6, queue.drain(list::add));
+        Assert.assertEquals(0, queue.drain(list::add));
+        for (int i = 0; i < list.size(); i++) {
+            Assert.assertEquals(Integer.valueOf(i + 1), list.get(i));
+        }
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void test1() throws InterruptedException {
+        final int producers = 4;
+        final int count = 100000;
+        final MpscLinkedQueue<long[]> queue = new MpscLinkedQueue<>();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch finishLatch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            new Thread(() -> {
+                try {
+                    startLatch.await();
+                    for (int i = 0; i < count; i++) {
+                        queue.offer(new long[]{producer, i});
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finishLatch.countDown();
+                }
+            }).start();
+        }
+
+        //每个生产者的元素必须保持顺序
+        final long[] expected = new long[producers];
+        final int[] received = new int[1];
+        startLatch.countDown();
+        while (finishLatch.getCount() > 0 || !queue.isEmpty()) {
+            queue.drain(pair -> {
+                Assert.assertEquals(expected[(int) pair[0]]++, pair[1]);
+                received[0]++;
+            });
+        }
+        Assert.assertEquals(producers * count, received[0]);
+        Assert.assertEquals(0, queue.size());
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.egls.server.utils.databind.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import com.egls.server.utils.geometry.Point3D;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * <pre>
+ *     比较{@link Serializer}和{@link BinarySerializer}的性能和序列化后的大小.
+ *     参数: [每轮的次数] [轮数]
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 18:00]
+ */
+public class BinarySerializationBenchmark {
+
+    private static final class Data implements Serializable, BinarySerializable {
+
+        private int id;
+        private long time;
+        private String name;
+        private int[] ints;
+        private Point3D point;
+
+        @Override
+        public String serialize() {
+            final Serializer serializer = new Serializer();
+            serializer.add(id);
+            serializer.add(time);
+            serializer.add(name);
+            serializer.add(ints);
+            serializer.add(point);
+            return serializer.serialize();
+        }
+
+        @Override
+        public void deserialize(final String serializedString) {
+            final Serializer serializer = new Serializer(serializedString);
+            id = serializer.getInt();
+            time = serializer.getLong();
+            name = serializer.getString();
+            ints = serializer.getIntPrimitiveArray();
+            point = serializer.getSerializableObject(Point3D.class);
+        }
+
+        @Override
+        public void serialize(final BinarySerializer serializer) {
+            serializer.writeInt(id);
+            serializer.writeLong(time);
+            serializer.writeString(name);
+            serializer.writeIntPrimitiveArray(ints);
+            serializer.writeBinarySerializable(point);
+        }
+
+        @Override
+        public void deserialize(final BinarySerializer serializer) {
+            id = serializer.readInt();
+            time = serializer.readLong();
+            name = serializer.readString();
+            ints = serializer.getIntPrimitiveArray();
+            point = serializer.getBinarySerializableObject(Point3D.class);
+        }
+
+    }
+
+    private static int COUNT;
+    private static int ROUNDS;
+
+    private static long blackHole;
+
+    public static void main(final String[] args) {
+        if (ArrayUtils.isEmpty(args)) {
+            COUNT = 200000;
+            ROUNDS = 5;
+        } else {
+            COUNT = Integer.parseInt(args[0]);
+            ROUNDS = Integer.parseInt(args[1]);
+        }
+
+        final Random random = new Random(0L);
+        final Data data = new Data();
+        data.id = random.nextInt(1000000);
+        data.time = System.currentTimeMillis();
+        data.name = "animals飞机";
+        data.ints = new int[32];
+        for (int i = 0; i < data.ints.length; i++) {
+            data.ints[i] = random.nextInt();
+        }
+        data.point = new Point3D(random.nextDouble() * 1000, random.nextDouble() * 1000, random.nextDouble() * 1000);
+
+        final java.nio.ByteBuffer nioBuffer = java.nio.ByteBuffer.allocate(4096);
+        final BinarySerializer nioSerializer = new BinarySerializer(nioBuffer);
+
+        System.out.format("text size %d bytes, binary size %d bytes\n",
+                data.serialize().getBytes(StandardCharsets.UTF_8).length, BinarySerializer.serialize(data).length);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.println("*** Run - " + round);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                final Data other = new Data();
+                other.deserialize(data.serialize());
+                blackHole += other.id;
+            }
+            final long textNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                final Data other = BinarySerializer.deserialize(BinarySerializer.serialize(data), Data.class);
+                blackHole += other.id;
+            }
+            final long binaryNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                nioBuffer.clear();
+                data.serialize(nioSerializer);
+                nioBuffer.flip();
+                final Data other = new Data();
+                other.deserialize(nioSerializer);
+                blackHole += other.id;
+            }
+            final long nioNanos = System.nanoTime() - start;
+
+            System.out.format("round trip text %8.1f ns/op | binary %8.1f ns/op | binary reused nio buffer %8.1f ns/op\n",
+                    (double) textNanos / COUNT, (double) binaryNanos / COUNT, (double) nioNanos / COUNT);
+        }
+        System.out.println(blackHole);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.egls.server.utils.databind.serialization;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * <pre>
+ *     比较{@link Serializer}和{@link SerializedReader}反序列化多层嵌套对象的性能.
+ *     参数: [每轮的次数] [轮数] [深度] [宽度]
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 19:05]
+ */
+public class SerializedReaderBenchmark {
+
+    private static int COUNT;
+    private static int ROUNDS;
+    private static int DEPTH;
+    private static int WIDTH;
+
+    private static long blackHole;
+
+    public static void main(final String[] args) {
+        if (ArrayUtils.isEmpty(args)) {
+            COUNT = 2000;
+            ROUNDS = 5;
+            DEPTH = 6;
+            WIDTH = 3;
+        } else {
+            COUNT = Integer.parseInt(args[0]);
+            ROUNDS = Integer.parseInt(args[1]);
+            DEPTH = Integer.parseInt(args[2]);
+            WIDTH = Integer.parseInt(args[3]);
+        }
+
+        final String serializedString = TestSerializedReader.newTree(DEPTH, WIDTH).serialize();
+        System.out.format("depth %d width %d length %d\n", DEPTH, WIDTH, serializedString.length());
+
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.println("*** Run - " + round);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                blackHole += Serializer.deserialize(serializedString, TestSerializedReader.Node.class).hashCode();
+            }
+            final long serializerNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                blackHole += SerializedReader.deserialize(serializedString, TestSerializedReader.Node.class).hashCode();
+            }
+            final long readerNanos = System.nanoTime() - start;
+
+            System.out.format("Serializer %10.1f us/op | SerializedReader %10.1f us/op\n",
+                    serializerNanos / 1000.0 / COUNT, readerNanos / 1000.0 / COUNT);
+        }
+        System.out.println(blackHole);
+    }
+
+}
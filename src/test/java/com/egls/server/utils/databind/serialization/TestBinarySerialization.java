@@ -0,0 +1,366 @@
+package com.egls.server.utils.databind.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import com.egls.server.utils.geometry.Point2D;
+import com.egls.server.utils.geometry.Point3D;
+import com.egls.server.utils.structure.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author mayer - [Created on 2026-10-18 17:50]
+ */
+public class TestBinarySerialization {
+
+    private enum TestEnum {
+        test1, test2, test3, test4
+    }
+
+    public static class BinaryData implements BinarySerializable {
+
+        private int id;
+
+        private String name;
+
+        private long[] values;
+
+        private Point2D point;
+
+        private List<BinaryData> children = new ArrayList<>();
+
+        public BinaryData() {
+        }
+
+        BinaryData(final int id, final String name, final long[] values, final Point2D point) {
+            this.id = id;
+            this.name = name;
+            this.values = values;
+            this.point = point;
+        }
+
+        @Override
+        public void serialize(final BinarySerializer serializer) {
+            serializer.writeInt(id);
+            serializer.writeString(name);
+            serializer.writeLongPrimitiveArray(values);
+            serializer.writeBinarySerializable(point);
+            serializer.add(children);
+        }
+
+        @Override
+        public void deserialize(final BinarySerializer serializer) {
+            id = serializer.readInt();
+            name = serializer.readString();
+            values = serializer.getLongPrimitiveArray();
+            point = serializer.getBinarySerializableObject(Point2D.class);
+            children = serializer.getArrayList(BinaryData.class);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final BinaryData that = (BinaryData) o;
+            return id == that.id && Objects.equals(name, that.name) && Arrays.equals(values, that.values)
+                    && Objects.equals(point, that.point) && Objects.equals(children, that.children);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name, point);
+        }
+
+    }
+
+    private static List<BinarySerializer> newSerializers(final ByteBuffer buffer, final java.nio.ByteBuffer nioBuffer) {
+        return Arrays.asList(new BinarySerializer(buffer), new BinarySerializer(nioBuffer));
+    }
+
+    @Test
+    public void testPrimitive() {
+        final ByteBuffer buffer = new ByteBuffer();
+        final java.nio.ByteBuffer nioBuffer = java.nio.ByteBuffer.allocate(1024);
+        for (BinarySerializer serializer : newSerializers(buffer, nioBuffer)) {
+            serializer.writeByte((byte) -1);
+            serializer.writeBoolean(true);
+            serializer.writeChar('喔');
+            serializer.writeShort(Short.MIN_VALUE);
+            serializer.writeInt(-1);
+            serializer.writeInt(Integer.MAX_VALUE);
+            serializer.writeLong(Long.MIN_VALUE);
+            serializer.writeFloat(Float.NaN);
+            serializer.writeDouble(-0.5);
+            serializer.add((byte) 1);
+            serializer.add(true);
+            serializer.add('a');
+            serializer.add((short) 1);
+            serializer.add(1);
+            serializer.add(1L);
+            serializer.add(1.0f);
+            serializer.add(1.0);
+            serializer.add(TestEnum.test3);
+            serializer.add(null);
+            serializer.add(null);
+        }
+        nioBuffer.flip();
+        for (BinarySerializer serializer : newSerializers(buffer, nioBuffer)) {
+            assertEquals((byte) -1, serializer.readByte());
+            assertTrue(serializer.readBoolean());
+            assertEquals('喔', serializer.readChar());
+            assertEquals(Short.MIN_VALUE, serializer.readShort());
+            assertEquals(-1, serializer.readInt());
+            assertEquals(Integer.MAX_VALUE, serializer.readInt());
+            assertEquals(Long.MIN_VALUE, serializer.readLong());
+            assertTrue(Float.isNaN(serializer.readFloat()));
+            assertEquals(-0.5, serializer.readDouble(), 0.0);
+            assertEquals(Byte.valueOf((byte) 1), serializer.getByte());
+            assertEquals(Boolean.TRUE, serializer.getBoolean());
+            assertEquals(Character.valueOf('a'), serializer.getChar());
+            assertEquals(Short.valueOf((short) 1), serializer.getShort());
+            assertEquals(Integer.valueOf(1), serializer.getInt());
+            assertEquals(Long.valueOf(1L), serializer.getLong());
+            assertEquals(Float.valueOf(1.0f), serializer.getFloat());
+            assertEquals(Double.valueOf(1.0), serializer.getDouble());
+            assertSame(TestEnum.test3, serializer.getEnum(TestEnum.class));
+            assertNull(serializer.getInt());
+            assertNull(serializer.getEnum(TestEnum.class));
+            assertFalse(serializer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testArray() {
+        final boolean[] booleans = new boolean[]{true, false, true, true, false, false, false, true, true, false};
+        final char[] chars = new char[]{'a', '喔', Character.MAX_VALUE};
+        final short[] shorts = new short[]{1, -2, Short.MAX_VALUE};
+        final int[] ints = new int[]{1, -2, Integer.MIN_VALUE};
+        final long[] longs = new long[]{1, -2, Long.MAX_VALUE};
+        final float[] floats = new float[]{1.0f, -2.5f};
+        final double[] doubles = new double[]{1.0, -2.5};
+        final Integer[] integers = new Integer[]{null, 1, null, 2};
+        final String[] strings = new String[]{"", null, "null", "飞机撒开}{绿灯飞机分", "😀"};
+        final TestEnum[] enums = new TestEnum[]{null, TestEnum.test1, TestEnum.test4};
+
+        final ByteBuffer buffer = new ByteBuffer();
+        final java.nio.ByteBuffer nioBuffer = java.nio.ByteBuffer.allocateDirect(1024);
+        for (BinarySerializer serializer : newSerializers(buffer, nioBuffer)) {
+            serializer.add(new byte[]{1, 2, 3});
+            serializer.add(booleans);
+            serializer.add(chars);
+            serializer.add(shorts);
+            serializer.add(ints);
+            serializer.add(longs);
+            serializer.add(floats);
+            serializer.add(doubles);
+            serializer.add(new int[0]);
+            serializer.writeIntPrimitiveArray(null);
+            serializer.add(integers);
+            serializer.add(strings);
+            serializer.add(enums);
+        }
+        nioBuffer.flip();
+        for (BinarySerializer serializer : newSerializers(buffer, nioBuffer)) {
+            assertArrayEquals(new byte[]{1, 2, 3}, serializer.getBytePrimitiveArray());
+            assertArrayEquals(booleans, serializer.getBooleanPrimitiveArray());
+            assertArrayEquals(chars, serializer.getCharPrimitiveArray());
+            assertArrayEquals(shorts, serializer.getShortPrimitiveArray());
+            assertArrayEquals(ints, serializer.getIntPrimitiveArray());
+            assertArrayEquals(longs, serializer.getLongPrimitiveArray());
+            assertArrayEquals(floats, serializer.getFloatPrimitiveArray(), 0);
+            assertArrayEquals(doubles, serializer.getDoublePrimitiveArray(), 0);
+            assertArrayEquals(new int[0], serializer.getIntPrimitiveArray());
+            assertNull(serializer.getIntPrimitiveArray());
+            assertArrayEquals(integers, serializer.getIntObjectArray());
+            assertArrayEquals(strings, serializer.getStringArray());
+            assertArrayEquals(enums, serializer.getEnumArray(TestEnum.class));
+            assertFalse(serializer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testNioByteOrder() {
+        final java.nio.ByteBuffer nioBuffer = java.nio.ByteBuffer.allocate(64).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        final BinarySerializer serializer = new BinarySerializer(nioBuffer);
+        serializer.add(0x01020304);
+        serializer.add(new int[]{5, 6});
+        assertEquals(java.nio.ByteOrder.LITTLE_ENDIAN, nioBuffer.order());
+        final int position = nioBuffer.position();
+        assertTrue(position > 0);
+
+        nioBuffer.flip();
+        final BinarySerializer reader = new BinarySerializer(nioBuffer);
+        assertEquals(Integer.valueOf(0x01020304), reader.getInt());
+        assertArrayEquals(new int[]{5, 6}, reader.getIntPrimitiveArray());
+        assertEquals(position, nioBuffer.position());
+        assertEquals(java.nio.ByteOrder.LITTLE_ENDIAN, nioBuffer.order());
+    }
+
+    @Test
+    public void testCollection() {
+        final List<String> list = Arrays.asList("animals", null, "飞机撒开}{绿灯飞机分");
+        final Map<String, Integer> map = new LinkedHashMap<>();
+        map.put("1}", 1);
+        map.put(null, 2);
+        map.put("3", null);
+
+        final ByteBuffer buffer = new ByteBuffer();
+        final BinarySerializer serializer = new BinarySerializer(buffer);
+        serializer.add(list);
+        serializer.add(new HashSet<>(list));
+        serializer.add(map);
+        serializer.add((Object) null);
+
+        assertEquals(list, serializer.getLinkedList(String.class));
+        assertEquals(new HashSet<>(list), serializer.getHashSet(String.class));
+        assertEquals(map, serializer.getLinkedHashMap(String.class, Integer.class));
+        assertNull(serializer.getArrayList(String.class));
+    }
+
+    @Test
+    public void testSerializable() {
+        final BinaryData data = new BinaryData(1, "root", new long[]{1, 2, 3}, new Point2D(1.5, 3.5));
+        data.children.add(new BinaryData(2, null, null, null));
+        data.children.add(new BinaryData(-3, "飞机", new long[0], new Point2D(-1, -2)));
+
+        final BinaryData other = BinarySerializer.clone(data);
+        assertNotSame(data, other);
+        assertEquals(data, other);
+
+        final Point3D point = new Point3D(1.25, -2.25, 3.25);
+        assertEquals(point, BinarySerializer.deserialize(BinarySerializer.serialize(point), Point3D.class));
+
+        //文本的序列化对象写入它的字符串
+        final ByteBuffer buffer = new ByteBuffer();
+        final BinarySerializer serializer = new BinarySerializer(buffer);
+        final SerializableData serializableData = new SerializableData();
+        serializer.add(new SerializableData[]{null, serializableData});
+        assertArrayEquals(new SerializableData[]{null, serializableData}, serializer.getSerializeObjectArray(SerializableData.class));
+    }
+
+    @Test
+    public void testSize() {
+        final BinaryData data = new BinaryData(123456, "animals", new long[]{1000000L, 20000000L, 1700000000000L, -5000000000L}, new Point2D(1234.567, -765.4321));
+        final Serializer serializer = new Serializer();
+        serializer.add(data.id);
+        serializer.add(data.name);
+        serializer.add(data.values);
+        serializer.add(data.point);
+        serializer.add(new ArrayList<>());
+        final int textSize = serializer.serialize().getBytes(StandardCharsets.UTF_8).length;
+        final int binarySize = BinarySerializer.serialize(data).length;
+        assertTrue(binarySize + " >= " + textSize, binarySize < textSize);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnderflow() {
+        final BinarySerializer serializer = new BinarySerializer(java.nio.ByteBuffer.wrap(new byte[]{5, 1}));
+        serializer.getLongPrimitiveArray();
+    }
+
+    @Test
+    public void testMalformedVarInt() {
+        final ByteBuffer buffer = new ByteBuffer();
+        final BinarySerializer serializer = new BinarySerializer(buffer);
+        serializer.writeVarInt(-1);
+        serializer.writeVarLong(-1L);
+        assertEquals(-1, serializer.readVarInt());
+        assertEquals(-1L, serializer.readVarLong());
+
+        //与ByteBuffer一致,第5个字节的高4位和第10个字节除最低位以外的位不能有数据
+        final byte[][] malformed = {
+                {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x1F},
+                {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x8F, 0x01},
+        };
+        for (byte[] bytes : malformed) {
+            try {
+                new BinarySerializer(java.nio.ByteBuffer.wrap(bytes)).readVarInt();
+                fail();
+            } catch (IllegalStateException ignore) {
+            }
+        }
+        final byte[] malformedLong = new byte[10];
+        Arrays.fill(malformedLong, (byte) 0xFF);
+        malformedLong[9] = 0x03;
+        try {
+            new BinarySerializer(new ByteBuffer(malformedLong)).readVarLong();
+            fail();
+        } catch (IllegalStateException ignore) {
+        }
+    }
+
+    @Test
+    public void testHostileLength() {
+        //长度接近2^31,数据却只有几个字节,分配数组之前就要拒绝
+        final ByteBuffer buffer = new ByteBuffer();
+        new BinarySerializer(buffer).writeVarInt(Integer.MAX_VALUE);
+        buffer.write(new byte[16]);
+        final byte[] bytes = buffer.toByteArray();
+        final List<java.util.function.Consumer<BinarySerializer>> readers = Arrays.asList(
+                BinarySerializer::getBytePrimitiveArray,
+                BinarySerializer::getBooleanPrimitiveArray,
+                BinarySerializer::getCharPrimitiveArray,
+                BinarySerializer::getShortPrimitiveArray,
+                BinarySerializer::getIntPrimitiveArray,
+                BinarySerializer::getLongPrimitiveArray,
+                BinarySerializer::getFloatPrimitiveArray,
+                BinarySerializer::getDoublePrimitiveArray,
+                BinarySerializer::getIntObjectArray,
+                BinarySerializer::getStringArray,
+                serializer -> serializer.getBinarySerializableObjectArray(BinaryData.class));
+        for (java.util.function.Consumer<BinarySerializer> reader : readers) {
+            for (BinarySerializer serializer : Arrays.asList(new BinarySerializer(new ByteBuffer(bytes)), new BinarySerializer(java.nio.ByteBuffer.wrap(bytes)))) {
+                try {
+                    reader.accept(serializer);
+                    fail();
+                } catch (IllegalStateException ignore) {
+                }
+            }
+        }
+
+        //正好足够的数据可以读取
+        final BinarySerializer serializer = new BinarySerializer(java.nio.ByteBuffer.wrap(new byte[]{17, (byte) 0xFF, 1}));
+        final boolean[] array = serializer.getBooleanPrimitiveArray();
+        assertEquals(16, array.length);
+        assertTrue(array[7] && array[8] && !array[9]);
+    }
+
+    @Test
+    public void testCodec() {
+        final Class<java.time.LocalDate> clazz = java.time.LocalDate.class;
+        assertFalse(BinarySerializer.validateSupported(clazz));
+        assertTrue(BinarySerializer.validateSupported(BinaryData[].class));
+        assertFalse(BinarySerializer.validateSupported(Object[].class));
+        try {
+            new BinarySerializer(new ByteBuffer()).add(java.time.LocalDate.of(2018, 9, 3));
+            fail();
+        } catch (com.egls.server.utils.exception.UnsupportedTypeException ignore) {
+        }
+
+        //注册之后缓存的写入和读取方法随之更新
+        SerializationCodecs.register(clazz, SerializationCodec.of(String::valueOf, java.time.LocalDate::parse));
+        try {
+            assertTrue(BinarySerializer.validateSupported(clazz));
+            final java.time.LocalDate date = java.time.LocalDate.of(2018, 9, 3);
+            final BinarySerializer serializer = new BinarySerializer(new ByteBuffer());
+            serializer.add(date);
+            serializer.add(Arrays.asList(date, null));
+            serializer.add(Collections.singletonMap("date", date));
+            assertEquals(date, serializer.getObject(clazz));
+            assertEquals(Arrays.asList(date, null), serializer.getArrayList(clazz));
+            assertEquals(Collections.singletonMap("date", date), serializer.getHashMap(String.class, clazz));
+            assertFalse(serializer.hasRemaining());
+        } finally {
+            SerializationCodecs.unregister(clazz);
+        }
+        assertFalse(BinarySerializer.validateSupported(clazz));
+    }
+
+}
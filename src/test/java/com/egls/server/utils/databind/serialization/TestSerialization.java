@@ -1,8 +1,20 @@
 package com.egls.server.utils.databind.serialization;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -461,5 +473,85 @@ public class TestSerialization {
         Assert.assertArrayEquals(serializableDataArray, serializer.getSerializeObjectArray(SerializableData.class));
     }
 
+    @Test
+    public void testCodec() {
+        final Class<java.time.LocalDate> clazz = java.time.LocalDate.class;
+        assertFalse(Serializer.validateSupported(clazz));
+        SerializationCodecs.register(clazz, SerializationCodec.of(date -> "{" + date + "}", string -> java.time.LocalDate.parse(string.substring(1, string.length() - 1))));
+        try {
+            assertTrue(Serializer.validateSupported(clazz));
+            final java.time.LocalDate date = java.time.LocalDate.of(2018, 9, 3);
+            final Serializer serializer = new Serializer();
+            serializer.add(date);
+            serializer.add(null);
+            serializer.add(Arrays.asList(date, null));
+            serializer.add(1);
+            final String serializedString = serializer.serialize();
+
+            final Serializer other = new Serializer(serializedString);
+            assertEquals(date, other.getObject(clazz));
+            assertNull(other.getObject(clazz));
+            assertEquals(Arrays.asList(date, null), other.getArrayList(clazz));
+            assertEquals(Integer.valueOf(1), other.getInt());
+
+            final SerializedReader reader = new SerializedReader(serializedString);
+            assertEquals(date, reader.getObject(clazz));
+            assertNull(reader.getObject(clazz));
+            assertEquals(Arrays.asList(date, null), reader.getArrayList(clazz));
+            assertEquals(Integer.valueOf(1), reader.getInt());
+        } finally {
+            SerializationCodecs.unregister(clazz);
+        }
+        assertFalse(Serializer.validateSupported(clazz));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCodecDefaultType() {
+        SerializationCodecs.register(Integer.class, SerializationCodec.of(String::valueOf, Integer::valueOf));
+    }
+
+    @Test
+    public void testChildClassLoader() throws Exception {
+        //由子类加载器加载的类,例如热加载的脚本
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        final Path directory = Files.createTempDirectory("serialization");
+        try {
+            final Path source = directory.resolve("p").resolve("Dyn.java");
+            Files.createDirectories(source.getParent());
+            Files.write(source, ("package p;\n"
+                    + "public class Dyn implements " + Serializable.class.getName() + " {\n"
+                    + "    public String value = \"\";\n"
+                    + "    public String serialize() { " + Serializer.class.getName() + " s = new " + Serializer.class.getName() + "(); s.add(value); return s.serialize(); }\n"
+                    + "    public void deserialize(String string) { value = new " + Serializer.class.getName() + "(string).getString(); }\n"
+                    + "}\n").getBytes(StandardCharsets.UTF_8));
+            final File classes = new File(Serializable.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            //不运行测试classpath上的注解处理器(lombok),编译失败时输出编译器的诊断信息
+            final ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+            final int result = compiler.run(null, diagnostics, diagnostics, "-proc:none", "-cp", classes.getPath(), "-d", directory.toString(), source.toString());
+            Assert.assertEquals(new String(diagnostics.toByteArray(), StandardCharsets.UTF_8), 0, result);
+
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+                final Class<? extends Serializable> clazz = classLoader.loadClass("p.Dyn").asSubclass(Serializable.class);
+                final Serializable object = SerializationCodecs.newInstance(clazz);
+                clazz.getField("value").set(object, "hot");
+                final Serializable copy = Serializer.deserialize(object.serialize(), clazz);
+                Assert.assertNotSame(object, copy);
+                Assert.assertEquals("hot", clazz.getField("value").get(copy));
+            }
+        } finally {
+            deleteDirectory(directory.toFile());
+        }
+    }
+
+    private static void deleteDirectory(final File file) throws IOException {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteDirectory(child);
+            }
+        }
+        Files.deleteIfExists(file.toPath());
+    }
 
 }
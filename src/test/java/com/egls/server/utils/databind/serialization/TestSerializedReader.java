@@ -0,0 +1,258 @@
+package com.egls.server.utils.databind.serialization;
+
+import java.util.*;
+
+import com.egls.server.utils.geometry.Point2D;
+import com.egls.server.utils.geometry.Point3D;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author mayer - [Created on 2026-10-18 18:45]
+ */
+public class TestSerializedReader {
+
+    private enum TestEnum {
+        test1, test2
+    }
+
+    /**
+     * 多层嵌套的对象,通过游标读取
+     */
+    public static class Node implements Serializable {
+
+        private int id;
+
+        private String name;
+
+        private Point3D point;
+
+        private ArrayList<Node> children = new ArrayList<>();
+
+        public Node() {
+        }
+
+        Node(final int id, final String name, final Point3D point) {
+            this.id = id;
+            this.name = name;
+            this.point = point;
+        }
+
+        @Override
+        public String serialize() {
+            final Serializer serializer = new Serializer();
+            serializer.add(id);
+            serializer.add(name);
+            serializer.add(point);
+            serializer.add(children);
+            return serializer.serialize();
+        }
+
+        @Override
+        public void deserialize(final String serializedString) {
+            final Serializer serializer = new Serializer(serializedString);
+            id = serializer.getInt();
+            name = serializer.getString();
+            point = serializer.getSerializableObject(Point3D.class);
+            children = serializer.getArrayList(Node.class);
+        }
+
+        @Override
+        public void deserialize(final SerializedReader reader) {
+            id = reader.getIntPrimitive();
+            name = reader.getString();
+            point = reader.getSerializableObject(Point3D.class);
+            children = reader.getArrayList(Node.class);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Node node = (Node) o;
+            return id == node.id && Objects.equals(name, node.name) && Objects.equals(point, node.point) && Objects.equals(children, node.children);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name, point, children);
+        }
+
+    }
+
+    static Node newTree(final int depth, final int width) {
+        final Node node = new Node(depth, "node\"{[" + depth + "]}\\", new Point3D(depth * 1.5, -depth, 0.125));
+        if (depth > 0) {
+            for (int i = 0; i < width; i++) {
+                node.children.add(newTree(depth - 1, width));
+            }
+        }
+        return node;
+    }
+
+    @Test
+    public void testCompatible() {
+        final Serializer serializer = new Serializer();
+        serializer.add((byte) -1);
+        serializer.add(true);
+        serializer.add(',');
+        serializer.add((short) -300);
+        serializer.add(Integer.MIN_VALUE);
+        serializer.add(Long.MAX_VALUE);
+        serializer.add(0.1f);
+        serializer.add(1.0E-10);
+        serializer.add(TestEnum.test2);
+        serializer.add("\"{喔}\"\\[]\n");
+        serializer.add("");
+        serializer.add(null);
+        serializer.add(new byte[]{1, -2});
+        serializer.add(new boolean[]{true, false});
+        serializer.add(new char[]{'a', ','});
+        serializer.add(new short[]{});
+        serializer.add(new int[]{1, -2, Integer.MAX_VALUE});
+        serializer.add(new long[]{Long.MIN_VALUE});
+        serializer.add(new float[]{1.5f, Float.NaN});
+        serializer.add(new double[]{Math.PI, Double.NEGATIVE_INFINITY, -0.0});
+        serializer.add(new Integer[]{null, 1});
+        serializer.add(new String[]{null, "a,b", "}"});
+        serializer.add(new TestEnum[]{TestEnum.test1, null});
+        serializer.add(new Point2D[]{new Point2D(1, 2), null});
+        serializer.add(Arrays.asList("a", null, "{"));
+        final Map<String, int[]> map = new LinkedHashMap<>();
+        map.put("k", new int[]{1, 2});
+        map.put(null, null);
+        serializer.add(map);
+        serializer.add(new Point2D(3.5, -4.25));
+        serializer.add(12345);
+
+        final String serializedString = serializer.serialize();
+        final Serializer expected = new Serializer(serializedString);
+        final SerializedReader reader = new SerializedReader(serializedString);
+        assertEquals(expected.getByte(), reader.getByte());
+        assertEquals(expected.getBoolean(), reader.getBoolean());
+        assertEquals(expected.getChar(), reader.getChar());
+        assertEquals(expected.getShort(), reader.getShort());
+        assertEquals(expected.getInt(), reader.getInt());
+        assertEquals(expected.getLong(), reader.getLong());
+        assertEquals(expected.getFloat(), reader.getFloat());
+        assertEquals(expected.getDouble(), reader.getDouble());
+        assertEquals(expected.getEnum(TestEnum.class), reader.getEnum(TestEnum.class));
+        assertEquals(expected.getString(), reader.getString());
+        assertEquals(expected.getString(), reader.getString());
+        assertEquals(expected.getString(), reader.getString());
+        assertArrayEquals(expected.getBytePrimitiveArray(), reader.getBytePrimitiveArray());
+        assertArrayEquals(expected.getBooleanPrimitiveArray(), reader.getBooleanPrimitiveArray());
+        assertArrayEquals(expected.getCharPrimitiveArray(), reader.getCharPrimitiveArray());
+        assertArrayEquals(expected.getShortPrimitiveArray(), reader.getShortPrimitiveArray());
+        assertArrayEquals(expected.getIntPrimitiveArray(), reader.getIntPrimitiveArray());
+        assertArrayEquals(expected.getLongPrimitiveArray(), reader.getLongPrimitiveArray());
+        assertArrayEquals(expected.getFloatPrimitiveArray(), reader.getFloatPrimitiveArray(), 0);
+        assertArrayEquals(expected.getDoublePrimitiveArray(), reader.getDoublePrimitiveArray(), 0);
+        assertArrayEquals(expected.getIntObjectArray(), reader.getIntObjectArray());
+        assertArrayEquals(expected.getStringArray(), reader.getStringArray());
+        assertArrayEquals(expected.getEnumArray(TestEnum.class), reader.getEnumArray(TestEnum.class));
+        assertArrayEquals(expected.getSerializeObjectArray(Point2D.class), reader.getSerializeObjectArray(Point2D.class));
+        assertEquals(expected.getArrayList(String.class), reader.getArrayList(String.class));
+        final LinkedHashMap<String, int[]> expectedMap = expected.getLinkedHashMap(String.class, int[].class);
+        final LinkedHashMap<String, int[]> actualMap = reader.getLinkedHashMap(String.class, int[].class);
+        assertEquals(expectedMap.keySet(), actualMap.keySet());
+        assertArrayEquals(expectedMap.get("k"), actualMap.get("k"));
+        assertNull(actualMap.get(null));
+        assertEquals(expected.getSerializableObject(Point2D.class), reader.getSerializableObject(Point2D.class));
+        assertEquals(12345, reader.getIntPrimitive());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testNested() {
+        final Node tree = newTree(4, 3);
+        final String serializedString = tree.serialize();
+        assertEquals(tree, Serializer.deserialize(serializedString, Node.class));
+        assertEquals(tree, SerializedReader.deserialize(serializedString, Node.class));
+        assertEquals(tree, SerializedReader.deserialize(new StringBuilder(serializedString), Node.class));
+
+        //没有实现游标读取的对象,使用它自己的字符串反序列化
+        final SerializableData data = new SerializableData();
+        assertEquals(data, SerializedReader.deserialize(data.serialize(), SerializableData.class));
+        final Serializer serializer = new Serializer();
+        serializer.add(new SerializableData[]{data, null});
+        serializer.add(1);
+        final SerializedReader reader = new SerializedReader(serializer.serialize());
+        assertArrayEquals(new SerializableData[]{data, null}, reader.getSerializeObjectArray(SerializableData.class));
+        assertEquals(Integer.valueOf(1), reader.getInt());
+    }
+
+    /**
+     * 只读取第一个值
+     */
+    public static class First implements Serializable {
+
+        private int value;
+
+        @Override
+        public String serialize() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deserialize(final String serializedString) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deserialize(final SerializedReader reader) {
+            value = reader.getIntPrimitive();
+        }
+
+    }
+
+    @Test
+    public void testSkip() {
+        //嵌套的对象没有读取的值会被跳过
+        final Serializer inner = new Serializer();
+        inner.add(1);
+        inner.add("}{");
+        inner.add(new int[]{1, 2});
+        inner.add(inner.serialize());
+        final Serializer serializer = new Serializer();
+        serializer.add(inner);
+        serializer.add(2);
+        final SerializedReader reader = new SerializedReader(serializer.serialize());
+        assertEquals(1, reader.getSerializableObject(First.class).value);
+        assertEquals(2, reader.getIntPrimitive());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testNumber() {
+        final Random random = new Random(0L);
+        final Serializer serializer = new Serializer();
+        final double[] doubles = new double[2000];
+        final float[] floats = new float[2000];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = i % 2 == 0 ? random.nextDouble() * Math.pow(10, random.nextInt(20) - 10) : random.nextInt(100000) / 100.0;
+            floats[i] = (float) doubles[i];
+            serializer.add(doubles[i]);
+            serializer.add(floats[i]);
+        }
+        final SerializedReader reader = new SerializedReader(serializer.serialize());
+        for (int i = 0; i < doubles.length; i++) {
+            assertEquals(Double.doubleToLongBits(doubles[i]), Double.doubleToLongBits(reader.getDoublePrimitive()));
+            assertEquals(Float.floatToIntBits(floats[i]), Float.floatToIntBits(reader.getFloatPrimitive()));
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testOverflow() {
+        final Serializer serializer = new Serializer();
+        serializer.add(Long.MAX_VALUE);
+        new SerializedReader(serializer.serialize()).getInt();
+    }
+
+}
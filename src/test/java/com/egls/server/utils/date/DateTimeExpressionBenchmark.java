@@ -0,0 +1,91 @@
+package com.egls.server.utils.date;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import com.egls.server.utils.date.expression.CompiledDateTimeExpression;
+import com.egls.server.utils.date.expression.DateTimeExpression;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * <pre>
+ *     比较{@link DateTimeExpression}和{@link CompiledDateTimeExpression}的性能.
+ *     参数: [每轮的次数] [轮数]
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 16:05]
+ */
+public class DateTimeExpressionBenchmark {
+
+    private static final String[] EXPRESSIONS = {
+            "10-20 * * * * * *",
+            "* * 10-20 * * * *",
+            "* * 15-17 3-5 5~7 * *",
+            "* * 15-17 3-5 5~7 4 *",
+            "0-30 * 8-9,20-22 * * * *",
+            "* * * * * 6-7 2015-2017",
+    };
+
+    private static int COUNT;
+    private static int ROUNDS;
+
+    private static long blackHole;
+
+    public static void main(final String[] args) {
+        if (ArrayUtils.isEmpty(args)) {
+            COUNT = 200000;
+            ROUNDS = 5;
+        } else {
+            COUNT = Integer.parseInt(args[0]);
+            ROUNDS = Integer.parseInt(args[1]);
+        }
+
+        final Random random = new Random(0L);
+        final LocalDateTime[] dateTimes = new LocalDateTime[1024];
+        for (int i = 0; i < dateTimes.length; i++) {
+            dateTimes[i] = LocalDateTime.of(2015, 1, 1, 0, 0, 0).plusSeconds(random.nextInt(3 * 365 * 24 * 3600));
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.println("*** Run - " + round);
+            for (String expressionString : EXPRESSIONS) {
+                final DateTimeExpression expression = DateTimeExpression.of(expressionString);
+                final CompiledDateTimeExpression compiled = expression.compile();
+
+                long start = System.nanoTime();
+                for (int i = 0; i < COUNT; i++) {
+                    blackHole += expression.check(dateTimes[i & 1023]) ? 1 : 0;
+                }
+                final long checkNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < COUNT; i++) {
+                    blackHole += compiled.check(dateTimes[i & 1023]) ? 1 : 0;
+                }
+                final long compiledCheckNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < COUNT / 10; i++) {
+                    final LocalDateTime next = expression.nextDateTime(dateTimes[i & 1023]);
+                    blackHole += next == null ? 0 : next.getSecond();
+                }
+                final long nextNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < COUNT / 10; i++) {
+                    final LocalDateTime next = compiled.nextDateTime(dateTimes[i & 1023]);
+                    blackHole += next == null ? 0 : next.getSecond();
+                }
+                final long compiledNextNanos = System.nanoTime() - start;
+
+                System.out.format("%-28s check %8.1f ns/op compiled %8.1f ns/op | next %9.1f ns/op compiled %9.1f ns/op\n",
+                        expressionString,
+                        (double) checkNanos / COUNT, (double) compiledCheckNanos / COUNT,
+                        (double) nextNanos / (COUNT / 10), (double) compiledNextNanos / (COUNT / 10));
+            }
+        }
+        System.out.println(blackHole);
+    }
+
+}
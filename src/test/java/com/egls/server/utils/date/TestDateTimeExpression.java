@@ -1,7 +1,10 @@
 package com.egls.server.utils.date;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
 
+import com.egls.server.utils.date.expression.CompiledDateTimeExpression;
 import com.egls.server.utils.date.expression.DateTimeExpression;
 
 import org.junit.Assert;
@@ -200,4 +203,107 @@ public class TestDateTimeExpression {
 
     }
 
-}
\ No newline at end of file
+    private static final String[] EXPRESSIONS = {
+            "10-20 * * * * * *",
+            "* 10-20 * * * * *",
+            "* * 10-20 * * * *",
+            "* * * 10-20 * * *",
+            "* * * * 2-3 * *",
+            "* * * * * * 2015-2017",
+            "* * * * * 2-3 *",
+            "* * * * * * *",
+            "* * 15-17 3-5 5~7 * *",
+            "* * 15-17 3-5 5~7 4 *",
+            "10-20 * * 1-5 * * *",
+            "* 10-20 * 3-5 * * *",
+            "* * * 29-31 * * *",
+            "30 30 12 31 * 1-5 *",
+            "0-30 * 8-9,20-22 * * * *",
+            "0 0 0 1 1 * 2016",
+    };
+
+    private static LocalDateTime randomDateTime(final Random random) {
+        return LocalDateTime.of(2014, 1, 1, 0, 0, 0)
+                .plusSeconds(random.nextInt(4 * 365 * 24 * 3600))
+                .plusNanos(random.nextBoolean() ? 0 : random.nextInt(1_000_000_000));
+    }
+
+    /**
+     * 从base开始逐秒检测,直到end(不包括),所有的秒的检测结果都必须是expected
+     */
+    private static void assertRange(final CompiledDateTimeExpression compiled, final LocalDateTime base, final LocalDateTime end, final boolean expected) {
+        final boolean forward = end.isAfter(base);
+        LocalDateTime current = base.withNano(0);
+        for (int i = 0; i < 3600 && !current.equals(end); i++) {
+            Assert.assertEquals(compiled.getExpressionString() + " " + current, expected, compiled.check(current));
+            current = forward ? current.plusSeconds(1) : current.minusSeconds(1);
+        }
+    }
+
+    @Test
+    public void test4() {
+        final Random random = new Random(20261018L);
+        for (String expressionString : EXPRESSIONS) {
+            final DateTimeExpression expression = DateTimeExpression.of(expressionString);
+            final CompiledDateTimeExpression compiled = expression.compile();
+            for (int i = 0; i < 2000; i++) {
+                final LocalDateTime localDateTime = randomDateTime(random);
+                Assert.assertEquals(expressionString + " " + localDateTime, expression.check(localDateTime), compiled.check(localDateTime));
+            }
+            //小月和闰月的边界
+            for (int year = 2015; year <= 2016; year++) {
+                for (int month = 1; month <= 12; month++) {
+                    LocalDateTime localDateTime = LocalDateTime.of(year, month, 1, 0, 0, 0).plusMonths(1).minusSeconds(1);
+                    for (int i = 0; i < 4; i++) {
+                        Assert.assertEquals(expressionString + " " + localDateTime, expression.check(localDateTime), compiled.check(localDateTime));
+                        localDateTime = localDateTime.minusDays(1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test5() {
+        final Random random = new Random(20261018L);
+        for (String expressionString : EXPRESSIONS) {
+            final DateTimeExpression expression = DateTimeExpression.of(expressionString);
+            final CompiledDateTimeExpression compiled = expression.compile();
+            for (int i = 0; i < 60; i++) {
+                final LocalDateTime base = randomDateTime(random);
+                final boolean valid = expression.check(base);
+
+                final LocalDateTime next = valid ? compiled.nextInvalidDateTime(base) : compiled.nextValidDateTime(base);
+                Assert.assertEquals(next, compiled.nextDateTime(base));
+                if (next != null) {
+                    Assert.assertTrue(next.isAfter(base));
+                    Assert.assertEquals(!valid, expression.check(next));
+                    Assert.assertEquals(valid, expression.check(next.minusNanos(1)));
+                    assertRange(compiled, base, next, valid);
+                } else {
+                    assertRange(compiled, base, base.plusHours(1), valid);
+                }
+
+                final LocalDateTime previous = valid ? compiled.previousInvalidDateTime(base) : compiled.previousValidDateTime(base);
+                if (previous != null) {
+                    Assert.assertTrue(previous.isBefore(base));
+                    Assert.assertEquals(!valid, expression.check(previous));
+                    Assert.assertEquals(valid, expression.check(previous.plusSeconds(1)));
+                    assertRange(compiled, base, previous, valid);
+                } else {
+                    assertRange(compiled, base, base.minusHours(1), valid);
+                }
+            }
+        }
+        Assert.assertNull(DateTimeExpression.of("* * * * * * *").compile().nextInvalidDateTime(LocalDateTime.now()));
+        Assert.assertNull(DateTimeExpression.of("0 0 0 1 1 * 2016").compile().nextValidDateTime(LocalDateTime.of(2016, 1, 1, 0, 0, 1)));
+
+        final CompiledDateTimeExpression compiled = DateTimeExpression.of("* * 15-17 3-5 5~7 * *").compile();
+        Assert.assertEquals(LocalDateTime.of(2017, 5, 3, 15, 0, 0), compiled.nextDateTime(LocalDateTime.of(2017, 5, 1, 1, 1, 1)));
+        Assert.assertEquals(LocalDateTime.of(2017, 5, 5, 18, 0, 0), compiled.nextDateTime(LocalDateTime.of(2017, 5, 4, 1, 1, 1)));
+        Assert.assertEquals(LocalDateTime.of(2016, 7, 5, 17, 59, 59), compiled.previousValidDateTime(LocalDateTime.of(2017, 5, 1, 1, 1, 1)));
+        Assert.assertEquals(LocalDateTime.of(2017, 5, 3, 14, 59, 59), compiled.previousInvalidDateTime(LocalDateTime.of(2017, 5, 4, 1, 1, 1)));
+        Assert.assertEquals(0, ChronoUnit.SECONDS.between(LocalDateTime.of(2017, 5, 3, 15, 0, 0), compiled.nextValidDateTime(LocalDateTime.of(2017, 5, 3, 14, 59, 59, 1))));
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.egls.server.utils.date;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.egls.server.utils.date.expression.DateTimeExpression;
+import com.egls.server.utils.date.expression.DateTimeExpressionSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-18 17:05]
+ */
+public class TestDateTimeExpressionSet {
+
+    @Test
+    public void test0() {
+        final DateTimeExpression one = DateTimeExpression.of("* * 10-20 * * * *");
+        final DateTimeExpression two = DateTimeExpression.of("* * 10-20 * * * *");
+        final DateTimeExpression three = DateTimeExpression.of("* * 10-20,21-22 * * * *");
+        final DateTimeExpressionSet set = new DateTimeExpressionSet();
+        Assert.assertTrue(set.add(one));
+        Assert.assertTrue(set.add(two));
+        Assert.assertTrue(set.add(three));
+        Assert.assertFalse(set.add(one));
+        Assert.assertEquals(3, set.size());
+        //相同的行只检测一次
+        Assert.assertEquals(2, set.getUniqueRowCount());
+
+        Assert.assertNull(set.getNextTransitionDateTime());
+        Assert.assertEquals(Collections.emptyList(), set.evaluate(LocalDateTime.of(2018, 1, 1, 9, 0, 0)));
+        Assert.assertEquals(LocalDateTime.of(2018, 1, 1, 10, 0, 0), set.getNextTransitionDateTime());
+        Assert.assertEquals(Arrays.asList(one, two, three), set.evaluate(LocalDateTime.of(2018, 1, 1, 10, 0, 0)));
+        Assert.assertTrue(set.isValid(one));
+        Assert.assertEquals(Collections.emptyList(), set.evaluate(LocalDateTime.of(2018, 1, 1, 15, 0, 0)));
+        Assert.assertEquals(LocalDateTime.of(2018, 1, 1, 21, 0, 0), set.getNextTransitionDateTime());
+        Assert.assertEquals(Arrays.asList(one, two), set.evaluate(LocalDateTime.of(2018, 1, 1, 21, 0, 0)));
+        Assert.assertEquals(LocalDateTime.of(2018, 1, 1, 23, 0, 0), set.getNextTransitionDateTime());
+
+        Assert.assertTrue(set.remove(three));
+        Assert.assertFalse(set.remove(three));
+        Assert.assertFalse(set.contains(three));
+        Assert.assertEquals(1, set.getUniqueRowCount());
+        Assert.assertEquals(LocalDateTime.of(2018, 1, 2, 10, 0, 0), set.getNextTransitionDateTime());
+    }
+
+    @Test
+    public void test1() {
+        final DateTimeExpressionSet set = new DateTimeExpressionSet();
+        final DateTimeExpression[] expressions = {
+                DateTimeExpression.of("10-20 * * * * * *"),
+                DateTimeExpression.of("* 10-20 * * * * *"),
+                DateTimeExpression.of("* * 15-17 3-5 5~7 4 *"),
+                DateTimeExpression.of("0-30 * 8-9,20-22 * * * *"),
+                DateTimeExpression.of("* * * * * 6-7 2015-2017"),
+                DateTimeExpression.of("0 0 0 1 1 * 2016"),
+        };
+        for (DateTimeExpression expression : expressions) {
+            set.add(expression);
+        }
+        //像调度器一样,每次都休眠到下一次变化的时间
+        LocalDateTime current = LocalDateTime.of(2015, 12, 31, 23, 0, 0);
+        set.evaluate(current);
+        for (int i = 0; i < 500; i++) {
+            final LocalDateTime next = set.getNextTransitionDateTime();
+            Assert.assertNotNull(next);
+            Assert.assertTrue(next.isAfter(current));
+            //两次变化之间所有的状态都不会变化
+            Assert.assertEquals(Collections.emptyList(), set.evaluate(next.minusNanos(1)));
+            final List<DateTimeExpression> changed = set.evaluate(next);
+            Assert.assertFalse(changed.isEmpty());
+            for (DateTimeExpression expression : expressions) {
+                Assert.assertEquals(expression.check(next), set.isValid(expression));
+                Assert.assertEquals(expression.check(next) != expression.check(next.minusNanos(1)), changed.contains(expression));
+            }
+            current = next;
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.egls.server.utils.structure;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * <pre>
+ *     比较{@link ByteBuffer}的定长和变长读写与逐个字节移位的实现的性能.
+ *     参数: [每轮的次数] [轮数]
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 21:30]
+ */
+public class ByteBufferBenchmark {
+
+    private static int COUNT;
+    private static int ROUNDS;
+
+    private static final int VALUES = 1024;
+
+    private static long blackHole;
+
+    public static void main(final String[] args) {
+        if (ArrayUtils.isEmpty(args)) {
+            COUNT = 20000;
+            ROUNDS = 5;
+        } else {
+            COUNT = Integer.parseInt(args[0]);
+            ROUNDS = Integer.parseInt(args[1]);
+        }
+        System.out.println("unsafe access : " + ByteArrayAccess.isUnsafeAccess());
+
+        final ByteBuffer buffer = new ByteBuffer(VALUES * 16);
+        final byte[] array = new byte[VALUES * 16];
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.println("*** Run - " + round);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                int index = 0;
+                for (int j = 0; j < VALUES; j++) {
+                    index = shiftWriteLong(array, index, j * 0x0101010101L);
+                    index = shiftWriteInt(array, index, j);
+                }
+                index = 0;
+                for (int j = 0; j < VALUES; j++) {
+                    blackHole += shiftReadLong(array, index);
+                    blackHole += shiftReadInt(array, index + 8);
+                    index += 12;
+                }
+            }
+            final long shiftNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                for (int j = 0; j < VALUES; j++) {
+                    buffer.writeLong(j * 0x0101010101L);
+                    buffer.writeInt(j);
+                }
+                for (int j = 0; j < VALUES; j++) {
+                    blackHole += buffer.readLong();
+                    blackHole += buffer.readInt();
+                }
+            }
+            final long bufferNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                for (int j = 0; j < VALUES; j++) {
+                    buffer.writeSignedVarInt(j - 512);
+                    buffer.writeVarLong(j * 0x010101L);
+                }
+                for (int j = 0; j < VALUES; j++) {
+                    blackHole += buffer.readSignedVarInt();
+                    blackHole += buffer.readVarLong();
+                }
+            }
+            final long varNanos = System.nanoTime() - start;
+
+            final double values = (double) COUNT * VALUES * 2;
+            System.out.format("shift %6.2f ns/value | ByteBuffer fixed %6.2f ns/value | ByteBuffer var %6.2f ns/value\n",
+                    shiftNanos / values, bufferNanos / values, varNanos / values);
+        }
+        System.out.println(blackHole);
+    }
+
+    private static int shiftWriteInt(final byte[] buf, int index, final int val) {
+        buf[index++] = (byte) (val >>> 24);
+        buf[index++] = (byte) (val >>> 16);
+        buf[index++] = (byte) (val >>> 8);
+        buf[index++] = (byte) (val);
+        return index;
+    }
+
+    private static int shiftWriteLong(final byte[] buf, int index, final long val) {
+        buf[index++] = (byte) (val >>> 56);
+        buf[index++] = (byte) (val >>> 48);
+        buf[index++] = (byte) (val >>> 40);
+        buf[index++] = (byte) (val >>> 32);
+        buf[index++] = (byte) (val >>> 24);
+        buf[index++] = (byte) (val >>> 16);
+        buf[index++] = (byte) (val >>> 8);
+        buf[index++] = (byte) (val);
+        return index;
+    }
+
+    private static int shiftReadInt(final byte[] buf, final int index) {
+        int value = (buf[index] & 0xFF) << 24;
+        value |= (buf[index + 1] & 0xFF) << 16;
+        value |= (buf[index + 2] & 0xFF) << 8;
+        value |= (buf[index + 3] & 0xFF);
+        return value;
+    }
+
+    private static long shiftReadLong(final byte[] buf, final int index) {
+        long value = (buf[index] & 0xFFL) << 56;
+        value |= (buf[index + 1] & 0xFFL) << 48;
+        value |= (buf[index + 2] & 0xFFL) << 40;
+        value |= (buf[index + 3] & 0xFFL) << 32;
+        value |= (buf[index + 4] & 0xFFL) << 24;
+        value |= (buf[index + 5] & 0xFFL) << 16;
+        value |= (buf[index + 6] & 0xFFL) << 8;
+        value |= (buf[index + 7] & 0xFFL);
+        return value;
+    }
+
+}
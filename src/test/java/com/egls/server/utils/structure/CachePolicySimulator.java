@@ -0,0 +1,83 @@
+package com.egls.server.utils.structure;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * <pre>
+ *     重放访问记录,比较不同淘汰策略的命中率.
+ *     访问记录文件每行一个键,没有给出文件时使用生成的记录: 偏向热点的访问中间夹杂着对冷数据的扫描.
+ *     参数: [记录文件] [容量...]
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 23:05]
+ */
+public class CachePolicySimulator {
+
+    public static void main(final String[] args) throws IOException {
+        final int[] trace;
+        int[] cacheSizes = {100, 1000, 5000};
+        if (ArrayUtils.isEmpty(args)) {
+            trace = generateTrace(1_000_000, 50_000, new Random(0));
+            System.out.println("generated trace, length " + trace.length);
+        } else {
+            final List<String> lines = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+            trace = lines.stream().mapToInt(String::hashCode).toArray();
+            System.out.println(args[0] + ", length " + trace.length);
+            if (args.length > 1) {
+                cacheSizes = new int[args.length - 1];
+                for (int i = 1; i < args.length; i++) {
+                    cacheSizes[i - 1] = Integer.parseInt(args[i]);
+                }
+            }
+        }
+        for (int cacheSize : cacheSizes) {
+            System.out.format("cache size %6d |", cacheSize);
+            for (CachePolicy policy : CachePolicy.values()) {
+                final double hitRatio = replay(new ConcurrentCachedMap<>(cacheSize, policy), trace);
+                System.out.format(" %s %6.2f%% |", policy, hitRatio * 100);
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * @return 命中率
+     */
+    static double replay(final Map<Integer, Integer> cache, final int[] trace) {
+        long hits = 0;
+        for (int key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        return (double) hits / trace.length;
+    }
+
+    /**
+     * 在给定数量的键上按照近似的zipf分布访问,每过一段时间扫描一批只访问一次的键
+     */
+    static int[] generateTrace(final int length, final int keys, final Random random) {
+        final int[] trace = new int[length];
+        int scanKey = keys;
+        for (int i = 0; i < length; i++) {
+            if (i % 100_000 >= 90_000) {
+                trace[i] = scanKey++;
+            } else {
+                //对数均匀分布,近似于zipf
+                trace[i] = (int) Math.exp(random.nextDouble() * Math.log(keys)) - 1;
+            }
+        }
+        return trace;
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.egls.server.utils.structure;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * <pre>
+ *     比较多线程下{@link ConcurrentCachedMap}和同步的{@link CachedLinkedHashMap}的吞吐量.
+ *     每个线程90%的读,10%的写,键的分布偏向热点.
+ *     参数: [每轮的毫秒数] [轮数] [线程数] [容量]
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-18 22:30]
+ */
+public class ConcurrentCachedMapBenchmark {
+
+    private static int MILLIS;
+    private static int ROUNDS;
+    private static int THREADS;
+    private static int CACHE_SIZE;
+
+    private static long blackHole;
+
+    public static void main(final String[] args) throws InterruptedException {
+        if (ArrayUtils.isEmpty(args)) {
+            MILLIS = 1000;
+            ROUNDS = 5;
+            THREADS = Runtime.getRuntime().availableProcessors();
+            CACHE_SIZE = 10000;
+        } else {
+            MILLIS = Integer.parseInt(args[0]);
+            ROUNDS = Integer.parseInt(args[1]);
+            THREADS = Integer.parseInt(args[2]);
+            CACHE_SIZE = Integer.parseInt(args[3]);
+        }
+        System.out.format("threads %d cache size %d\n", THREADS, CACHE_SIZE);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.println("*** Run - " + round);
+            final double synchronizedOps = run(Collections.synchronizedMap(new CachedLinkedHashMap<>(CACHE_SIZE)));
+            final double concurrentOps = run(new ConcurrentCachedMap<>(CACHE_SIZE));
+            System.out.format("synchronized CachedLinkedHashMap %10.0f ops/ms | ConcurrentCachedMap %10.0f ops/ms\n",
+                    synchronizedOps, concurrentOps);
+        }
+        System.out.println(blackHole);
+    }
+
+    private static double run(final Map<Integer, Integer> map) throws InterruptedException {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            map.put(i, i);
+        }
+        final LongAdder operations = new LongAdder();
+        final LongAdder sum = new LongAdder();
+        final CountDownLatch latch = new CountDownLatch(THREADS);
+        final long deadline = System.nanoTime() + MILLIS * 1_000_000L;
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                long local = 0;
+                while ((count & 0xFF) != 0 || System.nanoTime() < deadline) {
+                    //两个均匀分布相乘,偏向较小的键
+                    final int key = (int) ((long) random.nextInt(CACHE_SIZE * 2) * random.nextInt(CACHE_SIZE * 2) / (CACHE_SIZE * 2));
+                    if (random.nextInt(10) == 0) {
+                        map.put(key, key);
+                    } else {
+                        final Integer value = map.get(key);
+                        local += value == null ? 0 : value;
+                    }
+                    count++;
+                }
+                operations.add(count);
+                sum.add(local);
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        blackHole += sum.sum();
+        return operations.sum() / (double) MILLIS;
+    }
+
+}
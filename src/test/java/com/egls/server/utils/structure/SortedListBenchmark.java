@@ -0,0 +1,86 @@
+package com.egls.server.utils.structure;
+
+import java.util.Random;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * <pre>
+ *     比较{@link SortedList}和{@link TieredSortedList}在不同元素数量下随机插入,按索引访问和随机删除的性能,找出两者的分界点.
+ *     参数: [轮数] [元素数量...]
+ * </pre>
+ *
+ * @author mayer - [Created on 2026-10-19 03:00]
+ */
+public class SortedListBenchmark {
+
+    private static int ROUNDS;
+    private static int[] SIZES;
+
+    private static long blackHole;
+
+    public static void main(final String[] args) {
+        if (ArrayUtils.isEmpty(args)) {
+            ROUNDS = 3;
+            SIZES = new int[]{1_000, 4_000, 16_000, 64_000, 256_000};
+        } else {
+            ROUNDS = Integer.parseInt(args[0]);
+            SIZES = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                SIZES[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.println("*** Run - " + round);
+            for (int size : SIZES) {
+                final Random random = new Random(size);
+                final int[] values = new int[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = random.nextInt();
+                }
+
+                long start = System.nanoTime();
+                final SortedList<Integer> sortedList = new SortedList<>();
+                for (int value : values) {
+                    sortedList.add(value);
+                }
+                final long arrayAdd = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    blackHole += sortedList.get((values[i] & Integer.MAX_VALUE) % size);
+                }
+                final long arrayGet = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = size; i > 0; i--) {
+                    blackHole += sortedList.remove(i >>> 1);
+                }
+                final long arrayRemove = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                final TieredSortedList<Integer> tieredList = new TieredSortedList<>();
+                for (int value : values) {
+                    tieredList.add(value);
+                }
+                final long tieredAdd = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    blackHole += tieredList.get((values[i] & Integer.MAX_VALUE) % size);
+                }
+                final long tieredGet = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = size; i > 0; i--) {
+                    blackHole += tieredList.remove(i >>> 1);
+                }
+                final long tieredRemove = System.nanoTime() - start;
+
+                System.out.format("%8d | add %8.1f / %8.1f ns | get %6.1f / %6.1f ns | remove %8.1f / %8.1f ns (SortedList / TieredSortedList)\n",
+                        size,
+                        (double) arrayAdd / size, (double) tieredAdd / size,
+                        (double) arrayGet / size, (double) tieredGet / size,
+                        (double) arrayRemove / size, (double) tieredRemove / size);
+            }
+        }
+        System.out.println(blackHole);
+    }
+
+}
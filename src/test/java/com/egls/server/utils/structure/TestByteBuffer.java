@@ -142,4 +142,168 @@ public class TestByteBuffer {
         byteBuffer.write(bytes);
     }
 
+    @Test
+    public void test5() {
+        final ByteBuffer buffer = new ByteBuffer();
+        final java.nio.ByteBuffer expected = java.nio.ByteBuffer.allocate(64);
+        buffer.writeShort((short) 0x1234);
+        buffer.writeInt(0x12345678);
+        buffer.writeLong(0x123456789ABCDEF0L);
+        buffer.writeFloat(1.5F);
+        buffer.writeDouble(-2.25);
+        expected.putShort((short) 0x1234).putInt(0x12345678).putLong(0x123456789ABCDEF0L).putFloat(1.5F).putDouble(-2.25);
+        expected.order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        buffer.writeShortLE((short) 0x1234);
+        buffer.writeIntLE(0x12345678);
+        buffer.writeLongLE(0x123456789ABCDEF0L);
+        buffer.writeFloatLE(1.5F);
+        buffer.writeDoubleLE(-2.25);
+        expected.putShort((short) 0x1234).putInt(0x12345678).putLong(0x123456789ABCDEF0L).putFloat(1.5F).putDouble(-2.25);
+        Assert.assertArrayEquals(java.util.Arrays.copyOf(expected.array(), expected.position()), buffer.toByteArray());
+
+        assertEquals(0x1234, buffer.readShort());
+        assertEquals(0x12345678, buffer.readInt());
+        assertEquals(0x123456789ABCDEF0L, buffer.readLong());
+        assertEquals(1.5F, buffer.readFloat(), 0);
+        assertEquals(-2.25, buffer.peekDouble(), 0);
+        assertEquals(-2.25, buffer.readDouble(), 0);
+        assertEquals(0x1234, buffer.peekShortLE());
+        assertEquals(0x1234, buffer.readShortLE());
+        assertEquals(0x12345678, buffer.readIntLE());
+        assertEquals(0x123456789ABCDEF0L, buffer.readLongLE());
+        assertEquals(1.5F, buffer.readFloatLE(), 0);
+        assertEquals(-2.25, buffer.readDoubleLE(), 0);
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void test6() {
+        final ByteBuffer buffer = new ByteBuffer(16);
+        final int[] ints = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        final long[] longs = {0, 1, 127, 128, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+        for (int value : ints) {
+            buffer.writeVarInt(value);
+            buffer.writeSignedVarInt(value);
+        }
+        for (long value : longs) {
+            buffer.writeVarLong(value);
+            buffer.writeSignedVarLong(value);
+        }
+        final String string = "Hello,World!你好,世界!\uD83D\uDE00\uD800";
+        buffer.writeString(string);
+        buffer.writeString(null);
+        buffer.writeString("");
+        buffer.writeByteArray(new byte[]{1, 2, 3});
+        buffer.writeByteArray(null);
+
+        for (int value : ints) {
+            assertEquals(value, buffer.readVarInt());
+            assertEquals(value, buffer.readSignedVarInt());
+        }
+        for (long value : longs) {
+            assertEquals(value, buffer.readVarLong());
+            assertEquals(value, buffer.readSignedVarLong());
+        }
+        assertEquals(new String(string.getBytes(java.nio.charset.StandardCharsets.UTF_8), java.nio.charset.StandardCharsets.UTF_8), buffer.readString());
+        Assert.assertNull(buffer.readString());
+        assertEquals("", buffer.readString());
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, buffer.readByteArray());
+        Assert.assertNull(buffer.readByteArray());
+        Assert.assertFalse(buffer.hasRemaining());
+
+        //小的数字只占用1个字节
+        buffer.writeSignedVarInt(-1);
+        assertEquals(1, buffer.size());
+        buffer.readByte();
+
+        //数据不完整
+        buffer.writeByte((byte) 0x80);
+        try {
+            buffer.readVarInt();
+            Assert.fail();
+        } catch (IllegalStateException ignore) {
+        }
+    }
+
+    @Test
+    public void test7() throws java.io.IOException {
+        final java.nio.channels.Pipe pipe = java.nio.channels.Pipe.open();
+        try {
+            final ByteBuffer header = new ByteBuffer();
+            final ByteBuffer body = new ByteBuffer();
+            body.writeString("Hello,World!你好,世界!");
+            header.writeInt(body.size());
+            final int length = header.size() + body.size();
+            assertEquals(length, ByteBuffer.writeTo(pipe.sink(), header, body));
+            Assert.assertFalse(header.hasRemaining());
+            Assert.assertFalse(body.hasRemaining());
+
+            final ByteBuffer received = new ByteBuffer(16);
+            while (received.size() < length) {
+                received.readFrom(pipe.source());
+            }
+            assertEquals(length - 4, received.readInt());
+            assertEquals("Hello,World!你好,世界!", received.readString());
+
+            received.writeLong(1L);
+            assertEquals(8, received.writeTo(pipe.sink()));
+            assertEquals(8, received.readFrom(pipe.source(), 8));
+            assertEquals(1L, received.readLong());
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+    @Test
+    public void test8() throws java.io.IOException {
+        final java.io.File file = java.io.File.createTempFile("TestByteBuffer", ".bin");
+        file.deleteOnExit();
+        final byte[] bytes = new byte[5000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        java.nio.file.Files.write(file.toPath(), bytes);
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file.toPath())) {
+            final ByteBuffer buffer = new ByteBuffer();
+            assertEquals(3000, buffer.readFrom(channel, 1000, 3000));
+            Assert.assertArrayEquals(java.util.Arrays.copyOfRange(bytes, 1000, 4000), buffer.readFully());
+            assertEquals(1000, buffer.readFrom(channel, 4000, 3000));
+            assertEquals(0, channel.position());
+
+            final java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
+            assertEquals(4000, ByteBuffer.transferTo(channel, 1000, 4000, java.nio.channels.Channels.newChannel(outputStream)));
+            Assert.assertArrayEquals(java.util.Arrays.copyOfRange(bytes, 1000, 5000), outputStream.toByteArray());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void test9() {
+        final byte[] malformed = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x1F};
+        for (int extra = 0; extra < 3; extra++) {
+            final ByteBuffer buffer = new ByteBuffer(java.util.Arrays.copyOf(malformed, malformed.length + extra));
+            try {
+                buffer.readVarInt();
+                Assert.fail();
+            } catch (IllegalStateException ignore) {
+            }
+        }
+        final ByteBuffer buffer = new ByteBuffer(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F});
+        assertEquals(-1, buffer.readVarInt());
+
+        //第10个字节除最低位以外不能有数据
+        final byte[] malformedLong = new byte[10];
+        java.util.Arrays.fill(malformedLong, (byte) 0xFF);
+        malformedLong[9] = 0x03;
+        try {
+            new ByteBuffer(malformedLong).readVarLong();
+            Assert.fail();
+        } catch (IllegalStateException ignore) {
+        }
+        malformedLong[9] = 0x01;
+        assertEquals(-1L, new ByteBuffer(malformedLong).readVarLong());
+    }
+
 }
@@ -0,0 +1,116 @@
+package com.egls.server.utils.structure;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+
+import com.egls.server.utils.date.ManualClock;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author mayer - [Created on 2026-10-19 01:40]
+ */
+public class TestCacheStatsRecorder {
+
+    @Test
+    public void testRecord() {
+        final ManualClock clock = new ManualClock(0L);
+        final CacheStatsRecorder recorder = new CacheStatsRecorder("map");
+        final ConcurrentCachedMap<Integer, Integer> map = new ConcurrentCachedMap<>(2, null, CachePolicy.LRU, 1000L, 0L, clock, null);
+        map.setStatsRecorder(recorder);
+        map.put(1, 1);
+        map.put(2, 2);
+        map.get(1);
+        map.get(3);
+        map.put(3, 3);
+        map.put(3, 33);
+        map.remove(3);
+        clock.advance(Duration.ofSeconds(2L));
+        map.get(1);
+        map.cleanUp();
+
+        final CacheStats stats = recorder.snapshot();
+        assertEquals(3, stats.getRequestCount());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(1.0 / 3, stats.getHitRate(), 1e-9);
+        assertEquals(1, stats.getRemovalCount(RemovalCause.SIZE));
+        assertEquals(1, stats.getRemovalCount(RemovalCause.REPLACED));
+        assertEquals(1, stats.getRemovalCount(RemovalCause.EXPLICIT));
+        assertEquals(1, stats.getRemovalCount(RemovalCause.EXPIRED));
+        assertEquals(2, stats.getEvictionCount());
+
+        final CacheStatsRecorder linkedRecorder = new CacheStatsRecorder("linked");
+        final CachedLinkedHashMap<Integer, Integer> linked = new CachedLinkedHashMap<>(1);
+        linked.setStatsRecorder(linkedRecorder);
+        linked.put(1, 1);
+        linked.put(2, 2);
+        linked.get(1);
+        linked.get(2);
+        assertEquals(1, linkedRecorder.getHitCount());
+        assertEquals(1, linkedRecorder.getMissCount());
+        assertEquals(1, linkedRecorder.getSizeEvictionCount());
+
+        final String showString = CacheStatsRecorder.toShowString("CACHE STATS", Arrays.asList(linkedRecorder, recorder));
+        assertTrue(showString.contains(" map "));
+        assertTrue(showString.indexOf(" map ") < showString.indexOf(" linked "));
+        recorder.reset();
+        assertEquals(0, recorder.getRequestCount());
+        assertEquals(0, recorder.getEvictionCount());
+    }
+
+    @Test
+    public void testLoad() {
+        final CacheStatsRecorder recorder = new CacheStatsRecorder("loading");
+        final LoadingCache<Integer, String> cache = new LoadingCache<>(100, key -> {
+            if (key < 0) {
+                throw new IllegalArgumentException();
+            }
+            return String.valueOf(key);
+        });
+        cache.setStatsRecorder(recorder);
+        cache.get(1);
+        cache.get(1);
+        cache.getAll(Arrays.asList(1, 2, 3));
+        try {
+            cache.get(-1);
+        } catch (RuntimeException ignore) {
+        }
+        assertEquals(2, recorder.getLoadSuccessCount());
+        assertEquals(1, recorder.getLoadFailureCount());
+        assertEquals(2, recorder.getHitCount());
+        assertEquals(4, recorder.getMissCount());
+        assertTrue(recorder.getMaxLoadTime() > 0);
+        assertTrue(recorder.getAverageLoadTime() <= recorder.getMaxLoadTime());
+        cache.invalidateAll();
+        assertEquals(3, recorder.getExplicitRemovalCount());
+    }
+
+    @Test
+    public void testMBean() throws JMException {
+        final CacheStatsRecorder recorder = new CacheStatsRecorder("test:mbean");
+        recorder.recordHits(3);
+        recorder.recordMisses(1);
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(recorder.registerMBean());
+        try {
+            assertFalse(recorder.registerMBean());
+            assertEquals(3L, server.getAttribute(recorder.getObjectName(), "HitCount"));
+            assertEquals(0.75, (Double) server.getAttribute(recorder.getObjectName(), "HitRate"), 1e-9);
+            server.invoke(recorder.getObjectName(), "reset", null, null);
+            assertEquals(0L, recorder.getHitCount());
+        } finally {
+            recorder.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(recorder.getObjectName()));
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.egls.server.utils.structure;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author mayer - [Created on 2026-10-18 21:00]
+ */
+public class TestCompositeByteBuffer {
+
+    @Test
+    public void testCompatible() {
+        final ByteBuffer expected = new ByteBuffer();
+        for (int i = 0; i < 100; i++) {
+            expected.writeLong(i * 0x0102030405060708L);
+        }
+        final byte[] bytes = expected.toByteArray();
+        //按照不同的长度切分成多个数组
+        final CompositeByteBuffer buffer = new CompositeByteBuffer();
+        for (int off = 0, len = 1; off < bytes.length; off += len, len = len % 13 + 1) {
+            buffer.write(bytes, off, Math.min(len, bytes.length - off));
+        }
+        assertTrue(buffer.componentCount() > 1);
+        assertEquals(bytes.length, buffer.size());
+        assertArrayEquals(bytes, buffer.toByteArray());
+
+        assertEquals(expected.peekShort(), buffer.peekShort());
+        assertEquals(expected.readByte(), buffer.readByte());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(expected.peekInt(), buffer.peekInt());
+            assertEquals(expected.readInt(), buffer.readInt());
+            assertEquals(expected.readLong(), buffer.readLong());
+            assertEquals(expected.readShort(), buffer.readShort());
+        }
+        final byte[] key = expected.read(21);
+        assertArrayEquals(key, buffer.read(21));
+        assertEquals(0, buffer.indexOf(expected.read(9)));
+        buffer.skip(9);
+        assertArrayEquals(expected.readFully(), buffer.readFully());
+        assertFalse(buffer.hasRemaining());
+        assertEquals(0, buffer.componentCount());
+    }
+
+    @Test
+    public void testSlice() {
+        final byte[] first = {0, 1, 2, 3};
+        final byte[] second = {4, 5, 6};
+        final byte[] third = {7, 8, 9, 10, 11};
+        final CompositeByteBuffer buffer = new CompositeByteBuffer(first);
+        buffer.write(second);
+        buffer.write(third, 1, 4);
+        buffer.skip(1);
+
+        assertEquals(2, buffer.indexOf(new byte[]{3, 4, 5}));
+        assertEquals(-1, buffer.indexOf(new byte[]{6, 7}));
+        assertEquals(-1, buffer.indexOf(new byte[]{0}));
+        assertEquals(9, buffer.indexOf(new byte[]{11}));
+
+        final CompositeByteBuffer slice = buffer.slice(2, 6);
+        assertArrayEquals(new byte[]{3, 4, 5, 6, 8, 9}, slice.toByteArray());
+        assertEquals(3, slice.componentCount());
+        assertEquals(10, buffer.size());
+
+        //视图共享底层数组
+        second[0] = 40;
+        assertEquals(40, slice.peekShort() & 0xFF);
+
+        final java.nio.ByteBuffer[] nioBuffers = buffer.nioBuffers();
+        assertEquals(3, nioBuffers.length);
+        assertEquals(3, nioBuffers[0].remaining());
+        assertEquals(1, nioBuffers[0].get(0));
+        assertTrue(nioBuffers[2].isReadOnly());
+        try {
+            nioBuffers[1].put(0, (byte) 0);
+            fail();
+        } catch (java.nio.ReadOnlyBufferException ignore) {
+        }
+
+        final CompositeByteBuffer readSlice = buffer.readSlice(5);
+        assertArrayEquals(new byte[]{1, 2, 3, 40, 5}, readSlice.readFully());
+        assertEquals(0x06080000 | (9 << 8) | 10, buffer.readInt());
+        assertEquals(11, buffer.readByte());
+        try {
+            buffer.readByte();
+            fail();
+        } catch (IllegalStateException ignore) {
+        }
+    }
+
+    @Test
+    public void testWriteTo() throws java.io.IOException {
+        final java.nio.channels.Pipe pipe = java.nio.channels.Pipe.open();
+        try {
+            final CompositeByteBuffer buffer = new CompositeByteBuffer(new byte[]{1, 2, 3});
+            buffer.write(new byte[]{4, 5});
+            buffer.skip(1);
+            assertEquals(4, buffer.writeTo(pipe.sink()));
+            assertFalse(buffer.hasRemaining());
+
+            final ByteBuffer received = new ByteBuffer();
+            while (received.size() < 4) {
+                received.readFrom(pipe.source());
+            }
+            assertArrayEquals(new byte[]{2, 3, 4, 5}, received.readFully());
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+    @Test
+    public void testNegativeLength() {
+        final CompositeByteBuffer buffer = new CompositeByteBuffer();
+        buffer.write(new byte[]{0, 0, 0, 1});
+        try {
+            buffer.skip(-1);
+            fail();
+        } catch (IndexOutOfBoundsException ignore) {
+        }
+        try {
+            buffer.read(-1);
+            fail();
+        } catch (IndexOutOfBoundsException ignore) {
+        }
+        assertEquals(4, buffer.size());
+        assertEquals(1, buffer.readInt());
+    }
+
+}
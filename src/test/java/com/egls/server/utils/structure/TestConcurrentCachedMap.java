@@ -0,0 +1,205 @@
+package com.egls.server.utils.structure;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.egls.server.utils.date.ManualClock;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author mayer - [Created on 2026-10-18 22:20]
+ */
+public class TestConcurrentCachedMap {
+
+    @Test
+    public void testLru() {
+        final List<Integer> removed = new ArrayList<>();
+        final ConcurrentCachedMap<Integer, String> map = new ConcurrentCachedMap<>(3, (key, value) -> removed.add(key));
+        map.put(1, "1");
+        map.put(2, "2");
+        map.put(3, "3");
+        assertEquals("1", map.get(1));
+        map.put(4, "4");
+        assertEquals(Arrays.asList(2), removed);
+        assertEquals(Arrays.asList(3, 1, 4), map.keysInAccessOrder());
+
+        assertEquals("3", map.putIfAbsent(3, "33"));
+        assertEquals("3", map.get(3));
+        assertEquals("1", map.put(1, "11"));
+        assertEquals(Arrays.asList(4, 3, 1), map.keysInAccessOrder());
+        assertTrue(map.replace(4, "4", "44"));
+        assertFalse(map.remove(4, "4"));
+        assertEquals("44", map.remove(4));
+        map.put(5, "5");
+        map.put(6, "6");
+        assertEquals(Arrays.asList(2, 3), removed);
+        assertEquals(3, map.size());
+
+        map.entrySet().removeIf(entry -> entry.getKey() == 5);
+        assertNull(map.get(5));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.keysInAccessOrder().size());
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        final AtomicInteger removedCount = new AtomicInteger();
+        final ConcurrentCachedMap<Integer, Integer> map = new ConcurrentCachedMap<>(100, (key, value) -> {
+            assertEquals(key, value);
+            removedCount.incrementAndGet();
+        });
+        final int threads = 8;
+        final int operations = 20000;
+        final AtomicInteger putCount = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < operations; i++) {
+                    final int key = random.nextInt(300);
+                    final Integer value = map.get(key);
+                    if (value == null) {
+                        if (map.putIfAbsent(key, key) == null) {
+                            putCount.incrementAndGet();
+                        }
+                    } else {
+                        assertEquals(key, value.intValue());
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        assertEquals(100, map.size());
+        assertEquals(100, map.keysInAccessOrder().size());
+        assertEquals(putCount.get() - 100, removedCount.get());
+    }
+
+    @Test
+    public void testTinyLfu() {
+        final ConcurrentCachedMap<Integer, Integer> lru = new ConcurrentCachedMap<>(100, CachePolicy.LRU);
+        final ConcurrentCachedMap<Integer, Integer> tinyLfu = new ConcurrentCachedMap<>(100, CachePolicy.TINY_LFU);
+        //热点数据反复访问之后,一次扫描大量冷数据
+        final int[] trace = new int[20000];
+        for (int i = 0; i < trace.length; i++) {
+            trace[i] = i % 1000 < 800 ? i % 50 : 1000 + i;
+        }
+        final double lruHitRatio = CachePolicySimulator.replay(lru, trace);
+        final double tinyLfuHitRatio = CachePolicySimulator.replay(tinyLfu, trace);
+        assertTrue(lruHitRatio + " " + tinyLfuHitRatio, tinyLfuHitRatio > lruHitRatio);
+        assertEquals(100, tinyLfu.size());
+        assertEquals(100, tinyLfu.keysInAccessOrder().size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(tinyLfu.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testExpire() {
+        final ManualClock clock = new ManualClock(0L);
+        final List<String> removed = new ArrayList<>();
+        final ConcurrentCachedMap<Integer, String> map = new ConcurrentCachedMap<>(2000, null, CachePolicy.LRU, 10_000L, 3_000L, clock,
+                (key, value, cause) -> removed.add(key + ":" + value + ":" + cause));
+        map.put(1, "1");
+        map.put(2, "2");
+        clock.advance(Duration.ofMillis(2_000L));
+        assertEquals("1", map.get(1));
+        clock.advance(Duration.ofMillis(2_000L));
+        //2超过了空闲时间,1被访问过
+        assertNull(map.get(2));
+        assertFalse(map.containsKey(2));
+        assertEquals("1", map.get(1));
+        map.tick();
+        assertEquals(Arrays.asList("2:2:EXPIRED"), removed);
+        assertEquals(1, map.size());
+
+        //1一直被访问,但是超过了存活时间
+        for (int i = 0; i < 5; i++) {
+            clock.advance(Duration.ofMillis(1_000L));
+            assertEquals("1", map.get(1));
+        }
+        clock.advance(Duration.ofMillis(1_000L));
+        assertNull(map.get(1));
+        map.tick();
+        assertEquals(Arrays.asList("2:2:EXPIRED", "1:1:EXPIRED"), removed);
+        assertTrue(map.isEmpty());
+
+        //时间轮的高层格子
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, String.valueOf(i));
+        }
+        map.put(0, "00");
+        map.put(1000, "1000");
+        map.remove(1000);
+        assertEquals("1000:1000:EXPLICIT", removed.get(removed.size() - 1));
+        assertEquals("0:0:REPLACED", removed.get(removed.size() - 2));
+        removed.clear();
+        clock.advance(Duration.ofHours(1L));
+        map.tick();
+        assertTrue(map.isEmpty());
+        assertEquals(0L, map.getTotalWeight());
+        assertEquals(1000, removed.size());
+    }
+
+    @Test
+    public void testLongExpire() {
+        final ManualClock clock = new ManualClock(123_456L);
+        final ConcurrentCachedMap<Integer, Integer> map = new ConcurrentCachedMap<>(1000, null, CachePolicy.TINY_LFU,
+                Duration.ofDays(10L).toMillis(), 0L, clock, null);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+            clock.advance(Duration.ofHours(1L));
+            map.tick();
+        }
+        //最早的元素写入后已经过了100小时
+        assertEquals(100, map.size());
+        clock.advance(Duration.ofHours(24L * 10 - 100));
+        map.tick();
+        assertEquals(99, map.size());
+        assertNull(map.get(0));
+        clock.advance(Duration.ofHours(50L));
+        map.tick();
+        assertEquals(49, map.size());
+        assertEquals(Integer.valueOf(99), map.get(99));
+        clock.advance(Duration.ofDays(30L));
+        map.tick();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testWeight() {
+        final List<String> removed = new ArrayList<>();
+        final ConcurrentCachedMap<Integer, String> map = new ConcurrentCachedMap<>(10, (key, value) -> value.length(), CachePolicy.LRU,
+                0L, 0L, new ManualClock(0L), (key, value, cause) -> removed.add(key + ":" + cause));
+        map.put(1, "aaaa");
+        map.put(2, "bbbb");
+        assertEquals(8L, map.getTotalWeight());
+        map.put(3, "cc");
+        assertEquals(10L, map.getTotalWeight());
+        assertTrue(removed.isEmpty());
+        //替换之后权重变大,淘汰最久没有访问的1
+        map.put(2, "bbbbbb");
+        assertEquals(Arrays.asList("2:REPLACED", "1:SIZE"), removed);
+        assertEquals(8L, map.getTotalWeight());
+        //超过最大权重的元素直接被淘汰
+        map.put(4, "dddddddddddd");
+        assertEquals(Arrays.asList("2:REPLACED", "1:SIZE", "3:SIZE", "2:SIZE", "4:SIZE"), removed);
+        assertTrue(map.isEmpty());
+        assertEquals(0L, map.getTotalWeight());
+        assertTrue(RemovalCause.SIZE.wasEvicted());
+        assertFalse(RemovalCause.REPLACED.wasEvicted());
+    }
+
+}
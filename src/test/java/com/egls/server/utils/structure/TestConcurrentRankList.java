@@ -0,0 +1,174 @@
+package com.egls.server.utils.structure;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-19 05:30]
+ */
+public class TestConcurrentRankList {
+
+    @Test
+    public void test0() {
+        ConcurrentRankList<String> rankList = new ConcurrentRankList<>(true);
+        Assert.assertNull(rankList.peekFirst());
+        Assert.assertNull(rankList.pollLast());
+        rankList.put("a", 100);
+        rankList.put("b", 300);
+        rankList.put("c", 200);
+        rankList.put("d", 300);
+        Assert.assertEquals(4, rankList.size());
+        Assert.assertEquals(0, rankList.rankOf("b"));
+        Assert.assertEquals(1, rankList.rankOf("d"));
+        Assert.assertEquals(2, rankList.rankOf("c"));
+        Assert.assertEquals(3, rankList.rankOf("a"));
+        Assert.assertEquals(0, rankList.lastRankOf("a"));
+        Assert.assertEquals(-1, rankList.rankOf("e"));
+        Assert.assertEquals(2, rankList.countBefore(200));
+
+        //分数不变时排名不变,分数变化后排在相同分数的后面
+        Assert.assertFalse(rankList.put("b", 300));
+        Assert.assertEquals(0, rankList.rankOf("b"));
+        Assert.assertEquals(300, rankList.add("b", 0));
+        Assert.assertEquals(0, rankList.rankOf("b"));
+        Assert.assertEquals(400, rankList.add("c", 200));
+        Assert.assertEquals(0, rankList.rankOf("c"));
+        Assert.assertEquals(400, rankList.getScore("c").getAsLong());
+        Assert.assertFalse(rankList.getScore("e").isPresent());
+        Assert.assertEquals(5, rankList.add("e", 5));
+
+        Assert.assertEquals("b", rankList.get(1).getKey());
+        List<String> keys = new ArrayList<>();
+        for (ConcurrentRankList.Entry<String> entry : rankList.range(1, 10)) {
+            keys.add(entry.getKey());
+        }
+        Assert.assertEquals(Arrays.asList("b", "d", "a", "e"), keys);
+        Assert.assertTrue(rankList.range(3, 2).isEmpty());
+
+        Assert.assertEquals("c", rankList.pollFirst().getKey());
+        Assert.assertEquals("e", rankList.pollLast().getKey());
+        Assert.assertTrue(rankList.remove("d"));
+        Assert.assertFalse(rankList.remove("d"));
+        Assert.assertFalse(rankList.contains("d"));
+        Assert.assertEquals(2, rankList.size());
+
+        Iterator<ConcurrentRankList.Entry<String>> itr = rankList.iterator();
+        Assert.assertEquals("b", itr.next().getKey());
+        itr.remove();
+        rankList.put("z", 1);
+        Assert.assertEquals("a", itr.next().getKey());
+        Assert.assertFalse(itr.hasNext());
+        Assert.assertEquals(Arrays.asList("a", "z"), Arrays.asList(rankList.get(0).getKey(), rankList.get(1).getKey()));
+
+        rankList.clear();
+        Assert.assertTrue(rankList.isEmpty());
+        Assert.assertEquals(-1, rankList.rankOf("a"));
+    }
+
+    @Test
+    public void test1() {
+        Random random = new Random(0);
+        ConcurrentRankList<Integer> rankList = new ConcurrentRankList<>(false);
+        Map<Integer, Long> scores = new HashMap<>();
+        for (int round = 0; round < 20000; round++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(5) == 0) {
+                Assert.assertEquals(scores.remove(key) != null, rankList.remove(key));
+            } else {
+                long score = random.nextInt(100);
+                rankList.put(key, score);
+                scores.put(key, score);
+            }
+        }
+        Assert.assertEquals(scores.size(), rankList.size());
+        List<ConcurrentRankList.Entry<Integer>> all = rankList.range(0, rankList.size());
+        for (int i = 0; i < all.size(); i++) {
+            ConcurrentRankList.Entry<Integer> entry = all.get(i);
+            Assert.assertEquals((long) scores.get(entry.getKey()), entry.getScore());
+            Assert.assertEquals(i, rankList.rankOf(entry.getKey()));
+            Assert.assertSame(entry, rankList.get(i));
+            if (i > 0) {
+                Assert.assertTrue(all.get(i - 1).getScore() <= entry.getScore());
+            }
+        }
+    }
+
+    @Test
+    public void testHashCollision() {
+        //这几个字符串的hashCode相同
+        List<String> keys = Arrays.asList("AaAa", "AaBB", "BBAa", "BBBB");
+        ConcurrentRankList<String> rankList = new ConcurrentRankList<>(false);
+        for (int i = 0; i < keys.size(); i++) {
+            rankList.put(keys.get(i), keys.size() - i);
+        }
+        rankList.put("Aa", 0);
+        Assert.assertEquals(5, rankList.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Assert.assertEquals(keys.size() - i, rankList.rankOf(keys.get(i)));
+        }
+        rankList.put("AaBB", 10);
+        Assert.assertEquals(4, rankList.rankOf("AaBB"));
+        Assert.assertTrue(rankList.remove("BBAa"));
+        Assert.assertFalse(rankList.contains("BBAa"));
+        Assert.assertFalse(rankList.contains("BB"));
+        Assert.assertEquals(4, rankList.getScore("AaAa").getAsLong());
+        Assert.assertEquals(1, rankList.getScore("BBBB").getAsLong());
+        Assert.assertEquals(Arrays.asList("Aa", "BBBB", "AaAa", "AaBB"), Arrays.asList(
+                rankList.get(0).getKey(), rankList.get(1).getKey(), rankList.get(2).getKey(), rankList.get(3).getKey()));
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        final ConcurrentRankList<Integer> rankList = new ConcurrentRankList<>(true);
+        final int keys = 1000;
+        for (int i = 0; i < keys; i++) {
+            rankList.put(i, 0);
+        }
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(4);
+        for (int t = 0; t < 2; t++) {
+            final int seed = t;
+            new Thread(() -> {
+                try {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 20000; i++) {
+                        rankList.add(random.nextInt(keys), random.nextInt(100));
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        for (int t = 0; t < 2; t++) {
+            new Thread(() -> {
+                try {
+                    Random random = new Random();
+                    for (int i = 0; i < 20000; i++) {
+                        //分数只增加不减少,也没有移除,所有的键一直都在
+                        int rank = rankList.rankOf(random.nextInt(keys));
+                        Assert.assertTrue(rank >= 0 && rank < keys);
+                        List<ConcurrentRankList.Entry<Integer>> range = rankList.range(100, 110);
+                        Assert.assertEquals(10, range.size());
+                        for (int j = 1; j < range.size(); j++) {
+                            Assert.assertTrue(range.get(j - 1).getScore() >= range.get(j).getScore());
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(keys, rankList.size());
+    }
+
+}
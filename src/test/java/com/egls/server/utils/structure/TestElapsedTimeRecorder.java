@@ -0,0 +1,62 @@
+package com.egls.server.utils.structure;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-19 06:00]
+ */
+public class TestElapsedTimeRecorder {
+
+    @Test
+    public void test0() {
+        for (boolean striped : new boolean[]{false, true}) {
+            ElapsedTimeRecorder recorder = new ElapsedTimeRecorder("test", striped);
+            Assert.assertEquals(striped, recorder.isStriped());
+            recorder.addElapsedTime(10);
+            recorder.addElapsedTime(30);
+            recorder.addElapsedTime(0);
+            recorder.addElapsedTime(20);
+            Assert.assertEquals(3, recorder.getTotalElapsedCount().get());
+            Assert.assertEquals(60, recorder.getTotalElapsedTime().get());
+            Assert.assertEquals(10, recorder.getMinElapsedTime().get());
+            Assert.assertEquals(30, recorder.getMaxElapsedTime().get());
+            Assert.assertEquals(20, recorder.getAvgElapsedTime().get());
+            recorder.reset();
+            Assert.assertEquals(0, recorder.getTotalElapsedCount().get());
+            Assert.assertEquals(0, recorder.getAvgElapsedTime().get());
+            Assert.assertEquals(Long.MAX_VALUE, recorder.getMinElapsedTime().get());
+        }
+    }
+
+    @Test
+    public void test1() throws InterruptedException {
+        final ElapsedTimeRecorder recorder = new ElapsedTimeRecorder("striped", true);
+        final ElapsedTimeRecorder other = new ElapsedTimeRecorder("other");
+        final int threads = 4;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 1; i <= 10000; i++) {
+                    recorder.addElapsedTime(i);
+                    other.addElapsedTime(1);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        Assert.assertEquals(threads * 10000L, recorder.getTotalElapsedCount().get());
+        Assert.assertEquals(threads * 50005000L, recorder.getTotalElapsedTime().get());
+        Assert.assertEquals(1, recorder.getMinElapsedTime().get());
+        Assert.assertEquals(10000, recorder.getMaxElapsedTime().get());
+        Assert.assertEquals(5000, recorder.getAvgElapsedTime().get());
+
+        final String showString = ElapsedTimeRecorder.toShowString("ELAPSED", Arrays.asList(other, recorder));
+        Assert.assertTrue(showString.indexOf(" striped ") < showString.indexOf(" other "));
+        Assert.assertTrue(showString.contains(" 200020000 "));
+    }
+
+}
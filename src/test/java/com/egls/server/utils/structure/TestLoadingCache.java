@@ -0,0 +1,138 @@
+package com.egls.server.utils.structure;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.egls.server.utils.date.ManualClock;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author mayer - [Created on 2026-10-18 23:55]
+ */
+public class TestLoadingCache {
+
+    @Test
+    public void testCoalescing() throws InterruptedException {
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final LoadingCache<Integer, String> cache = new LoadingCache<>(100, key -> {
+            loadCount.incrementAndGet();
+            started.countDown();
+            release.await();
+            return String.valueOf(key);
+        });
+        final int threads = 8;
+        final List<String> results = new ArrayList<>();
+        final CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                final String value = cache.get(1);
+                synchronized (results) {
+                    results.add(value);
+                }
+                finished.countDown();
+            }).start();
+        }
+        started.await();
+        //其他线程都在等待同一次加载
+        Thread.sleep(100L);
+        release.countDown();
+        finished.await();
+        assertEquals(1, loadCount.get());
+        assertEquals(threads, results.size());
+        assertTrue(results.stream().allMatch("1"::equals));
+        assertEquals("1", cache.getIfPresent(1));
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        final LoadingCache<Integer, String> cache = new LoadingCache<>(100, key -> {
+            if (key < 0) {
+                throw new IOException("negative " + key);
+            }
+            return key == 0 ? null : String.valueOf(key);
+        });
+        assertNull(cache.get(0));
+        assertNull(cache.getIfPresent(0));
+        assertEquals("2", cache.getAsync(2).get());
+        try {
+            cache.get(-1);
+            fail();
+        } catch (CompletionException exception) {
+            assertTrue(exception.getCause() instanceof IOException);
+        }
+        assertEquals(1, cache.size());
+        cache.put(3, "three");
+        assertEquals("three", cache.get(3));
+        cache.invalidate(3);
+        assertEquals("3", cache.get(3));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRefresh() {
+        final ManualClock clock = new ManualClock(0L);
+        final AtomicInteger version = new AtomicInteger();
+        final LoadingCache<Integer, String> cache = new LoadingCache<>(100, null, CachePolicy.LRU, 0L, 0L, 1_000L, clock, Runnable::run,
+                key -> key + ":" + version.get(), null);
+        assertEquals("1:0", cache.get(1));
+        version.set(1);
+        clock.advance(Duration.ofMillis(999L));
+        assertEquals("1:0", cache.get(1));
+        clock.advance(Duration.ofMillis(1L));
+        //触发刷新的读取仍然返回旧的值
+        assertEquals("1:0", cache.get(1));
+        assertEquals("1:1", cache.get(1));
+        version.set(2);
+        cache.refresh(1).join();
+        assertEquals("1:2", cache.getIfPresent(1));
+    }
+
+    @Test
+    public void testGetAll() {
+        final List<Collection<? extends Integer>> batches = new ArrayList<>();
+        final LoadingCache<Integer, String> cache = new LoadingCache<>(100, new CacheLoader<Integer, String>() {
+            @Override
+            public String load(final Integer key) {
+                return String.valueOf(key);
+            }
+
+            @Override
+            public Map<Integer, String> loadAll(final Collection<? extends Integer> keys) {
+                batches.add(keys);
+                final Map<Integer, String> result = new HashMap<>();
+                for (Integer key : keys) {
+                    if (key % 2 == 0) {
+                        result.put(key, String.valueOf(key));
+                    }
+                }
+                return result;
+            }
+        });
+        cache.get(1);
+        final Map<Integer, String> result = cache.getAll(Arrays.asList(6, 1, 2, 3, 4, 2));
+        assertEquals(Arrays.asList(6, 1, 2, 4), new ArrayList<>(result.keySet()));
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList(6, 2, 3, 4), batches.get(0));
+        assertEquals(5, cache.getAll(Arrays.asList(1, 2, 4, 6, 8)).size());
+        assertEquals(Arrays.asList(8), batches.get(1));
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.egls.server.utils.structure;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author mayer - [Created on 2026-10-19 00:50]
+ */
+public class TestOffHeapCache {
+
+    private static byte[] value(final int key, final int length) {
+        final byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) key);
+        return bytes;
+    }
+
+    @Test
+    public void test1() {
+        final OffHeapCache<String> cache = new OffHeapCache<>(1024, OffHeapCache.Policy.LRU);
+        assertNull(cache.get("a"));
+        cache.put("a", "hello".getBytes());
+        cache.put("b", value(2, 100), 10, 50);
+        final java.nio.ByteBuffer source = java.nio.ByteBuffer.wrap(value(3, 64));
+        cache.put("c", source);
+        assertEquals(0, source.position());
+        assertEquals("hello", new String(cache.get("a")));
+        assertArrayEquals(value(2, 50), cache.get("b"));
+        assertEquals(Integer.valueOf(64), cache.read("c", view -> {
+            assertTrue(view.isReadOnly());
+            return view.remaining();
+        }));
+        assertEquals(64 * 3, cache.getMemoryUsedBytes());
+
+        cache.put("a", value(1, 200));
+        assertArrayEquals(value(1, 200), cache.get("a"));
+        assertEquals(3, cache.size());
+        assertTrue(cache.remove("a"));
+        assertFalse(cache.remove("a"));
+        assertFalse(cache.containsKey("a"));
+        assertEquals(64 * 2, cache.getMemoryUsedBytes());
+
+        cache.put("empty", new byte[0]);
+        assertEquals(0, cache.get("empty").length);
+        try {
+            cache.put("large", new byte[cache.getMaxValueLength() + 1]);
+            fail();
+        } catch (IllegalArgumentException ignore) {
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getMemoryUsedBytes());
+        cache.close();
+    }
+
+    @Test
+    public void testPolicy() {
+        final OffHeapCache<Integer> lru = new OffHeapCache<>(1024, OffHeapCache.Policy.LRU);
+        final OffHeapCache<Integer> clock = new OffHeapCache<>(1024, OffHeapCache.Policy.CLOCK);
+        for (OffHeapCache<Integer> cache : Arrays.asList(lru, clock)) {
+            for (int i = 0; i < 4; i++) {
+                cache.put(i, value(i, 256));
+            }
+            cache.get(1);
+            cache.get(0);
+            for (int i = 4; i < 7; i++) {
+                cache.put(i, value(i, 256));
+            }
+            assertEquals(4, cache.size());
+            assertEquals(3L, cache.getEvictionCount());
+        }
+        //LRU淘汰了2,3,1; CLOCK给0和1一次机会之后淘汰了2,3,0
+        assertTrue(lru.containsKey(0));
+        assertFalse(lru.containsKey(1));
+        assertTrue(clock.containsKey(1));
+        assertFalse(clock.containsKey(0));
+
+        //碎片:释放不连续的空间之后,放入较大的值需要继续淘汰
+        lru.clear();
+        for (int i = 0; i < 8; i++) {
+            lru.put(i, value(i, 128));
+        }
+        lru.remove(1);
+        lru.remove(3);
+        lru.put(8, value(8, 256));
+        assertArrayEquals(value(8, 256), lru.get(8));
+        assertFalse(lru.containsKey(0));
+        assertTrue(lru.containsKey(2));
+    }
+
+    @Test
+    public void testOverflow() throws IOException {
+        final Path file = Files.createTempFile("TestOffHeapCache", ".bin");
+        final OffHeapCache<Integer> cache = new OffHeapCache<>(1024, file, 2048, OffHeapCache.Policy.LRU);
+        for (int i = 0; i < 12; i++) {
+            cache.put(i, value(i, 256));
+        }
+        assertEquals(12, cache.size());
+        assertEquals(1024L, cache.getMemoryUsedBytes());
+        assertEquals(2048L, cache.getOverflowUsedBytes());
+        assertEquals(0L, cache.getEvictionCount());
+        for (int i = 0; i < 12; i++) {
+            assertArrayEquals(value(i, 256), cache.get(i));
+        }
+        cache.put(12, value(12, 256));
+        assertEquals(1L, cache.getEvictionCount());
+        assertFalse(cache.containsKey(0));
+        assertArrayEquals(value(8, 256), cache.get(8));
+        cache.close();
+        assertFalse(Files.exists(file));
+        try {
+            cache.put(1, value(1, 1));
+            fail();
+        } catch (IllegalStateException ignore) {
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        //5MB是一个完整的4MB slab加上1MB的slab
+        final long memoryBytes = 5L * 1024 * 1024;
+        final OffHeapCache<Integer> cache = new OffHeapCache<>(memoryBytes, OffHeapCache.Policy.LRU);
+        long maxUsedBytes = 0L;
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, value(i, 100 * 1000 + i * 37));
+            assertTrue(cache.getMemoryUsedBytes() <= memoryBytes);
+            maxUsedBytes = Math.max(maxUsedBytes, cache.getMemoryUsedBytes());
+        }
+        assertTrue(maxUsedBytes > 4L * 1024 * 1024);
+        assertTrue(cache.getEvictionCount() > 0);
+        assertArrayEquals(value(99, 100 * 1000 + 99 * 37), cache.get(99));
+        cache.close();
+    }
+
+}
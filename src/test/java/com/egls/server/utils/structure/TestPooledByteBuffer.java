@@ -0,0 +1,187 @@
+package com.egls.server.utils.structure;
+
+import com.egls.server.utils.CharsetUtil;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author mayer - [Created on 2026-10-18 20:10]
+ */
+public class TestPooledByteBuffer {
+
+    @Test
+    public void test1() {
+        final DirectByteBufferPool pool = new DirectByteBufferPool();
+        final String string = "Hello,World!你好,世界!";
+        final byte[] bytes = string.getBytes(CharsetUtil.defaultCharset());
+        final PooledByteBuffer byteBuffer = new PooledByteBuffer(pool, bytes);
+        assertEquals(byteBuffer.size(), bytes.length);
+        assertEquals(string, new String(byteBuffer.read(bytes.length), CharsetUtil.defaultCharset()));
+
+        for (int i = 0; i < 1000; i++) {
+            byteBuffer.write(bytes);
+            assertEquals(byteBuffer.size(), (bytes.length * (i + 1)));
+        }
+        assertEquals(0, byteBuffer.bufSize() % 1024);
+        assertEquals(byteBuffer.bufSize(), pool.getUsedBytes());
+
+        for (int i = 1000; i > 0; i--) {
+            byte[] tmp = byteBuffer.read(bytes.length);
+            assertEquals(byteBuffer.size(), (bytes.length * (i - 1)));
+            assertEquals(string, new String(tmp, CharsetUtil.defaultCharset()));
+        }
+
+        byteBuffer.reset();
+        assertEquals(0, byteBuffer.size());
+        assertFalse(byteBuffer.hasRemaining());
+        assertEquals(1024, byteBuffer.bufSize());
+        assertEquals(1024, pool.getUsedBytes());
+
+        byteBuffer.writeByte((byte) 1);
+        byteBuffer.writeShort((short) -11);
+        byteBuffer.writeInt(111);
+        byteBuffer.writeLong(-1111);
+        assertEquals(1, byteBuffer.peekByte());
+        assertEquals(1, byteBuffer.readByte());
+        assertEquals(-11, byteBuffer.readShort());
+        assertEquals(111, byteBuffer.readInt());
+        assertEquals(-1111, byteBuffer.readLong());
+        assertEquals(0, byteBuffer.size());
+
+        byteBuffer.release();
+        assertTrue(byteBuffer.isReleased());
+        assertEquals(0, pool.getUsedBytes());
+        assertEquals(pool.getPooledBytes(), pool.getFreeBytes());
+        try {
+            byteBuffer.writeByte((byte) 1);
+            fail();
+        } catch (IllegalStateException ignore) {
+        }
+    }
+
+    @Test
+    public void testCompatible() {
+        final ByteBuffer byteBuffer = new ByteBuffer(16);
+        final PooledByteBuffer pooledByteBuffer = new PooledByteBuffer(16);
+        try {
+            for (int i = 0; i < 3000; i++) {
+                byteBuffer.writeShort((short) i);
+                byteBuffer.writeLong(i * 31L);
+                pooledByteBuffer.writeShort((short) i);
+                pooledByteBuffer.writeLong(i * 31L);
+                if (i % 3 == 0) {
+                    assertEquals(byteBuffer.readInt(), pooledByteBuffer.readInt());
+                }
+            }
+            assertEquals(byteBuffer.size(), pooledByteBuffer.size());
+            assertArrayEquals(byteBuffer.read(64), pooledByteBuffer.read(64));
+            assertEquals(0, pooledByteBuffer.indexOf(byteBuffer.read(10)));
+            pooledByteBuffer.read(10);
+            assertArrayEquals(byteBuffer.toByteArray(), pooledByteBuffer.toByteArray());
+
+            final byte[] array = new byte[byteBuffer.size() + 2];
+            pooledByteBuffer.read(array, 2, byteBuffer.size());
+            assertArrayEquals(byteBuffer.readFully(), java.util.Arrays.copyOfRange(array, 2, array.length));
+            assertFalse(pooledByteBuffer.hasRemaining());
+        } finally {
+            pooledByteBuffer.release();
+        }
+    }
+
+    @Test
+    public void testPool() {
+        final DirectByteBufferPool pool = new DirectByteBufferPool(4096, 1);
+        final PooledByteBuffer[] buffers = new PooledByteBuffer[8];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new PooledByteBuffer(pool, 2000);
+        }
+        assertEquals(2048 * 8, pool.getUsedBytes());
+        final long pooledBytes = pool.getPooledBytes();
+        for (PooledByteBuffer buffer : buffers) {
+            buffer.release();
+        }
+        assertEquals(0, pool.getUsedBytes());
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new PooledByteBuffer(pool, 2000);
+        }
+        assertEquals(pooledBytes, pool.getPooledBytes());
+
+        //超过最大池化大小的内存块不进入池中
+        final PooledByteBuffer large = new PooledByteBuffer(pool, 5000);
+        assertEquals(5120, large.bufSize());
+        assertEquals(2048 * 8 + 5120, pool.getUsedBytes());
+        large.release();
+        assertEquals(pooledBytes, pool.getPooledBytes());
+        for (PooledByteBuffer buffer : buffers) {
+            buffer.release();
+        }
+        assertEquals(0, pool.getOccupancy(), 0);
+    }
+
+    @Test
+    public void testDeadThreadCache() throws InterruptedException {
+        //256kB的内存块,每个slab只有一个
+        final DirectByteBufferPool pool = new DirectByteBufferPool(0x40000, 4);
+        final Thread thread = new Thread(() -> new PooledByteBuffer(pool, 0x40000).release());
+        thread.start();
+        thread.join();
+        assertEquals(0x40000, pool.getPooledBytes());
+        assertEquals(0x40000, pool.getFreeBytes());
+
+        //结束的线程缓存的内存块被收回,不再申请新的slab
+        final PooledByteBuffer buffer = new PooledByteBuffer(pool, 0x40000);
+        assertEquals(0x40000, pool.getPooledBytes());
+        assertEquals(0, pool.getFreeBytes());
+        buffer.release();
+    }
+
+    @Test
+    public void testLeakDetection() throws InterruptedException {
+        final DirectByteBufferPool pool = new DirectByteBufferPool();
+        pool.setLeakDetection(true);
+        new PooledByteBuffer(pool, 100).writeInt(1);
+        new PooledByteBuffer(pool, 100).release();
+        assertEquals(1024, pool.getUsedBytes());
+        for (int i = 0; i < 100 && pool.getLeakCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            pool.detectLeaks();
+        }
+        assertEquals(1, pool.getLeakCount());
+        assertEquals(0, pool.getUsedBytes());
+    }
+
+    @Test
+    public void testChannel() throws java.io.IOException {
+        final DirectByteBufferPool pool = new DirectByteBufferPool();
+        final PooledByteBuffer buffer = new PooledByteBuffer(pool, 16);
+        final java.nio.channels.Pipe pipe = java.nio.channels.Pipe.open();
+        try {
+            for (int i = 0; i < 500; i++) {
+                buffer.writeLong(i);
+            }
+            int written = 0;
+            while (buffer.hasRemaining()) {
+                written += buffer.writeTo(pipe.sink());
+            }
+            assertEquals(4000, written);
+            while (buffer.size() < 4000) {
+                buffer.readFrom(pipe.source());
+            }
+            for (int i = 0; i < 500; i++) {
+                assertEquals(i, buffer.readLong());
+            }
+        } finally {
+            buffer.release();
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+}
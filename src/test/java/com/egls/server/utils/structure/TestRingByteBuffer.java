@@ -0,0 +1,108 @@
+package com.egls.server.utils.structure;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * @author mayer - [Created on 2026-10-18 20:55]
+ */
+public class TestRingByteBuffer {
+
+    @Test
+    public void testRing() {
+        final RingByteBuffer buffer = new RingByteBuffer(16);
+        assertEquals(1024, buffer.bufSize());
+        //一直在环绕,不会增长
+        for (int i = 0; i < 10000; i++) {
+            buffer.writeShort((short) i);
+            buffer.writeInt(i * 7);
+            buffer.writeLong(i * 31L);
+            buffer.writeByte((byte) i);
+            buffer.write(new byte[]{1, 2, 3});
+            assertEquals((short) i, buffer.peekShort());
+            assertEquals((short) i, buffer.readShort());
+            assertEquals(i * 7, buffer.readInt());
+            assertEquals(i * 31L, buffer.readLong());
+            assertEquals((byte) i, buffer.readByte());
+            assertArrayEquals(new byte[]{1, 2, 3}, buffer.read(3));
+            assertFalse(buffer.hasRemaining());
+            if (i % 3 == 0) {
+                buffer.writeByte((byte) 0);
+                buffer.readByte();
+            }
+        }
+        assertEquals(1024, buffer.bufSize());
+    }
+
+    @Test
+    public void testCompatible() {
+        final ByteBuffer byteBuffer = new ByteBuffer(16);
+        final RingByteBuffer ringByteBuffer = new RingByteBuffer(16);
+        for (int i = 0; i < 3000; i++) {
+            byteBuffer.writeLong(i * 31L);
+            byteBuffer.writeByte((byte) i);
+            ringByteBuffer.writeLong(i * 31L);
+            ringByteBuffer.writeByte((byte) i);
+            if (i % 3 == 0) {
+                assertEquals(byteBuffer.readInt(), ringByteBuffer.readInt());
+                assertEquals(byteBuffer.readByte(), ringByteBuffer.readByte());
+            }
+        }
+        assertEquals(byteBuffer.size(), ringByteBuffer.size());
+        assertEquals(0, ringByteBuffer.bufSize() & (ringByteBuffer.bufSize() - 1));
+        assertArrayEquals(byteBuffer.toByteArray(), ringByteBuffer.toByteArray());
+        assertArrayEquals(byteBuffer.readFully(), ringByteBuffer.readFully());
+        ringByteBuffer.reset();
+        assertEquals(1024, ringByteBuffer.bufSize());
+    }
+
+    @Test
+    public void testFrame() {
+        final RingByteBuffer buffer = new RingByteBuffer();
+        final byte[] body = "frame-body\r\n".getBytes(StandardCharsets.UTF_8);
+        int frames = 0;
+        for (int i = 0; i < 1000; i++) {
+            //数据分片到达
+            buffer.writeInt(body.length);
+            buffer.write(body, 0, 5);
+            while (buffer.size() >= 4 && buffer.size() - 4 >= buffer.peekInt()) {
+                final int length = buffer.readInt();
+                assertEquals(body.length - 2, buffer.indexOf(new byte[]{'\r', '\n'}));
+                assertArrayEquals(body, buffer.read(length));
+                frames++;
+            }
+            buffer.write(body, 5, body.length - 5);
+        }
+        while (buffer.hasRemaining()) {
+            assertArrayEquals(body, buffer.read(buffer.readInt()));
+            frames++;
+        }
+        assertEquals(1000, frames);
+        assertEquals(1024, buffer.bufSize());
+    }
+
+    @Test
+    public void testNegativeLength() {
+        final RingByteBuffer buffer = new RingByteBuffer();
+        buffer.writeInt(1);
+        try {
+            buffer.skip(-1);
+            fail();
+        } catch (IndexOutOfBoundsException ignore) {
+        }
+        try {
+            buffer.read(-1);
+            fail();
+        } catch (IndexOutOfBoundsException ignore) {
+        }
+        assertEquals(4, buffer.size());
+        assertEquals(1, buffer.readInt());
+    }
+
+}
@@ -204,4 +204,68 @@ public class TestSortedList {
         Assert.assertTrue(list.isEmpty());
     }
 
+    @Test
+    public void test8() {
+        final Random random = new Random(8);
+        final List<Integer> expected = new ArrayList<>();
+        final SortedList<Integer> list = new SortedList<>(10);
+        for (int round = 0; round < 20; round++) {
+            final List<Integer> batch = new ArrayList<>();
+            for (int i = random.nextInt(100); i > 0; i--) {
+                batch.add(random.nextInt(200));
+            }
+            if (round % 3 == 0) {
+                Collections.sort(batch);
+            }
+            list.pollFirst();
+            if (!expected.isEmpty()) {
+                expected.remove(0);
+            }
+            list.addAll(batch);
+            expected.addAll(batch);
+            Collections.sort(expected);
+            Assert.assertArrayEquals(expected.toArray(), list.toArray());
+        }
+        list.addAll(new Integer[]{1000, -1, 500});
+        Assert.assertEquals(new Integer(-1), list.peekFirst());
+        Assert.assertEquals(new Integer(1000), list.peekLast());
+
+        final Iterator<Integer> itr = list.iterator();
+        list.addAll(Collections.singletonList(1));
+        try {
+            itr.next();
+            itr.remove();
+            Assert.fail();
+        } catch (ConcurrentModificationException exception) {
+            // do nothing
+        }
+        try {
+            list.addAll(Arrays.asList(1, null));
+            Assert.fail();
+        } catch (NullPointerException exception) {
+            // do nothing
+        }
+    }
+
+    @Test
+    public void test9() {
+        final SortedList<Integer> list = new SortedList<>(10);
+        for (int i = 0; i < 100; i++) {
+            list.add(i % 10);
+        }
+        list.pollFirst();
+        Assert.assertFalse(list.removeAll(Arrays.asList(10, 11)));
+        Assert.assertTrue(list.removeAll(Arrays.asList(0, 3, 9, 3)));
+        Assert.assertEquals(70, list.size());
+        Assert.assertFalse(list.contains(0));
+        Assert.assertFalse(list.contains(3));
+        Assert.assertFalse(list.contains(9));
+        Assert.assertTrue(list.removeAll(new Integer[]{1, 2, 4, 5, 6, 7}));
+        Assert.assertArrayEquals(new Integer[]{8, 8, 8, 8, 8, 8, 8, 8, 8, 8}, list.toArray(new Integer[0]));
+        list.add(0);
+        Assert.assertEquals(new Integer(0), list.peekFirst());
+        Assert.assertTrue(list.removeAll(Collections.singletonList(8)));
+        Assert.assertEquals(1, list.size());
+    }
+
 }
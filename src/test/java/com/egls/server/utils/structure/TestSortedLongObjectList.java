@@ -0,0 +1,83 @@
+package com.egls.server.utils.structure;
+
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-19 04:30]
+ */
+public class TestSortedLongObjectList {
+
+    @Test
+    public void test0() {
+        SortedLongObjectList<String> sortedList = new SortedLongObjectList<>(4, true);
+        sortedList.add(100, "a");
+        sortedList.add(300, "b");
+        sortedList.add(200, "c");
+        sortedList.add(300, "d");
+        sortedList.add(50, "e");
+        Assert.assertArrayEquals(new long[]{300, 300, 200, 100, 50}, sortedList.toKeyArray());
+        Assert.assertArrayEquals(new Object[]{"b", "d", "c", "a", "e"}, sortedList.toArray());
+        Assert.assertEquals(1, sortedList.rankOf(300, "d"));
+        Assert.assertEquals(3, sortedList.lastRankOf(300, "d"));
+        Assert.assertEquals(-1, sortedList.rankOf(300, "a"));
+        Assert.assertEquals(0, sortedList.indexOfKey(300));
+        Assert.assertEquals(2, sortedList.countBefore(200));
+        Assert.assertEquals(200, sortedList.getKey(2));
+        Assert.assertEquals("c", sortedList.get(2));
+
+        Assert.assertEquals(300, sortedList.peekFirstKey());
+        Assert.assertEquals("b", sortedList.pollFirst());
+        Assert.assertEquals("e", sortedList.pollLast());
+        Assert.assertTrue(sortedList.remove(200, "c"));
+        Assert.assertFalse(sortedList.remove(200, "c"));
+        Assert.assertEquals(2, sortedList.size());
+
+        SortedLongObjectList<String>.EntryIterator itr = sortedList.iterator();
+        Assert.assertEquals("d", itr.next());
+        Assert.assertEquals(300, itr.key());
+        itr.remove();
+        Assert.assertEquals("a", itr.next());
+        Assert.assertEquals(100, itr.key());
+        Assert.assertFalse(itr.hasNext());
+        Assert.assertEquals(1, sortedList.size());
+
+        sortedList.clear();
+        Assert.assertNull(sortedList.pollFirst());
+        try {
+            sortedList.peekLastKey();
+            Assert.fail();
+        } catch (NoSuchElementException ignore) {
+        }
+    }
+
+    @Test
+    public void test1() {
+        Random random = new Random(0);
+        SortedLongObjectList<Integer> sortedList = new SortedLongObjectList<>(8, false);
+        List<long[]> reference = new ArrayList<>();
+        for (int round = 0; round < 5000; round++) {
+            if (random.nextInt(3) > 0 || reference.isEmpty()) {
+                long key = random.nextInt(100);
+                sortedList.add(key, round);
+                int index = 0;
+                while (index < reference.size() && reference.get(index)[0] <= key) {
+                    index++;
+                }
+                reference.add(index, new long[]{key, round});
+            } else {
+                int index = random.nextInt(reference.size());
+                Assert.assertEquals(reference.remove(index)[1], (long) sortedList.remove(index));
+            }
+        }
+        Assert.assertEquals(reference.size(), sortedList.size());
+        for (int i = 0; i < reference.size(); i++) {
+            Assert.assertEquals(reference.get(i)[0], sortedList.getKey(i));
+            Assert.assertEquals(reference.get(i)[1], (long) sortedList.get(i));
+            Assert.assertEquals(i, sortedList.indexOf(sortedList.getKey(i), sortedList.get(i)));
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.egls.server.utils.structure;
+
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-19 04:20]
+ */
+public class TestSortedPrimitiveList {
+
+    @Test
+    public void testInt() {
+        SortedIntList sortedList = new SortedIntList(4, false);
+        sortedList.add(0);
+        sortedList.add(2);
+        sortedList.add(3);
+        sortedList.add(1);
+        sortedList.add(4);
+        Assert.assertEquals(0, sortedList.peekFirst());
+        Assert.assertEquals(4, sortedList.peekLast());
+        Assert.assertEquals(0, sortedList.pollFirst());
+        Assert.assertEquals(4, sortedList.pollLast());
+        Assert.assertArrayEquals(new int[]{1, 2, 3}, sortedList.toArray());
+        Assert.assertEquals(1, sortedList.rankOf(2));
+        Assert.assertEquals(0, sortedList.lastRankOf(3));
+        Assert.assertEquals(-1, sortedList.indexOf(5));
+        Assert.assertTrue(sortedList.remove(2));
+        Assert.assertFalse(sortedList.remove(2));
+        Assert.assertEquals(3, sortedList.removeAt(1));
+        Assert.assertEquals(1, sortedList.size());
+
+        sortedList.clear();
+        Assert.assertTrue(sortedList.isEmpty());
+        try {
+            sortedList.pollFirst();
+            Assert.fail();
+        } catch (NoSuchElementException ignore) {
+        }
+
+        sortedList.addAll(new int[]{5, 1, 5, 3});
+        sortedList.addAll(new int[]{2, 5});
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 5, 5, 5}, sortedList.toArray());
+        Assert.assertEquals(3, sortedList.indexOf(5));
+        Assert.assertEquals(5, sortedList.lastIndexOf(5));
+        Assert.assertEquals(3, sortedList.countBefore(4));
+        Assert.assertTrue(sortedList.removeAll(new int[]{5, 2}));
+        Assert.assertArrayEquals(new int[]{1, 3}, sortedList.toArray());
+
+        PrimitiveIterator.OfInt itr = sortedList.iterator();
+        Assert.assertEquals(1, itr.nextInt());
+        itr.remove();
+        Assert.assertEquals(3, itr.nextInt());
+        Assert.assertFalse(itr.hasNext());
+        Assert.assertArrayEquals(new int[]{3}, sortedList.toArray());
+    }
+
+    @Test
+    public void testLong() {
+        Random random = new Random(0);
+        SortedLongList sortedList = new SortedLongList(8, true);
+        List<Long> reference = new ArrayList<>();
+        for (int round = 0; round < 5000; round++) {
+            if (random.nextInt(3) > 0 || reference.isEmpty()) {
+                long value = random.nextInt(300);
+                sortedList.add(value);
+                reference.add(value);
+                reference.sort(Comparator.reverseOrder());
+            } else if (random.nextBoolean()) {
+                int index = random.nextInt(reference.size());
+                Assert.assertEquals((long) reference.remove(index), sortedList.removeAt(index));
+            } else {
+                long value = random.nextInt(300);
+                Assert.assertEquals(reference.remove(value), sortedList.remove(value));
+            }
+        }
+        Assert.assertEquals(reference.size(), sortedList.size());
+        for (int i = 0; i < reference.size(); i++) {
+            Assert.assertEquals((long) reference.get(i), sortedList.get(i));
+        }
+        for (long value = 0; value < 300; value++) {
+            Assert.assertEquals(reference.indexOf(value), sortedList.indexOf(value));
+            Assert.assertEquals(reference.lastIndexOf(value), sortedList.lastIndexOf(value));
+        }
+        final long[] sum = new long[1];
+        sortedList.forEach(value -> sum[0] += value);
+        Assert.assertEquals(reference.stream().mapToLong(Long::longValue).sum(), sum[0]);
+    }
+
+    @Test
+    public void testDouble() {
+        SortedDoubleList sortedList = new SortedDoubleList(new double[]{2.5, Double.NaN, -1.0, 0.0, -0.0});
+        Assert.assertArrayEquals(new double[]{-1.0, -0.0, 0.0, 2.5, Double.NaN}, sortedList.toArray(), 0.0);
+        Assert.assertEquals(1, sortedList.indexOf(-0.0));
+        Assert.assertEquals(2, sortedList.indexOf(0.0));
+        Assert.assertEquals(4, sortedList.indexOf(Double.NaN));
+        Assert.assertEquals(-1, sortedList.indexOf(1.0));
+        Assert.assertEquals(Double.NaN, sortedList.pollLast(), 0.0);
+        Assert.assertEquals(2.5, sortedList.peekLast(), 0.0);
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.egls.server.utils.structure;
+
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-19 02:45]
+ */
+public class TestTieredSortedList {
+
+    @Test
+    public void test0() {
+        TieredSortedList<Integer> sortedList = new TieredSortedList<>(4, null);
+        Assert.assertNull(sortedList.peekFirst());
+        Assert.assertNull(sortedList.pollLast());
+        for (int i = 0; i < 20; i++) {
+            sortedList.add((i * 7) % 20);
+        }
+        Assert.assertEquals(20, sortedList.size());
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(new Integer(i), sortedList.get(i));
+            Assert.assertEquals(i, sortedList.rankOf(i));
+            Assert.assertEquals(19 - i, sortedList.lastRankOf(i));
+        }
+        Assert.assertEquals(-1, sortedList.indexOf(20));
+        Assert.assertEquals(new Integer(0), sortedList.pollFirst());
+        Assert.assertEquals(new Integer(19), sortedList.pollLast());
+        Assert.assertEquals(new Integer(1), sortedList.peekFirst());
+        Assert.assertEquals(new Integer(18), sortedList.peekLast());
+        Assert.assertTrue(sortedList.remove(new Integer(10)));
+        Assert.assertFalse(sortedList.remove(new Integer(10)));
+        Assert.assertEquals(17, sortedList.size());
+
+        sortedList.clear();
+        Assert.assertTrue(sortedList.isEmpty());
+        sortedList.add(1);
+        Assert.assertEquals(new Integer(1), sortedList.get(0));
+    }
+
+    @Test
+    public void test1() {
+        TieredSortedList<Integer> sortedList = new TieredSortedList<>(8, null);
+        for (int i = 0; i <= 50; i++) {
+            sortedList.add(i);
+        }
+        Iterator<Integer> itr = sortedList.iterator();
+        while (itr.hasNext()) {
+            Integer integer = itr.next();
+            if (integer % 5 == 0) {
+                itr.remove();
+            }
+        }
+        Assert.assertEquals(40, sortedList.size());
+        int expected = 1;
+        for (Integer integer : sortedList) {
+            if (expected % 5 == 0) {
+                expected++;
+            }
+            Assert.assertEquals(new Integer(expected++), integer);
+        }
+        try {
+            for (Integer integer : sortedList) {
+                sortedList.add(integer);
+            }
+            Assert.fail();
+        } catch (ConcurrentModificationException ignore) {
+        }
+    }
+
+    @Test
+    public void test2() {
+        //比较结果相等但是不equals的元素
+        TieredSortedList<String> sortedList = new TieredSortedList<>(4, Comparator.comparingInt(String::length));
+        String[] strings = {"a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "aa", "bb"};
+        for (String string : strings) {
+            sortedList.add(string);
+        }
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(strings[i], sortedList.get(i));
+            Assert.assertEquals(i, sortedList.indexOf(strings[i]));
+            Assert.assertEquals(i, sortedList.lastIndexOf(strings[i]));
+        }
+        Assert.assertEquals(-1, sortedList.indexOf("z"));
+        Assert.assertEquals(-1, sortedList.lastIndexOf("z"));
+        Assert.assertEquals(11, sortedList.indexOf("bb"));
+        sortedList.add("a");
+        Assert.assertEquals(0, sortedList.indexOf("a"));
+        Assert.assertEquals(10, sortedList.lastIndexOf("a"));
+    }
+
+    @Test
+    public void test3() {
+        Random random = new Random(0);
+        TieredSortedList<Integer> sortedList = new TieredSortedList<>(16, null);
+        SortedList<Integer> reference = new SortedList<>();
+        for (int round = 0; round < 20000; round++) {
+            int op = random.nextInt(10);
+            if (op < 6 || reference.isEmpty()) {
+                Integer value = random.nextInt(500);
+                sortedList.add(value);
+                reference.add(value);
+            } else if (op < 8) {
+                int index = random.nextInt(reference.size());
+                Assert.assertEquals(reference.remove(index), sortedList.remove(index));
+            } else {
+                Integer value = random.nextInt(500);
+                boolean contains = reference.contains(value);
+                Assert.assertEquals(contains, sortedList.remove(value));
+                if (contains) {
+                    reference.remove(value);
+                }
+            }
+            if (round % 1000 == 0) {
+                Assert.assertArrayEquals(reference.toArray(), sortedList.toArray());
+            }
+        }
+        Assert.assertArrayEquals(reference.toArray(), sortedList.toArray());
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals(reference.indexOf(i) >= 0, sortedList.indexOf(i) >= 0);
+            if (sortedList.contains(i)) {
+                Assert.assertEquals(new Integer(i), sortedList.get(sortedList.indexOf(i)));
+                Assert.assertEquals(new Integer(i), sortedList.get(sortedList.lastIndexOf(i)));
+            }
+        }
+    }
+
+    @Test
+    public void test4() {
+        Random random = new Random(1);
+        TieredSortedList<Integer> sortedList = new TieredSortedList<>(16, null);
+        List<Integer> expected = new ArrayList<>();
+        for (int round = 0; round < 5; round++) {
+            Integer[] batch = new Integer[random.nextInt(200)];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = random.nextInt(1000);
+            }
+            sortedList.addAll(batch);
+            expected.addAll(Arrays.asList(batch));
+            List<Integer> small = Arrays.asList(random.nextInt(1000), random.nextInt(1000));
+            sortedList.addAll(small);
+            expected.addAll(small);
+        }
+        Collections.sort(expected);
+        Assert.assertArrayEquals(expected.toArray(), sortedList.toArray());
+        Assert.assertArrayEquals(expected.toArray(new Integer[0]), sortedList.toArray(new Integer[0]));
+
+        List<Integer> removing = new ArrayList<>();
+        for (int i = 0; i < 1000; i += 3) {
+            removing.add(i);
+        }
+        Assert.assertTrue(sortedList.removeAll(removing));
+        Assert.assertFalse(sortedList.removeAll(removing));
+        expected.removeAll(removing);
+        Assert.assertArrayEquals(expected.toArray(), sortedList.toArray());
+        sortedList.add(0);
+        Assert.assertEquals(new Integer(0), sortedList.peekFirst());
+    }
+
+}
@@ -1,6 +1,14 @@
 package com.egls.server.utils.task.period;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.egls.server.utils.concurrent.CommonThreadPoolExecutor;
 import com.egls.server.utils.date.DateTimeUnit;
+import com.egls.server.utils.date.ManualClock;
 import com.egls.server.utils.units.TimeUnitsConst;
 import org.junit.Assert;
 import org.junit.Test;
@@ -178,4 +186,172 @@ public class TestPeriodicTask {
 
     }
 
+    @Test
+    public void test3() throws InterruptedException {
+        final PeriodicTaskManager periodicTaskManager = new PeriodicTaskManager(true, WARNING);
+        int[] array = new int[1];
+        final PeriodicTask periodicTask = new PeriodicTask() {
+            @Override
+            public void doPeriodicTask() {
+                array[0] = array[0] + 1;
+            }
+
+            @Override
+            public DateTimeUnit getDateTimeUnit() {
+                return DateTimeUnit.SECOND;
+            }
+        };
+        //重复添加的任务只会被执行一次
+        for (int i = 0; i < 3; i++) {
+            periodicTaskManager.addTask(periodicTask);
+        }
+
+        for (int i = 0; i < 150; i++) {
+            Thread.sleep(10L);
+            periodicTaskManager.tick();
+        }
+        Assert.assertTrue(array[0] >= 1);
+        Assert.assertTrue(array[0] <= 2);
+    }
+
+    @Test
+    public void test4() throws InterruptedException {
+        final ExecutorService executorService = new CommonThreadPoolExecutor(4, "TestPeriodicTask");
+        final PeriodicTaskManager periodicTaskManager = new PeriodicTaskManager(true, WARNING, executorService, true);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger[] counters = new AtomicInteger[]{new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+        for (int i = 0; i < counters.length; i++) {
+            final AtomicInteger counter = counters[i];
+            final boolean shared = i < 2;
+            periodicTaskManager.addTask(new PeriodicTask() {
+                @Override
+                public void doPeriodicTask() {
+                    if (shared) {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    }
+                    try {
+                        Thread.sleep(50L);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (shared) {
+                        running.decrementAndGet();
+                    }
+                    counter.incrementAndGet();
+                }
+
+                @Override
+                public DateTimeUnit getDateTimeUnit() {
+                    return DateTimeUnit.SECOND;
+                }
+
+                @Override
+                public Object getAffinityKey() {
+                    return shared ? "shared" : null;
+                }
+            });
+        }
+
+        for (int i = 0; i < 250; i++) {
+            Thread.sleep(10L);
+            periodicTaskManager.tick();
+        }
+        executorService.shutdown();
+
+        //亲和键相同的任务不会同时运行
+        Assert.assertEquals(1, maxRunning.get());
+        for (AtomicInteger counter : counters) {
+            Assert.assertTrue(counter.get() >= 2);
+        }
+    }
+
+    @Test
+    public void test5() {
+        //2025-12-31 23:59:30 星期三
+        final long start = LocalDateTime.of(2025, 12, 31, 23, 59, 30).toInstant(ZoneOffset.UTC).toEpochMilli();
+        final ManualClock clock = new ManualClock(start, ZoneOffset.UTC);
+        final PeriodicTaskManager periodicTaskManager = new PeriodicTaskManager(true, WARNING, clock);
+        final int[] array = new int[DateTimeUnit.values().length];
+        for (DateTimeUnit dateTimeUnit : DateTimeUnit.values()) {
+            periodicTaskManager.addTask(new PeriodicTask() {
+                @Override
+                public void doPeriodicTask() {
+                    array[dateTimeUnit.ordinal()]++;
+                }
+
+                @Override
+                public DateTimeUnit getDateTimeUnit() {
+                    return dateTimeUnit;
+                }
+            });
+        }
+        periodicTaskManager.tick();
+
+        for (int i = 0; i < 90; i++) {
+            clock.advance(Duration.ofSeconds(1));
+            periodicTaskManager.tick();
+            //同一秒内的tick不会重复执行
+            periodicTaskManager.tick();
+        }
+        Assert.assertArrayEquals(new int[]{90, 2, 1, 1, 0, 1, 1}, array);
+
+        //跳到2026-01-11,跨过了星期一
+        clock.advance(Duration.ofDays(10));
+        periodicTaskManager.tick();
+        Assert.assertArrayEquals(new int[]{91, 3, 2, 2, 1, 1, 1}, array);
+
+        //时间回拨同样认为发生了变化
+        clock.advance(Duration.ofDays(-10));
+        periodicTaskManager.tick();
+        Assert.assertArrayEquals(new int[]{92, 4, 3, 3, 2, 1, 1}, array);
+    }
+
+    @Test
+    public void test6() {
+        //并行模式下,执行完毕需要移除的任务马上被移除,不需要等到它的时间单位下一次变化
+        final long start = LocalDateTime.of(2026, 1, 15, 12, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+        final ManualClock clock = new ManualClock(start, ZoneOffset.UTC);
+        final ExecutorService executorService = new CommonThreadPoolExecutor(2, "TestPeriodicTask");
+        final PeriodicTaskManager periodicTaskManager = new PeriodicTaskManager(true, WARNING, executorService, true, clock);
+        final AtomicInteger counter = new AtomicInteger();
+        final PeriodicTask periodicTask = new PeriodicTask() {
+            @Override
+            public void doPeriodicTask() {
+                counter.incrementAndGet();
+            }
+
+            @Override
+            public DateTimeUnit getDateTimeUnit() {
+                return DateTimeUnit.MONTH;
+            }
+
+            @Override
+            public boolean isDestroyable() {
+                return true;
+            }
+        };
+        try {
+            periodicTaskManager.addTask(periodicTask);
+            periodicTaskManager.tick();
+            Assert.assertEquals(1, periodicTaskManager.getLastDrainedTaskCount());
+
+            //2026-02-01,执行之后被移除,同一个任务对象可以马上重新添加
+            clock.setMillis(LocalDateTime.of(2026, 2, 1, 0, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli());
+            periodicTaskManager.tick();
+            Assert.assertEquals(1, counter.get());
+            periodicTaskManager.addTask(periodicTask);
+            clock.advance(Duration.ofSeconds(1));
+            periodicTaskManager.tick();
+            Assert.assertEquals(1, periodicTaskManager.getLastDrainedTaskCount());
+
+            //2026-03-01,重新添加的任务再次执行
+            clock.setMillis(LocalDateTime.of(2026, 3, 1, 0, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli());
+            periodicTaskManager.tick();
+            Assert.assertEquals(2, counter.get());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
 }
@@ -46,6 +46,23 @@ public class TestScheduledTask {
         Assert.assertEquals(TEST, 1);
     }
 
+    @Test
+    public void test2() {
+        init();
+
+        final ScheduledTaskManager scheduledTaskManager = new ScheduledTaskManager(WARNING);
+        for (int i = 0; i < 10; i++) {
+            scheduledTaskManager.schedule(1000, () -> TEST = 1);
+        }
+        Assert.assertEquals(10, scheduledTaskManager.getPendingTaskCount());
+        scheduledTaskManager.tick();
+        Assert.assertEquals(0, scheduledTaskManager.getPendingTaskCount());
+        Assert.assertEquals(10, scheduledTaskManager.getLastDrainedTaskCount());
+        scheduledTaskManager.tick();
+        Assert.assertEquals(0, scheduledTaskManager.getLastDrainedTaskCount());
+        Assert.assertEquals(0, TEST);
+    }
+
     private void init() {
         TEST = 0;
     }
@@ -0,0 +1,117 @@
+package com.egls.server.utils.task.schedule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author mayer - [Created on 2026-10-18 11:05]
+ */
+public class TestTimingWheelScheduledTask {
+
+    private static final long WARNING = 20L;
+
+    private static volatile int TEST = 0;
+
+    @Test
+    public void test0() throws InterruptedException {
+        init();
+
+        final TimingWheelScheduledTaskManager scheduledTaskManager = new TimingWheelScheduledTaskManager(WARNING);
+        final ScheduledTaskHandle handle = scheduledTaskManager.schedule(() -> TEST = 1);
+        for (int i = 0; i < 20; i++) {
+            Thread.sleep(10L);
+            scheduledTaskManager.tick();
+        }
+        Assert.assertEquals(1, TEST);
+        Assert.assertTrue(handle.isExpired());
+        Assert.assertFalse(handle.cancel());
+        Assert.assertEquals(0, scheduledTaskManager.size());
+    }
+
+    @Test
+    public void test1() throws InterruptedException {
+        init();
+
+        final TimingWheelScheduledTaskManager scheduledTaskManager = new TimingWheelScheduledTaskManager(WARNING);
+        scheduledTaskManager.schedule(100, () -> TEST = 1);
+
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(10L);
+            scheduledTaskManager.tick();
+        }
+        Assert.assertEquals(0, TEST);
+
+        for (int i = 0; i < 6; i++) {
+            Thread.sleep(10L);
+            scheduledTaskManager.tick();
+        }
+
+        Assert.assertEquals(1, TEST);
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        init();
+
+        final TimingWheelScheduledTaskManager scheduledTaskManager = new TimingWheelScheduledTaskManager(WARNING);
+        final ScheduledTaskHandle handle1 = scheduledTaskManager.schedule(50, () -> TEST += 1);
+        final ScheduledTaskHandle handle2 = scheduledTaskManager.schedule(50, () -> TEST += 10);
+        //还没有被tick接收时取消
+        Assert.assertTrue(handle1.cancel());
+        Assert.assertFalse(handle1.cancel());
+        scheduledTaskManager.tick();
+        Assert.assertEquals(1, scheduledTaskManager.size());
+
+        //已经进入时间轮之后取消
+        final ScheduledTaskHandle handle3 = scheduledTaskManager.schedule(50, () -> TEST += 100);
+        scheduledTaskManager.tick();
+        Assert.assertEquals(2, scheduledTaskManager.size());
+        Assert.assertTrue(handle3.cancel());
+
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(10L);
+            scheduledTaskManager.tick();
+        }
+
+        Assert.assertEquals(10, TEST);
+        Assert.assertTrue(handle1.isCancelled());
+        Assert.assertTrue(handle2.isExpired());
+        Assert.assertTrue(handle3.isCancelled());
+        Assert.assertEquals(0, scheduledTaskManager.size());
+    }
+
+    @Test
+    public void testCascade() throws InterruptedException {
+        //两层,每层4格.第0层4毫秒,第1层16毫秒,超过16毫秒的任务需要多次降级
+        final TimingWheelScheduledTaskManager scheduledTaskManager = new TimingWheelScheduledTaskManager(WARNING, 1L, 3, 4);
+        final List<Long> executed = Collections.synchronizedList(new ArrayList<>());
+        final long[] delays = new long[]{120, 3, 40, 17, 0, 5, 64, 9};
+        for (long delay : delays) {
+            final long executeTime = System.currentTimeMillis() + delay;
+            scheduledTaskManager.schedule(delay, () -> {
+                Assert.assertTrue(System.currentTimeMillis() >= executeTime);
+                executed.add(delay);
+            });
+        }
+
+        final long millis = System.currentTimeMillis();
+        while (System.currentTimeMillis() - millis < 200L) {
+            Thread.sleep(1L);
+            scheduledTaskManager.tick();
+        }
+
+        Assert.assertEquals(delays.length, executed.size());
+        for (int i = 1; i < executed.size(); i++) {
+            Assert.assertTrue(executed.get(i - 1) <= executed.get(i));
+        }
+    }
+
+    private void init() {
+        TEST = 0;
+    }
+
+}